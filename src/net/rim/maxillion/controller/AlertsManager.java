@@ -6,6 +6,11 @@
  * @(#)AlertsManager.java   1.4 2009-10-03
  * @(#)AlertsManager.java   1.5 2010-02-27
  * @(#)AlertsManager.java   1.6 2010-04-27
+ * @(#)AlertsManager.java   1.7 2026-10-16
+ * @(#)AlertsManager.java   1.8 2026-10-16
+ * @(#)AlertsManager.java   1.9 2026-10-16
+ * @(#)AlertsManager.java   2.0 2026-10-16
+ * @(#)AlertsManager.java   2.1 2026-10-16
  *
  * Copyright 2009 Exes Technologies. All Rights Reserved.
  *
@@ -46,9 +51,13 @@ import net.rim.device.api.system.GlobalEventListener;
 import net.rim.device.api.system.RuntimeStore;
 import net.rim.device.api.util.DateTimeUtilities;
 import net.rim.maxillion.model.calculator.Calculator;
+import net.rim.maxillion.model.calculator.PreparedLocation;
+import net.rim.maxillion.model.calculator.utils.ElevationModel;
 import net.rim.maxillion.model.calculator.utils.GeoParameters;
+import net.rim.maxillion.model.calculator.utils.SalatConstants;
 import net.rim.maxillion.model.calculator.utils.TimeCriticalEvent;
-import net.rim.maxillion.model.calculator.utils.time.TimeWrapper;
+import net.rim.maxillion.model.calculator.utils.time.DaySchedule;
+import net.rim.maxillion.model.calculator.utils.time.TimeTable;
 import net.rim.maxillion.subscription.controller.DatabaseContainer;
 
 
@@ -66,23 +75,32 @@ import net.rim.maxillion.subscription.controller.DatabaseContainer;
  * @version 1.50 2010-02-27 This is now a Thread subclass rather than Runnable.
  * @version 1.60 2010-04-27 Removed all logging. Initialization and set-up is now removed from this class.
  * TimeFormatter reference removed.
+ * @version 1.70 2026-10-16 The prayer times are now kept in a TimeTable.
+ * @version 1.80 2026-10-16 The next event is found through a chronological DaySchedule.
+ * @version 1.90 2026-10-16 The location is now prepared once rather than for every calculation.
+ * @version 2.00 2026-10-16 The heights of the location above its horizons are now looked up from
+ * the bundled elevation model when it is prepared.
+ * @version 2.10 2026-10-16 The location is now prepared by the alerts thread when it starts rather than
+ * when the class is loaded, so that the elevation model is not read on the event thread. Any failure to
+ * read it keeps the default heights.
  * @since MaxillionPrayers 2.0
  */
 class AlertsManager extends Application implements Runnable, GlobalEventListener
 {
-    /** The geographic location to calculate the prayer times for. */
-    private static final GeoParameters geoParams = new GeoParameters(45.3560, -75.7579, -5);
+    /** The path that the tiles of the bundled elevation model are found under. */
+    private static final String ELEVATION_MODEL_ROOT = "/dem/";
 
-    /**
-     * 
-     */
-    private static final int NO_MORE_TIMES = -1;
+    /** The geographic location to calculate the prayer times for. */
+    private static final GeoParameters LOCATION = new GeoParameters(45.3560, -75.7579, -5);
 
     /** Is this thread active? */
     private boolean _active;
 
     private Thread _current;
 
+    /** The location prepared once by this thread so that its yearly values are kept. */
+    private PreparedLocation _location;
+
     private Notifier _daily;
 
     private Notifier _prayerly;
@@ -113,6 +131,30 @@ class AlertsManager extends Application implements Runnable, GlobalEventListener
 
 
 
+    /**
+     * Finds the heights of the specified location above its horizons from the bundled elevation
+     * model. This reads the tiles of the location, so it is only done once by this thread when
+     * it starts and never on the event thread. A location whose tiles are not bundled, or cannot
+     * be read for any reason, keeps the default heights.
+     * @param g The location.
+     * @return The location with its horizon heights set.
+     */
+    private static GeoParameters withHorizonHeights(GeoParameters g)
+    {
+        GeoParameters result = g;
+
+        try {
+            result = new ElevationModel(ELEVATION_MODEL_ROOT, ElevationModel.SRTM3_SAMPLES).withHorizonHeights(g);
+        }
+
+        catch (Exception ex) // a damaged or unreadable tile, so the default heights are kept
+        {
+        }
+
+        return result;
+    }
+
+
     /* (non-Javadoc)
      * @see net.rim.device.api.system.GlobalEventListener#eventOccurred(long, int, int, java.lang.Object, java.lang.Object)
      */
@@ -142,6 +184,7 @@ class AlertsManager extends Application implements Runnable, GlobalEventListener
     public final void run()
     {
         _active = true;
+        _location = Calculator.getInstance().prepare( withHorizonHeights(LOCATION), SalatConstants.ISNA_METHOD );
 
         while (_active)
         {
@@ -149,10 +192,11 @@ class AlertsManager extends Application implements Runnable, GlobalEventListener
                 Date date = new Date();
                 long dateMS = date.getTime();
 
-                TimeWrapper[] times = Calculator.getInstance().calculate(geoParams, date); // the salat timings for today
-                byte nextPrayerIndex = nextPrayerIndex(times, dateMS);
+                TimeTable times = _location.calculateRange(date, 1); // the salat timings for today
+                DaySchedule schedule = new DaySchedule(times, Notifier.TODAY);
+                int next = schedule.nextEvent(dateMS);
 
-                if (nextPrayerIndex == NO_MORE_TIMES) // no more prayer times left for today so just sleep til the next one
+                if (next == DaySchedule.NONE) // no more prayer times left for today so just sleep til the next one
                 {
                     Calendar midnight = DateTimeUtilities.getDate(DateTimeUtilities.ONEDAY);
                     dateMS = midnight.getTime().getTime()-dateMS; // sleep until that time when you can wake up and recalculate for that day 
@@ -160,9 +204,9 @@ class AlertsManager extends Application implements Runnable, GlobalEventListener
 
                 else
                 {
-                    _daily.notifySubscribers(dateMS, nextPrayerIndex, times);
-                    _prayerly.notifySubscribers(dateMS, nextPrayerIndex, times);
-                    dateMS = times[times.length-1].getTime()-dateMS;
+                    _daily.notifySubscribers(dateMS, next, schedule);
+                    _prayerly.notifySubscribers(dateMS, next, schedule);
+                    dateMS = schedule.getTimeOf(TimeCriticalEvent.HalfNight)-dateMS;
                 }
 
                 Thread.sleep(dateMS);
@@ -185,28 +229,4 @@ class AlertsManager extends Application implements Runnable, GlobalEventListener
         Application am = new AlertsManager();
         am.enterEventDispatcher();
     }
-
-
-    /**
-     * Gets the times for the prayers/day characteristics that have not yet happened.
-     * @param results Contains the actual prayer time data.
-     * @param dateMS The time to compare the the calculated prayer times with
-     * to determine whether they have passed or not.
-     * @return The times for the prayers that have not yet passed.
-     */
-    private static final byte nextPrayerIndex(TimeWrapper[] results, long dateMS)
-    {
-        byte nextPrayer = NO_MORE_TIMES;
-
-        for (byte prayer = TimeCriticalEvent.Fajr; prayer <= TimeCriticalEvent.HalfNight; prayer++)
-        {
-            if ( results[prayer].getTime() >= dateMS )
-            {
-                nextPrayer = prayer;
-                break;
-            }
-        }
-
-        return nextPrayer;
-    }
 }
\ No newline at end of file
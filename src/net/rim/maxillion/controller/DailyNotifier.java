@@ -7,7 +7,8 @@
 package net.rim.maxillion.controller;
 
 import net.rim.device.api.util.DateTimeUtilities;
-import net.rim.maxillion.model.calculator.utils.time.TimeWrapper;
+import net.rim.maxillion.model.calculator.utils.time.DaySchedule;
+import net.rim.maxillion.model.calculator.utils.time.TimeStrings;
 import net.rim.maxillion.subscription.controller.DatabaseContainer;
 
 /**
@@ -31,21 +32,22 @@ class DailyNotifier extends Notifier
     }
 
     /* (non-Javadoc)
-     * @see net.rim.maxillion.controller.Notifier#notifyDailySubscribers(long, byte, net.rim.maxillion.model.calculator.utils.time.TimeWrapper[])
+     * @see net.rim.maxillion.controller.Notifier#notifySubscribers(long, int, net.rim.maxillion.model.calculator.utils.time.DaySchedule)
      */
-    public void notifySubscribers(long dateMS, byte nextPrayerIndex, TimeWrapper[] times)
+    public void notifySubscribers(long dateMS, int next, DaySchedule schedule)
     {
         StringBuffer sb = new StringBuffer();
-        long firstTime = times[nextPrayerIndex].getTime();
+        TimeStrings strings = TimeStrings.getInstance();
+        long firstTime = schedule.getTime(next);
 
-        for (; nextPrayerIndex < times.length; nextPrayerIndex++)
+        for (int i = next; i != DaySchedule.NONE; i = schedule.followingEvent(i, DaySchedule.ALL_EVENTS))
         {
-            sb.append( NAMES.getName(nextPrayerIndex) );
-            sb.append(": ");
-            sb.append( times[nextPrayerIndex].toString() );
-
-            if (nextPrayerIndex < times.length-1)
+            if (i > next)
                 sb.append("\n");
+
+            sb.append( NAMES.getName( schedule.getEvent(i) ) );
+            sb.append(": ");
+            sb.append( strings.formatTime( schedule.getTime(i) ) );
         }
 
         if ( !DateTimeUtilities.isSameDate(firstTime, _lastCommit) )
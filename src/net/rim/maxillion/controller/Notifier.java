@@ -12,7 +12,8 @@ import net.rim.device.api.collection.util.UnsortedReadableList;
 import net.rim.device.api.system.PersistentObject;
 import net.rim.device.api.system.PersistentStore;
 import net.rim.maxillion.model.calculator.utils.TimeCriticalEventNames;
-import net.rim.maxillion.model.calculator.utils.time.TimeWrapper;
+import net.rim.maxillion.model.calculator.utils.time.DaySchedule;
+import net.rim.maxillion.model.calculator.utils.time.TimeStrings;
 import net.rim.maxillion.subscription.controller.DatabaseContainer;
 
 /**
@@ -32,6 +33,9 @@ abstract class Notifier
 
     protected static final TimeCriticalEventNames NAMES = TimeCriticalEventNames.getInstance();
 
+    /** The index of the current day in the calculated time table. */
+    protected static final int TODAY = 0;
+
     protected DatabaseContainer _app;
     protected long _lastCommit;
 
@@ -76,7 +80,7 @@ abstract class Notifier
 
                 if ( all.size() > 0 ) // protect against duplicate sending in case device rebooted
                 {
-                    _app.getEmailBoundary().sendMessage( all, new TimeWrapper(date).getDate(), content );
+                    _app.getEmailBoundary().sendMessage( all, TimeStrings.getInstance().formatDate(date), content );
                     _lastCommit = date;
 
                     _po.setContents( new Long(_lastCommit) );
@@ -91,7 +95,7 @@ abstract class Notifier
         }
     }
 
-    protected abstract void notifySubscribers(long dateMS, byte nextPrayerIndex, TimeWrapper[] times);
+    protected abstract void notifySubscribers(long dateMS, int next, DaySchedule schedule);
 
     /**
      * Calculates the delay to use before notifying the subscribers. If the event is to
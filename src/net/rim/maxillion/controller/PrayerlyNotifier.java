@@ -6,8 +6,8 @@
  */
 package net.rim.maxillion.controller;
 
-import net.rim.maxillion.model.calculator.utils.TimeCriticalEvent;
-import net.rim.maxillion.model.calculator.utils.time.TimeWrapper;
+import net.rim.maxillion.model.calculator.utils.time.DaySchedule;
+import net.rim.maxillion.model.calculator.utils.time.TimeStrings;
 import net.rim.maxillion.subscription.controller.DatabaseContainer;
 
 /**
@@ -31,22 +31,20 @@ class PrayerlyNotifier extends Notifier
     }
 
     /* (non-Javadoc)
-     * @see net.rim.maxillion.controller.Notifier#notifyDailySubscribers(long, byte, net.rim.maxillion.model.calculator.utils.time.TimeWrapper[])
+     * @see net.rim.maxillion.controller.Notifier#notifySubscribers(long, int, net.rim.maxillion.model.calculator.utils.time.DaySchedule)
      */
-    public void notifySubscribers(long dateMS, byte nextPrayerIndex, TimeWrapper[] times)
+    public void notifySubscribers(long dateMS, int next, DaySchedule schedule)
     {
-        for (int i = nextPrayerIndex; i < times.length; i++)
+        TimeStrings strings = TimeStrings.getInstance();
+
+        for (int i = schedule.followingEvent(next-1, DaySchedule.PRAYERS); i != DaySchedule.NONE; i = schedule.followingEvent(i, DaySchedule.PRAYERS)) // starting with the next event if it is a prayer
         {
-            if ( (i != TimeCriticalEvent.Sunrise) && (i != TimeCriticalEvent.HalfNight) )
-            {
-                TimeWrapper current = times[i];
-                String prayer = NAMES.getName(i);
-                String message = prayer+" at: "+current.toString();
-                long salatTime = current.getTime();
+            String prayer = NAMES.getName( schedule.getEvent(i) );
+            long salatTime = schedule.getTime(i);
+            String message = prayer+" at: "+strings.formatTime(salatTime);
 
-                if ( (salatTime-_lastCommit) > ADVANCE_TIME )
-                    createEmailTask( dateMS, message, calculateScheduleDifference(salatTime, dateMS), DatabaseContainer.TABLE_PRAYERLY );
-            }
+            if ( (salatTime-_lastCommit) > ADVANCE_TIME )
+                createEmailTask( dateMS, message, calculateScheduleDifference(salatTime, dateMS), DatabaseContainer.TABLE_PRAYERLY );
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,376 @@
+/*
+ * @(#)BatchCalculator.java  1.0 2026-10-16
+ * @(#)BatchCalculator.java  1.1 2026-10-16
+ * @(#)BatchCalculator.java  1.2 2026-10-16
+ * @(#)BatchCalculator.java  1.3 2026-10-16
+ * @(#)BatchCalculator.java  1.4 2026-10-16
+ *
+ * Copyright 2009 Exes Technologies. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   - Redistributions of source code must retain the above copyright
+ *     notice, this list of conditions and the following disclaimer.
+ *
+ *   - Redistributions in binary form must reproduce the above copyright
+ *     notice, this list of conditions and the following disclaimer in the
+ *     documentation and/or other materials provided with the distribution.
+ *
+ *   - Neither the name of Exes Technologies nor the names of its
+ *     contributors may be used to endorse or promote products derived
+ *     from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.rim.maxillion.model.calculator;
+
+import java.util.Date;
+
+import net.rim.device.api.util.DateTimeUtilities;
+import net.rim.maxillion.model.calculator.utils.GeoParameters;
+import net.rim.maxillion.model.calculator.utils.SalatConstants;
+import net.rim.maxillion.model.calculator.utils.TimeCriticalEvent;
+import net.rim.maxillion.model.calculator.utils.time.DaylightSavingsZone;
+import net.rim.maxillion.model.calculator.utils.time.EpochDay;
+import net.rim.maxillion.model.calculator.utils.time.TimeFormatter;
+import net.rim.maxillion.model.calculator.utils.time.TimeTable;
+
+
+/**
+ * Calculates the prayer times of many locations for the same date. The locations are given as
+ * parallel arrays rather than GeoParameters objects, and each step of the calculation is done
+ * for every location in a single loop over those arrays. The position of the sun is only
+ * looked up once for each time zone.<br><br>
+ *
+ * Locations that are not problematic (below 48 degrees, where the sun rises and sets normally
+ * and no height correction applies) are calculated entirely by these loops. The rest need the
+ * high latitude adjustments and are handed to a CalculationWorkspace. The half-night is taken
+ * between the actual Maghrib and Fajr times and given on the clock in effect at that time, as
+ * the workspace does, so the results are identical to those of Calculator.calculate() on the eve
+ * of a daylight savings transition as on any other day.<br><br>
+ *
+ * An instance of this class is not thread-safe. Each thread should use its own batch calculator.
+ *
+ * @author Ragaeeb Haq
+ * @version 1.00 2026-10-16 Initial submission.
+ * @version 1.10 2026-10-16 The trigonometric functions are now taken from the current Trigonometry
+ * provider.
+ * @version 1.20 2026-10-16 Each location may now observe its own daylight savings zone.
+ * @version 1.30 2026-10-16 Days are now found with EpochDay rather than a Calendar.
+ * @version 1.40 2026-10-16 The half-night is now taken between the actual Maghrib and Fajr times, so
+ * it no longer differs from Calculator.calculate() on the eve of a daylight savings transition.
+ * @since MaxillionPrayers 3.0
+ */
+final class BatchCalculator
+{
+    /** The number of milliseconds in an hour. */
+    private static final int MILLISECONDS_IN_AN_HOUR = 3600000;
+
+    /** The cos value of the declination of the sun for each location. */
+    private double[] cosDeclinations;
+
+    /** The declination of the sun for each location (in radians). */
+    private double[] declinations;
+
+    /** The position of the sun for the time zone last looked up. */
+    private Ephemeris ephemeris;
+
+    /** The number of hours given by the equation of time for each location. */
+    private double[] hours;
+
+    /** Whether each location is problematic and must be calculated by the workspace. */
+    private boolean[] problematic;
+
+    /** The sin value of the declination of the sun for each location. */
+    private double[] sinDeclinations;
+
+    /** The time zone shift of each location on the day last looked up. */
+    private double[] timeShifts;
+
+    /** The time zone shift of each location on the requested day, kept for the half-night. */
+    private double[] todayShifts;
+
+    /** Calculates the problematic locations. */
+    private CalculationWorkspace workspace;
+
+
+    /**
+     * Creates a calculator that can be used to calculate batches of locations repeatedly.
+     */
+    public BatchCalculator()
+    {
+        this.ephemeris = new Ephemeris();
+        this.problematic = new boolean[0];
+        this.cosDeclinations = new double[0];
+        this.declinations = new double[0];
+        this.hours = new double[0];
+        this.sinDeclinations = new double[0];
+        this.timeShifts = new double[0];
+        this.todayShifts = new double[0];
+    }
+
+
+    /**
+     * Calculates the prayer times of the specified locations for the specified date.
+     * @param latitudes The latitude of each location (in degrees).
+     * @param longitudes The longitude of each location (in degrees).
+     * @param timeZones The time zone of each location.
+     * @param zones The daylight savings rules observed at each location, or null if every
+     * location uses the default zone.
+     * @param requestedDate The specific date to calculate the prayer times for.
+     * @param result The array to store the calculated times in. The times of the location at
+     * index i are stored in seconds since the start of the day starting at
+     * i*TimeTable.EVENTS_PER_DAY, indexed by their TimeCriticalEvent value.
+     */
+    public void calculate(double[] latitudes, double[] longitudes, double[] timeZones, DaylightSavingsZone[] zones, Date requestedDate, int[] result)
+    {
+        int n = latitudes.length;
+        ensureCapacity(n);
+
+        long time = requestedDate.getTime();
+        int day = EpochDay.getLocalDay(time);
+        double julianDate = CalendarConversion.calculateJulianEpoch(day);
+        long noon = EpochDay.getNoon(time);
+        gatherEphemerides(julianDate, time, timeZones, zones, n);
+        computeToday(latitudes, longitudes, n, result);
+
+        double[] shifts = todayShifts;
+        todayShifts = timeShifts; // today's shifts give the clock that Maghrib is on
+        timeShifts = shifts;
+
+        time = noon+DateTimeUtilities.ONEDAY; // tomorrow's Fajr time is needed for the half-night
+        julianDate = CalendarConversion.calculateJulianEpoch( EpochDay.getLocalDay(time) );
+        gatherEphemerides(julianDate, time, timeZones, zones, n);
+        computeIshaEnd(latitudes, longitudes, timeZones, zones, day, n, result);
+
+        for (int i = 0; i < n; i++)
+        {
+            if (problematic[i])
+            {
+                if (workspace == null)
+                    workspace = new CalculationWorkspace();
+
+                DaylightSavingsZone zone = (zones == null) ? DaylightSavingsZone.getDefault() : zones[i];
+                int[] times = workspace.calculate( new GeoParameters(latitudes[i], longitudes[i], timeZones[i], zone), requestedDate );
+                System.arraycopy( times, 0, result, i*TimeTable.EVENTS_PER_DAY, TimeTable.EVENTS_PER_DAY );
+            }
+        }
+    }
+
+
+    /**
+     * Computes the half-night of every location that is not problematic from the Maghrib time
+     * already computed and the Fajr time of the following day. A location is marked as
+     * problematic if the following day is. As in CalculationWorkspace, the middle is taken
+     * between the actual times, since on the eve of a daylight savings transition the two are on
+     * clocks that differ by the change, and the result is given on the clock in effect at that
+     * time.
+     * @param latitudes The latitude of each location (in degrees).
+     * @param longitudes The longitude of each location (in degrees).
+     * @param timeZones The time zone of each location.
+     * @param zones The daylight savings rules observed at each location, or null if every
+     * location uses the default zone.
+     * @param day The requested day (in days since 1970-01-01).
+     * @param n The number of locations.
+     * @param result The array that today's times were stored in.
+     */
+    private void computeIshaEnd(double[] latitudes, double[] longitudes, double[] timeZones, DaylightSavingsZone[] zones, int day, int n, int[] result)
+    {
+        Trigonometry t = Trigonometry.getInstance();
+
+        double fajrAngle = -SalatConstants.ISNA_ANGLES.getFajrTwilightAngle();
+
+        for (int i = 0; i < n; i++)
+        {
+            if (!problematic[i])
+            {
+                double latitude = Math.toRadians(latitudes[i]);
+                double sinDec = sinDeclinations[i]*t.sin(latitude);
+                double cosDec = cosDeclinations[i]*t.cos(latitude);
+                double noon = SolarCalculatorFormulae.calculateNoonTime( -Math.toRadians(longitudes[i]), hours[i], timeShifts[i] );
+                double cH = HeightCorrector.calculateCH(SolarCalculatorFormulae.SUNRISE_ARC_ANGLE, sinDec, cosDec);
+                double H = SolarCalculatorFormulae.calculateH(cH);
+                double solarDifference = Math.abs( (noon+H)-(noon-H) );
+
+                boolean success = cH <= SolarCalculator.MAX_CH_VALUE;
+
+                problematic[i] = !success || (solarDifference <= 1) || (solarDifference >= 23)
+                        || HeightCorrector.correctionNeeded( success, latitude, SalatConstants.HEIGHT_DIFFERENCE_WEST, SalatConstants.HEIGHT_DIFFERENCE_EAST );
+
+                if (noon < 0)
+                    noon += TimeFormatter.TOTAL_HOURS_IN_A_DAY;
+
+                H = IslamicEventAdjustedTimes.computeH( HeightCorrector.calculateCH(fajrAngle, sinDec, cosDec) );
+                int base = i*TimeTable.EVENTS_PER_DAY;
+                long maghrib = EpochDay.toTime( day, result[base+TimeCriticalEvent.Maghrib], getOffset( todayShifts[i] ) );
+                long fajr = EpochDay.toTime( day+1, TimeFormatter.getSeconds(noon-H+SalatConstants.SAFETY_TIME, 0), getOffset( timeShifts[i] ) );
+                long middle = maghrib+(fajr-maghrib)/2;
+                DaylightSavingsZone zone = (zones == null) ? DaylightSavingsZone.getDefault() : zones[i];
+                long shift = (long)( ( timeZones[i]-zone.getStandardOffset() )*MILLISECONDS_IN_AN_HOUR );
+                int offset = getOffset( -( timeZones[i]+zone.getAdjustment(middle+shift) ) );
+
+                result[base+TimeCriticalEvent.HalfNight] = (int)( (middle-EpochDay.toTime(day, 0, offset))/EpochDay.MILLISECONDS_IN_A_SECOND );
+            }
+        }
+    }
+
+
+    /**
+     * Computes the prayer times of every location that is not problematic, and marks the
+     * locations that are. The half-night is not computed.
+     * @param latitudes The latitude of each location (in degrees).
+     * @param longitudes The longitude of each location (in degrees).
+     * @param n The number of locations.
+     * @param result The array to store the computed times in.
+     */
+    private void computeToday(double[] latitudes, double[] longitudes, int n, int[] result)
+    {
+        Trigonometry t = Trigonometry.getInstance();
+
+        double fajrAngle = -SalatConstants.ISNA_ANGLES.getFajrTwilightAngle();
+        double ishaTwilight = SalatConstants.ISNA_ANGLES.getIshaTwilightAngle();
+        double ishaInterval = SalatConstants.ISNA_INTERVALS.getIshaInterval();
+        int dhuhrInterval = (int)SalatConstants.ISNA_INTERVALS.getDhuhrInterval();
+        int maghribInterval = (int)SalatConstants.ISNA_INTERVALS.getMaghribInterval();
+
+        for (int i = 0; i < n; i++)
+        {
+            double latitude = Math.toRadians(latitudes[i]);
+            double sinDec = sinDeclinations[i]*t.sin(latitude);
+            double cosDec = cosDeclinations[i]*t.cos(latitude);
+            double noon = SolarCalculatorFormulae.calculateNoonTime( -Math.toRadians(longitudes[i]), hours[i], timeShifts[i] );
+            double cH = HeightCorrector.calculateCH(SolarCalculatorFormulae.SUNRISE_ARC_ANGLE, sinDec, cosDec);
+            double H = SolarCalculatorFormulae.calculateH(cH);
+            double sunrise = noon-H;
+            double sunset = noon+H;
+            double solarDifference = Math.abs(sunset-sunrise);
+            boolean success = cH <= SolarCalculator.MAX_CH_VALUE;
+
+            problematic[i] = !success || (solarDifference <= 1) || (solarDifference >= 23)
+                    || ( Math.abs(latitude) >= IslamicEventAdjustedTimes.FAJR_MAX_RADIANS )
+                    || HeightCorrector.correctionNeeded( success, latitude, SalatConstants.HEIGHT_DIFFERENCE_WEST, SalatConstants.HEIGHT_DIFFERENCE_EAST );
+
+            if (!problematic[i])
+            {
+                if (noon < 0)
+                    noon += TimeFormatter.TOTAL_HOURS_IN_A_DAY;
+
+                int base = i*TimeTable.EVENTS_PER_DAY;
+                double maghrib = sunset+SalatConstants.SAFETY_TIME;
+
+                result[base+TimeCriticalEvent.Sunrise] = TimeFormatter.getSeconds(sunrise, 0);
+                result[base+TimeCriticalEvent.Dhuhr] = TimeFormatter.getSeconds(noon+SalatConstants.SAFETY_TIME, dhuhrInterval);
+                result[base+TimeCriticalEvent.Maghrib] = TimeFormatter.getSeconds(maghrib, maghribInterval);
+
+                double act = IslamicEventAdjustedTimes.getActValue( SalatConstants.SHAFII_ASR_JURISTIC_SHADOW_RATIO, declinations[i]-latitude );
+                H = IslamicEventAdjustedTimes.getAsrH( HeightCorrector.calculateCH( t.atan(1.0/act), sinDec, cosDec ) );
+                result[base+TimeCriticalEvent.Asr] = TimeFormatter.getSeconds(noon+H+SalatConstants.SAFETY_TIME, 0);
+
+                H = IslamicEventAdjustedTimes.computeH( HeightCorrector.calculateCH(fajrAngle, sinDec, cosDec) );
+                result[base+TimeCriticalEvent.Fajr] = TimeFormatter.getSeconds(noon-H+SalatConstants.SAFETY_TIME, 0);
+
+                double isha = maghrib+ishaInterval;
+
+                if (ishaTwilight != 0)
+                    isha = noon + ( IslamicEventAdjustedTimes.computeH( HeightCorrector.calculateCH(-ishaTwilight, sinDec, cosDec) )+SalatConstants.SAFETY_TIME );
+
+                result[base+TimeCriticalEvent.Isha] = TimeFormatter.getSeconds( isha, (int)ishaInterval );
+            }
+        }
+    }
+
+
+    /**
+     * Makes sure that the arrays used for each location can hold the specified number of
+     * locations. They are only replaced when a larger batch than any before is calculated.
+     * @param n The number of locations.
+     */
+    private void ensureCapacity(int n)
+    {
+        if (problematic.length < n)
+        {
+            this.problematic = new boolean[n];
+            this.cosDeclinations = new double[n];
+            this.declinations = new double[n];
+            this.hours = new double[n];
+            this.sinDeclinations = new double[n];
+            this.timeShifts = new double[n];
+            this.todayShifts = new double[n];
+        }
+    }
+
+
+    /**
+     * Gets the offset of the clock of a location from Greenwich Mean Time.
+     * @param timeShift The time zone shift of the location, which is the negated offset in hours.
+     * @return The offset in milliseconds.
+     */
+    private static int getOffset(double timeShift)
+    {
+        return (int)Math.floor( -timeShift*MILLISECONDS_IN_AN_HOUR + 0.5 );
+    }
+
+
+    /**
+     * Looks up the position of the sun for every location. Locations that follow one another
+     * in the same time zone share the position that was already looked up, and locations that
+     * follow one another in the same daylight savings zone share its adjustment.
+     * @param julianDate The Julian date of the day being calculated.
+     * @param time A time on the day being calculated.
+     * @param timeZones The time zone of each location.
+     * @param zones The daylight savings rules observed at each location, or null if every
+     * location uses the default zone.
+     * @param n The number of locations.
+     */
+    private void gatherEphemerides(double julianDate, long time, double[] timeZones, DaylightSavingsZone[] zones, int n)
+    {
+        Trigonometry t = Trigonometry.getInstance();
+
+        DaylightSavingsZone zone = DaylightSavingsZone.getDefault();
+        double dstOffset = zone.getAdjustment(time);
+        double previous = Double.NaN;
+        double declination = 0;
+        double sin = 0;
+        double cos = 0;
+        double eot = 0;
+
+        for (int i = 0; i < n; i++)
+        {
+            if ( (zones != null) && (zones[i] != zone) )
+            {
+                zone = zones[i];
+                dstOffset = zone.getAdjustment(time);
+            }
+
+            double tz = -(timeZones[i]+dstOffset);
+
+            if (tz != previous)
+            {
+                SolarCalculator.lookupEphemeris(julianDate, tz, ephemeris);
+                declination = ephemeris.getDeclination();
+                sin = t.sin(declination);
+                cos = t.cos(declination);
+                eot = ephemeris.getHours();
+                previous = tz;
+            }
+
+            timeShifts[i] = tz;
+            declinations[i] = declination;
+            sinDeclinations[i] = sin;
+            cosDeclinations[i] = cos;
+            hours[i] = eot;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,258 @@
+/*
+ * @(#)CalculationWorkspace.java  1.0 2026-10-16
+ * @(#)CalculationWorkspace.java  1.1 2026-10-16
+ * @(#)CalculationWorkspace.java  1.2 2026-10-16
+ * @(#)CalculationWorkspace.java  1.3 2026-10-16
+ * @(#)CalculationWorkspace.java  1.4 2026-10-16
+ * @(#)CalculationWorkspace.java  1.5 2026-10-16
+ *
+ * Copyright 2009 Exes Technologies. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   - Redistributions of source code must retain the above copyright
+ *     notice, this list of conditions and the following disclaimer.
+ *
+ *   - Redistributions in binary form must reproduce the above copyright
+ *     notice, this list of conditions and the following disclaimer in the
+ *     documentation and/or other materials provided with the distribution.
+ *
+ *   - Neither the name of Exes Technologies nor the names of its
+ *     contributors may be used to endorse or promote products derived
+ *     from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.rim.maxillion.model.calculator;
+
+import java.util.Date;
+import net.rim.device.api.util.DateTimeUtilities;
+import net.rim.maxillion.model.calculator.utils.GeoParameters;
+import net.rim.maxillion.model.calculator.utils.SalatConstants;
+import net.rim.maxillion.model.calculator.utils.TimeCriticalEvent;
+import net.rim.maxillion.model.calculator.utils.time.DaylightSavingsZone;
+import net.rim.maxillion.model.calculator.utils.time.EpochDay;
+import net.rim.maxillion.model.calculator.utils.time.TimeTable;
+
+
+/**
+ * Holds all the objects needed to calculate the prayer times of a day so that they can be
+ * reused from one calculation to the next. Once the first day has been calculated, each
+ * following day is calculated by next() without creating any objects, which keeps the garbage
+ * collector out of the way when generating long timetables.<br><br>
+ *
+ * The calculated times are returned as the number of seconds since the start of the day,
+ * indexed by their TimeCriticalEvent value. The half-night may exceed a whole day since it
+ * usually falls after midnight. The returned array belongs to this workspace and is
+ * overwritten by the next calculation.<br><br>
+ *
+ * An instance of this class is not thread-safe. Each thread should use its own workspace.
+ *
+ * @author Ragaeeb Haq
+ * @version 1.00 2026-10-16 Initial submission.
+ * @version 1.10 2026-10-16 The daylight savings adjustment now comes from the zone of the location
+ * instead of being cached for each year.
+ * @version 1.20 2026-10-16 Days are now found with EpochDay rather than a Calendar.
+ * @version 1.30 2026-10-16 Locations are now calculated from their prepared values.
+ * @version 1.40 2026-10-16 The following days are now counted so that next() does not look up the zone
+ * of the device.
+ * @version 1.50 2026-10-16 The half-night is now the middle of the actual times on the eve of a
+ * daylight savings transition.
+ * @since MaxillionPrayers 3.0
+ */
+public final class CalculationWorkspace
+{
+    /** The number of milliseconds in an hour. */
+    private static final int MILLISECONDS_IN_AN_HOUR = 3600000;
+
+    /** Computes the prayer times from the solar calculations. */
+    private IslamicEventAdjustedTimes adjustedTimes;
+
+    /** The day whose prayer times were last returned (in days since 1970-01-01). */
+    private int day;
+
+    /** The location being calculated. */
+    private PreparedLocation location;
+
+    /** Allows accurate calculations of the Fajr and Isha prayer start times. */
+    private FajrIshaRatioCalculator ratioCalc;
+
+    /** Performs all the solar calculations. */
+    private SolarCalculator sc;
+
+    /** A time on the day whose prayer times were last returned. */
+    private long time;
+
+    /** The prayer times of the day that was last returned. */
+    private int[] today;
+
+    /** The daylight savings adjustment of the location on the day that was last returned (in hours). */
+    private double todayAdjustment;
+
+    /** The prayer times of the day after the one that was last returned. */
+    private int[] tomorrow;
+
+    /** The daylight savings adjustment of the location on the day after the one that was last returned (in hours). */
+    private double tomorrowAdjustment;
+
+
+    /**
+     * Creates a workspace that can be used to calculate prayer times repeatedly.
+     */
+    public CalculationWorkspace()
+    {
+        this.sc = new SolarCalculator();
+        this.ratioCalc = new FajrIshaRatioCalculator(sc);
+        this.adjustedTimes = new IslamicEventAdjustedTimes(sc, ratioCalc);
+        this.today = new int[TimeTable.EVENTS_PER_DAY];
+        this.tomorrow = new int[TimeTable.EVENTS_PER_DAY];
+    }
+
+
+    /**
+     * Calculates the prayer times for the specified geographical parameters and date with the
+     * ISNA method.
+     * @param g The geographical coordinates of the location to calculate the prayer times for.
+     * @param requestedDate The specific date to calculate the prayer times for.
+     * @return The prayer times in seconds since the start of the requested day, indexed by their
+     * TimeCriticalEvent value.
+     */
+    public int[] calculate(GeoParameters g, Date requestedDate)
+    {
+        return calculate( new PreparedLocation(g, SalatConstants.ISNA_METHOD), requestedDate );
+    }
+
+
+    /**
+     * Calculates the prayer times of the specified prepared location for the specified date.
+     * @param p The location to calculate the prayer times for.
+     * @param requestedDate The specific date to calculate the prayer times for.
+     * @return The prayer times in seconds since the start of the requested day, indexed by their
+     * TimeCriticalEvent value.
+     */
+    public int[] calculate(PreparedLocation p, Date requestedDate)
+    {
+        this.location = p;
+        ratioCalc.reset(p);
+
+        day = EpochDay.getLocalDay( requestedDate.getTime() );
+        todayAdjustment = performCalculation( day, requestedDate.getTime(), today );
+        time = EpochDay.getNoon( requestedDate.getTime() );
+
+        tomorrowAdjustment = performCalculation(day+1, time+DateTimeUtilities.ONEDAY, tomorrow); // find out the prayer times for tomorrow to calculate tomorrow's Fajr time
+        calculateIshaEnd();
+
+        return today;
+    }
+
+
+    /**
+     * Gets the day whose prayer times were last returned.
+     * @return The number of days since 1970-01-01.
+     */
+    public int getDay()
+    {
+        return day;
+    }
+
+
+    /**
+     * Gets a time that falls on the day whose prayer times were last returned.
+     * @return A time during the day that was last calculated.
+     */
+    public long getTime()
+    {
+        return time;
+    }
+
+
+    /**
+     * Calculates the prayer times for the day following the one that was last calculated, for the
+     * same location. This reuses the calculation that was already done for the following day.
+     * Since the day is counted rather than looked up in the zone of the device, nothing is created.
+     * @return The prayer times in seconds since the start of the day, indexed by their
+     * TimeCriticalEvent value.
+     */
+    public int[] next()
+    {
+        int[] previous = today;
+        today = tomorrow;
+        tomorrow = previous;
+        time += DateTimeUtilities.ONEDAY; // noon moves by an hour at most across a transition, so it stays on the next day
+        day++;
+        todayAdjustment = tomorrowAdjustment;
+
+        tomorrowAdjustment = performCalculation(day+1, time+DateTimeUtilities.ONEDAY, tomorrow);
+        calculateIshaEnd();
+
+        return today;
+    }
+
+
+    /**
+     * Calculates the half-night value that marks the recommended end-time of the Isha prayer
+     * from the Maghrib time of the current day and the Fajr time of the following day. [1] The
+     * middle is taken between the actual times, since on the eve of a daylight savings transition
+     * the two are on clocks that differ by the change, and the result is given on the clock in
+     * effect at that time. The zone is consulted on the clock of the location, so that the zone
+     * used when none is specified changes at 2:00 on the clock of the location whatever the zone
+     * of the device.<br><br>
+     *
+     * [1] Albalagh, (2004). When Does Isha Time End? [Online]. Available:
+     * http://www.albalagh.net/qa/0056.shtml [April 26, 2010]
+     */
+    private void calculateIshaEnd()
+    {
+        GeoParameters g = location.getLocation();
+        long maghrib = EpochDay.toTime( day, today[TimeCriticalEvent.Maghrib], getOffset(g, todayAdjustment) );
+        long fajr = EpochDay.toTime( day+1, tomorrow[TimeCriticalEvent.Fajr], getOffset(g, tomorrowAdjustment) );
+        long middle = maghrib+(fajr-maghrib)/2;
+        DaylightSavingsZone zone = g.getDaylightSavingsZone();
+        long shift = (long)( ( g.getTimeZone()-zone.getStandardOffset() )*MILLISECONDS_IN_AN_HOUR );
+        int offset = getOffset( g, zone.getAdjustment(middle+shift) );
+
+        today[TimeCriticalEvent.HalfNight] = (int)( (middle-EpochDay.toTime(day, 0, offset))/EpochDay.MILLISECONDS_IN_A_SECOND );
+    }
+
+
+    /**
+     * Gets the offset of the clock of the location from Greenwich Mean Time.
+     * @param g The location.
+     * @param adjustment The daylight savings adjustment in effect (in hours).
+     * @return The offset in milliseconds.
+     */
+    private static int getOffset(GeoParameters g, double adjustment)
+    {
+        return (int)Math.floor( ( g.getTimeZone()+adjustment )*MILLISECONDS_IN_AN_HOUR + 0.5 );
+    }
+
+
+    /**
+     * Calculates the prayer times of the specified day. The half-night is not calculated.
+     * @param day The day to calculate the prayer times for (in days since 1970-01-01).
+     * @param time A time on that day, used to find the daylight savings adjustment.
+     * @param result The array to store the calculated times in.
+     * @return The daylight savings adjustment of the location on the day (in hours).
+     */
+    private double performCalculation(int day, long time, int[] result)
+    {
+        double dstAdjust = location.getLocation().getDaylightSavingsZone().getAdjustment(time);
+        boolean problematic = sc.calculate(day, location, dstAdjust); // perform initial calculation
+
+        adjustedTimes.compute(problematic, location, day, result);
+
+        return dstAdjust;
+    }
+}
\ No newline at end of file
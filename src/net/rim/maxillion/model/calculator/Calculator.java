@@ -1,5 +1,11 @@
 /*
  * @(#)Calculator.java  1.0 2010-04-27
+ * @(#)Calculator.java  1.1 2026-10-16
+ * @(#)Calculator.java  1.2 2026-10-16
+ * @(#)Calculator.java  1.3 2026-10-16
+ * @(#)Calculator.java  1.4 2026-10-16
+ * @(#)Calculator.java  1.5 2026-10-16
+ * @(#)Calculator.java  1.6 2026-10-16
  *
  * Copyright 2009 Exes Technologies. All Rights Reserved.
  *
@@ -33,22 +39,38 @@
 package net.rim.maxillion.model.calculator;
 
 import java.util.Date;
+import net.rim.maxillion.model.calculator.utils.CalculationMethod;
 import net.rim.maxillion.model.calculator.utils.GeoParameters;
+import net.rim.maxillion.model.calculator.utils.time.DaylightSavingsZone;
+import net.rim.maxillion.model.calculator.utils.time.TimeTable;
 import net.rim.maxillion.model.calculator.utils.time.TimeWrapper;
 
 
 /**
  * A method of calculating salat-times. This interface was introduced so that there may
  * be a choice of how the times are calculated (through the system or simply retrieved
- * from a third-party website).
+ * from a third-party website).<br><br>
+ *
+ * The calculator returned by getInstance() can be used by many threads at once. Each
+ * calculation works in its own CalculationWorkspace, so no locks are taken while calculating.
  *
  * @author Ragaeeb Haq
  * @version 1.00 2010-04-27 Initial submission.
+ * @version 1.10 2026-10-16 Added calculation of a range of consecutive days.
+ * @version 1.20 2026-10-16 Added setEphemerisTable().
+ * @version 1.30 2026-10-16 Added batch calculation of many locations for the same date.
+ * @version 1.40 2026-10-16 Added a batch calculation where each location observes its own daylight
+ * savings zone.
+ * @version 1.50 2026-10-16 Added the preparation of a location and calculation method.
+ * @version 1.60 2026-10-16 The calculator is now created when the class is loaded, so that threads
+ * cannot race to create it. Added the calculation of many locations on several threads.
  * @since MaxillionPrayers 3.0
  */
 public abstract class Calculator
 {
-    private static Calculator instance;
+    /** The calculator shared by every thread, created as soon as the class is loaded. */
+    private static final Calculator instance = new CalculatorImpl();
+
 
     /**
      * Calculates the prayer times for the specified geographical parameters and date.
@@ -59,11 +81,93 @@ public abstract class Calculator
     public abstract TimeWrapper[] calculate(GeoParameters g, Date requestedDate);
 
 
-    public static final Calculator getInstance()
+    /**
+     * Calculates the prayer times of many locations for the same date. The locations are given
+     * as parallel arrays so that the calculation can be done in tight loops over them, with the
+     * position of the sun only looked up once for each time zone.
+     * @param latitudes The latitude of each location (in degrees).
+     * @param longitudes The longitude of each location (in degrees).
+     * @param timeZones The time zone of each location.
+     * @param requestedDate The specific date to calculate the prayer times for.
+     * @param result The array to store the prayer times in. It must hold
+     * TimeTable.EVENTS_PER_DAY times for each location. The times of the location at index i
+     * are stored in seconds since the start of the day starting at i*TimeTable.EVENTS_PER_DAY,
+     * indexed by their TimeCriticalEvent value.
+     */
+    public abstract void calculateBatch(double[] latitudes, double[] longitudes, double[] timeZones, Date requestedDate, int[] result);
+
+
+    /**
+     * Calculates the prayer times of many locations for the same date, where each location
+     * observes the daylight savings rules of its own zone. Locations that share a zone should
+     * be grouped together so that its adjustment is only looked up once.
+     * @param latitudes The latitude of each location (in degrees).
+     * @param longitudes The longitude of each location (in degrees).
+     * @param timeZones The time zone of each location.
+     * @param zones The daylight savings rules observed at each location.
+     * @param requestedDate The specific date to calculate the prayer times for.
+     * @param result The array to store the prayer times in, laid out as for
+     * calculateBatch(double[], double[], double[], Date, int[]).
+     */
+    public abstract void calculateBatch(double[] latitudes, double[] longitudes, double[] timeZones, DaylightSavingsZone[] zones, Date requestedDate, int[] result);
+
+
+    /**
+     * Calculates the prayer times of many locations for the same date, spreading the
+     * locations across several threads. Each thread calculates its share of the locations in
+     * its own workspace, and the calling thread is used as one of them.
+     * @param locations The geographical coordinates of the locations to calculate the prayer
+     * times for.
+     * @param requestedDate The specific date to calculate the prayer times for.
+     * @param threads The greatest number of threads to calculate on, including the calling
+     * thread. This is typically the number of cores available.
+     * @return The prayer times of each location, in the same order as the locations.
+     * @throws IllegalArgumentException If the number of threads is less than 1.
+     */
+    public abstract TimeWrapper[][] calculateAll(GeoParameters[] locations, Date requestedDate, int threads);
+
+
+    /**
+     * Calculates the prayer times for the specified geographical parameters for a range of
+     * consecutive days. This is considerably cheaper than calling calculate() for each day
+     * since the calculation done for a day is reused for the half-night of the day before it.
+     * @param g The geographical coordinates of the location to calculate the prayer times for.
+     * @param start The first date to calculate the prayer times for.
+     * @param days The number of consecutive days to calculate the prayer times for.
+     * @return The prayer times for the requested geographical coordinates for every day in the
+     * range.
+     */
+    public abstract TimeTable calculateRange(GeoParameters g, Date start, int days);
+
+
+    /**
+     * Prepares the specified location to be calculated with the specified method. Everything
+     * that does not depend on the date is worked out once, so the returned location should be
+     * kept and reused whenever the same location is calculated again.
+     * @param g The geographical coordinates of the location to calculate the prayer times for.
+     * @param method The calculation method to use (ie: SalatConstants.ISNA_METHOD).
+     * @return The prepared location, which can be shared between threads.
+     */
+    public abstract PreparedLocation prepare(GeoParameters g, CalculationMethod method);
+
+
+    /**
+     * Sets the precomputed table that the position of the sun should be looked up in instead
+     * of being calculated for every day. Only days that the table covers are looked up.
+     * @param table The table to use, or null to always calculate the position of the sun.
+     */
+    public static final void setEphemerisTable(EphemerisTable table)
     {
-        if (instance == null)
-            instance = new CalculatorImpl();
+        SolarCalculator.setEphemerisTable(table);
+    }
+
 
+    /**
+     * Gets the calculator, which can be shared between threads.
+     * @return The calculator.
+     */
+    public static final Calculator getInstance()
+    {
         return instance;
     }
 }
\ No newline at end of file
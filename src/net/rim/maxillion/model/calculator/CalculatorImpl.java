@@ -2,6 +2,13 @@
  * @(#)CalculatorImpl.java  1.0 2009-06-22
  * @(#)CalculatorImpl.java  1.1 2009-09-15
  * @(#)CalculatorImpl.java  1.2 2010-04-27
+ * @(#)CalculatorImpl.java  1.3 2026-10-16
+ * @(#)CalculatorImpl.java  1.4 2026-10-16
+ * @(#)CalculatorImpl.java  1.5 2026-10-16
+ * @(#)CalculatorImpl.java  1.6 2026-10-16
+ * @(#)CalculatorImpl.java  1.7 2026-10-16
+ * @(#)CalculatorImpl.java  1.8 2026-10-16
+ * @(#)CalculatorImpl.java  1.9 2026-10-16
  *
  * Copyright 2009 Exes Technologies. All Rights Reserved.
  *
@@ -33,11 +40,12 @@
  * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
  */
 package net.rim.maxillion.model.calculator;
-import java.util.Calendar;
 import java.util.Date;
-import net.rim.device.api.util.DateTimeUtilities;
+import net.rim.maxillion.model.calculator.utils.CalculationMethod;
 import net.rim.maxillion.model.calculator.utils.GeoParameters;
-import net.rim.maxillion.model.calculator.utils.TimeCriticalEvent;
+import net.rim.maxillion.model.calculator.utils.SalatConstants;
+import net.rim.maxillion.model.calculator.utils.time.DaylightSavingsZone;
+import net.rim.maxillion.model.calculator.utils.time.TimeTable;
 import net.rim.maxillion.model.calculator.utils.time.TimeWrapper;
 
 
@@ -72,6 +80,16 @@ import net.rim.maxillion.model.calculator.utils.time.TimeWrapper;
  * Removed adjustable minutes. Added default conventions and static modifiers for them.
  * @version 1.20 2010-04-27 Added Isha end-calculation feature. Static-references added. This class now deals with
  * time-critical event objects instead of Prayer objects. Minute adjuster is now a static instance variable.
+ * @version 1.30 2026-10-16 Added range calculation. The half-night is now calculated from the Fajr time of
+ * the day after the requested date rather than the day after the current date.
+ * @version 1.40 2026-10-16 The calculation is now delegated to a CalculationWorkspace.
+ * @version 1.50 2026-10-16 Added batch calculation of many locations for the same date.
+ * @version 1.60 2026-10-16 Implemented the batch calculation with a daylight savings zone for each
+ * location.
+ * @version 1.70 2026-10-16 The start of each day is now found with EpochDay rather than a Calendar.
+ * @version 1.80 2026-10-16 Locations are now prepared for a calculation method before being
+ * calculated.
+ * @version 1.90 2026-10-16 Implemented the calculation of many locations on several threads.
  * @since MaxillionPrayers 1.0
  */
 class CalculatorImpl extends Calculator
@@ -81,61 +99,51 @@ class CalculatorImpl extends Calculator
      */
     public TimeWrapper[] calculate(GeoParameters g, Date requestedDate)
     {
-        int dstAdjust = DaylightSavingsTime.getDaylightSavingsAdjustmentValue(requestedDate);
-        Calendar gc = Calendar.getInstance();
-        gc.setTime(requestedDate);
-
-        TimeWrapper[] today = performCalculation(g, dstAdjust, gc);
-        calculateIshaEnd(g, gc, today, dstAdjust);
-
-        return today;
+        return calculateRange(g, requestedDate, 1).getDay(0);
     }
 
 
-    /**
-     * Calculates the half-night value that marks the recommended end-time of the Isha TimeCriticalEvent. [2]
-     * [2] Albalagh, (2004). When Does Isha Time End? [Online]. Available:
-     * http://www.albalagh.net/qa/0056.shtml [April 26, 2010]
-     * @since MaxillionPrayers 3.0
+    /* (non-Javadoc)
+     * @see net.rim.maxillion.model.calculator.Calculator#calculateBatch(double[], double[], double[], java.util.Date, int[])
      */
-    private void calculateIshaEnd(GeoParameters g, Calendar gc, TimeWrapper[] today, int dstAdjust)
+    public void calculateBatch(double[] latitudes, double[] longitudes, double[] timeZones, Date requestedDate, int[] result)
     {
-        gc = DateTimeUtilities.getNextDate(DateTimeUtilities.ONEDAY); // find out the prayer times for tomorrow to calculate tomorrow's Fajr time
-        TimeWrapper[] tomorrow = performCalculation(g, dstAdjust, gc);
+        new BatchCalculator().calculate(latitudes, longitudes, timeZones, null, requestedDate, result);
+    }
 
-        // maghrib
-        Calendar maghrib = Calendar.getInstance();
-        maghrib.setTime( new Date( today[TimeCriticalEvent.Maghrib].getTime() ) );
 
-        // fajr
-        gc.setTime( new Date( tomorrow[TimeCriticalEvent.Fajr].getTime() ) );
+    /* (non-Javadoc)
+     * @see net.rim.maxillion.model.calculator.Calculator#calculateBatch(double[], double[], double[], net.rim.maxillion.model.calculator.utils.time.DaylightSavingsZone[], java.util.Date, int[])
+     */
+    public void calculateBatch(double[] latitudes, double[] longitudes, double[] timeZones, DaylightSavingsZone[] zones, Date requestedDate, int[] result)
+    {
+        new BatchCalculator().calculate(latitudes, longitudes, timeZones, zones, requestedDate, result);
+    }
 
-        // now do fajr-maghrib / 2
-        int sum = maghrib.get(Calendar.HOUR_OF_DAY)+gc.get(Calendar.HOUR_OF_DAY); // 8+4
-        maghrib.set(Calendar.HOUR_OF_DAY, sum);
 
-        sum = maghrib.get(Calendar.MINUTE)+gc.get(Calendar.MINUTE);
-        maghrib.set(Calendar.MINUTE, sum);
+    /* (non-Javadoc)
+     * @see net.rim.maxillion.model.calculator.Calculator#calculateAll(net.rim.maxillion.model.calculator.utils.GeoParameters[], java.util.Date, int)
+     */
+    public TimeWrapper[][] calculateAll(GeoParameters[] locations, Date requestedDate, int threads)
+    {
+        return ParallelCalculation.calculate(locations, requestedDate, threads);
+    }
 
-        sum = maghrib.get(Calendar.SECOND)+gc.get(Calendar.SECOND);
-        maghrib.set(Calendar.SECOND, sum);
 
-        today[TimeCriticalEvent.HalfNight] = new TimeWrapper( maghrib.getTime().getTime() );
+    /* (non-Javadoc)
+     * @see net.rim.maxillion.model.calculator.Calculator#calculateRange(net.rim.maxillion.model.calculator.utils.GeoParameters, java.util.Date, int)
+     */
+    public TimeTable calculateRange(GeoParameters g, Date start, int days)
+    {
+        return prepare(g, SalatConstants.ISNA_METHOD).calculateRange(start, days);
     }
 
 
-    /**
-     * Calculates the prayer times for the specified geographical parameters and date.
-     * @param g The geographical coordinates of the location to calculate the prayer times for.
-     * @param gc The specific date to calculate the prayer times for.
-     * @param dstAdjust The hour(s) to adjust the hour-value by due to daylight savings.
-     * @return The prayer times for the requested geographical coordinates and specified date.
+    /* (non-Javadoc)
+     * @see net.rim.maxillion.model.calculator.Calculator#prepare(net.rim.maxillion.model.calculator.utils.GeoParameters, net.rim.maxillion.model.calculator.utils.CalculationMethod)
      */
-    private TimeWrapper[] performCalculation(GeoParameters g, int dstAdjust, Calendar gc)
+    public PreparedLocation prepare(GeoParameters g, CalculationMethod method)
     {
-        SolarCalculator sc = new SolarCalculator(); // Performs all the solar calculations including any math needed to do with the position of the sun.
-        boolean problematic = sc.calculate(gc, g, dstAdjust); // perform initial calculation
-
-        return new IslamicEventAdjustedTimes(problematic, sc, g, gc).getPrayerData();
+        return new PreparedLocation(g, method);
     }
 }
\ No newline at end of file
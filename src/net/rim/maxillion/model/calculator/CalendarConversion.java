@@ -2,6 +2,8 @@
  * @(#)CalendarConversion.java  1.0 2009-06-22
  * @(#)CalendarConversion.java  1.1 2009-09-15
  * @(#)CalendarConversion.java  1.2 2010-04-27
+ * @(#)CalendarConversion.java  1.3 2026-10-16
+ * @(#)CalendarConversion.java  1.4 2026-10-16
  *
  * Copyright 2009 Exes Technologies. All Rights Reserved.
  *
@@ -53,10 +55,15 @@ import java.util.Calendar;
  * @version 1.00 2009-06-22 Initial submission.
  * @version 1.10 2009-09-15 Methods are no longer static.
  * @version 1.20 2010-04-27 This class now has package visibility and methods are once again static.
+ * @version 1.30 2026-10-16 Added calculateJulianEpoch() for a year, month and day.
+ * @version 1.40 2026-10-16 Added calculateJulianEpoch() for an epoch day.
  * @since MaxillionPrayers 1.0
  */
 class CalendarConversion
 {
+    /** The Julian Epoch value of the start of 1970-01-01. */
+    private static final double JULIAN_EPOCH_OF_1970 = 2440587.5;
+
     /**
      * Calculates the Julian Epoch value of the specified Gregorian calendar. This does not take
      * care of 1582 correction, assumes that the correct Gregorian calendar from the past is being
@@ -112,9 +119,32 @@ class CalendarConversion
      */
     public static double calculateJulianEpoch(Calendar gc)
     {
-        int yy = gc.get(Calendar.YEAR);
-        int mm = gc.get(Calendar.MONTH)+1;
-        int dd = gc.get(Calendar.DAY_OF_MONTH);
+        return calculateJulianEpoch( gc.get(Calendar.YEAR), gc.get(Calendar.MONTH)+1, gc.get(Calendar.DAY_OF_MONTH) );
+    }
+
+
+    /**
+     * Calculates the Julian Epoch value of the specified day. This gives the same value as
+     * calculateJulianEpoch(int, int, int) for the same date without any calendar arithmetic.
+     * @param epochDay The number of days since 1970-01-01.
+     * @return The Julian Epoch value of the start of the day.
+     */
+    public static double calculateJulianEpoch(int epochDay)
+    {
+        return epochDay+JULIAN_EPOCH_OF_1970;
+    }
+
+
+    /**
+     * Calculates the Julian Epoch value of the specified Gregorian date. This does not take
+     * care of 1582 correction.
+     * @param yy The year.
+     * @param mm The month of the year (1 for January).
+     * @param dd The day of the month.
+     * @return The Julian Epoch value of the specified Gregorian date.
+     */
+    public static double calculateJulianEpoch(int yy, int mm, int dd)
+    {
         int A, B, m, y;
         double T1,T2,Tr;
 
@@ -2,6 +2,8 @@
  * @(#)DaylightSavingsTime.java	1.0	2009-06-22
  * @(#)DaylightSavingsTime.java	1.1	2009-09-15
  * @(#)DaylightSavingsTime.java	1.2	2010-04-27
+ * @(#)DaylightSavingsTime.java	1.3	2026-10-16
+ * @(#)DaylightSavingsTime.java	1.4	2026-10-16
  *
  * Copyright 2009 Exes Technologies. All Rights Reserved.
  *
@@ -34,9 +36,10 @@
  */
 package net.rim.maxillion.model.calculator;
 
-import java.util.Calendar;
 import java.util.Date;
 
+import net.rim.maxillion.model.calculator.utils.time.DaylightSavingsZone;
+
 
 /**
  * Deals with time adjustments due to daylight savings time.<br><br>
@@ -110,6 +113,10 @@ import java.util.Date;
  * @version 1.10 2009-09-15 Unnecessary constants removed. Non-static references removed.
  * @version 1.20 2010-04-27 Static-references added. This class now has package visibility. Removed
  * constructor.
+ * @version 1.30 2026-10-16 Exposed the start and end of the daylight savings period so that they can
+ * be reused for a whole year.
+ * @version 1.40 2026-10-16 The daylight savings periods are now looked up in the precomputed
+ * transitions of a DaylightSavingsZone rather than found by stepping through the days of the month.
  * @since MaxillionPrayers 1.0
  */
 class DaylightSavingsTime
@@ -119,71 +126,14 @@ class DaylightSavingsTime
 
 
     /**
-     * Gets the amount to adjust the specified time by.
-     * @param d The time to potentially adjust.
-     * @param timeZone The time zone that we are dealing with (ie: -5.0).
-     * @return The amount to adjust the specified time by, if it falls under the daylight saving
-     * time criteria, then the offset is returned, otherwise 0 is returned.
-     */
-    public static int getDaylightSavingsAdjustmentValue(Date time)
-    {
-        int value = 0;
-
-        if ( isWithinDST(time) )
-            value = OFFSET; // adjust 1 hour
-
-        return value;
-    }
-
-
-    /**
-     * 
-     */
-    private static final long getSpecificSunday(long currentTime, int dstMonth, byte sundayNumber)
-    {
-        Calendar calendar = Calendar.getInstance();
-        calendar.setTime( new Date(currentTime) );
-        calendar.set(Calendar.MONTH, dstMonth);
-        calendar.set(Calendar.HOUR_OF_DAY, 2);
-        calendar.set(Calendar.MINUTE, 0);
-        calendar.set(Calendar.SECOND, 0);
-        calendar.set(Calendar.MILLISECOND, 0);
-
-        byte sundaysEncountered = 0;
-        int current = 1; // current day of month
-
-        while (true)
-        {
-            calendar.set(Calendar.DAY_OF_MONTH, current);
-
-            if ( calendar.get(Calendar.DAY_OF_WEEK) == Calendar.SUNDAY ) // this is a sunday
-            {
-                sundaysEncountered++;
-
-                if (sundaysEncountered == sundayNumber) // this is the second sunday we encountered
-                    break;
-            }
-
-            current++;
-        }
-
-        return calendar.getTime().getTime();
-    }
-
-
-    /**
-     * Determines whether the specified date and timezone falls under the daylight savings time. 
-     * @param d The time to potentially adjust.
-     * @param timeZone The time zone that we are dealing with (ie: -5.0).
-     * @return true If the specified time and timezone is affected by daylight savings time,
-     * false otherwise.
+     * Gets the amount to adjust the specified time by when the location does not specify the
+     * daylight savings zone that it observes.
+     * @param time The time to potentially adjust.
+     * @return The amount of hours to adjust the specified time by, if it falls under the
+     * daylight saving time criteria, otherwise 0 is returned.
      */
-    private static boolean isWithinDST(Date currentTime)
+    public static double getDaylightSavingsAdjustmentValue(Date time)
     {
-        long time = currentTime.getTime();
-        long secondSunInMarch = getSpecificSunday( time, Calendar.MARCH, (byte)2 );
-        long firstSunInNov = getSpecificSunday( time, Calendar.NOVEMBER, (byte)1 );
-
-        return (time >= secondSunInMarch) && (time < firstSunInNov);
+        return DaylightSavingsZone.getDefault().getAdjustment( time.getTime() );
     }
 }
\ No newline at end of file
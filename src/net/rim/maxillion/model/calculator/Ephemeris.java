@@ -0,0 +1,218 @@
+/*
+ * @(#)Ephemeris.java  1.0 2026-10-16
+ * @(#)Ephemeris.java  1.1 2026-10-16
+ *
+ * Copyright 2009 Exes Technologies. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   - Redistributions of source code must retain the above copyright
+ *     notice, this list of conditions and the following disclaimer.
+ *
+ *   - Redistributions in binary form must reproduce the above copyright
+ *     notice, this list of conditions and the following disclaimer in the
+ *     documentation and/or other materials provided with the distribution.
+ *
+ *   - Neither the name of Exes Technologies nor the names of its
+ *     contributors may be used to endorse or promote products derived
+ *     from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The codebase for this class is based on the code of:
+ * Fayez Alhargan, 2001
+ * King Abdulaziz City for Science and Technology
+ * Computer and Electronics Research Institute
+ * Riyadh, Saudi Arabia
+ * alhargan@kacst.edu.sa
+ * Tel: 4813770 Fax: 4813764 
+ * version: opn1.2
+ */
+package net.rim.maxillion.model.calculator;
+
+
+/**
+ * The position of the sun for a given day and time zone shift. None of these values depend on
+ * the latitude or longitude of the observer, so a single ephemeris can be shared by every
+ * location that is calculated for the same day in the same time zone.
+ *
+ * @author Ragaeeb Haq
+ * @version 1.00 2026-10-16 Initial submission.
+ * @version 1.10 2026-10-16 Added set() so the position of the sun can also be taken from a precomputed
+ * table.
+ * @since MaxillionPrayers 3.0
+ */
+class Ephemeris
+{
+    /** Used to calculate the equatorial coordinates in place. */
+    private double[] coordinates;
+
+    /** The declination of the sun (in radians). */
+    private double declination;
+
+    /** The number of hours given by the equation of time. */
+    private double hours;
+
+    /** The Julian date that this ephemeris was calculated for. */
+    private double julianDate;
+
+    /** The right ascension of the sun (in radians). */
+    private double rightAscension;
+
+    /** The hours of UT elapsed since the Julian date that this ephemeris was calculated for. */
+    private double timeShift;
+
+    /** Has this ephemeris been calculated yet? */
+    private boolean valid;
+
+
+    /**
+     * Creates an ephemeris that has not been calculated yet.
+     */
+    public Ephemeris()
+    {
+        this.coordinates = new double[2];
+        this.valid = false;
+    }
+
+
+    /**
+     * Calculates the position of the sun for the specified day and time zone shift.
+     * @param julianDate The Julian date of the previous midnight (Universal Time).
+     * @param timeShift Hours of UT elapsed since the given Julian date.
+     */
+    public void calculate(double julianDate, double timeShift)
+    {
+        double T = SolarCalculatorFormulae.calculateCenturiesSince2000(julianDate, timeShift); // 0.102934
+        double L = SolarCalculatorFormulae.calculateSunMeanLongitude(T); // 0.4433
+        double M = SolarCalculatorFormulae.calculateSunMeanAnomaly(T); // 1.8152
+        double earthEccentricity = SolarCalculatorFormulae.calculateEarthEccentricity(T); // e: 0.016746
+        double obliq = SolarCalculatorFormulae.calculateEclipticObliquity(T); // Ec: 0.409296
+        double Y = SolarCalculatorFormulae.calculateY(obliq); // 0.043078
+
+        double eot = SolarCalculatorFormulae.calculateEquationOfTime(Y, L, M, earthEccentricity); // EOT: 0.001912
+        double eValue = SolarCalculatorFormulae.calculateEuler(M, earthEccentricity); // 1.831
+        double v = SolarCalculatorFormulae.calculateV(earthEccentricity, eValue); // 1.8475
+        double tht = SolarCalculatorFormulae.calculateTheta(L, v, M); // 0.4756
+
+        coordinates[0] = 0;
+        coordinates[1] = tht;
+        SolarCalculatorFormulae.getEquatorialCoordinates(coordinates); // where DECL = delta = x: 0.183, alpha = RA = y: 0.441
+
+        this.julianDate = julianDate;
+        this.timeShift = timeShift;
+        this.hours = SolarCalculatorFormulae.calculateHours(eot); // UT: 0.007306
+        this.declination = coordinates[0];
+        this.rightAscension = coordinates[1];
+        this.valid = true;
+    }
+
+
+    /**
+     * Sets the position of the sun for the specified day and time zone shift to values that
+     * were calculated elsewhere.
+     * @param julianDate The Julian date of the previous midnight (Universal Time).
+     * @param timeShift Hours of UT elapsed since the given Julian date.
+     * @param declination The declination of the sun (in radians).
+     * @param hours The number of hours given by the equation of time.
+     * @param rightAscension The right ascension of the sun (in radians).
+     */
+    public void set(double julianDate, double timeShift, double declination, double hours, double rightAscension)
+    {
+        this.julianDate = julianDate;
+        this.timeShift = timeShift;
+        this.declination = declination;
+        this.hours = hours;
+        this.rightAscension = rightAscension;
+        this.valid = true;
+    }
+
+
+    /**
+     * Copies all the values of the specified ephemeris into this one.
+     * @param e The ephemeris to copy.
+     */
+    public void copy(Ephemeris e)
+    {
+        this.julianDate = e.julianDate;
+        this.timeShift = e.timeShift;
+        this.hours = e.hours;
+        this.declination = e.declination;
+        this.rightAscension = e.rightAscension;
+        this.valid = e.valid;
+    }
+
+
+    /**
+     * Gets the declination of the sun.
+     * @return The declination of the sun (in radians).
+     */
+    public double getDeclination()
+    {
+        return declination;
+    }
+
+
+    /**
+     * Gets the number of hours given by the equation of time.
+     * @return The sidereal time at Greenwich measured in hours.
+     */
+    public double getHours()
+    {
+        return hours;
+    }
+
+
+    /**
+     * Gets the Julian date that this ephemeris was calculated for.
+     * @return The Julian date of the previous midnight (Universal Time).
+     */
+    public double getJulianDate()
+    {
+        return julianDate;
+    }
+
+
+    /**
+     * Gets the right ascension of the sun.
+     * @return The right ascension of the sun (in radians).
+     */
+    public double getRightAscension()
+    {
+        return rightAscension;
+    }
+
+
+    /**
+     * Gets the time zone shift that this ephemeris was calculated for.
+     * @return The hours of UT elapsed since the Julian date.
+     */
+    public double getTimeShift()
+    {
+        return timeShift;
+    }
+
+
+    /**
+     * Determines whether this ephemeris was calculated for the specified day and time zone shift.
+     * @param julianDate The Julian date of the previous midnight (Universal Time).
+     * @param timeShift Hours of UT elapsed since the given Julian date.
+     * @return true If this ephemeris holds the position of the sun for the specified parameters.
+     */
+    public boolean matches(double julianDate, double timeShift)
+    {
+        return valid && (this.julianDate == julianDate) && (this.timeShift == timeShift);
+    }
+}
\ No newline at end of file
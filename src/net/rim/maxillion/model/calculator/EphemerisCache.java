@@ -0,0 +1,168 @@
+/*
+ * @(#)EphemerisCache.java  1.0 2026-10-16
+ * @(#)EphemerisCache.java  1.1 2026-10-16
+ *
+ * Copyright 2009 Exes Technologies. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   - Redistributions of source code must retain the above copyright
+ *     notice, this list of conditions and the following disclaimer.
+ *
+ *   - Redistributions in binary form must reproduce the above copyright
+ *     notice, this list of conditions and the following disclaimer in the
+ *     documentation and/or other materials provided with the distribution.
+ *
+ *   - Neither the name of Exes Technologies nor the names of its
+ *     contributors may be used to endorse or promote products derived
+ *     from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.rim.maxillion.model.calculator;
+
+
+/**
+ * A bounded cache of the position of the sun keyed by the Julian date and the time zone shift.
+ * Since the ephemeris does not depend on the observer's location, every location calculated
+ * for the same day in the same time zone only needs the hour-angle calculations to be done.<br><br>
+ *
+ * The cache is direct-mapped: each key can only occupy one slot, and a newer key simply
+ * replaces whatever occupied its slot before. All the slots are created up front so looking up
+ * or storing an ephemeris never creates any objects. Each slot is locked on its own so that
+ * threads calculating different days or time zones do not contend with each other.<br><br>
+ *
+ * Each ephemeris is stored along with the generation it was calculated in. Invalidating the
+ * cache starts a new generation, so ephemerides calculated from a previous ephemeris table or
+ * trigonometry provider are never returned again, even if they are stored after the switch.
+ *
+ * @author Ragaeeb Haq
+ * @version 1.00 2026-10-16 Initial submission.
+ * @version 1.10 2026-10-16 Cached ephemerides can now be invalidated when the ephemeris table or
+ * trigonometry provider changes.
+ * @since MaxillionPrayers 3.0
+ */
+class EphemerisCache
+{
+    /** The number of quarter hours in an hour, used to spread time zones such as +5:30 over the slots. */
+    private static final int QUARTERS_IN_AN_HOUR = 4;
+
+    /** The number of slots minus one, used to map a key to its slot. */
+    private int mask;
+
+    /** The cached ephemerides. */
+    private Ephemeris[] slots;
+
+    /** The generation that each cached ephemeris was calculated in. */
+    private int[] generations;
+
+    /** The generation that cached ephemerides must belong to in order to be returned. */
+    private volatile int generation;
+
+
+    /**
+     * Creates a cache with the specified number of slots.
+     * @param size The number of ephemerides that can be cached. This must be a power of two.
+     */
+    public EphemerisCache(int size)
+    {
+        this.mask = size-1;
+        this.slots = new Ephemeris[size];
+        this.generations = new int[size];
+
+        for (int i = 0; i < size; i++)
+            slots[i] = new Ephemeris();
+    }
+
+
+    /**
+     * Gets the cached ephemeris for the specified day and time zone shift.
+     * @param julianDate The Julian date of the previous midnight (Universal Time).
+     * @param timeShift Hours of UT elapsed since the given Julian date.
+     * @param result The ephemeris to copy the cached values into.
+     * @return true If the ephemeris was cached and copied into the result, false otherwise.
+     */
+    public boolean get(double julianDate, double timeShift, Ephemeris result)
+    {
+        int index = getIndex(julianDate, timeShift);
+        Ephemeris slot = slots[index];
+        boolean found = false;
+
+        synchronized (slot)
+        {
+            if ( (generations[index] == generation) && slot.matches(julianDate, timeShift) )
+            {
+                result.copy(slot);
+                found = true;
+            }
+        }
+
+        return found;
+    }
+
+
+    /**
+     * Stores the specified ephemeris in the cache, replacing whichever ephemeris occupied its slot.
+     * @param e The calculated ephemeris to cache. Its values are copied.
+     * @param calculatedIn The generation that was current when the ephemeris started being
+     * calculated, as returned by getGeneration().
+     */
+    public void put(Ephemeris e, int calculatedIn)
+    {
+        int index = getIndex( e.getJulianDate(), e.getTimeShift() );
+        Ephemeris slot = slots[index];
+
+        synchronized (slot)
+        {
+            slot.copy(e);
+            generations[index] = calculatedIn;
+        }
+    }
+
+
+    /**
+     * Gets the current generation. This must be read before an ephemeris is calculated and passed
+     * on to put() so that an ephemeris calculated across an invalidation is not returned afterwards.
+     * @return The current generation.
+     */
+    public int getGeneration()
+    {
+        return generation;
+    }
+
+
+    /**
+     * Invalidates every cached ephemeris. This must be called whenever the way the position of the
+     * sun is obtained changes.
+     */
+    public synchronized void invalidate()
+    {
+        generation++;
+    }
+
+
+    /**
+     * Gets the slot that the specified key maps to.
+     * @param julianDate The Julian date of the previous midnight (Universal Time).
+     * @param timeShift Hours of UT elapsed since the given Julian date.
+     * @return The index of the slot for the key.
+     */
+    private int getIndex(double julianDate, double timeShift)
+    {
+        int hash = (int)julianDate*31 + (int)(timeShift*QUARTERS_IN_AN_HOUR);
+
+        return hash & mask;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,285 @@
+/*
+ * @(#)EphemerisTable.java  1.0 2026-10-16
+ * @(#)EphemerisTable.java  1.1 2026-10-16
+ * @(#)EphemerisTable.java  1.2 2026-10-16
+ *
+ * Copyright 2009 Exes Technologies. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   - Redistributions of source code must retain the above copyright
+ *     notice, this list of conditions and the following disclaimer.
+ *
+ *   - Redistributions in binary form must reproduce the above copyright
+ *     notice, this list of conditions and the following disclaimer in the
+ *     documentation and/or other materials provided with the distribution.
+ *
+ *   - Neither the name of Exes Technologies nor the names of its
+ *     contributors may be used to endorse or promote products derived
+ *     from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The codebase for this class is based on the code of:
+ * Fayez Alhargan, 2001
+ * King Abdulaziz City for Science and Technology
+ * Computer and Electronics Research Institute
+ * Riyadh, Saudi Arabia
+ * alhargan@kacst.edu.sa
+ * Tel: 4813770 Fax: 4813764 
+ * version: opn1.2
+ */
+package net.rim.maxillion.model.calculator;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+
+/**
+ * A precomputed table of the position of the sun for every day of a range of years. Looking up
+ * a day is a matter of indexing an array by its Julian day instead of evaluating the whole
+ * chain of solar formulae, which is what makes generating timetables that span many years
+ * cheap.<br><br>
+ *
+ * The table is written once by write() into any output stream (typically a file on the media
+ * card or a resource bundled with the application) and is read back by load(). The values are
+ * stored at midnight (Universal Time) of each day and the position for a particular time zone
+ * shift is interpolated with a cubic through the four surrounding days. Each value is scaled
+ * into an int, which keeps the whole 1900-2200 range at twelve bytes per day. The scaling and
+ * interpolation together stay within 0.000001 degrees of declination and right ascension and
+ * 0.0001 seconds of the equation of time, so a looked up time only lands on a different second
+ * than the calculated one when it lies that close to a whole second.
+ *
+ * @author Ragaeeb Haq
+ * @version 1.00 2026-10-16 Initial submission.
+ * @version 1.10 2026-10-16 Values are now stored as scaled ints and interpolated with a cubic so that
+ * looking a day up no longer moves times by a minute. The right ascension is kept between 0 and 2 pi
+ * like the calculated one.
+ * @version 1.20 2026-10-16 Two days are now stored before the first year so that its first day can be
+ * looked up at a negative time zone shift.
+ * @since MaxillionPrayers 3.0
+ */
+public final class EphemerisTable
+{
+    /** The first year that the default table covers. */
+    public static final int FIRST_YEAR = 1900;
+
+    /** The last year that the default table covers. */
+    public static final int LAST_YEAR = 2200;
+
+    /** The number of radians of declination represented by each unit of the stored value. */
+    private static final double DECLINATION_SCALE = 1 << 30;
+
+    /** The number of hours of the equation of time represented by each unit of the stored value. */
+    private static final double HOURS_SCALE = 1 << 30;
+
+    /** The number of hours in a day, used to convert a time zone shift into a fraction of a day. */
+    private static final double HOURS_IN_A_DAY = 24;
+
+    /** Identifies a stream as holding an ephemeris table ("EPH2"). */
+    private static final int MAGIC = 0x45504832;
+
+    /** The number of radians of right ascension represented by each unit of the stored value. */
+    private static final double RIGHT_ASCENSION_SCALE = Integer.MAX_VALUE/(2*Math.PI);
+
+    /** The stored difference that a whole turn of right ascension amounts to, used to unwrap it. */
+    private static final double RIGHT_ASCENSION_TURN = Integer.MAX_VALUE;
+
+    /** The number of days in the table. */
+    private int days;
+
+    /** The scaled declination of the sun for each day. */
+    private int[] declinations;
+
+    /** The Julian date of the first day in the table. */
+    private double firstJulianDate;
+
+    /** The scaled number of hours given by the equation of time for each day. */
+    private int[] hours;
+
+    /** The scaled right ascension of the sun for each day. */
+    private int[] rightAscensions;
+
+
+    /**
+     * Creates an empty table for the specified range of days.
+     * @param firstJulianDate The Julian date of the first day in the table.
+     * @param days The number of days in the table.
+     */
+    private EphemerisTable(double firstJulianDate, int days)
+    {
+        this.firstJulianDate = firstJulianDate;
+        this.days = days;
+        this.declinations = new int[days];
+        this.hours = new int[days];
+        this.rightAscensions = new int[days];
+    }
+
+
+    /**
+     * Reads a table that was previously written by write().
+     * @param in The stream to read the table from. This is not closed.
+     * @return The table that was read.
+     * @throws IOException If the stream could not be read or does not hold an ephemeris table.
+     */
+    public static EphemerisTable load(InputStream in) throws IOException
+    {
+        DataInputStream dis = new DataInputStream(in);
+
+        if ( dis.readInt() != MAGIC )
+            throw new IOException("Not an ephemeris table");
+
+        double firstJulianDate = dis.readDouble();
+        int days = dis.readInt();
+        EphemerisTable table = new EphemerisTable(firstJulianDate, days);
+
+        for (int i = 0; i < days; i++)
+        {
+            table.declinations[i] = dis.readInt();
+            table.hours[i] = dis.readInt();
+            table.rightAscensions[i] = dis.readInt();
+        }
+
+        return table;
+    }
+
+
+    /**
+     * Calculates the position of the sun for every day of the specified years and writes them
+     * as a table that can be read back by load(). The two days preceding the first year and the
+     * two days following the last year are included so that every day of the years can still be
+     * interpolated at any time zone shift.
+     * @param out The stream to write the table to. This is not closed.
+     * @param firstYear The first year to include in the table.
+     * @param lastYear The last year to include in the table.
+     * @throws IOException If the table could not be written.
+     */
+    public static void write(OutputStream out, int firstYear, int lastYear) throws IOException
+    {
+        double firstJulianDate = CalendarConversion.calculateJulianEpoch(firstYear, 1, 1) - 2;
+        int days = (int)( CalendarConversion.calculateJulianEpoch(lastYear+1, 1, 1) - firstJulianDate ) + 2;
+        DataOutputStream dos = new DataOutputStream(out);
+        Ephemeris e = new Ephemeris();
+
+        dos.writeInt(MAGIC);
+        dos.writeDouble(firstJulianDate);
+        dos.writeInt(days);
+
+        for (int i = 0; i < days; i++)
+        {
+            e.calculate(firstJulianDate+i, 0);
+
+            dos.writeInt( scale( e.getDeclination(), DECLINATION_SCALE ) );
+            dos.writeInt( scale( e.getHours(), HOURS_SCALE ) );
+            dos.writeInt( scale( e.getRightAscension(), RIGHT_ASCENSION_SCALE ) );
+        }
+
+        dos.flush();
+    }
+
+
+    /**
+     * Looks up the position of the sun for the specified day and time zone shift.
+     * @param julianDate The Julian date of the previous midnight (Universal Time).
+     * @param timeShift Hours of UT elapsed since the given Julian date.
+     * @param result The ephemeris to store the position of the sun in.
+     * @return true If the table covers the requested time and the result was set, false otherwise.
+     */
+    boolean get(double julianDate, double timeShift, Ephemeris result)
+    {
+        double offset = julianDate - firstJulianDate + timeShift/HOURS_IN_A_DAY;
+        int i = (int)Math.floor(offset);
+        boolean found = (i >= 1) && (i+2 < days);
+
+        if (found)
+        {
+            double fraction = offset-i;
+            double declination = interpolate( (double)declinations[i-1]-declinations[i],
+                    (double)declinations[i+1]-declinations[i], (double)declinations[i+2]-declinations[i], fraction );
+            double eot = interpolate( (double)hours[i-1]-hours[i], (double)hours[i+1]-hours[i],
+                    (double)hours[i+2]-hours[i], fraction );
+            double rightAscension = interpolate( unwrap(rightAscensions[i-1], rightAscensions[i]),
+                    unwrap(rightAscensions[i+1], rightAscensions[i]), unwrap(rightAscensions[i+2], rightAscensions[i]), fraction );
+
+            declination = (declinations[i] + declination) / DECLINATION_SCALE;
+            eot = (hours[i] + eot) / HOURS_SCALE;
+            rightAscension = (rightAscensions[i] + rightAscension) / RIGHT_ASCENSION_SCALE;
+
+            if (rightAscension >= 2*Math.PI)
+                rightAscension -= 2*Math.PI;
+
+            else if (rightAscension < 0)
+                rightAscension += 2*Math.PI;
+
+            result.set(julianDate, timeShift, declination, eot, rightAscension);
+        }
+
+        return found;
+    }
+
+
+    /**
+     * Interpolates a cubic through the values stored for four consecutive days. The values are
+     * given relative to the value stored for the day the requested time falls on, so that value
+     * itself is zero and drops out.
+     * @param previous The value stored for the day before, relative to the requested day.
+     * @param next The value stored for the day after, relative to the requested day.
+     * @param afterNext The value stored for the day after that, relative to the requested day.
+     * @param fraction The fraction of the requested day elapsed at the requested time.
+     * @return The interpolated value relative to the requested day, still in stored units.
+     */
+    private static double interpolate(double previous, double next, double afterNext, double fraction)
+    {
+        double t = fraction;
+
+        return ( afterNext*(t+1)*(t-1) - 3*next*(t+1)*(t-2) - previous*(t-1)*(t-2) ) * t/6;
+    }
+
+
+    /**
+     * Gets the difference between two stored right ascensions, taking into account that the
+     * right ascension wraps around between 2 pi and 0.
+     * @param value The stored right ascension.
+     * @param base The stored right ascension that the difference is taken from.
+     * @return The difference in stored units, between -pi and pi.
+     */
+    private static double unwrap(int value, int base)
+    {
+        double change = (double)value - base;
+
+        if (change > RIGHT_ASCENSION_TURN/2)
+            change -= RIGHT_ASCENSION_TURN; // the right ascension wrapped around from 0 to 2 pi
+
+        else if (change < -RIGHT_ASCENSION_TURN/2)
+            change += RIGHT_ASCENSION_TURN; // the right ascension wrapped around from 2 pi to 0
+
+        return change;
+    }
+
+
+    /**
+     * Scales a value so that it can be stored as an int.
+     * @param value The value to store.
+     * @param scale The number of units per value.
+     * @return The nearest stored value.
+     */
+    private static int scale(double value, double scale)
+    {
+        return (int)Math.floor(value*scale + 0.5);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,99 @@
+/*
+ * @(#)ExactTrigonometry.java  1.0 2026-10-16
+ *
+ * Copyright 2009 Exes Technologies. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   - Redistributions of source code must retain the above copyright
+ *     notice, this list of conditions and the following disclaimer.
+ *
+ *   - Redistributions in binary form must reproduce the above copyright
+ *     notice, this list of conditions and the following disclaimer in the
+ *     documentation and/or other materials provided with the distribution.
+ *
+ *   - Neither the name of Exes Technologies nor the names of its
+ *     contributors may be used to endorse or promote products derived
+ *     from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.rim.maxillion.model.calculator;
+
+import net.rim.device.api.util.MathUtilities;
+
+
+/**
+ * Calculates the trigonometric functions exactly, using the functions of the platform.
+ *
+ * @author Ragaeeb Haq
+ * @version 1.00 2026-10-16 Initial submission.
+ * @since MaxillionPrayers 3.0
+ */
+class ExactTrigonometry extends Trigonometry
+{
+    /* (non-Javadoc)
+     * @see net.rim.maxillion.model.calculator.Trigonometry#acos(double)
+     */
+    public double acos(double a)
+    {
+        return MathUtilities.acos(a);
+    }
+
+
+    /* (non-Javadoc)
+     * @see net.rim.maxillion.model.calculator.Trigonometry#asin(double)
+     */
+    public double asin(double a)
+    {
+        return MathUtilities.asin(a);
+    }
+
+
+    /* (non-Javadoc)
+     * @see net.rim.maxillion.model.calculator.Trigonometry#atan(double)
+     */
+    public double atan(double a)
+    {
+        return MathUtilities.atan(a);
+    }
+
+
+    /* (non-Javadoc)
+     * @see net.rim.maxillion.model.calculator.Trigonometry#cos(double)
+     */
+    public double cos(double a)
+    {
+        return Math.cos(a);
+    }
+
+
+    /* (non-Javadoc)
+     * @see net.rim.maxillion.model.calculator.Trigonometry#sin(double)
+     */
+    public double sin(double a)
+    {
+        return Math.sin(a);
+    }
+
+
+    /* (non-Javadoc)
+     * @see net.rim.maxillion.model.calculator.Trigonometry#tan(double)
+     */
+    public double tan(double a)
+    {
+        return Math.tan(a);
+    }
+}
\ No newline at end of file
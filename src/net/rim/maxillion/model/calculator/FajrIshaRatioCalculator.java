@@ -1,6 +1,11 @@
 /*
  * @(#)FajrIshaRatioCalculator.java 1.0 2009-06-22
  * @(#)FajrIshaRatioCalculator.java 1.1 2010-04-27
+ * @(#)FajrIshaRatioCalculator.java 1.2 2026-10-16
+ * @(#)FajrIshaRatioCalculator.java 1.3 2026-10-16
+ * @(#)FajrIshaRatioCalculator.java 1.4 2026-10-16
+ * @(#)FajrIshaRatioCalculator.java 1.5 2026-10-16
+ * @(#)FajrIshaRatioCalculator.java 1.6 2026-10-16
  *
  * Copyright 2009 Exes Technologies. All Rights Reserved.
  *
@@ -42,9 +47,9 @@
  */
 package net.rim.maxillion.model.calculator;
 
-import java.util.Calendar;
 import net.rim.maxillion.model.calculator.utils.GeoParameters;
 import net.rim.maxillion.model.calculator.utils.SalatConstants;
+import net.rim.maxillion.model.calculator.utils.time.EpochDay;
 
 
 
@@ -54,83 +59,78 @@ import net.rim.maxillion.model.calculator.utils.SalatConstants;
  * @author Ragaeeb Haq
  * @version 1.00 2009-06-22 Initial submission.
  * @version 1.10 2010-04-27 Updated to comply with the SalatConstants enum.
+ * @version 1.20 2026-10-16 The solstice calendar is now owned by this class and an instance can be
+ * reused for another location.
+ * @version 1.30 2026-10-16 The solstice is now held as an epoch day rather than a Calendar.
+ * @version 1.40 2026-10-16 The reference latitude and twilight angles now come from the prepared
+ * location.
+ * @version 1.50 2026-10-16 The ratios are now calculated once for each year of a prepared location.
+ * @version 1.60 2026-10-16 Remembered ratios are now copied into an array owned by this class.
  * @since MaxillionPrayers 1.0
  */
 class FajrIshaRatioCalculator
 {
-    /** The calendar that will be used to perform calculations. */
-    private Calendar calendar;
+    /** The day of the month when the northern and southern hemispheres are inclined toward the sun in specific months. */
+    private static final int SOLSTICES_DAY_OF_MONTH = 21;
+
+    /** The month of the solstice in the northern hemisphere. */
+    private static final int NORTHERN_SOLSTICE_MONTH = 6;
+
+    /** The month of the solstice in the southern hemisphere. */
+    private static final int SOUTHERN_SOLSTICE_MONTH = 12;
+
+    /** The solstice that will be used to perform calculations (in days since 1970-01-01). */
+    private int solstice;
 
     /** The start time for the Isha prayer. */
     private double ishastart;
 
-    /** The maximum latitude value to be used. */
-    private double maxLatitude;
+    /** The remembered Fajr and Isha ratios copied from the prepared location. */
+    private double[] ratios;
 
     /** Deals with calculations relating to sun position. */
     private SolarCalculator sc;
 
-    /** Geographical location information to calculate the times for. */
-    private GeoParameters gp;
+    /** The location to calculate the times for. */
+    private PreparedLocation p;
 
 
     /**
      * Creates an instance of this class and allows for precise calculations of the Fajr and Isha
      * prayer start times. 
      * @param sc Deals with calculations relating to sun position.
-     * @param gc The calendar that will be used to perform calculations.
-     * @param p The parameters being used for the calculation.
      */
-    public FajrIshaRatioCalculator(SolarCalculator sc, Calendar gc, GeoParameters gp)
+    public FajrIshaRatioCalculator(SolarCalculator sc)
     {
         this.sc = sc;
-        this.calendar = gc;
-        this.gp = gp;
-        this.maxLatitude = SolarCalculator.getMaxLatitude(gp);
+        this.ratios = new double[2];
     }
 
 
     /**
-     * Gets the calendar that is used to perform calculations.
-     * @return The calendar necessary to perform calculations with.
-     */
-    public Calendar getCalendar()
-    {
-        return calendar;
-    }
-
-
-    /**
-     * Calculates the start time for the Fajr prayer given the specified latitude. Also calculates
-     * the value of the Isha prayer start time but does not return it.
+     * Gets the start time for the Fajr prayer given the specified latitude. Also gets the value of
+     * the Isha prayer start time but does not return it. The ratios are only calculated once for
+     * each year since they only depend on the solstice.
      * @param latitude The latitude to use when calculating the Fajr prayer start time.
      * @return The start time of the Fajr prayer.
      */
     public double getFajrStartTime(double latitude)
     {
-        sc.performCalculation(calendar, gp.getTimeZone(), gp.getLongitude(), maxLatitude, DaylightSavingsTime.OFFSET );
-
-        double night = sc.getNightLength(); // Night length
+        double fajrStart;
 
-        // Fajr
-        double angle = -SalatConstants.ISNA_ANGLES.getFajrTwilightAngle();
-        double cH = HeightCorrector.calculateCH( angle, sc.getSinDeclination(maxLatitude), sc.getCosDeclination(maxLatitude) );
-        double H = IslamicEventAdjustedTimes.computeH(cH);
-        double fajrReference = sc.getNoonTime() - H - SalatConstants.SAFETY_TIME;
-        double ishaTwilight = SalatConstants.ISNA_ANGLES.getIshaTwilightAngle();
-        double ishaReference = sc.getSunset() + SalatConstants.ISNA_INTERVALS.getIshaInterval();
-
-        if (ishaTwilight != 0)
+        if ( p.getSolsticeRatios(solstice, ratios) )
         {
-            angle = -ishaTwilight;
-            cH = HeightCorrector.calculateCH( angle, sc.getSinDeclination(maxLatitude), sc.getCosDeclination(maxLatitude) );
-            H = IslamicEventAdjustedTimes.computeH(cH);
-            ishaReference = sc.getNoonTime() + H + SalatConstants.SAFETY_TIME;
+            fajrStart = ratios[0];
+            ishastart = ratios[1];
         }
 
-        ishastart = ( ishaReference - sc.getSunset() )/night;
+        else
+        {
+            fajrStart = calculateStartTimes();
+            p.putSolsticeRatios(solstice, fajrStart, ishastart);
+        }
 
-        return ( sc.getSunrise()-fajrReference )/night;
+        return fajrStart;
     }
 
 
@@ -145,11 +145,79 @@ class FajrIshaRatioCalculator
 
 
     /**
-     * Sets the calendar to use to the specified one.
-     * @param gc The calendar that should be used when performing the calculations.
+     * Sets the location that the calculations will be performed for.
+     * @param p The location to calculate the times for.
+     */
+    public void reset(PreparedLocation p)
+    {
+        this.p = p;
+    }
+
+
+    /**
+     * Sets the day used to perform calculations to the solstice of the specified year
+     * when the hemisphere of the specified latitude is inclined toward the sun.<br><br>
+     *
+     * The cause of the seasons is that the Earth's axis of rotation is not
+     * perpendicular to its orbital plane (the flat plane made through the
+     * center of mass (barycenter) of the solar system (near or within the
+     * Sun) and the successive locations of Earth during the year), but
+     * currently makes an angle of about 23.44 (called the "obliquity of the
+     * ecliptic"), and that the axis keeps its orientation with respect to
+     * inertial space. As a consequence, for half the year (from around 20
+     * March to 22 September) the northern hemisphere is inclined toward the
+     * Sun, with the maximum around 21 June, while for the other half year
+     * the southern hemisphere has this distinction, with the maximum around
+     * 21 December. The two moments when the inclination of Earth's rotational
+     * axis has maximum effect are the solstices. [1]<br><br>
+     *
+     * [1] Wikipedia, (2009). Solstice. [Online]. Available:
+     * http://en.wikipedia.org/wiki/Solstice [June 21, 2009]
+     *
+     * @param epochDay The day whose year should be used (in days since 1970-01-01).
+     * @param latitude The latitude of the region (in radians).
      */
-    public void setGc(Calendar gc)
+    public void setSolstice(int epochDay, double latitude)
     {
-        this.calendar = gc;
+        int year = EpochDay.getYear(epochDay);
+
+        if (latitude < 0)
+            solstice = EpochDay.fromDate(year, SOUTHERN_SOLSTICE_MONTH, SOLSTICES_DAY_OF_MONTH);
+
+        else
+            solstice = EpochDay.fromDate(year, NORTHERN_SOLSTICE_MONTH, SOLSTICES_DAY_OF_MONTH);
+    }
+
+
+    /**
+     * Calculates the Fajr and Isha ratios at the reference latitude on the solstice. The solar
+     * calculator is left with the calculation of the solstice.
+     * @return The start time of the Fajr prayer. The start time of the Isha prayer is kept.
+     */
+    private double calculateStartTimes()
+    {
+        GeoParameters gp = p.getLocation();
+        sc.performCalculation( solstice, gp.getTimeZone(), gp.getLongitude(), p.getSinMaxLatitude(), p.getCosMaxLatitude(), DaylightSavingsTime.OFFSET );
+
+        double night = sc.getNightLength(); // Night length
+        double sinDec = sc.getSinDeclination(); // at the reference latitude
+        double cosDec = sc.getCosDeclination();
+
+        // Fajr
+        double cH = HeightCorrector.calculateCHFromSin( p.getSinFajrAngle(), sinDec, cosDec );
+        double H = IslamicEventAdjustedTimes.computeH(cH);
+        double fajrReference = sc.getNoonTime() - H - SalatConstants.SAFETY_TIME;
+        double ishaReference = sc.getSunset() + p.getIshaInterval();
+
+        if ( p.getIshaTwilight() != 0 )
+        {
+            cH = HeightCorrector.calculateCHFromSin( p.getSinIshaAngle(), sinDec, cosDec );
+            H = IslamicEventAdjustedTimes.computeH(cH);
+            ishaReference = sc.getNoonTime() + H + SalatConstants.SAFETY_TIME;
+        }
+
+        ishastart = ( ishaReference - sc.getSunset() )/night;
+
+        return ( sc.getSunrise()-fajrReference )/night;
     }
 }
\ No newline at end of file
@@ -0,0 +1,254 @@
+/*
+ * @(#)FastTrigonometry.java  1.0 2026-10-16
+ *
+ * Copyright 2009 Exes Technologies. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   - Redistributions of source code must retain the above copyright
+ *     notice, this list of conditions and the following disclaimer.
+ *
+ *   - Redistributions in binary form must reproduce the above copyright
+ *     notice, this list of conditions and the following disclaimer in the
+ *     documentation and/or other materials provided with the distribution.
+ *
+ *   - Neither the name of Exes Technologies nor the names of its
+ *     contributors may be used to endorse or promote products derived
+ *     from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.rim.maxillion.model.calculator;
+
+
+/**
+ * Approximates the trigonometric functions with truncated Taylor series instead of using the
+ * functions of the platform.<br><br>
+ *
+ * The sine and cosine reduce the angle to within pi/4 of a multiple of pi/2 and then sum their
+ * series up to the 11th and 12th powers, where the remainder is below 1E-11. The arc tangent
+ * reduces its argument to within tan(pi/8) of zero and sums its series up to the 27th power,
+ * where the remainder is below 2E-12. The arc sine and arc cosine are derived from the arc
+ * tangent. Taylor series are used rather than minimax polynomials or interpolated tables because
+ * their error is bounded by the next term alone, which at these degrees is already far below what
+ * shows in a prayer time, and because they need no table to be held on the device.<br><br>
+ *
+ * Across all of the solar calculations this moves the prayer times by well under a second. The
+ * TrigonometryAccuracy tool checks this over every day of a common and a leap year at locations
+ * from 66S to 88N, polar days and nights included: not a single prayer time differs from the one
+ * calculated with the exact functions.
+ *
+ * @author Ragaeeb Haq
+ * @version 1.00 2026-10-16 Initial submission.
+ * @version 1.10 2026-10-16 Documented why Taylor series are used and the tool that checks them.
+ * @since MaxillionPrayers 3.0
+ */
+class FastTrigonometry extends Trigonometry
+{
+    /** The coefficients of the arc tangent series, starting from the 3rd power. */
+    private static final double[] ATAN_COEFFICIENTS = { -1.0/3, 1.0/5, -1.0/7, 1.0/9, -1.0/11, 1.0/13, -1.0/15, 1.0/17, -1.0/19, 1.0/21, -1.0/23, 1.0/25, -1.0/27 };
+
+    /** Half of pi. */
+    private static final double HALF_PI = Math.PI/2;
+
+    /** The first 33 bits of pi/2, so that multiples of it can be subtracted without rounding. */
+    private static final double HALF_PI_HIGH = 1.57079632673412561417e+00;
+
+    /** The remainder of pi/2 after its first 33 bits. */
+    private static final double HALF_PI_LOW = 6.07710050650619224932e-11;
+
+    /** A quarter of pi. */
+    private static final double QUARTER_PI = Math.PI/4;
+
+    /** The tangent of pi/8, above which the arc tangent argument is shifted by pi/4. */
+    private static final double TAN_EIGHTH_PI = 0.41421356237309503;
+
+    /** The reciprocal of pi/2. */
+    private static final double TWO_OVER_PI = 2/Math.PI;
+
+
+    /* (non-Javadoc)
+     * @see net.rim.maxillion.model.calculator.Trigonometry#acos(double)
+     */
+    public double acos(double a)
+    {
+        double result = Double.NaN;
+
+        if ( (a >= -1) && (a <= 1) )
+            result = 2*atan( Math.sqrt( (1-a)/(1+a) ) );
+
+        return result;
+    }
+
+
+    /* (non-Javadoc)
+     * @see net.rim.maxillion.model.calculator.Trigonometry#asin(double)
+     */
+    public double asin(double a)
+    {
+        double result = Double.NaN;
+
+        if ( (a >= -1) && (a <= 1) )
+            result = atan( a/Math.sqrt( (1-a)*(1+a) ) );
+
+        return result;
+    }
+
+
+    /* (non-Javadoc)
+     * @see net.rim.maxillion.model.calculator.Trigonometry#atan(double)
+     */
+    public double atan(double a)
+    {
+        double result = a; // NaN stays NaN
+
+        if (a == a)
+        {
+            boolean negative = a < 0;
+            double x = negative ? -a : a;
+            boolean inverted = x > 1;
+
+            if (inverted)
+                x = 1/x; // atan(x) = pi/2 - atan(1/x)
+
+            boolean shifted = x > TAN_EIGHTH_PI;
+
+            if (shifted)
+                x = (x-1)/(x+1); // atan(x) = pi/4 + atan( (x-1)/(x+1) )
+
+            double x2 = x*x;
+            double sum = 0;
+
+            for (int i = ATAN_COEFFICIENTS.length-1; i >= 0; i--)
+                sum = (sum+ATAN_COEFFICIENTS[i])*x2;
+
+            result = x + x*sum;
+
+            if (shifted)
+                result += QUARTER_PI;
+
+            if (inverted)
+                result = HALF_PI-result;
+
+            if (negative)
+                result = -result;
+        }
+
+        return result;
+    }
+
+
+    /* (non-Javadoc)
+     * @see net.rim.maxillion.model.calculator.Trigonometry#cos(double)
+     */
+    public double cos(double a)
+    {
+        long k = getQuadrant(a);
+
+        return evaluate( reduce(a, k), k+1 );
+    }
+
+
+    /* (non-Javadoc)
+     * @see net.rim.maxillion.model.calculator.Trigonometry#sin(double)
+     */
+    public double sin(double a)
+    {
+        long k = getQuadrant(a);
+
+        return evaluate( reduce(a, k), k );
+    }
+
+
+    /* (non-Javadoc)
+     * @see net.rim.maxillion.model.calculator.Trigonometry#tan(double)
+     */
+    public double tan(double a)
+    {
+        long k = getQuadrant(a);
+        double r = reduce(a, k);
+        double s = sinSeries(r);
+        double c = cosSeries(r);
+
+        return (k & 1) == 0 ? s/c : -c/s;
+    }
+
+
+    /**
+     * Sums the cosine series of a reduced angle.
+     * @param r An angle no further than pi/4 from zero.
+     * @return The cosine of the angle.
+     */
+    private static double cosSeries(double r)
+    {
+        double r2 = r*r;
+
+        return 1 + r2*( -1.0/2 + r2*( 1.0/24 + r2*( -1.0/720 + r2*( 1.0/40320 + r2*( -1.0/3628800 + r2*(1.0/479001600) ) ) ) ) );
+    }
+
+
+    /**
+     * Gets the sine of the angle r+k*pi/2.
+     * @param r An angle no further than pi/4 from zero.
+     * @param k The number of quarter turns to add to the angle.
+     * @return The sine of the angle.
+     */
+    private static double evaluate(double r, long k)
+    {
+        int quadrant = (int)(k & 3);
+        double result = (quadrant & 1) == 0 ? sinSeries(r) : cosSeries(r);
+
+        if (quadrant >= 2)
+            result = -result;
+
+        return result;
+    }
+
+
+    /**
+     * Gets the nearest multiple of pi/2 to an angle.
+     * @param a An angle (in radians).
+     * @return The number of quarter turns nearest to the angle.
+     */
+    private static long getQuadrant(double a)
+    {
+        return (long)Math.floor(a*TWO_OVER_PI + 0.5);
+    }
+
+
+    /**
+     * Subtracts a number of quarter turns from an angle.
+     * @param a An angle (in radians).
+     * @param k The number of quarter turns to subtract.
+     * @return The remaining angle.
+     */
+    private static double reduce(double a, long k)
+    {
+        return (a - k*HALF_PI_HIGH) - k*HALF_PI_LOW;
+    }
+
+
+    /**
+     * Sums the sine series of a reduced angle.
+     * @param r An angle no further than pi/4 from zero.
+     * @return The sine of the angle.
+     */
+    private static double sinSeries(double r)
+    {
+        double r2 = r*r;
+
+        return r + r*r2*( -1.0/6 + r2*( 1.0/120 + r2*( -1.0/5040 + r2*( 1.0/362880 + r2*(-1.0/39916800) ) ) ) );
+    }
+}
\ No newline at end of file
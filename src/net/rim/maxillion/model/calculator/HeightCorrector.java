@@ -1,6 +1,10 @@
 /*
  * @(#)HeightCorrector.java 1.0 2009-06-22
  * @(#)HeightCorrector.java 1.1 2010-04-27
+ * @(#)HeightCorrector.java 1.2 2026-10-16
+ * @(#)HeightCorrector.java 1.3 2026-10-16
+ * @(#)HeightCorrector.java 1.4 2026-10-16
+ * @(#)HeightCorrector.java 1.5 2026-10-16
  *
  * Copyright 2009 Exes Technologies. All Rights Reserved.
  *
@@ -42,7 +46,6 @@
  */
 package net.rim.maxillion.model.calculator;
 
-import net.rim.device.api.util.MathUtilities;
 
 
 /**
@@ -51,6 +54,11 @@ import net.rim.device.api.util.MathUtilities;
  * @author Ragaeeb Haq
  * @version 1.00 2009-06-22 Initial submission.
  * @version 1.10 2010-04-27 This class now has package visibility.
+ * @version 1.20 2026-10-16 Added reset() so that an instance can be reused for another location.
+ * @version 1.30 2026-10-16 The trigonometric functions are now taken from the current Trigonometry
+ * provider.
+ * @version 1.40 2026-10-16 Added calculateCHFromSin() for angles whose sin value is already known.
+ * @version 1.50 2026-10-16 The horizon angles are now calculated once for each prepared location.
  * @since MaxillionPrayers 1.0
  */
 class HeightCorrector
@@ -81,24 +89,36 @@ class HeightCorrector
 
 
     /**
-     * Corrects the specified sun declination angles given the region height differences.
+     * Corrects the specified sun declination angles given the region height differences. The
+     * angles of the horizons are taken from the prepared location, so only the parts that depend
+     * on the declination are calculated.
      * @param sinDeclination The sin value of the latitudinal angle.
      * @param cosDeclination The cos value of the latitudinal angle.
-     * @param westernHeightDifference The place western horizon height difference in meters.
-     * @param easternHeightDifference The place eastern horizon height difference in meters.
+     * @param p The location, prepared with its western and eastern horizon height differences.
      */
-    public void correct(double sinDeclination, double cosDeclination, double westernHeightDifference, double easternHeightDifference)
+    public void correct(double sinDeclination, double cosDeclination, PreparedLocation p)
     {
-        double initialHeight = getCH(SolarCalculatorFormulae.SUNRISE_ARC_ANGLE, sinDeclination, cosDeclination);
+        double initialHeight = getCH( p.getSinSunriseAngle(), sinDeclination, cosDeclination );
 
-        double heightCorrectionWest = getCH( getAngle(westernHeightDifference), sinDeclination, cosDeclination);
+        double heightCorrectionWest = getCH( p.getSinWesternAngle(), sinDeclination, cosDeclination );
         correctedWesternHeight = adjustCorrection(initialHeight, heightCorrectionWest);
 
-        double heightCorrectionEast = getCH( getAngle(easternHeightDifference), sinDeclination, cosDeclination);
+        double heightCorrectionEast = getCH( p.getSinEasternAngle(), sinDeclination, cosDeclination );
         correctedEasternHeight = adjustCorrection(initialHeight, heightCorrectionEast);
     }
 
 
+    /**
+     * Discards any previously calculated correction so that this instance can be reused for
+     * a location that does not need height correction.
+     */
+    public void reset()
+    {
+        this.correctedEasternHeight = 0;
+        this.correctedWesternHeight = 0;
+    }
+
+
     /**
      * Gets the eastern corrected height value.
      * @return The corrected eastern height value.
@@ -129,7 +149,22 @@ class HeightCorrector
      */
     public static final double calculateCH(double angle, double sinDeclination, double cosDeclination)
     {
-        return ( Math.sin(angle)-sinDeclination ) / cosDeclination;
+        return calculateCHFromSin( Trigonometry.getInstance().sin(angle), sinDeclination, cosDeclination );
+    }
+
+
+    /**
+     * Calculates the corrected height value from the sin value of the angle, for when it is
+     * already known.
+     * @param sinAngle The sin value of the angle.
+     * @param sinDeclination The sin value of the equatorial latitudinal angle.
+     * @param cosDeclination The cos value of the equatorial latitudinal angle.
+     * @return The corrected height value given the angle, the sin and cos values of the
+     * latitudinal angle.
+     */
+    public static final double calculateCHFromSin(double sinAngle, double sinDeclination, double cosDeclination)
+    {
+        return (sinAngle-sinDeclination) / cosDeclination;
     }
 
 
@@ -164,13 +199,14 @@ class HeightCorrector
 
 
     /**
-     * Gets the angle associated with the specified region.
+     * Gets the angle associated with the specified region. This is only needed once for each
+     * location.
      * @param region The height difference in meters of the region (eastern or western).
      * @return The angle associated with the specified region (in radians).
      */
-    private static final double getAngle(double region)
+    static final double getAngle(double region)
     {
-        double radialValue = MathUtilities.asin( EARTH_EQUATORIAL_RADIUS_METERS / (EARTH_EQUATORIAL_RADIUS_METERS+region) );
+        double radialValue = Trigonometry.getInstance().asin( EARTH_EQUATORIAL_RADIUS_METERS / (EARTH_EQUATORIAL_RADIUS_METERS+region) );
 
         return SolarCalculatorFormulae.SUNRISE_ARC_ANGLE + (0.5*Math.PI - radialValue);
     }
@@ -178,16 +214,16 @@ class HeightCorrector
 
     /**
      * Calculates the corrected height value given the specified parameters.
-     * @param angle The angle value (in radians).
+     * @param sinAngle The sin value of the angle.
      * @param sinDeclination The sin value of the equatorial latitudinal angle.
      * @param cosDeclination The cos value of the equatorial latitudinal angle.
      * @return The corrected height value given the angle, the sin and cos values of the
      * latitudinal angle.
      */
-    private static final double getCH(double angle, double sinDeclination, double cosDeclination)
+    private static final double getCH(double sinAngle, double sinDeclination, double cosDeclination)
     {
-        double result = calculateCH(angle, sinDeclination, cosDeclination);
+        double result = calculateCHFromSin(sinAngle, sinDeclination, cosDeclination);
 
-        return MathUtilities.acos(result);
+        return Trigonometry.getInstance().acos(result);
     }
 }
\ No newline at end of file
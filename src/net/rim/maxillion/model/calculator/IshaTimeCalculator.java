@@ -1,6 +1,8 @@
 /*
  * @(#)IshaTimeCalculator.java  1.0 2009-06-22
  * @(#)IshaTimeCalculator.java  1.1 2010-04-27
+ * @(#)IshaTimeCalculator.java  1.2 2026-10-16
+ * @(#)IshaTimeCalculator.java  1.3 2026-10-16
  *
  * Copyright 2009 Exes Technologies. All Rights Reserved.
  *
@@ -42,7 +44,6 @@
  */
 package net.rim.maxillion.model.calculator;
 
-import java.util.Calendar;
 import net.rim.maxillion.model.calculator.utils.SalatConstants;
 
 
@@ -53,6 +54,10 @@ import net.rim.maxillion.model.calculator.utils.SalatConstants;
  * @author Ragaeeb Haq
  * @version 1.00 2009-06-22 Initial submission.
  * @version 1.10 2010-04-27 This class now has package visibility.
+ * @version 1.20 2026-10-16 The calculation is now done by calculate() so that an instance can be
+ * reused. The solstice ratio is taken from the ratio calculator as already calculated for Fajr.
+ * @version 1.30 2026-10-16 The twilight angle, interval and high latitude rule now come from the
+ * prepared location.
  * @since MaxillionPrayers 1.0
  */
 class IshaTimeCalculator
@@ -63,12 +68,6 @@ class IshaTimeCalculator
     /** The multiplier value. */
     public static final double MULTIPLIER = 1.3369;
 
-    /** The maximum Isha angle. */
-    private static final double MAXIMUM_ISHA_ANGLE = Math.toRadians(48);
-
-    /** The day of the month when the northern and southern hemispheres are inclined toward the sun in specific months. */
-    private static final int SOLSTICES_DAY_OF_MONTH = 21;
-
     /** The calculated Isha time. */
     private double ishaTime;
 
@@ -78,11 +77,19 @@ class IshaTimeCalculator
 
     /**
      * Allows the Isha prayer start time to be calculated.
-     * @param ishaTwilight The Isha twilight angle (in radians).
+     */
+    public IshaTimeCalculator()
+    {
+        super();
+    }
+
+
+    /**
+     * Calculates the Isha prayer start time.
+     * @param p The location to calculate the Isha time for.
      * @param sc Reference to the solar information calculator.
-     * @param latitude The latitude of the region to calculate the Isha time for.
-     * @param ratioCalc Gives accurate calculations of the Fajr and Isha prayer start times.
-     * @param ishaInterval The Isha interval time from the Maghrib prayer.
+     * @param ratioCalc Gives accurate calculations of the Fajr and Isha prayer start times. The
+     * ratios must already have been calculated for the Fajr prayer.
      * @param maghribTime The time of the Maghrib prayer.
      * @param noon The calculated noon-time for the region.
      * @param night The calculated night length for the region.
@@ -90,17 +97,17 @@ class IshaTimeCalculator
      * @param sinDec The sin value of the equatorial latitudinal angle.
      * @param cosDec The cos value of the equatorial latitudinal angle.
      */
-    public IshaTimeCalculator(double ishaTwilight, SolarCalculator sc, double latitude, FajrIshaRatioCalculator ratioCalc, double ishaInterval, double maghribTime, double noon, double night, double set, double sinDec, double cosDec)
+    public void calculate(PreparedLocation p, SolarCalculator sc, FajrIshaRatioCalculator ratioCalc, double maghribTime, double noon, double night, double set, double sinDec, double cosDec)
     {
-        if (ishaTwilight != 0)  /* if Ish angle  not equal zero*/
+        if ( p.getIshaTwilight() != 0 )  /* if Ish angle  not equal zero*/
         {
-            double angle = -ishaTwilight;
-            double cH = HeightCorrector.calculateCH( angle, sinDec, cosDec );
+            double sinAngle = p.getSinIshaAngle();
+            double cH = HeightCorrector.calculateCHFromSin( sinAngle, sinDec, cosDec );
             double absCH = Math.abs(cH);
 
-            if ( Math.abs(latitude) < MAXIMUM_ISHA_ANGLE ) // If the latitude is less than 48 degrees, there is no problem
+            if ( !p.isHighLatitude() ) // If the latitude is less than 48 degrees, there is no problem
             {
-                cH = HeightCorrector.calculateCH( angle, sc.getSinDeclination(), sc.getCosDeclination() );
+                cH = HeightCorrector.calculateCHFromSin( sinAngle, sc.getSinDeclination(), sc.getCosDeclination() );
                 absCH = Math.abs(cH);
 
                 double H = IslamicEventAdjustedTimes.computeH(cH);
@@ -111,36 +118,8 @@ class IshaTimeCalculator
             else
             {
                 // ---------------------------------------------------------------------
-                if ( absCH > (LINEAR_RATIO + MULTIPLIER*ishaTwilight) ) // A linear equation I have introduced: The problem occurs for places above -+48 in the summer
+                if ( absCH > p.getIshaRatioLimit() ) // A linear equation I have introduced: The problem occurs for places above -+48 in the summer
                 {
-                    /* The cause of the seasons is that the Earth's axis of rotation is not
-                     * perpendicular to its orbital plane (the flat plane made through the
-                     * center of mass (barycenter) of the solar system (near or within the
-                     * Sun) and the successive locations of Earth during the year), but
-                     * currently makes an angle of about 23.44 (called the "obliquity of the
-                     * ecliptic"), and that the axis keeps its orientation with respect to
-                     * inertial space. As a consequence, for half the year (from around 20
-                     * March to 22 September) the northern hemisphere is inclined toward the
-                     * Sun, with the maximum around 21 June, while for the other half year
-                     * the southern hemisphere has this distinction, with the maximum around
-                     * 21 December. The two moments when the inclination of Earth's rotational
-                     * axis has maximum effect are the solstices. [1]
-                     *
-                     * [1] Wikipedia, (2009). Solstice. [Online]. Available:
-                     * http://en.wikipedia.org/wiki/Solstice [June 21, 2009]
-                     */
-                    Calendar gc = Calendar.getInstance();
-                    gc.setTime( ratioCalc.getCalendar().getTime() );
-                    gc.set(Calendar.DAY_OF_MONTH, SOLSTICES_DAY_OF_MONTH);
-
-                    if (latitude < 0)
-                        gc.set(Calendar.MONTH, Calendar.DECEMBER);
-
-                    else
-                        gc.set(Calendar.MONTH, Calendar.JUNE);
-
-                    ratioCalc.setGc(gc);
-
                     ishaTime = set + night*ratioCalc.getIshaStartTime(); // According to the Rabita method
                 }
 
@@ -167,7 +146,7 @@ class IshaTimeCalculator
 
         else
         {
-            ishaTime = maghribTime+ishaInterval; // Isha time OmAlqrah standard Sunset + fixed time (1.5 hours or 2 hours in Ramadan)
+            ishaTime = maghribTime+p.getIshaInterval(); // Isha time OmAlqrah standard Sunset + fixed time (1.5 hours or 2 hours in Ramadan)
             rabitaIsha = ishaTime;
         }
     }
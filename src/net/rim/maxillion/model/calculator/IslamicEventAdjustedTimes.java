@@ -2,6 +2,12 @@
  * @(#)IslamicEventAdjustedTimes.java   1.0 2009-06-22
  * @(#)IslamicEventAdjustedTimes.java   1.1 2009-09-15
  * @(#)IslamicEventAdjustedTimes.java   1.2 2010-04-27
+ * @(#)IslamicEventAdjustedTimes.java   1.3 2026-10-16
+ * @(#)IslamicEventAdjustedTimes.java   1.4 2026-10-16
+ * @(#)IslamicEventAdjustedTimes.java   1.5 2026-10-16
+ * @(#)IslamicEventAdjustedTimes.java   1.6 2026-10-16
+ * @(#)IslamicEventAdjustedTimes.java   1.7 2026-10-16
+ * @(#)IslamicEventAdjustedTimes.java   1.8 2026-10-16
  *
  * Copyright 2009 Exes Technologies. All Rights Reserved.
  *
@@ -43,13 +49,9 @@
  */
 package net.rim.maxillion.model.calculator;
 
-import java.util.Calendar;
-import net.rim.device.api.util.MathUtilities;
-import net.rim.maxillion.model.calculator.utils.GeoParameters;
 import net.rim.maxillion.model.calculator.utils.SalatConstants;
 import net.rim.maxillion.model.calculator.utils.TimeCriticalEvent;
 import net.rim.maxillion.model.calculator.utils.time.TimeFormatter;
-import net.rim.maxillion.model.calculator.utils.time.TimeWrapper;
 
 
 /**
@@ -63,12 +65,22 @@ import net.rim.maxillion.model.calculator.utils.time.TimeWrapper;
  * @version 1.20 2010-04-27 Removed eid prayer time calculation. Changed HourMinuteTime wrapper to
  * TimeWrapper object. Updated to comply with the SalatConstants enum. This class now has package
  * visibility.
+ * @version 1.30 2026-10-16 The computed times now fall on the requested day rather than the current one.
+ * @version 1.40 2026-10-16 The times are now computed as seconds of the day by compute() so that an
+ * instance can be reused.
+ * @version 1.50 2026-10-16 FAJR_MAX_RADIANS, getActValue() and getAsrH() now have package visibility so they can be
+ * shared with the batch calculation.
+ * @version 1.60 2026-10-16 The trigonometric functions are now taken from the current Trigonometry
+ * provider.
+ * @version 1.70 2026-10-16 Days are now given as epoch days rather than Calendars.
+ * @version 1.80 2026-10-16 The calculation method and high latitude rules now come from the prepared
+ * location.
  * @since MaxillionPrayers 1.0
  */
 class IslamicEventAdjustedTimes
 {
     /** The maximum radians value used to calculate the Fajr TimeCriticalEvent. */
-    private static final double FAJR_MAX_RADIANS = Math.toRadians(48);
+    static final double FAJR_MAX_RADIANS = Math.toRadians(48);
 
     /** The cos value of the equatorial latitudinal angle. */
     private double cosDec;
@@ -79,8 +91,11 @@ class IslamicEventAdjustedTimes
     /** The noon-time. */
     private double noon;
 
-    /** The correct prayer time as calculated. */
-    private TimeWrapper[] prayerData;
+    /** Calculates the Isha prayer start time. */
+    private IshaTimeCalculator itc;
+
+    /** The correct prayer time as calculated (in seconds of the day). */
+    private int[] prayerData;
 
     /** Allows accurate calculations of the Fajr and Isha prayer start times. */
     private FajrIshaRatioCalculator ratioCalc;
@@ -100,33 +115,36 @@ class IslamicEventAdjustedTimes
 
     /**
      * Allows prayer time and other key event times to be computed with the correct values.
-     * @param problematic Was the solar calculation problematic?
      * @param sc Reference to the solar information calculator.
-     * @param p The parameters being used for the calculation.
-     * @param gc The calendar that will be used to perform calculations.
+     * @param ratioCalc Allows accurate calculations of the Fajr and Isha prayer start times.
      */
-    public IslamicEventAdjustedTimes(boolean problematic, SolarCalculator sc, GeoParameters p, Calendar gc)
+    public IslamicEventAdjustedTimes(SolarCalculator sc, FajrIshaRatioCalculator ratioCalc)
     {
         this.sc = sc;
-        this.prayerData = new TimeWrapper[7];
-        this.ratioCalc = new FajrIshaRatioCalculator(sc, gc, p);
-
-        computeSunrise();
-        computeDhuhrTime( SalatConstants.ISNA_INTERVALS.getDhuhrInterval() );
-        double maghrib = computeMaghribTime( SalatConstants.ISNA_INTERVALS.getMaghribInterval() );
-        computeAsrTime( problematic, SalatConstants.SHAFII_ASR_JURISTIC_SHADOW_RATIO, p.getLatitude() );
-        computeFajrTime( SalatConstants.ISNA_ANGLES.getFajrTwilightAngle(), p.getLatitude() );
-        computeIshaTime( p.getLatitude(), maghrib );
+        this.ratioCalc = ratioCalc;
+        this.itc = new IshaTimeCalculator();
     }
 
 
     /**
-     * Gets the calculated prayer time information.
-     * @return The final prayer time information as calculated.
+     * Computes the prayer times and other key event times with the correct values. The half-night
+     * is not computed since it depends on the following day.
+     * @param problematic Was the solar calculation problematic?
+     * @param p The location being calculated.
+     * @param epochDay The day being computed (in days since 1970-01-01).
+     * @param result The array to store the computed times in (in seconds of the day), indexed by
+     * their TimeCriticalEvent value.
      */
-    public TimeWrapper[] getPrayerData()
+    public void compute(boolean problematic, PreparedLocation p, int epochDay, int[] result)
     {
-        return prayerData;
+        this.prayerData = result;
+
+        computeSunrise();
+        computeDhuhrTime( p.getDhuhrInterval() );
+        double maghrib = computeMaghribTime( p.getMaghribInterval() );
+        computeAsrTime( problematic, p.getAsrShadowRatio(), p.getLatitude() );
+        computeFajrTime(p, epochDay);
+        computeIshaTime(p, maghrib);
     }
 
 
@@ -147,12 +165,12 @@ class IslamicEventAdjustedTimes
             difference -= latitude; // In the standard equations abs() is not used, but it is required for -ve latitude
 
         double act = getActValue(angleRatio, difference);
-        double angle = MathUtilities.atan(1.0/act);
+        double angle = Trigonometry.getInstance().atan(1.0/act);
         double cH = HeightCorrector.calculateCH( angle, sc.getSinDeclination(), sc.getCosDeclination() );
         double H = getAsrH(cH);
 
         double asrTime = sc.getNoonTime()+H+SalatConstants.SAFETY_TIME; // Asr time
-        prayerData[TimeCriticalEvent.Asr] = TimeFormatter.getTime(asrTime, 0);
+        prayerData[TimeCriticalEvent.Asr] = TimeFormatter.getSeconds(asrTime, 0);
     }
 
 
@@ -163,62 +181,34 @@ class IslamicEventAdjustedTimes
     private void computeDhuhrTime(double dhuhrInterval)
     {
         double dhuhrTime = sc.getNoonTime() + SalatConstants.SAFETY_TIME; /* Zohar time+extra time to make sure that the sun has moved from zaowal */
-        TimeWrapper t = TimeFormatter.getTime(dhuhrTime, (int)dhuhrInterval );
-        prayerData[TimeCriticalEvent.Dhuhr] = t;
+        prayerData[TimeCriticalEvent.Dhuhr] = TimeFormatter.getSeconds(dhuhrTime, (int)dhuhrInterval );
     }
 
 
 
     /**
      * Computes the Fajr prayer time.
-     * @param fajrTwilight The Fajr twilight angle.
-     * @param latitude The latitude to use when calculating the Asr prayer start time.
+     * @param p The location being calculated.
+     * @param epochDay The day being computed (in days since 1970-01-01).
      */
-    private void computeFajrTime(double fajrTwilight, double latitude)
+    private void computeFajrTime(PreparedLocation p, int epochDay)
     {
-        double angle = -fajrTwilight; // The value -19deg is used by OmAlqrah for Fajr, but it is not correct. Astronomical twilight and Rabita use -18deg
+        double latitude = p.getLatitude();
         //double rabitaFajr;
         double fajrTime;
-        double cH = HeightCorrector.calculateCH( angle, sc.getSinDeclination(), sc.getCosDeclination() );
+        double cH = HeightCorrector.calculateCHFromSin( p.getSinFajrAngle(), sc.getSinDeclination(), sc.getCosDeclination() ); // The value -19deg is used by OmAlqrah for Fajr, but it is not correct. Astronomical twilight and Rabita use -18deg
         double H;
 
-        if( Math.abs(latitude) < FAJR_MAX_RADIANS ) // If latitude is < 48 degrees: no problem
+        if ( !p.isHighLatitude() ) // If latitude is < 48 degrees: no problem
         {
             H = computeH(cH);
             fajrTime = sc.getNoonTime() - ( H+sc.getHeightC().getCorrectedEasternHeight() ) + SalatConstants.SAFETY_TIME;
-            prayerData[TimeCriticalEvent.Fajr] = TimeFormatter.getTime(fajrTime, 0);
+            prayerData[TimeCriticalEvent.Fajr] = TimeFormatter.getSeconds(fajrTime, 0);
         }
 
         else // Get fixed ratio, data depends on latitude sign
         {
-            /* The cause of the seasons is that the Earth's axis of rotation is not
-             * perpendicular to its orbital plane (the flat plane made through the
-             * center of mass (barycenter) of the solar system (near or within the
-             * Sun) and the successive locations of Earth during the year), but
-             * currently makes an angle of about 23.44 (called the "obliquity of the
-             * ecliptic"), and that the axis keeps its orientation with respect to
-             * inertial space. As a consequence, for half the year (from around 20
-             * March to 22 September) the northern hemisphere is inclined toward the
-             * Sun, with the maximum around 21 June, while for the other half year
-             * the southern hemisphere has this distinction, with the maximum around
-             * 21 December. The two moments when the inclination of Earth's rotational
-             * axis has maximum effect are the solstices. [1]
-             *
-             * [1] Wikipedia, (2009). Solstice. [Online]. Available:
-             * http://en.wikipedia.org/wiki/Solstice [June 21, 2009]
-             */
-            Calendar gc = Calendar.getInstance();
-            gc.setTime( ratioCalc.getCalendar().getTime() );
-            gc.set(Calendar.DAY_OF_MONTH, 21);
-
-            if (latitude < 0)
-                gc.set(Calendar.MONTH, Calendar.DECEMBER);
-
-            else
-                gc.set(Calendar.MONTH, Calendar.JUNE);
-
-
-            ratioCalc.setGc(gc);
+            ratioCalc.setSolstice(epochDay, latitude);
             rise = sc.getSunrise();
             noon = sc.getNoonTime();
             night = sc.getNightLength();
@@ -228,17 +218,17 @@ class IslamicEventAdjustedTimes
             double fajrStart = ratioCalc.getFajrStartTime(latitude);
             double absCH = Math.abs(cH);
 
-            if( absCH > ( IshaTimeCalculator.LINEAR_RATIO + IshaTimeCalculator.MULTIPLIER*fajrTwilight ) ) // linear equation: The problem occurs for places above -+48 in the summer
+            if ( absCH > p.getFajrRatioLimit() ) // linear equation: The problem occurs for places above -+48 in the summer
             {
                 fajrTime = rise - night*fajrStart; // According to the general ratio rule
-                prayerData[TimeCriticalEvent.Fajr] = TimeFormatter.getTime(fajrTime, 0);
+                prayerData[TimeCriticalEvent.Fajr] = TimeFormatter.getSeconds(fajrTime, 0);
             }
 
             else // no problem
             {
                 H = computeH(cH);
                 fajrTime = noon - ( H+sc.getHeightC().getCorrectedEasternHeight() ) + SalatConstants.SAFETY_TIME;
-                prayerData[TimeCriticalEvent.Fajr] = TimeFormatter.getTime(fajrTime, 0);
+                prayerData[TimeCriticalEvent.Fajr] = TimeFormatter.getSeconds(fajrTime, 0);
             }
         }
     }
@@ -246,14 +236,13 @@ class IslamicEventAdjustedTimes
 
     /**
      * Computes the Isha prayer time.
-     * @param p The parameters being used for the calculation.
+     * @param p The location being calculated.
      * @param maghribTime The time of the Maghrib TimeCriticalEvent.
      */
-    private void computeIshaTime(double latitude, double maghribTime)
+    private void computeIshaTime(PreparedLocation p, double maghribTime)
     {
-        IshaTimeCalculator itc = new IshaTimeCalculator( SalatConstants.ISNA_ANGLES.getIshaTwilightAngle(), sc, latitude, ratioCalc, SalatConstants.ISNA_INTERVALS.getIshaInterval(), maghribTime, noon, night, set, sinDec, cosDec  );
-        TimeWrapper t = TimeFormatter.getTime( itc.getIshaTime(), (int)SalatConstants.ISNA_INTERVALS.getIshaInterval() );
-        prayerData[TimeCriticalEvent.Isha] = t;
+        itc.calculate( p, sc, ratioCalc, maghribTime, noon, night, set, sinDec, cosDec );
+        prayerData[TimeCriticalEvent.Isha] = TimeFormatter.getSeconds( itc.getIshaTime(), (int)p.getIshaInterval() );
     }
 
 
@@ -265,8 +254,7 @@ class IslamicEventAdjustedTimes
     private double computeMaghribTime(double maghribInterval)
     {
         double maghribTime = sc.getSunset() + sc.getHeightC().getCorrectedWesternHeight() + SalatConstants.SAFETY_TIME; // Magrib= SunSet + Height correction + Safety Time
-        TimeWrapper t = TimeFormatter.getTime(maghribTime, (int)maghribInterval );
-        prayerData[TimeCriticalEvent.Maghrib] = t;
+        prayerData[TimeCriticalEvent.Maghrib] = TimeFormatter.getSeconds(maghribTime, (int)maghribInterval );
 
         return maghribTime;
     }
@@ -279,7 +267,7 @@ class IslamicEventAdjustedTimes
     private void computeSunrise()
     {
         double sunrise = sc.getSunrise() - sc.getHeightC().getCorrectedEasternHeight(); /* Sunrise - Height correction */
-        prayerData[TimeCriticalEvent.Sunrise] = TimeFormatter.getTime(sunrise, 0);
+        prayerData[TimeCriticalEvent.Sunrise] = TimeFormatter.getSeconds(sunrise, 0);
     }
 
 
@@ -290,7 +278,7 @@ class IslamicEventAdjustedTimes
      */
     public static final double computeH(double cH)
     {
-        return MathUtilities.acos(cH) * HeightCorrector.HEIGHT_RATIO;
+        return Trigonometry.getInstance().acos(cH) * HeightCorrector.HEIGHT_RATIO;
     }
 
 
@@ -300,9 +288,9 @@ class IslamicEventAdjustedTimes
      * @param difference The latitude difference.
      * @return The act value.
      */
-    private static final double getActValue(double angleRatio, double difference)
+    static final double getActValue(double angleRatio, double difference)
     {
-        return angleRatio + Math.tan( Math.abs(difference) );
+        return angleRatio + Trigonometry.getInstance().tan( Math.abs(difference) );
     }
 
 
@@ -311,7 +299,7 @@ class IslamicEventAdjustedTimes
      * @param cH The ratio used to calculate the correct height value.
      * @return The correct height value.
      */
-    private static final double getAsrH(double cH)
+    static final double getAsrH(double cH)
     {
         double H = 3.5;
 
@@ -0,0 +1,201 @@
+/*
+ * @(#)ParallelCalculation.java  1.0 2026-10-16
+ * @(#)ParallelCalculation.java  1.1 2026-10-16
+ * @(#)ParallelCalculation.java  1.2 2026-10-16
+ * @(#)ParallelCalculation.java  1.3 2026-10-16
+ *
+ * Copyright 2009 Exes Technologies. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   - Redistributions of source code must retain the above copyright
+ *     notice, this list of conditions and the following disclaimer.
+ *
+ *   - Redistributions in binary form must reproduce the above copyright
+ *     notice, this list of conditions and the following disclaimer in the
+ *     documentation and/or other materials provided with the distribution.
+ *
+ *   - Neither the name of Exes Technologies nor the names of its
+ *     contributors may be used to endorse or promote products derived
+ *     from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.rim.maxillion.model.calculator;
+
+import java.util.Date;
+
+import net.rim.maxillion.model.calculator.utils.GeoParameters;
+import net.rim.maxillion.model.calculator.utils.time.TimeTable;
+import net.rim.maxillion.model.calculator.utils.time.TimeWrapper;
+
+
+/**
+ * Calculates the prayer times of many locations for the same date on several threads at once.
+ * The locations are dealt out to the workers in turn (worker i takes the locations at i, i+n,
+ * i+2n...) so that the slower locations close to the poles, which tend to be listed together,
+ * are spread across the workers rather than all given to one of them.<br><br>
+ *
+ * Each worker has its own CalculationWorkspace and writes only to its own entries of the
+ * result, so the workers share nothing that is modified and never wait on each other. The
+ * calling thread is used as one of the workers, and the result is returned once every worker
+ * has finished.
+ *
+ * @author Ragaeeb Haq
+ * @version 1.00 2026-10-16 Initial submission.
+ * @version 1.10 2026-10-16 Waiting for a worker is now shared with the generation of timetables.
+ * @version 1.20 2026-10-16 The day is now stored by its epoch day.
+ * @version 1.30 2026-10-16 The times of a location are now made straight from the seconds calculated
+ * instead of through a timetable of one day.
+ * @since MaxillionPrayers 3.0
+ */
+final class ParallelCalculation implements Runnable
+{
+    /**
+     * The error that stopped this worker, or null if it finished normally. This is not volatile:
+     * it is only read by the calling thread after join() has returned for the worker, and
+     * everything a thread did happens-before another thread returns from joining it.
+     */
+    private RuntimeException failure;
+
+    /** The index of the first location calculated by this worker. */
+    private final int first;
+
+    /** The locations to calculate the prayer times for. */
+    private final GeoParameters[] locations;
+
+    /** The specific date to calculate the prayer times for. */
+    private final Date requestedDate;
+
+    /** The prayer times of each location, shared by all of the workers. */
+    private final TimeWrapper[][] result;
+
+    /** The number of workers, which is the distance between the locations of this worker. */
+    private final int step;
+
+
+    /**
+     * Creates a worker.
+     * @param locations The locations to calculate the prayer times for.
+     * @param requestedDate The specific date to calculate the prayer times for.
+     * @param result The array to store the prayer times of each location in.
+     * @param first The index of the first location to calculate.
+     * @param step The number of workers.
+     */
+    private ParallelCalculation(GeoParameters[] locations, Date requestedDate, TimeWrapper[][] result, int first, int step)
+    {
+        this.locations = locations;
+        this.requestedDate = requestedDate;
+        this.result = result;
+        this.first = first;
+        this.step = step;
+    }
+
+
+    /**
+     * Calculates the prayer times of the specified locations for the same date.
+     * @param locations The locations to calculate the prayer times for.
+     * @param requestedDate The specific date to calculate the prayer times for.
+     * @param threads The greatest number of threads to calculate on, including the calling
+     * thread. This is typically the number of cores available.
+     * @return The prayer times of each location, in the same order as the locations.
+     * @throws IllegalArgumentException If the number of threads is less than 1.
+     */
+    static TimeWrapper[][] calculate(GeoParameters[] locations, Date requestedDate, int threads)
+    {
+        if (threads < 1)
+            throw new IllegalArgumentException("At least one thread is needed: " + threads);
+
+        int workers = Math.max( 1, Math.min( threads, locations.length ) );
+        TimeWrapper[][] result = new TimeWrapper[locations.length][];
+        ParallelCalculation[] calculations = new ParallelCalculation[workers];
+        Thread[] started = new Thread[workers];
+
+        for (int i = 0; i < workers; i++)
+            calculations[i] = new ParallelCalculation(locations, requestedDate, result, i, workers);
+
+        for (int i = 1; i < workers; i++)
+        {
+            started[i] = new Thread(calculations[i]);
+            started[i].start();
+        }
+
+        calculations[0].run(); // the calling thread takes the first share rather than waiting idle
+
+        for (int i = 1; i < workers; i++)
+            join(started[i]);
+
+        for (int i = 0; i < workers; i++) // every worker has been joined, so its failure and its entries of the result are visible here
+        {
+            if (calculations[i].failure != null)
+                throw calculations[i].failure;
+        }
+
+        return result;
+    }
+
+
+    /* (non-Javadoc)
+     * @see java.lang.Runnable#run()
+     */
+    public void run()
+    {
+        CalculationWorkspace workspace = new CalculationWorkspace();
+
+        try {
+            for (int i = first; i < locations.length; i += step)
+            {
+                int[] times = workspace.calculate(locations[i], requestedDate);
+                TimeWrapper[] day = new TimeWrapper[TimeTable.EVENTS_PER_DAY];
+
+                for (int event = 0; event < TimeTable.EVENTS_PER_DAY; event++)
+                    day[event] = new TimeWrapper( workspace.getDay(), times[event] );
+
+                result[i] = day;
+            }
+        }
+
+        catch (RuntimeException ex)
+        {
+            failure = ex; // reported by the calling thread once every worker has finished
+        }
+    }
+
+
+    /**
+     * Waits for the specified worker to finish, even if the calling thread is interrupted, since
+     * the result cannot be returned while a worker may still be writing to it.
+     * @param worker The thread to wait for.
+     */
+    static void join(Thread worker)
+    {
+        boolean interrupted = false;
+
+        while ( worker.isAlive() )
+        {
+            try {
+                worker.join();
+            }
+
+            catch (InterruptedException ex)
+            {
+                interrupted = true;
+            }
+        }
+
+        if (interrupted)
+            Thread.currentThread().interrupt();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,634 @@
+/*
+ * @(#)PreparedLocation.java  1.0 2026-10-16
+ * @(#)PreparedLocation.java  1.1 2026-10-16
+ * @(#)PreparedLocation.java  1.2 2026-10-16
+ * @(#)PreparedLocation.java  1.3 2026-10-16
+ * @(#)PreparedLocation.java  1.4 2026-10-16
+ * @(#)PreparedLocation.java  1.5 2026-10-16
+ * @(#)PreparedLocation.java  1.6 2026-10-16
+ * @(#)PreparedLocation.java  1.7 2026-10-16
+ * @(#)PreparedLocation.java  1.8 2026-10-16
+ *
+ * Copyright 2009 Exes Technologies. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   - Redistributions of source code must retain the above copyright
+ *     notice, this list of conditions and the following disclaimer.
+ *
+ *   - Redistributions in binary form must reproduce the above copyright
+ *     notice, this list of conditions and the following disclaimer in the
+ *     documentation and/or other materials provided with the distribution.
+ *
+ *   - Neither the name of Exes Technologies nor the names of its
+ *     contributors may be used to endorse or promote products derived
+ *     from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.rim.maxillion.model.calculator;
+
+import java.util.Date;
+import net.rim.maxillion.model.calculator.utils.AngleParameters;
+import net.rim.maxillion.model.calculator.utils.CalculationMethod;
+import net.rim.maxillion.model.calculator.utils.GeoParameters;
+import net.rim.maxillion.model.calculator.utils.IntervalParameters;
+import net.rim.maxillion.model.calculator.utils.time.DaylightSavingsZone;
+import net.rim.maxillion.model.calculator.utils.time.EpochDay;
+import net.rim.maxillion.model.calculator.utils.time.TimeTable;
+import net.rim.maxillion.model.calculator.utils.time.TimeWrapper;
+
+
+/**
+ * Holds the values of a calculation that only depend on the location and the calculation
+ * method, so that they are worked out once instead of for every day calculated. This includes
+ * the sin and cos values of the latitude and of the reference latitude used at high latitudes,
+ * the sin values of the twilight angles and of the angles of the horizons, and which of the
+ * high latitude rules apply to the location.<br><br>
+ *
+ * The Fajr and Isha ratios used above 48 degrees only depend on the solstice of the year, so
+ * they are remembered for the last few years calculated instead of being worked out again for
+ * every day. Close to the poles, the days whose solar calculation is problematic are also
+ * remembered for each year. They are all found by a sweep over the declination of the sun the
+ * first time a day of the year is calculated, so that every problematic day of the year goes
+ * straight to the reference latitude, including the first time it is calculated.<br><br>
+ *
+ * The trigonometric values are taken from the Trigonometry provider in use when the location
+ * is prepared. Apart from the remembered ratios and days, an instance of this class cannot be modified
+ * once it is created, so it can be kept for as long as the location is needed and shared
+ * between threads. The remembered ratios and days are only read and written while holding the
+ * lock of the array that they are kept in, so that a thread never sees an entry that another
+ * thread has not finished writing. The entries of every year are allocated when the location is
+ * prepared and written over when a year replaces another in its slot, so that moving on to a new
+ * year does not create any objects either.
+ *
+ * @author Ragaeeb Haq
+ * @version 1.00 2026-10-16 Initial submission.
+ * @version 1.10 2026-10-16 The Fajr and Isha solstice ratios are now remembered for the last few
+ * years.
+ * @version 1.20 2026-10-16 The problematic days of locations close to the poles are now remembered for
+ * each year.
+ * @version 1.30 2026-10-16 The angles of the eastern and western horizons are now calculated when the
+ * location is prepared.
+ * @version 1.40 2026-10-16 The remembered ratios and problematic days are now guarded by the locks of
+ * their arrays so that the location can be calculated on several threads at once.
+ * @version 1.50 2026-10-16 A range of days can now be calculated into part of a timetable with a given
+ * workspace.
+ * @version 1.60 2026-10-16 Days of a range are now stored by their epoch day.
+ * @version 1.70 2026-10-16 The problematic days of a year are now all found when the year is first
+ * calculated instead of as each day is calculated.
+ * @version 1.80 2026-10-16 The remembered ratios and problematic days are now kept in entries that are
+ * allocated once and reused for each year, and the ratios are copied out rather than returned.
+ * @since MaxillionPrayers 3.0
+ */
+public final class PreparedLocation
+{
+    /** The number of days of the year held by each int of the problematic days. */
+    private static final int DAYS_PER_WORD = 32;
+
+    /** The year of an entry that no year has been remembered in yet. */
+    private static final int NO_YEAR = Integer.MIN_VALUE;
+
+    /** The time by which a local day can start before the UTC day, or end after it (in milliseconds). */
+    private static final long DAY_MARGIN = 14*3600000L;
+
+    /** The latitude above which the problematic days are remembered. The solar calculation only becomes problematic above about 65.5 degrees. */
+    private static final double POLAR_LATITUDE = Math.toRadians(60);
+
+    /** The number of years whose solstice ratios and problematic days are remembered. */
+    private static final int YEAR_CACHE_SIZE = 4;
+
+    /** The ratio of the length of the object to its shadow at the start of the Asr prayer. */
+    private final int asrShadowRatio;
+
+    /** The cos value of the latitude. */
+    private final double cosLatitude;
+
+    /** The cos value of the reference latitude used when the solar calculation is problematic. */
+    private final double cosMaxLatitude;
+
+    /** The interval added to the Dhuhr prayer. */
+    private final double dhuhrInterval;
+
+    /** The value of the Fajr ratio above which the Fajr time is taken from the night length. */
+    private final double fajrRatioLimit;
+
+    /** Is height correction possible at this location when the solar calculation succeeds? */
+    private final boolean heightCorrectable;
+
+    /** Are the Fajr and Isha times taken from the ratios of the reference latitude when the twilight persists? */
+    private final boolean highLatitude;
+
+    /** The interval added to the Isha prayer. */
+    private final double ishaInterval;
+
+    /** The value of the Isha ratio above which the Isha time is taken from the night length. */
+    private final double ishaRatioLimit;
+
+    /** The Isha twilight angle (in radians). */
+    private final double ishaTwilight;
+
+    /** The latitude (in radians). */
+    private final double latitude;
+
+    /** The location being calculated. */
+    private final GeoParameters location;
+
+    /** The interval added to the Maghrib prayer. */
+    private final double maghribInterval;
+
+    /** The reference latitude used when the solar calculation is problematic (in radians). */
+    private final double maxLatitude;
+
+    /** Is the location close enough to a pole for its problematic days to be remembered? */
+    private final boolean polar;
+
+    /** The remembered problematic days, each as the year followed by one bit for each day of the year. */
+    private final int[][] problematicDays;
+
+    /** The calculation method being used. */
+    private final CalculationMethod method;
+
+    /** The remembered solstice ratios, each as the solstice (in days since 1970-01-01) followed by the Fajr and Isha ratios. */
+    private final double[][] ratios;
+
+    /** The sin value of the angle of the eastern horizon below the location. */
+    private final double sinEasternAngle;
+
+    /** The sin value of the Fajr twilight angle below the horizon. */
+    private final double sinFajrAngle;
+
+    /** The sin value of the Isha twilight angle below the horizon. */
+    private final double sinIshaAngle;
+
+    /** The sin value of the latitude. */
+    private final double sinLatitude;
+
+    /** The sin value of the reference latitude used when the solar calculation is problematic. */
+    private final double sinMaxLatitude;
+
+    /** The sin value of the angle of the sun at sunrise and sunset on a flat horizon. */
+    private final double sinSunriseAngle;
+
+    /** The sin value of the angle of the western horizon below the location. */
+    private final double sinWesternAngle;
+
+
+    /**
+     * Prepares the specified location to be calculated with the specified method.
+     * @param g The geographical coordinates of the location.
+     * @param method The calculation method to use.
+     */
+    PreparedLocation(GeoParameters g, CalculationMethod method)
+    {
+        Trigonometry t = Trigonometry.getInstance();
+        AngleParameters angles = method.getAngles();
+        IntervalParameters intervals = method.getIntervals();
+        double fajrTwilight = angles.getFajrTwilightAngle();
+
+        this.location = g;
+        this.method = method;
+        this.latitude = g.getLatitude();
+        this.sinLatitude = t.sin(latitude);
+        this.cosLatitude = t.cos(latitude);
+        this.maxLatitude = SolarCalculator.getMaxLatitude(g);
+        this.sinMaxLatitude = t.sin(maxLatitude);
+        this.cosMaxLatitude = t.cos(maxLatitude);
+
+        this.ishaTwilight = angles.getIshaTwilightAngle();
+        this.sinFajrAngle = t.sin(-fajrTwilight);
+        this.sinIshaAngle = t.sin(-ishaTwilight);
+        this.fajrRatioLimit = IshaTimeCalculator.LINEAR_RATIO + IshaTimeCalculator.MULTIPLIER*fajrTwilight;
+        this.ishaRatioLimit = IshaTimeCalculator.LINEAR_RATIO + IshaTimeCalculator.MULTIPLIER*ishaTwilight;
+
+        this.dhuhrInterval = intervals.getDhuhrInterval();
+        this.maghribInterval = intervals.getMaghribInterval();
+        this.ishaInterval = intervals.getIshaInterval();
+        this.asrShadowRatio = method.getAsrShadowRatio();
+
+        this.highLatitude = Math.abs(latitude) >= IslamicEventAdjustedTimes.FAJR_MAX_RADIANS;
+        this.heightCorrectable = HeightCorrector.correctionNeeded( true, latitude, g.getWesternHeightDifference(), g.getEasternHeightDifference() );
+        this.sinSunriseAngle = t.sin(SolarCalculatorFormulae.SUNRISE_ARC_ANGLE);
+        this.sinWesternAngle = t.sin( HeightCorrector.getAngle( g.getWesternHeightDifference() ) );
+        this.sinEasternAngle = t.sin( HeightCorrector.getAngle( g.getEasternHeightDifference() ) );
+        this.ratios = new double[YEAR_CACHE_SIZE][3];
+
+        this.polar = !heightCorrectable && ( Math.abs(latitude) >= POLAR_LATITUDE );
+        this.problematicDays = new int[YEAR_CACHE_SIZE][ polar ? 1+(366+DAYS_PER_WORD-1)/DAYS_PER_WORD : 1 ];
+
+        for (int i = 0; i < YEAR_CACHE_SIZE; i++)
+        {
+            ratios[i][0] = Double.NaN; // matches no solstice
+            problematicDays[i][0] = NO_YEAR;
+        }
+    }
+
+
+    /**
+     * Calculates the prayer times of this location for the specified date.
+     * @param requestedDate The specific date to calculate the prayer times for.
+     * @return The prayer times of this location for the specified date.
+     */
+    public TimeWrapper[] calculate(Date requestedDate)
+    {
+        return calculateRange(requestedDate, 1).getDay(0);
+    }
+
+
+    /**
+     * Calculates the prayer times of this location for a range of consecutive days.
+     * @param start The first date to calculate the prayer times for.
+     * @param days The number of consecutive days to calculate the prayer times for.
+     * @return The prayer times of this location for every day in the range.
+     */
+    public TimeTable calculateRange(Date start, int days)
+    {
+        TimeTable table = new TimeTable(days);
+        calculateRange(new CalculationWorkspace(), start, table, 0, days);
+
+        return table;
+    }
+
+
+    /**
+     * Calculates the prayer times of this location for a range of consecutive days into part of
+     * a timetable, using the specified workspace.
+     * @param workspace The workspace to calculate in, which must not be in use by another thread.
+     * @param start The date of the first day to calculate.
+     * @param table The timetable to store the prayer times in.
+     * @param first The day of the timetable that the start date is stored at.
+     * @param days The number of consecutive days to calculate.
+     */
+    void calculateRange(CalculationWorkspace workspace, Date start, TimeTable table, int first, int days)
+    {
+        int[] times = workspace.calculate(this, start);
+
+        for (int day = first; day < first+days; day++)
+        {
+            if (day > first)
+                times = workspace.next(); // tomorrow's calculation is reused as the next day in the range
+
+            table.setDay( day, times, workspace.getDay() );
+        }
+    }
+
+
+    /**
+     * Gets the geographical coordinates of this location.
+     * @return The location that was prepared.
+     */
+    public GeoParameters getLocation()
+    {
+        return location;
+    }
+
+
+    /**
+     * Gets the calculation method this location was prepared with.
+     * @return The calculation method being used.
+     */
+    public CalculationMethod getMethod()
+    {
+        return method;
+    }
+
+
+    /**
+     * Gets the ratio of the length of the object to its shadow at the start of the Asr prayer.
+     * @return The Asr shadow ratio of the method.
+     */
+    int getAsrShadowRatio()
+    {
+        return asrShadowRatio;
+    }
+
+
+    /**
+     * Gets the cos value of the latitude.
+     * @return The cos value of the latitude.
+     */
+    double getCosLatitude()
+    {
+        return cosLatitude;
+    }
+
+
+    /**
+     * Gets the cos value of the reference latitude used when the solar calculation is problematic.
+     * @return The cos value of the reference latitude.
+     */
+    double getCosMaxLatitude()
+    {
+        return cosMaxLatitude;
+    }
+
+
+    /**
+     * Gets the interval added to the Dhuhr prayer.
+     * @return The Dhuhr interval of the method.
+     */
+    double getDhuhrInterval()
+    {
+        return dhuhrInterval;
+    }
+
+
+    /**
+     * Gets the value of the Fajr ratio above which the Fajr time is taken from the night length.
+     * @return The limit of the Fajr ratio.
+     */
+    double getFajrRatioLimit()
+    {
+        return fajrRatioLimit;
+    }
+
+
+    /**
+     * Gets the interval added to the Isha prayer.
+     * @return The Isha interval of the method.
+     */
+    double getIshaInterval()
+    {
+        return ishaInterval;
+    }
+
+
+    /**
+     * Gets the value of the Isha ratio above which the Isha time is taken from the night length.
+     * @return The limit of the Isha ratio.
+     */
+    double getIshaRatioLimit()
+    {
+        return ishaRatioLimit;
+    }
+
+
+    /**
+     * Gets the Isha twilight angle.
+     * @return The Isha twilight angle (in radians), or 0 if the Isha time is a fixed interval
+     * after the Maghrib time.
+     */
+    double getIshaTwilight()
+    {
+        return ishaTwilight;
+    }
+
+
+    /**
+     * Gets the latitude.
+     * @return The latitude (in radians).
+     */
+    double getLatitude()
+    {
+        return latitude;
+    }
+
+
+    /**
+     * Gets the interval added to the Maghrib prayer.
+     * @return The Maghrib interval of the method.
+     */
+    double getMaghribInterval()
+    {
+        return maghribInterval;
+    }
+
+
+    /**
+     * Gets the reference latitude used when the solar calculation is problematic.
+     * @return The reference latitude (in radians).
+     */
+    double getMaxLatitude()
+    {
+        return maxLatitude;
+    }
+
+
+    /**
+     * Gets the remembered Fajr and Isha ratios of the specified solstice. The ratios are copied
+     * while holding the lock, since their entry is written over once another year takes its slot.
+     * @param solstice The solstice the ratios were calculated at (in days since 1970-01-01).
+     * @param result The array to copy the Fajr and Isha ratios into, in that order.
+     * @return true if the ratios were remembered and copied, false otherwise.
+     */
+    boolean getSolsticeRatios(int solstice, double[] result)
+    {
+        boolean found;
+
+        synchronized (ratios)
+        {
+            double[] entry = ratios[ getYearSlot( EpochDay.getYear(solstice) ) ];
+            found = entry[0] == solstice;
+
+            if (found)
+            {
+                result[0] = entry[1];
+                result[1] = entry[2];
+            }
+        }
+
+        return found;
+    }
+
+
+    /**
+     * Gets the sin value of the angle of the eastern horizon below the location.
+     * @return The sin value of the eastern horizon angle.
+     */
+    double getSinEasternAngle()
+    {
+        return sinEasternAngle;
+    }
+
+
+    /**
+     * Gets the sin value of the Fajr twilight angle below the horizon.
+     * @return The sin value of the negated Fajr twilight angle.
+     */
+    double getSinFajrAngle()
+    {
+        return sinFajrAngle;
+    }
+
+
+    /**
+     * Gets the sin value of the Isha twilight angle below the horizon.
+     * @return The sin value of the negated Isha twilight angle.
+     */
+    double getSinIshaAngle()
+    {
+        return sinIshaAngle;
+    }
+
+
+    /**
+     * Gets the sin value of the latitude.
+     * @return The sin value of the latitude.
+     */
+    double getSinLatitude()
+    {
+        return sinLatitude;
+    }
+
+
+    /**
+     * Gets the sin value of the reference latitude used when the solar calculation is problematic.
+     * @return The sin value of the reference latitude.
+     */
+    double getSinMaxLatitude()
+    {
+        return sinMaxLatitude;
+    }
+
+
+    /**
+     * Gets the sin value of the angle of the sun at sunrise and sunset on a flat horizon.
+     * @return The sin value of the sunrise angle.
+     */
+    double getSinSunriseAngle()
+    {
+        return sinSunriseAngle;
+    }
+
+
+    /**
+     * Gets the sin value of the angle of the western horizon below the location.
+     * @return The sin value of the western horizon angle.
+     */
+    double getSinWesternAngle()
+    {
+        return sinWesternAngle;
+    }
+
+
+    /**
+     * Is the solar calculation of the specified day known to be problematic? Such a day can be
+     * calculated at the reference latitude straight away. The first time a day of a year is
+     * asked about, every problematic day of that year is found, replacing the days of a year
+     * that shares its slot.
+     * @param epochDay The day being calculated (in days since 1970-01-01).
+     * @param sc The solar calculator to find the problematic days of the year with. Its results
+     * are left undefined.
+     * @return true if the day is problematic, false if it is not or may not be.
+     */
+    boolean isProblematic(int epochDay, SolarCalculator sc)
+    {
+        boolean result = false;
+
+        if (polar)
+        {
+            int year = EpochDay.getYear(epochDay);
+            int day = EpochDay.getDayOfYear(epochDay)-1;
+
+            synchronized (problematicDays)
+            {
+                int[] entry = problematicDays[ getYearSlot(year) ];
+
+                if (entry[0] != year)
+                    findProblematicDays(year, sc, entry);
+
+                result = ( entry[1+day/DAYS_PER_WORD] & ( 1 << (day % DAYS_PER_WORD) ) ) != 0;
+            }
+        }
+
+        return result;
+    }
+
+
+    /**
+     * Finds every day of the specified year whose solar calculation is problematic. A day is only
+     * included if its daylight savings adjustment is the one used for the calculation at any time
+     * of the day, in any time zone, so that it is problematic for every calculation of it. The
+     * few days on which the adjustment changes are left to be found as they are calculated.
+     * @param year The year.
+     * @param sc The solar calculator to check each day with.
+     * @param result The entry to write the year into, followed by one bit for each day of the
+     * year that is set if the day is problematic.
+     */
+    private void findProblematicDays(int year, SolarCalculator sc, int[] result)
+    {
+        DaylightSavingsZone zone = location.getDaylightSavingsZone();
+        int first = EpochDay.fromDate(year, 1, 1);
+        int days = EpochDay.fromDate(year+1, 1, 1)-first;
+
+        result[0] = year;
+
+        for (int i = 1; i < result.length; i++)
+            result[i] = 0;
+
+        for (int day = 0; day < days; day++)
+        {
+            long start = (first+day)*EpochDay.MILLISECONDS_IN_A_DAY;
+            double dstOffset = zone.getAdjustment(start-DAY_MARGIN);
+            boolean uniform = zone.getAdjustment(start+EpochDay.MILLISECONDS_IN_A_DAY+DAY_MARGIN) == dstOffset;
+
+            if ( uniform && sc.isProblematic(first+day, this, dstOffset) )
+                result[1+day/DAYS_PER_WORD] |= 1 << (day % DAYS_PER_WORD);
+        }
+    }
+
+
+    /**
+     * Remembers the Fajr and Isha ratios of the specified solstice, writing over those of a year
+     * that shares its slot.
+     * @param solstice The solstice the ratios were calculated at (in days since 1970-01-01).
+     * @param fajr The Fajr ratio.
+     * @param isha The Isha ratio.
+     */
+    void putSolsticeRatios(int solstice, double fajr, double isha)
+    {
+        synchronized (ratios)
+        {
+            double[] entry = ratios[ getYearSlot( EpochDay.getYear(solstice) ) ];
+            entry[0] = solstice;
+            entry[1] = fajr;
+            entry[2] = isha;
+        }
+    }
+
+
+    /**
+     * Is height correction possible at this location? It is only done when the solar
+     * calculation succeeds.
+     * @return true if the location is low enough and has a horizon height difference.
+     */
+    boolean isHeightCorrectable()
+    {
+        return heightCorrectable;
+    }
+
+
+    /**
+     * Are the Fajr and Isha times taken from the ratios of the reference latitude when the
+     * twilight persists through the night?
+     * @return true if the location is above 48 degrees (north or south).
+     */
+    boolean isHighLatitude()
+    {
+        return highLatitude;
+    }
+
+
+    /**
+     * Gets the slot that the values of the specified year are remembered in. Consecutive years
+     * fall in different slots.
+     * @param year The year.
+     * @return The index of the slot.
+     */
+    private static int getYearSlot(int year)
+    {
+        return year & (YEAR_CACHE_SIZE-1);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,426 @@
+/*
+ * @(#)ScheduleCache.java  1.0 2026-10-16
+ * @(#)ScheduleCache.java  1.1 2026-10-16
+ * @(#)ScheduleCache.java  1.2 2026-10-16
+ * @(#)ScheduleCache.java  1.3 2026-10-16
+ * @(#)ScheduleCache.java  1.4 2026-10-16
+ * @(#)ScheduleCache.java  1.5 2026-10-16
+ * @(#)ScheduleCache.java  1.6 2026-10-16
+ * @(#)ScheduleCache.java  1.7 2026-10-16
+ *
+ * Copyright 2009 Exes Technologies. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   - Redistributions of source code must retain the above copyright
+ *     notice, this list of conditions and the following disclaimer.
+ *
+ *   - Redistributions in binary form must reproduce the above copyright
+ *     notice, this list of conditions and the following disclaimer in the
+ *     documentation and/or other materials provided with the distribution.
+ *
+ *   - Neither the name of Exes Technologies nor the names of its
+ *     contributors may be used to endorse or promote products derived
+ *     from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.rim.maxillion.model.calculator;
+
+import java.util.Date;
+
+import net.rim.device.api.util.LongHashtable;
+import net.rim.maxillion.model.calculator.utils.GeoParameters;
+import net.rim.maxillion.model.calculator.utils.time.EpochDay;
+import net.rim.maxillion.model.calculator.utils.time.TimeTable;
+
+
+/**
+ * Caches the prayer times of a day by geography. Locations a few kilometres apart share the
+ * same prayer times to within a few seconds, so rather than calculating each location the
+ * world is divided into cells, and every location that falls within a cell is given the prayer
+ * times calculated at its centre.<br><br>
+ *
+ * Each day and time zone has its own tree of cells. A cell is only kept as a whole if the
+ * prayer times at its four corners and at its centre differ by no more than the tolerance;
+ * otherwise it is split into four quadrants and the quadrant holding the location is evaluated
+ * in turn. The centre is compared as well since it is the centre that the cell is answered
+ * from, and a time that bends across the cell can agree at the corners and not in between.
+ * Since the prayer times vary smoothly across a small cell, any location within a kept cell is
+ * within the tolerance of the times at its centre. Cells that cannot be brought within the tolerance
+ * before they become too small to be worth caching (for instance where a high latitude
+ * adjustment starts to apply) are not cached at all, and locations in them are calculated.<br><br>
+ *
+ * The number of cells kept is capped, counting the cells that were split as well as those
+ * holding prayer times, and the least recently used cell is discarded once the cap is reached.
+ * A lookup uses every cell on its way down, from the innermost one back up to the root of its
+ * tree, so a cell is always used more recently than any cell inside it. The least recently
+ * used cell therefore never has any quadrants left, and discarding it (or the root of an empty
+ * tree) never leaves a cell behind that can no longer be reached. Each cell takes roughly 100
+ * bytes.<br><br>
+ *
+ * An instance of this class is thread-safe.
+ *
+ * @author Ragaeeb Haq
+ * @version 1.00 2026-10-16 Initial submission.
+ * @version 1.10 2026-10-16 A separate tree is now kept for each daylight savings zone.
+ * @version 1.20 2026-10-16 Trees are now keyed by epoch day rather than by a year and day found with a
+ * Calendar.
+ * @version 1.30 2026-10-16 Locations with horizon heights are calculated directly instead of from a
+ * shared cell.
+ * @version 1.40 2026-10-16 Every cell now counts against the cap and is discarded once it is the least
+ * recently used one, so split cells and empty trees no longer pile up. A cap of less than one cell is
+ * rejected.
+ * @version 1.50 2026-10-16 The corners of a cell are now compared before their times are moved on to
+ * the next minute, and the half-night is allowed a minute more, so cells that a half minute runs
+ * through are no longer split as far as they go.
+ * @version 1.60 2026-10-16 The corners of a cell are compared as they were calculated again, and the
+ * half-night is held to the same tolerance, since TimeFormatter no longer moves times on to the next
+ * minute.
+ * @version 1.70 2026-10-16 The centre of a cell is now compared along with its corners, and its times
+ * are calculated once for both.
+ * @since MaxillionPrayers 3.0
+ */
+public final class ScheduleCache
+{
+    /** The number of times a cell can be split. A cell at this depth is about 600m wide. */
+    private static final int MAX_DEPTH = 16;
+
+    /** The maximum latitude (in degrees). */
+    private static final double MAX_LATITUDE = 90;
+
+    /** The maximum longitude (in degrees). */
+    private static final double MAX_LONGITUDE = 180;
+
+    /** Used to fit time zones such as +5:30 into the key of a tree. */
+    private static final int QUARTERS_IN_AN_HOUR = 4;
+
+    /** The number of bits of the key of a tree used by the time zone. */
+    private static final int TIME_ZONE_BITS = 16;
+
+    /** The number of bits of the key of a tree used by the day. */
+    private static final int DAY_BITS = 24;
+
+    /** The number of bits of the key of a tree below the daylight savings zone. */
+    private static final int ZONE_SHIFT = 40;
+
+    /** The number of cells currently kept, split or not. */
+    private int cells;
+
+    /** The prayer times at the centre of the cell being evaluated. */
+    private int[] centre;
+
+    /** The greatest number of cells that can be kept at once. */
+    private int maxCells;
+
+    /** The latest time of each event found among the corners of a cell. */
+    private int[] maximums;
+
+    /** The earliest time of each event found among the corners of a cell. */
+    private int[] minimums;
+
+    /** The most recently used cell. */
+    private ScheduleCacheNode newest;
+
+    /** The least recently used cell. */
+    private ScheduleCacheNode oldest;
+
+    /** The root cell of each tree, keyed by day and time zone. */
+    private LongHashtable roots;
+
+    /** The greatest difference allowed between the prayer times of the corners of a cell. */
+    private int tolerance;
+
+    /** Calculates the prayer times that are not cached. */
+    private CalculationWorkspace workspace;
+
+
+    /**
+     * Creates an empty cache.
+     * @param tolerance The greatest difference (in seconds) allowed between the prayer times of
+     * any location in a cell and the prayer times given for that cell.
+     * @param maxCells The greatest number of cells that can be kept at once, including the
+     * cells that were split.
+     * @throws IllegalArgumentException If the greatest number of cells is less than 1.
+     */
+    public ScheduleCache(int tolerance, int maxCells)
+    {
+        if (maxCells < 1)
+            throw new IllegalArgumentException("At least one cell is needed: " + maxCells);
+
+        this.tolerance = tolerance;
+        this.maxCells = maxCells;
+        this.roots = new LongHashtable();
+        this.workspace = new CalculationWorkspace();
+        this.centre = new int[TimeTable.EVENTS_PER_DAY];
+        this.maximums = new int[TimeTable.EVENTS_PER_DAY];
+        this.minimums = new int[TimeTable.EVENTS_PER_DAY];
+    }
+
+
+    /**
+     * Gets the prayer times of the specified location and date from the cache, calculating
+     * them for the cell that the location falls in if needed.
+     * @param g The geographical coordinates of the location to get the prayer times for.
+     * @param requestedDate The specific date to get the prayer times for.
+     * @param result The array to copy the prayer times into (in seconds since the start of the
+     * day), indexed by their TimeCriticalEvent value.
+     */
+    public synchronized void get(GeoParameters g, Date requestedDate, int[] result)
+    {
+        double latitude = Math.toDegrees( g.getLatitude() );
+        double longitude = Math.toDegrees( g.getLongitude() );
+        double south = -MAX_LATITUDE;
+        double north = MAX_LATITUDE;
+        double west = -MAX_LONGITUDE;
+        double east = MAX_LONGITUDE;
+        ScheduleCacheNode node = null;
+        int[] times = null;
+
+        if ( g.hasHorizonHeights() )
+            times = workspace.calculate(g, requestedDate); // the horizon is particular to the location so its cell cannot be shared
+
+        else
+            node = getRoot(requestedDate, g);
+
+        for (int depth = 0; times == null; depth++)
+        {
+            if ( !node.isLeaf() && !node.isSplit() )
+                evaluate(node, south, north, west, east, g, requestedDate);
+
+            if ( node.isLeaf() )
+                times = node.getTimes();
+
+            else if (depth+1 == MAX_DEPTH)
+                times = workspace.calculate(g, requestedDate); // the cell is too small to be worth caching
+
+            else
+            {
+                double middleLatitude = (south+north)/2;
+                double middleLongitude = (west+east)/2;
+                int q = 0;
+
+                if (latitude >= middleLatitude)
+                {
+                    q += 2;
+                    south = middleLatitude;
+                }
+
+                else
+                    north = middleLatitude;
+
+                if (longitude >= middleLongitude)
+                {
+                    q += 1;
+                    west = middleLongitude;
+                }
+
+                else
+                    east = middleLongitude;
+
+                node = node.getChild(q);
+            }
+        }
+
+        for (ScheduleCacheNode n = node; n != null; n = n.getParent()) // from the inside out so that no cell is older than the cells inside it
+            use(n);
+
+        while (cells > maxCells)
+            evict(oldest);
+
+        System.arraycopy(times, 0, result, 0, TimeTable.EVENTS_PER_DAY);
+    }
+
+
+    /**
+     * Discards every cached cell.
+     */
+    public synchronized void clear()
+    {
+        roots.clear();
+        newest = null;
+        oldest = null;
+        cells = 0;
+    }
+
+
+    /**
+     * Gets the number of cells currently kept, including the cells that were split.
+     * @return The number of cached cells.
+     */
+    public synchronized int size()
+    {
+        return cells;
+    }
+
+
+    /**
+     * Decides whether the specified cell can be kept as a whole by comparing the prayer times
+     * at its corners and its centre. If it can, it becomes a leaf holding the prayer times at
+     * its centre, otherwise it is split.
+     * @param node The unevaluated cell.
+     * @param south The southern edge of the cell (in degrees).
+     * @param north The northern edge of the cell (in degrees).
+     * @param west The western edge of the cell (in degrees).
+     * @param east The eastern edge of the cell (in degrees).
+     * @param g The location whose time zone and daylight savings zone are those of the tree.
+     * @param requestedDate The date of the tree.
+     */
+    private void evaluate(ScheduleCacheNode node, double south, double north, double west, double east, GeoParameters g, Date requestedDate)
+    {
+        GeoParameters middle = new GeoParameters( (south+north)/2, (west+east)/2, g.getTimeZone(), g.getDaylightSavingsZone() );
+        System.arraycopy( workspace.calculate(middle, requestedDate), 0, centre, 0, TimeTable.EVENTS_PER_DAY );
+
+        for (int i = 0; i < TimeTable.EVENTS_PER_DAY; i++)
+        {
+            minimums[i] = centre[i];
+            maximums[i] = centre[i];
+        }
+
+        includeCorner(south, west, g, requestedDate);
+        includeCorner(south, east, g, requestedDate);
+        includeCorner(north, west, g, requestedDate);
+        includeCorner(north, east, g, requestedDate);
+
+        boolean withinTolerance = true;
+
+        for (int i = 0; (i < TimeTable.EVENTS_PER_DAY) && withinTolerance; i++)
+            withinTolerance = maximums[i]-minimums[i] <= tolerance;
+
+        if (withinTolerance)
+        {
+            int[] times = new int[TimeTable.EVENTS_PER_DAY];
+            System.arraycopy(centre, 0, times, 0, TimeTable.EVENTS_PER_DAY);
+
+            node.setTimes(times);
+        }
+
+        else
+            node.split();
+    }
+
+
+    /**
+     * Discards the specified cell. If it is the root of its tree, the whole tree is discarded.
+     * @param node The least recently used cell, which has no quadrants left.
+     */
+    private void evict(ScheduleCacheNode node)
+    {
+        unlink(node);
+        cells--;
+
+        if ( node.getParent() == null )
+            roots.remove( node.getKey() );
+
+        else
+            node.detach();
+    }
+
+
+    /**
+     * Gets the root cell of the tree for the specified day, time zone and daylight savings zone,
+     * creating it if it does not exist yet.
+     * @param requestedDate A time on the day of the tree.
+     * @param g The location whose time zone and daylight savings zone are those of the tree.
+     * @return The root cell covering the whole world.
+     */
+    private ScheduleCacheNode getRoot(Date requestedDate, GeoParameters g)
+    {
+        long day = EpochDay.getLocalDay( requestedDate.getTime() ) & ( (1 << DAY_BITS)-1 );
+        long zone = (int)( g.getTimeZone()*QUARTERS_IN_AN_HOUR ) & ( (1 << TIME_ZONE_BITS)-1 );
+        long key = ( (long)g.getDaylightSavingsZone().getId() << ZONE_SHIFT ) | (day << TIME_ZONE_BITS) | zone;
+        ScheduleCacheNode root = (ScheduleCacheNode)roots.get(key);
+
+        if (root == null)
+        {
+            root = new ScheduleCacheNode(null, 0, key);
+            roots.put(key, root);
+        }
+
+        return root;
+    }
+
+
+    /**
+     * Calculates the prayer times at a corner of a cell and widens the range of each event to
+     * include them.
+     * @param latitude The latitude of the corner (in degrees).
+     * @param longitude The longitude of the corner (in degrees).
+     * @param g The location whose time zone and daylight savings zone are those of the tree.
+     * @param requestedDate The date of the tree.
+     */
+    private void includeCorner(double latitude, double longitude, GeoParameters g, Date requestedDate)
+    {
+        int[] times = workspace.calculate( new GeoParameters( latitude, longitude, g.getTimeZone(), g.getDaylightSavingsZone() ), requestedDate );
+
+        for (int i = 0; i < TimeTable.EVENTS_PER_DAY; i++)
+        {
+            minimums[i] = Math.min( minimums[i], times[i] );
+            maximums[i] = Math.max( maximums[i], times[i] );
+        }
+    }
+
+
+    /**
+     * Removes the specified cell from the list of cells holding prayer times.
+     * @param node The cell to remove.
+     */
+    private void unlink(ScheduleCacheNode node)
+    {
+        ScheduleCacheNode newer = node.getNewer();
+        ScheduleCacheNode older = node.getOlder();
+
+        if (newer == null)
+            newest = older;
+
+        else
+            newer.setOlder(older);
+
+        if (older == null)
+            oldest = newer;
+
+        else
+            older.setNewer(newer);
+
+        node.link(null, null);
+    }
+
+
+    /**
+     * Marks the specified cell as the most recently used one, counting it if it is new.
+     * @param node The cell that was used.
+     */
+    private void use(ScheduleCacheNode node)
+    {
+        if (node != newest)
+        {
+            if ( node.getNewer() != null ) // the cell is already in the list
+                unlink(node);
+
+            else
+                cells++;
+
+            node.link(null, newest);
+
+            if (newest != null)
+                newest.setNewer(node);
+
+            newest = node;
+
+            if (oldest == null)
+                oldest = node;
+        }
+    }
+}
\ No newline at end of file
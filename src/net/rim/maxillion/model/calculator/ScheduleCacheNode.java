@@ -0,0 +1,234 @@
+/*
+ * @(#)ScheduleCacheNode.java  1.0 2026-10-16
+ * @(#)ScheduleCacheNode.java  1.1 2026-10-16
+ *
+ * Copyright 2009 Exes Technologies. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   - Redistributions of source code must retain the above copyright
+ *     notice, this list of conditions and the following disclaimer.
+ *
+ *   - Redistributions in binary form must reproduce the above copyright
+ *     notice, this list of conditions and the following disclaimer in the
+ *     documentation and/or other materials provided with the distribution.
+ *
+ *   - Neither the name of Exes Technologies nor the names of its
+ *     contributors may be used to endorse or promote products derived
+ *     from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.rim.maxillion.model.calculator;
+
+
+/**
+ * A cell of the geographical tree kept by the ScheduleCache. A cell starts out unevaluated. Once
+ * evaluated it either becomes a leaf that holds the prayer times shared by every location in
+ * it, or it is split into four quadrants that are created as they are needed. Every cell, split
+ * or not, is also linked together with the others from the most to the least recently used.
+ *
+ * @author Ragaeeb Haq
+ * @version 1.00 2026-10-16 Initial submission.
+ * @version 1.10 2026-10-16 Every cell is now linked into the list of recently used cells, not only the
+ * leaves.
+ * @since MaxillionPrayers 3.0
+ */
+class ScheduleCacheNode
+{
+    /** The number of quadrants a cell is split into. */
+    public static final int QUADRANTS = 4;
+
+    /** The quadrants of this cell, or null if it was not split. */
+    private ScheduleCacheNode[] children;
+
+    /** The key of the tree this cell belongs to. */
+    private long key;
+
+    /** The cell that was used just before this one. */
+    private ScheduleCacheNode newer;
+
+    /** The cell that was used just after this one. */
+    private ScheduleCacheNode older;
+
+    /** The cell this is a quadrant of, or null if this is the root of its tree. */
+    private ScheduleCacheNode parent;
+
+    /** The quadrant of the parent that this cell occupies. */
+    private int quadrant;
+
+    /** The prayer times shared by the whole cell, or null if this is not a leaf. */
+    private int[] times;
+
+
+    /**
+     * Creates an unevaluated cell.
+     * @param parent The cell this is a quadrant of, or null if this is the root of its tree.
+     * @param quadrant The quadrant of the parent that this cell occupies.
+     * @param key The key of the tree this cell belongs to.
+     */
+    public ScheduleCacheNode(ScheduleCacheNode parent, int quadrant, long key)
+    {
+        this.parent = parent;
+        this.quadrant = quadrant;
+        this.key = key;
+    }
+
+
+    /**
+     * Gets one of the quadrants of this cell, creating it if it does not exist yet. This cell
+     * must have been split.
+     * @param q The quadrant to get.
+     * @return The quadrant of this cell.
+     */
+    public ScheduleCacheNode getChild(int q)
+    {
+        if (children[q] == null)
+            children[q] = new ScheduleCacheNode(this, q, key);
+
+        return children[q];
+    }
+
+
+    /**
+     * Gets the key of the tree this cell belongs to.
+     * @return The key that the root of the tree is stored under.
+     */
+    public long getKey()
+    {
+        return key;
+    }
+
+
+    /**
+     * Gets the cell that was used just before this one.
+     * @return The more recently used cell, or null if this is the most recently used one.
+     */
+    public ScheduleCacheNode getNewer()
+    {
+        return newer;
+    }
+
+
+    /**
+     * Gets the cell that was used just after this one.
+     * @return The less recently used cell, or null if this is the least recently used one.
+     */
+    public ScheduleCacheNode getOlder()
+    {
+        return older;
+    }
+
+
+    /**
+     * Gets the cell this is a quadrant of.
+     * @return The parent cell, or null if this is the root of its tree.
+     */
+    public ScheduleCacheNode getParent()
+    {
+        return parent;
+    }
+
+
+    /**
+     * Gets the prayer times shared by the whole cell.
+     * @return The prayer times in seconds since the start of the day, or null if this is not a
+     * leaf.
+     */
+    public int[] getTimes()
+    {
+        return times;
+    }
+
+
+    /**
+     * Determines whether this cell holds the prayer times of the whole cell.
+     * @return true If this is a leaf, false otherwise.
+     */
+    public boolean isLeaf()
+    {
+        return times != null;
+    }
+
+
+    /**
+     * Determines whether this cell was split into quadrants.
+     * @return true If this cell was split, false otherwise.
+     */
+    public boolean isSplit()
+    {
+        return children != null;
+    }
+
+
+    /**
+     * Removes this cell from its parent.
+     */
+    public void detach()
+    {
+        parent.children[quadrant] = null;
+    }
+
+
+    /**
+     * Sets the cells used just before and after this one.
+     * @param newer The more recently used cell, or null if this is the most recently used one.
+     * @param older The less recently used cell, or null if this is the least recently used one.
+     */
+    public void link(ScheduleCacheNode newer, ScheduleCacheNode older)
+    {
+        this.newer = newer;
+        this.older = older;
+    }
+
+
+    /**
+     * Sets the cell used just after this one.
+     * @param older The less recently used cell, or null if this is the least recently used one.
+     */
+    public void setOlder(ScheduleCacheNode older)
+    {
+        this.older = older;
+    }
+
+
+    /**
+     * Sets the cell used just before this one.
+     * @param newer The more recently used cell, or null if this is the most recently used one.
+     */
+    public void setNewer(ScheduleCacheNode newer)
+    {
+        this.newer = newer;
+    }
+
+
+    /**
+     * Turns this cell into a leaf.
+     * @param times The prayer times shared by the whole cell.
+     */
+    public void setTimes(int[] times)
+    {
+        this.times = times;
+    }
+
+
+    /**
+     * Splits this cell into quadrants.
+     */
+    public void split()
+    {
+        this.children = new ScheduleCacheNode[QUADRANTS];
+    }
+}
\ No newline at end of file
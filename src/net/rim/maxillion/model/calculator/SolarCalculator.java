@@ -2,6 +2,16 @@
  * @(#)SolarCalculator.java 1.0 2009-06-22
  * @(#)SolarCalculator.java 1.1 2009-09-15
  * @(#)SolarCalculator.java 1.2 2010-04-27
+ * @(#)SolarCalculator.java 1.3 2026-10-16
+ * @(#)SolarCalculator.java 1.4 2026-10-16
+ * @(#)SolarCalculator.java 1.5 2026-10-16
+ * @(#)SolarCalculator.java 1.6 2026-10-16
+ * @(#)SolarCalculator.java 1.7 2026-10-16
+ * @(#)SolarCalculator.java 1.8 2026-10-16
+ * @(#)SolarCalculator.java 1.9 2026-10-16
+ * @(#)SolarCalculator.java 2.0 2026-10-16
+ * @(#)SolarCalculator.java 2.1 2026-10-16
+ * @(#)SolarCalculator.java 2.2 2026-10-16
  *
  * Copyright 2009 Exes Technologies. All Rights Reserved.
  *
@@ -43,7 +53,6 @@
  */
 package net.rim.maxillion.model.calculator;
 
-import java.util.Calendar;
 import net.rim.maxillion.model.calculator.utils.GeoParameters;
 import net.rim.maxillion.model.calculator.utils.SalatConstants;
 import net.rim.maxillion.model.calculator.utils.time.TimeFormatter;
@@ -60,6 +69,22 @@ import net.rim.maxillion.model.calculator.utils.time.TimeFormatter;
  * @version 1.20 2010-04-27 CalendarConversion access is now static so no instance reference needed.
  * SolarCalculatorFormulae access is once again static. Updated to comply with the SalatConstants enum.
  * This class now has package visiblity.
+ * @version 1.30 2026-10-16 Equatorial coordinates are now calculated in place and the height corrector
+ * is reset when no correction is needed so that an instance can be reused.
+ * @version 1.40 2026-10-16 The position of the sun is now taken from a cache shared by all locations.
+ * @version 1.50 2026-10-16 The position of the sun can now be looked up in a precomputed ephemeris
+ * table.
+ * @version 1.60 2026-10-16 The trigonometric functions are now taken from the current Trigonometry
+ * provider.
+ * @version 1.70 2026-10-16 Days are now given as epoch days rather than Calendars.
+ * @version 1.80 2026-10-16 The sin and cos values of the latitude now come from the prepared location.
+ * @version 1.90 2026-10-16 Days known to be problematic are now calculated at the reference latitude
+ * in a single pass.
+ * @version 2.00 2026-10-16 The horizon height differences now come from the prepared location.
+ * @version 2.10 2026-10-16 Cached positions of the sun are now discarded when the ephemeris table or
+ * trigonometry provider changes.
+ * @version 2.20 2026-10-16 A day can now be checked for being problematic on its own, so that the
+ * problematic days of a whole year can be found at once.
  * @since MaxillionPrayers 1.0
  */
 class SolarCalculator
@@ -67,21 +92,36 @@ class SolarCalculator
     /** The maximum CH value. */
     public static final double MAX_CH_VALUE = 1;
 
+    /** The number of ephemerides cached. This covers a few days for every time zone. */
+    private static final int EPHEMERIS_CACHE_SIZE = 128;
+
+    /** The position of the sun shared by all locations calculated for the same day and time zone. */
+    private static final EphemerisCache CACHE = new EphemerisCache(EPHEMERIS_CACHE_SIZE);
+
+    /** The precomputed position of the sun, or null if it should always be calculated. */
+    private static volatile EphemerisTable table;
+
+    /** The position of the sun for the day being calculated. */
+    private Ephemeris ephemeris;
+
+    /** The cos value of the latitude. */
+    private double cosLatitude;
+
     /** The calculated equatorial coordinates. */
     private double[] equatorialCoordinates;
 
     /** Performs height correction for problematic locations. */
     private HeightCorrector heightC;
 
-    /** The latitude of the region to calculate the solar position data for. */
-    private double latitude;
-
     /** The maximum latitude to use to calculate the solar position data for. */
     private double maxLatitude;
 
     /** The calculated noon time. */
     private double noonTime;
 
+    /** The sin value of the latitude. */
+    private double sinLatitude;
+
     /** The calculated time of the sun rise. */
     private double sunrise;
 
@@ -95,6 +135,7 @@ class SolarCalculator
     public SolarCalculator()
     {
         this.equatorialCoordinates = new double[2];
+        this.ephemeris = new Ephemeris();
         this.heightC = new HeightCorrector();
     }
 
@@ -102,26 +143,37 @@ class SolarCalculator
     /**
      * Performs the solar calculations for the geographical region specified given the
      * specified parameters. If recalculation is needed, it is performed.
-     * @param gc The date and time to perform the solar calculations for.
-     * @param g The geographical data on the location to perform the solar calculations for.
+     * @param epochDay The day to perform the solar calculations for (in days since 1970-01-01).
+     * @param p The location to perform the solar calculations for.
      * @param dstOffset The necessary daylight savings time offset adjustment.
      * @return true If recalculation was needed due to a problematic calculation done.
      */
-    public boolean calculate(Calendar gc, GeoParameters g, double dstOffset)
+    public boolean calculate(int epochDay, PreparedLocation p, double dstOffset)
     {
-        boolean success = performCalculation( gc, g.getTimeZone(), g.getLongitude(), g.getLatitude(), dstOffset );
-        boolean correctionNeeded = HeightCorrector.correctionNeeded( success, g.getLatitude(), SalatConstants.HEIGHT_DIFFERENCE_WEST, SalatConstants.HEIGHT_DIFFERENCE_EAST );
+        GeoParameters g = p.getLocation();
+        boolean recalculationNeeded = p.isProblematic(epochDay, this); // a day known to be problematic goes straight to the reference latitude
+
+        if (recalculationNeeded)
+            heightC.reset(); // only locations too close to the poles for height correction have problematic days remembered
+
+        else
+        {
+            boolean success = performCalculation( epochDay, g.getTimeZone(), g.getLongitude(), p.getSinLatitude(), p.getCosLatitude(), dstOffset );
+            boolean correctionNeeded = success && p.isHeightCorrectable();
 
-        if (correctionNeeded)
-            heightC.correct( getSinDeclination(), getCosDeclination(), SalatConstants.HEIGHT_DIFFERENCE_WEST, SalatConstants.HEIGHT_DIFFERENCE_EAST );
+            if (correctionNeeded)
+                heightC.correct( getSinDeclination(), getCosDeclination(), p );
 
-        double solarDifference = Math.abs( sunset-sunrise );
-        boolean recalculationNeeded = !success || (solarDifference <= 1) || (solarDifference >= 23);
+            else
+                heightC.reset(); // this instance may have been used for a location that needed correction
+
+            recalculationNeeded = !success || isDayLengthProblematic();
+        }
 
         if (recalculationNeeded)
         {
-            this.maxLatitude = getMaxLatitude(g);
-            performCalculation(gc, g.getTimeZone(), g.getLongitude(), maxLatitude, dstOffset);
+            this.maxLatitude = p.getMaxLatitude();
+            performCalculation( epochDay, g.getTimeZone(), g.getLongitude(), p.getSinMaxLatitude(), p.getCosMaxLatitude(), dstOffset );
         }
 
         if (noonTime < 0)
@@ -132,25 +184,46 @@ class SolarCalculator
 
 
     /**
-     * Gets the cos value of the equatorial declination value performed on the previously
-     * calculated latitude.
-     * @return The cos value of the equatorial declination value performed on the previously
-     * calculated latitude.
+     * Determines whether the solar calculation of the specified day is problematic at the
+     * latitude of the specified location, in which case it is done at the reference latitude
+     * instead. This performs the calculation at the latitude of the location, which replaces the
+     * results of the previous calculation.
+     * @param epochDay The day to check (in days since 1970-01-01).
+     * @param p The location to check the day for.
+     * @param dstOffset The necessary daylight savings time offset adjustment.
+     * @return true If the sun does not rise or set, or the day or night lasts an hour or less.
      */
-    public double getCosDeclination()
+    boolean isProblematic(int epochDay, PreparedLocation p, double dstOffset)
+    {
+        GeoParameters g = p.getLocation();
+        boolean success = performCalculation( epochDay, g.getTimeZone(), g.getLongitude(), p.getSinLatitude(), p.getCosLatitude(), dstOffset );
+
+        return !success || isDayLengthProblematic();
+    }
+
+
+    /**
+     * Determines whether the day or the night found by the previous calculation is too short for
+     * its times to be used.
+     * @return true If the day or the night lasts an hour or less.
+     */
+    private boolean isDayLengthProblematic()
     {
-        return Math.cos( equatorialCoordinates[0] ) * Math.cos(latitude);
+        double solarDifference = Math.abs( sunset-sunrise );
+
+        return (solarDifference <= 1) || (solarDifference >= 23);
     }
 
 
     /**
-     * Gets the cos value of the equatorial declination value performed on the specified latitude.
-     * @param latitude The latitude in radians.
-     * @return The cos value of the equatorial declination value performed on the specified latitude.
+     * Gets the cos value of the equatorial declination value performed on the previously
+     * calculated latitude.
+     * @return The cos value of the equatorial declination value performed on the previously
+     * calculated latitude.
      */
-    public double getCosDeclination(double latitude)
+    public double getCosDeclination()
     {
-        return Math.cos( equatorialCoordinates[0] ) * Math.cos(latitude);
+        return Trigonometry.getInstance().cos( equatorialCoordinates[0] ) * cosLatitude;
     }
 
 
@@ -243,18 +316,7 @@ class SolarCalculator
      */
     public double getSinDeclination()
     {
-        return Math.sin( equatorialCoordinates[0] ) * Math.sin(latitude);
-    }
-
-
-    /**
-     * Gets the sin value of the equatorial declination value performed on the specified latitude.
-     * @param latitude The latitude in radians.
-     * @return The sin value of the equatorial declination value performed on the specified latitude.
-     */
-    public double getSinDeclination(double latitude)
-    {
-        return Math.sin( equatorialCoordinates[0] ) * Math.sin(latitude);
+        return Trigonometry.getInstance().sin( equatorialCoordinates[0] ) * sinLatitude;
     }
 
 
@@ -281,34 +343,27 @@ class SolarCalculator
     /**
      * Performs the solar calculations for the geographical region specified given the
      * specified parameters.
-     * @param gc The date and time to perform the solar calculations for.
+     * @param epochDay The day to perform the solar calculations for (in days since 1970-01-01).
      * @param timeZone The time zone to perform the solar calculations for.
      * @param longitude The longitude of the region (in radians).
-     * @param latitude The latitude of the region (in radians).
+     * @param sinLatitude The sin value of the latitude of the region.
+     * @param cosLatitude The cos value of the latitude of the region.
      * @param dstOffset The necessary daylight savings time offset adjustment.
      * @return true If recalculation will be needed due to a problematic region.
      */
-    public boolean performCalculation(Calendar gc, double timeZone, double longitude, double latitude, double dstOffset)
+    public boolean performCalculation(int epochDay, double timeZone, double longitude, double sinLatitude, double cosLatitude, double dstOffset)
     {
-        this.latitude = latitude; // 0.791916
+        this.sinLatitude = sinLatitude;
+        this.cosLatitude = cosLatitude;
         double tz = -(timeZone+dstOffset); // 4.0
-        double julianDate = CalendarConversion.calculateJulianEpoch(gc); // 2455304
-        double T = SolarCalculatorFormulae.calculateCenturiesSince2000(julianDate, tz); // 0.102934
-        double L = SolarCalculatorFormulae.calculateSunMeanLongitude(T); // 0.4433
-        double M = SolarCalculatorFormulae.calculateSunMeanAnomaly(T); // 1.8152
-        double earthEccentricity = SolarCalculatorFormulae.calculateEarthEccentricity(T); // e: 0.016746
-        double obliq = SolarCalculatorFormulae.calculateEclipticObliquity(T); // Ec: 0.409296
-        double Y = SolarCalculatorFormulae.calculateY(obliq); // 0.043078
-
-        double eot = SolarCalculatorFormulae.calculateEquationOfTime(Y, L, M, earthEccentricity); // EOT: 0.001912
-        double hours = SolarCalculatorFormulae.calculateHours(eot); // UT: 0.007306
-        double eValue = SolarCalculatorFormulae.calculateEuler(M, earthEccentricity); // 1.831
-        double v = SolarCalculatorFormulae.calculateV(earthEccentricity, eValue); // 1.8475
-        double tht = SolarCalculatorFormulae.calculateTheta(L, v, M); // 0.4756
-
-        this.equatorialCoordinates = SolarCalculatorFormulae.getEquatorialCoordinates( new double[]{0, tht} ); // where DECL = delta = x: 0.183, alpha = RA = y: 0.441
-        this.noonTime = SolarCalculatorFormulae.calculateNoonTime(-longitude, hours, tz);
-        double cH = SolarCalculatorFormulae.calculateCH( latitude, equatorialCoordinates[0] );
+        double julianDate = CalendarConversion.calculateJulianEpoch(epochDay); // 2455304
+
+        lookupEphemeris(julianDate, tz, ephemeris);
+
+        equatorialCoordinates[0] = ephemeris.getDeclination(); // where DECL = delta = x: 0.183, alpha = RA = y: 0.441
+        equatorialCoordinates[1] = ephemeris.getRightAscension();
+        this.noonTime = SolarCalculatorFormulae.calculateNoonTime( -longitude, ephemeris.getHours(), tz );
+        double cH = SolarCalculatorFormulae.calculateCH( sinLatitude, cosLatitude, equatorialCoordinates[0] );
         boolean successFlag = cH <= MAX_CH_VALUE;
 
         if (!successFlag)
@@ -344,4 +399,50 @@ class SolarCalculator
 
         return maxLatitude;
     }
+
+
+    /**
+     * Gets the position of the sun for the specified day and time zone shift. The position of
+     * the sun is the same for every location in a time zone, so it is taken from the shared cache
+     * or the precomputed table whenever possible and only calculated otherwise.
+     * @param julianDate The Julian date of the previous midnight (Universal Time).
+     * @param timeShift Hours of UT elapsed since the given Julian date.
+     * @param result The ephemeris to store the position of the sun in.
+     */
+    static final void lookupEphemeris(double julianDate, double timeShift, Ephemeris result)
+    {
+        if ( !CACHE.get(julianDate, timeShift, result) )
+        {
+            int generation = CACHE.getGeneration();
+            EphemerisTable t = table;
+
+            if ( (t == null) || !t.get(julianDate, timeShift, result) )
+                result.calculate(julianDate, timeShift);
+
+            CACHE.put(result, generation);
+        }
+    }
+
+
+    /**
+     * Sets the precomputed table that the position of the sun is looked up in. Days that the
+     * table does not cover are still calculated. Positions of the sun that were already cached
+     * are discarded.
+     * @param t The table to use, or null to always calculate the position of the sun.
+     */
+    public static final void setEphemerisTable(EphemerisTable t)
+    {
+        table = t;
+        invalidateEphemerides();
+    }
+
+
+    /**
+     * Discards every cached position of the sun so that they are obtained again from the
+     * current ephemeris table and trigonometry provider.
+     */
+    static final void invalidateEphemerides()
+    {
+        CACHE.invalidate();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,489 @@
+/*
+ * @(#)TimetableExporter.java  1.0 2026-10-16
+ *
+ * Copyright 2009 Exes Technologies. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   - Redistributions of source code must retain the above copyright
+ *     notice, this list of conditions and the following disclaimer.
+ *
+ *   - Redistributions in binary form must reproduce the above copyright
+ *     notice, this list of conditions and the following disclaimer in the
+ *     documentation and/or other materials provided with the distribution.
+ *
+ *   - Neither the name of Exes Technologies nor the names of its
+ *     contributors may be used to endorse or promote products derived
+ *     from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.rim.maxillion.model.calculator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Date;
+
+import net.rim.maxillion.model.calculator.utils.TimeCriticalEventNames;
+import net.rim.maxillion.model.calculator.utils.time.EpochDay;
+import net.rim.maxillion.model.calculator.utils.time.TimeTable;
+
+
+/**
+ * Exports the timetables of many locations over a range of days as text, either as CSV with a
+ * header row, as JSON lines with one object per location and day, or as fixed-width columns
+ * with a header row. Each row holds the name of the location, the date (ie: 2026-10-16) and the
+ * wall clock time of every event (ie: 05:12), in the order of their TimeCriticalEvent values.<br><br>
+ *
+ * The timetables are never held in memory. Each day is calculated in turn, as with
+ * PreparedLocation.calculateRange(), and its row is formatted straight into a buffer that is
+ * reused for the whole export and written out whenever it fills up. The digits are written by
+ * hand rather than through TimeWrapper or String objects, so nothing is allocated for each row
+ * and the size of an export is only limited by the stream it is written to.<br><br>
+ *
+ * Names are written as UTF-8, quoted in a CSV row if they contain a comma, quote or line break,
+ * escaped in a JSON line, and padded or cut to NAME_WIDTH characters in a fixed-width row.<br><br>
+ *
+ * An instance of this class is not thread-safe. Each thread should use its own exporter.
+ *
+ * @author Ragaeeb Haq
+ * @version 1.00 2026-10-16 Initial submission.
+ * @since MaxillionPrayers 3.0
+ */
+public final class TimetableExporter
+{
+    /** Rows of comma-separated values, after a header row. */
+    public static final int CSV = 0;
+
+    /** One JSON object on each line. */
+    public static final int JSON_LINES = 1;
+
+    /** Columns of a fixed width separated by a space, after a header row. */
+    public static final int FIXED_WIDTH = 2;
+
+    /** The number of characters that a name takes in a fixed-width row. */
+    public static final int NAME_WIDTH = 24;
+
+    /** The number of bytes held before they are written out. */
+    private static final int BUFFER_SIZE = 8192;
+
+    /** The number of characters that a date takes (ie: 2026-10-16). */
+    private static final int DATE_WIDTH = 10;
+
+    /** The number of characters that a time takes (ie: 05:12). */
+    private static final int TIME_WIDTH = 5;
+
+    /** The number of seconds in a day. */
+    private static final int SECONDS_IN_A_DAY = (int)(EpochDay.MILLISECONDS_IN_A_DAY/EpochDay.MILLISECONDS_IN_A_SECOND);
+
+    /** The hexadecimal digits used to escape control characters in a JSON line. */
+    private static final String HEX_DIGITS = "0123456789abcdef";
+
+    /** The bytes not yet written out. */
+    private byte[] buffer;
+
+    /** The number of bytes in the buffer. */
+    private int length;
+
+    /** The format of the rows (ie: CSV). */
+    private int format;
+
+    /** The name of each event, indexed by its TimeCriticalEvent value. */
+    private String[] names;
+
+    /** The number of characters of the fixed-width column of each event, wide enough for its name. */
+    private int[] widths;
+
+    /** The stream being exported to. */
+    private OutputStream out;
+
+    /** Calculates the prayer times of each day. */
+    private CalculationWorkspace workspace;
+
+
+    /**
+     * Creates an exporter that can be used to export timetables repeatedly.
+     * @param format The format of the rows (CSV, JSON_LINES or FIXED_WIDTH).
+     * @throws IllegalArgumentException If the format is not one of these.
+     */
+    public TimetableExporter(int format)
+    {
+        if ( (format < CSV) || (format > FIXED_WIDTH) )
+            throw new IllegalArgumentException("Unknown format: " + format);
+
+        this.format = format;
+        this.buffer = new byte[BUFFER_SIZE];
+        this.workspace = new CalculationWorkspace();
+        this.names = new String[TimeTable.EVENTS_PER_DAY];
+        this.widths = new int[TimeTable.EVENTS_PER_DAY];
+
+        for (int event = 0; event < TimeTable.EVENTS_PER_DAY; event++)
+        {
+            names[event] = TimeCriticalEventNames.getInstance().getName(event);
+            widths[event] = Math.max( TIME_WIDTH, names[event].length() );
+        }
+    }
+
+
+    /**
+     * Exports the timetables of the specified locations for a range of consecutive days. The
+     * rows are grouped by location, and the days of each location are in order.
+     * @param locations The prepared locations to export the timetables of.
+     * @param locationNames The name of each location, or null to name them by their index.
+     * @param start The first date to export the prayer times for.
+     * @param days The number of consecutive days to export the prayer times for.
+     * @param out The stream to write to. It is flushed but not closed.
+     * @throws IOException If the stream could not be written to.
+     * @throws IllegalArgumentException If there is not a name for each location.
+     */
+    public void export(PreparedLocation[] locations, String[] locationNames, Date start, int days, OutputStream out) throws IOException
+    {
+        if ( (locationNames != null) && (locationNames.length != locations.length) )
+            throw new IllegalArgumentException("There are " + locationNames.length + " names for " + locations.length + " locations");
+
+        this.out = out;
+        this.length = 0;
+
+        try {
+            writeHeader();
+
+            for (int i = 0; i < locations.length; i++)
+            {
+                String name = locationNames != null ? locationNames[i] : String.valueOf(i);
+
+                for (int day = 0; day < days; day++)
+                {
+                    int[] seconds = day == 0 ? workspace.calculate(locations[i], start) : workspace.next();
+                    writeRow( name, EpochDay.getLocalDay( workspace.getTime() ), seconds );
+                }
+            }
+
+            flush();
+            out.flush();
+        }
+
+        finally {
+            this.out = null;
+        }
+    }
+
+
+    /**
+     * Writes the header row, if the format has one.
+     * @throws IOException If the stream could not be written to.
+     */
+    private void writeHeader() throws IOException
+    {
+        if (format == CSV)
+        {
+            putAscii("location,date");
+
+            for (int event = 0; event < TimeTable.EVENTS_PER_DAY; event++)
+            {
+                put(',');
+                putAscii(names[event]);
+            }
+
+            put('\n');
+        }
+
+        else if (format == FIXED_WIDTH)
+        {
+            putPadded("location", NAME_WIDTH);
+            put(' ');
+            putPadded("date", DATE_WIDTH);
+
+            for (int event = 0; event < TimeTable.EVENTS_PER_DAY; event++)
+            {
+                put(' ');
+                putPadded( names[event], widths[event] );
+            }
+
+            put('\n');
+        }
+    }
+
+
+    /**
+     * Writes the row of a location and day.
+     * @param name The name of the location.
+     * @param epochDay The day (in days since 1970-01-01).
+     * @param seconds The prayer times in seconds since the start of the day on the wall clock,
+     * indexed by their TimeCriticalEvent value.
+     * @throws IOException If the stream could not be written to.
+     */
+    private void writeRow(String name, int epochDay, int[] seconds) throws IOException
+    {
+        if (format == CSV)
+        {
+            putQuoted(name);
+            put(',');
+            putDate(epochDay);
+
+            for (int event = 0; event < TimeTable.EVENTS_PER_DAY; event++)
+            {
+                put(',');
+                putTime( seconds[event] );
+            }
+        }
+
+        else if (format == JSON_LINES)
+        {
+            putAscii("{\"location\":\"");
+            putEscaped(name);
+            putAscii("\",\"date\":\"");
+            putDate(epochDay);
+            put('"');
+
+            for (int event = 0; event < TimeTable.EVENTS_PER_DAY; event++)
+            {
+                putAscii(",\"");
+                putAscii(names[event]);
+                putAscii("\":\"");
+                putTime( seconds[event] );
+                put('"');
+            }
+
+            put('}');
+        }
+
+        else
+        {
+            putPadded(name, NAME_WIDTH);
+            put(' ');
+            putDate(epochDay);
+
+            for (int event = 0; event < TimeTable.EVENTS_PER_DAY; event++)
+            {
+                put(' ');
+                putTime( seconds[event] );
+
+                for (int i = TIME_WIDTH; i < widths[event]; i++)
+                    put(' ');
+            }
+        }
+
+        put('\n');
+    }
+
+
+    /**
+     * Writes a date as four digits of the year, two of the month and two of the day (ie:
+     * 2026-10-16).
+     * @param epochDay The day (in days since 1970-01-01).
+     * @throws IOException If the stream could not be written to.
+     */
+    private void putDate(int epochDay) throws IOException
+    {
+        int year = EpochDay.getYear(epochDay);
+
+        putTwoDigits(year/100);
+        putTwoDigits(year % 100);
+        put('-');
+        putTwoDigits( EpochDay.getMonth(epochDay) );
+        put('-');
+        putTwoDigits( EpochDay.getDayOfMonth(epochDay) );
+    }
+
+
+    /**
+     * Writes a wall clock time as hours and minutes on a 24 hour clock (ie: 05:12). The seconds
+     * are dropped in the same manner as a DateFormat, and a time past midnight is written as
+     * the time on the following day.
+     * @param seconds The number of seconds since the start of the day on the wall clock.
+     * @throws IOException If the stream could not be written to.
+     */
+    private void putTime(int seconds) throws IOException
+    {
+        int minute = ( (seconds % SECONDS_IN_A_DAY + SECONDS_IN_A_DAY) % SECONDS_IN_A_DAY )/60;
+
+        putTwoDigits(minute/60);
+        put(':');
+        putTwoDigits(minute % 60);
+    }
+
+
+    /**
+     * Writes a number from 0 to 99 as two digits.
+     * @param value The number.
+     * @throws IOException If the stream could not be written to.
+     */
+    private void putTwoDigits(int value) throws IOException
+    {
+        put( '0'+value/10 );
+        put( '0'+value%10 );
+    }
+
+
+    /**
+     * Writes a name in a CSV row, quoting it if it contains a comma, quote or line break.
+     * @param s The name.
+     * @throws IOException If the stream could not be written to.
+     */
+    private void putQuoted(String s) throws IOException
+    {
+        boolean quoted = (s.indexOf(',') >= 0) || (s.indexOf('"') >= 0) || (s.indexOf('\n') >= 0) || (s.indexOf('\r') >= 0);
+
+        if (quoted)
+            put('"');
+
+        for (int i = 0; i < s.length(); i++)
+        {
+            char c = s.charAt(i);
+
+            if (c == '"')
+                put('"'); // a quote is written twice within quotes
+
+            i = putChar(s, i);
+        }
+
+        if (quoted)
+            put('"');
+    }
+
+
+    /**
+     * Writes a name in a JSON string, escaping quotes, backslashes and control characters.
+     * @param s The name.
+     * @throws IOException If the stream could not be written to.
+     */
+    private void putEscaped(String s) throws IOException
+    {
+        for (int i = 0; i < s.length(); i++)
+        {
+            char c = s.charAt(i);
+
+            if ( (c == '"') || (c == '\\') )
+            {
+                put('\\');
+                put(c);
+            }
+
+            else if (c < ' ')
+            {
+                putAscii("\\u00");
+                put( HEX_DIGITS.charAt(c >> 4) );
+                put( HEX_DIGITS.charAt(c & 0xF) );
+            }
+
+            else
+                i = putChar(s, i);
+        }
+    }
+
+
+    /**
+     * Writes a string in a fixed-width column, cutting it or padding it with spaces to the width.
+     * A surrogate pair counts as a single character.
+     * @param s The string.
+     * @param width The number of characters of the column.
+     * @throws IOException If the stream could not be written to.
+     */
+    private void putPadded(String s, int width) throws IOException
+    {
+        int written = 0;
+
+        for (int i = 0; (i < s.length()) && (written < width); i++, written++)
+        {
+            if (s.charAt(i) < ' ')
+                put(' '); // a line break would break the columns
+
+            else
+                i = putChar(s, i);
+        }
+
+        for (; written < width; written++)
+            put(' ');
+    }
+
+
+    /**
+     * Writes a string that is known to only hold ASCII characters.
+     * @param s The string.
+     * @throws IOException If the stream could not be written to.
+     */
+    private void putAscii(String s) throws IOException
+    {
+        for (int i = 0; i < s.length(); i++)
+            put( s.charAt(i) );
+    }
+
+
+    /**
+     * Writes a character of a string as UTF-8, together with the character after it if the two
+     * are a surrogate pair.
+     * @param s The string.
+     * @param i The index of the character.
+     * @return The index of the last character written.
+     * @throws IOException If the stream could not be written to.
+     */
+    private int putChar(String s, int i) throws IOException
+    {
+        int c = s.charAt(i);
+        boolean pair = (c >= 0xD800) && (c < 0xDC00) && (i+1 < s.length()) && (s.charAt(i+1) >= 0xDC00) && (s.charAt(i+1) < 0xE000);
+
+        if (c < 0x80)
+            put(c);
+
+        else if (c < 0x800)
+        {
+            put( 0xC0 | (c >> 6) );
+            put( 0x80 | (c & 0x3F) );
+        }
+
+        else if (pair)
+        {
+            c = 0x10000 + ( (c-0xD800) << 10 ) + ( s.charAt(++i)-0xDC00 );
+            put( 0xF0 | (c >> 18) );
+            put( 0x80 | ( (c >> 12) & 0x3F ) );
+            put( 0x80 | ( (c >> 6) & 0x3F ) );
+            put( 0x80 | (c & 0x3F) );
+        }
+
+        else
+        {
+            put( 0xE0 | (c >> 12) );
+            put( 0x80 | ( (c >> 6) & 0x3F ) );
+            put( 0x80 | (c & 0x3F) );
+        }
+
+        return i;
+    }
+
+
+    /**
+     * Writes a byte, writing out the buffer first if it is full.
+     * @param b The byte.
+     * @throws IOException If the stream could not be written to.
+     */
+    private void put(int b) throws IOException
+    {
+        if (length == buffer.length)
+            flush();
+
+        buffer[length++] = (byte)b;
+    }
+
+
+    /**
+     * Writes out the bytes in the buffer.
+     * @throws IOException If the stream could not be written to.
+     */
+    private void flush() throws IOException
+    {
+        out.write(buffer, 0, length);
+        length = 0;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,178 @@
+/*
+ * @(#)TimetableGeneration.java  1.0 2026-10-16
+ *
+ * Copyright 2009 Exes Technologies. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   - Redistributions of source code must retain the above copyright
+ *     notice, this list of conditions and the following disclaimer.
+ *
+ *   - Redistributions in binary form must reproduce the above copyright
+ *     notice, this list of conditions and the following disclaimer in the
+ *     documentation and/or other materials provided with the distribution.
+ *
+ *   - Neither the name of Exes Technologies nor the names of its
+ *     contributors may be used to endorse or promote products derived
+ *     from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.rim.maxillion.model.calculator;
+
+import java.util.Date;
+
+import net.rim.device.api.util.DateTimeUtilities;
+import net.rim.maxillion.model.calculator.utils.time.EpochDay;
+import net.rim.maxillion.model.calculator.utils.time.TimeTable;
+
+
+/**
+ * One generation of timetables by a TimetableGenerator, which is run by every one of its
+ * workers. The tasks are numbered location by location, each task covering up to
+ * TimetableGenerator.BLOCK_DAYS days of its location, and each worker repeatedly takes the
+ * next task that has not been started until there are none left. Only the number of the next
+ * task is shared between the workers, and it is only held for as long as it takes to count it.<br><br>
+ *
+ * A task that does not start on the first day starts from local noon of its day, which is the
+ * time that the calculation of the whole range would have reached by then, so that the
+ * timetables do not depend on how the days were split.
+ *
+ * @author Ragaeeb Haq
+ * @version 1.00 2026-10-16 Initial submission.
+ * @since MaxillionPrayers 3.0
+ */
+final class TimetableGeneration implements Runnable
+{
+    /** The error that stopped the first worker to fail, or null if none has failed. */
+    private RuntimeException failure;
+
+    /** The first task of each location, followed by the total number of tasks. */
+    private final int[] firstTasks;
+
+    /** The locations to generate the timetables for. */
+    private final PreparedLocation[] locations;
+
+    /** The number of the next task to be taken by a worker. */
+    private int next;
+
+    /** The timetable of each location. */
+    private final TimeTable[] result;
+
+    /** The first date to calculate the prayer times for. */
+    private final Date start;
+
+
+    /**
+     * Creates a generation of the specified timetables.
+     * @param locations The locations to generate the timetables for.
+     * @param start The first date to calculate the prayer times for.
+     * @param result The timetable to store the prayer times of each location in.
+     */
+    TimetableGeneration(PreparedLocation[] locations, Date start, TimeTable[] result)
+    {
+        this.locations = locations;
+        this.start = start;
+        this.result = result;
+        this.firstTasks = new int[locations.length+1];
+
+        for (int i = 0; i < locations.length; i++)
+        {
+            int blocks = ( result[i].getDays()+TimetableGenerator.BLOCK_DAYS-1 )/TimetableGenerator.BLOCK_DAYS;
+            firstTasks[i+1] = firstTasks[i]+blocks;
+        }
+    }
+
+
+    /**
+     * Gets the number of tasks that the generation is split into.
+     * @return The number of tasks.
+     */
+    int getTasks()
+    {
+        return firstTasks[locations.length];
+    }
+
+
+    /**
+     * Throws the error that stopped a worker, if any. This should only be called once every
+     * worker has finished.
+     */
+    void rethrow()
+    {
+        if (failure != null)
+            throw failure;
+    }
+
+
+    /* (non-Javadoc)
+     * @see java.lang.Runnable#run()
+     */
+    public void run()
+    {
+        CalculationWorkspace workspace = new CalculationWorkspace();
+        long noon = EpochDay.getNoon( start.getTime() );
+        int location = 0;
+
+        try {
+            for (int task = nextTask(); task >= 0; task = nextTask())
+            {
+                while (task >= firstTasks[location+1]) // the tasks are taken in order, so the location only moves forwards
+                    location++;
+
+                TimeTable table = result[location];
+                int first = (task-firstTasks[location])*TimetableGenerator.BLOCK_DAYS;
+                int days = Math.min( TimetableGenerator.BLOCK_DAYS, table.getDays()-first );
+                Date date = first == 0 ? start : new Date(noon + first*DateTimeUtilities.ONEDAY);
+
+                locations[location].calculateRange(workspace, date, table, first, days);
+            }
+        }
+
+        catch (RuntimeException ex)
+        {
+            fail(ex);
+        }
+    }
+
+
+    /**
+     * Records the error that stopped a worker and stops the other workers from taking any more
+     * tasks.
+     * @param ex The error that stopped the worker.
+     */
+    private synchronized void fail(RuntimeException ex)
+    {
+        if (failure == null)
+            failure = ex;
+
+        next = getTasks();
+    }
+
+
+    /**
+     * Takes the next task that has not been started.
+     * @return The number of the task, or -1 if there are none left.
+     */
+    private synchronized int nextTask()
+    {
+        int task = -1;
+
+        if ( next < getTasks() )
+            task = next++;
+
+        return task;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,146 @@
+/*
+ * @(#)TimetableGenerator.java  1.0 2026-10-16
+ *
+ * Copyright 2009 Exes Technologies. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   - Redistributions of source code must retain the above copyright
+ *     notice, this list of conditions and the following disclaimer.
+ *
+ *   - Redistributions in binary form must reproduce the above copyright
+ *     notice, this list of conditions and the following disclaimer in the
+ *     documentation and/or other materials provided with the distribution.
+ *
+ *   - Neither the name of Exes Technologies nor the names of its
+ *     contributors may be used to endorse or promote products derived
+ *     from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.rim.maxillion.model.calculator;
+
+import java.util.Date;
+
+import net.rim.maxillion.model.calculator.utils.time.TimeTable;
+
+
+/**
+ * Generates the timetables of many locations over many days on several threads at once, such
+ * as the yearly timetables of every mosque in a region. The work is split into tasks that each
+ * calculate BLOCK_DAYS consecutive days of one location, and the workers take the next task
+ * that has not been started whenever they finish one, so a worker that is given the slower
+ * locations close to the poles does not hold up the others.<br><br>
+ *
+ * Each worker calculates in its own CalculationWorkspace, and within a task the calculation of
+ * each day is reused for the half-night of the day before it, as with
+ * PreparedLocation.calculateRange(). The prayer times are written straight into the timetables
+ * given by the caller, each task to its own days, so nothing is allocated per day and the
+ * workers share nothing that is modified except the number of the next task. The timetables
+ * are identical to those of PreparedLocation.calculateRange().<br><br>
+ *
+ * An instance of this class can be used by many threads at once.
+ *
+ * @author Ragaeeb Haq
+ * @version 1.00 2026-10-16 Initial submission.
+ * @since MaxillionPrayers 3.0
+ */
+public final class TimetableGenerator
+{
+    /** The number of consecutive days of a location calculated by each task. */
+    public static final int BLOCK_DAYS = 32;
+
+    /** The greatest number of threads that a timetable is generated on. */
+    private final int threads;
+
+
+    /**
+     * Creates a generator.
+     * @param threads The greatest number of threads to generate on, including the calling
+     * thread. This is typically the number of cores available.
+     * @throws IllegalArgumentException If the number of threads is less than 1.
+     */
+    public TimetableGenerator(int threads)
+    {
+        if (threads < 1)
+            throw new IllegalArgumentException("At least one thread is needed: " + threads);
+
+        this.threads = threads;
+    }
+
+
+    /**
+     * Generates the timetables of the specified locations for a range of consecutive days.
+     * @param locations The prepared locations to generate the timetables for.
+     * @param start The first date to calculate the prayer times for.
+     * @param days The number of consecutive days to calculate the prayer times for.
+     * @return The timetable of each location, in the same order as the locations.
+     */
+    public TimeTable[] generate(PreparedLocation[] locations, Date start, int days)
+    {
+        TimeTable[] result = new TimeTable[locations.length];
+
+        for (int i = 0; i < locations.length; i++)
+            result[i] = new TimeTable(days);
+
+        generate(locations, start, result);
+
+        return result;
+    }
+
+
+    /**
+     * Generates the timetables of the specified locations into timetables that have already
+     * been allocated, so that they can be reused from one generation to the next. Each location
+     * is calculated for as many days as its timetable holds.
+     * @param locations The prepared locations to generate the timetables for.
+     * @param start The first date to calculate the prayer times for.
+     * @param result The timetable to store the prayer times of each location in, in the same
+     * order as the locations.
+     * @throws IllegalArgumentException If there is not a timetable for each location.
+     */
+    public void generate(PreparedLocation[] locations, Date start, TimeTable[] result)
+    {
+        if (result.length != locations.length)
+            throw new IllegalArgumentException("There are " + result.length + " timetables for " + locations.length + " locations");
+
+        TimetableGeneration generation = new TimetableGeneration(locations, start, result);
+        int workers = Math.max( 1, Math.min( threads, generation.getTasks() ) );
+        Thread[] started = new Thread[workers];
+
+        for (int i = 1; i < workers; i++)
+        {
+            started[i] = new Thread(generation);
+            started[i].start();
+        }
+
+        generation.run(); // the calling thread takes tasks too rather than waiting idle
+
+        for (int i = 1; i < workers; i++)
+            ParallelCalculation.join(started[i]);
+
+        generation.rethrow();
+    }
+
+
+    /**
+     * Gets the greatest number of threads that a timetable is generated on.
+     * @return The number of threads, including the calling thread.
+     */
+    public int getThreads()
+    {
+        return threads;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,142 @@
+/*
+ * @(#)Trigonometry.java  1.0 2026-10-16
+ * @(#)Trigonometry.java  1.1 2026-10-16
+ *
+ * Copyright 2009 Exes Technologies. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   - Redistributions of source code must retain the above copyright
+ *     notice, this list of conditions and the following disclaimer.
+ *
+ *   - Redistributions in binary form must reproduce the above copyright
+ *     notice, this list of conditions and the following disclaimer in the
+ *     documentation and/or other materials provided with the distribution.
+ *
+ *   - Neither the name of Exes Technologies nor the names of its
+ *     contributors may be used to endorse or promote products derived
+ *     from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.rim.maxillion.model.calculator;
+
+
+/**
+ * Provides the trigonometric functions used throughout the solar calculations. The exact
+ * provider is used by default. The fast provider can be selected instead for bulk timetable
+ * generation, where throughput matters more than the last few digits of precision.
+ *
+ * @author Ragaeeb Haq
+ * @version 1.00 2026-10-16 Initial submission.
+ * @version 1.10 2026-10-16 Cached positions of the sun are now discarded when the provider changes.
+ * @since MaxillionPrayers 3.0
+ */
+public abstract class Trigonometry
+{
+    /** The provider that the calculations currently use. */
+    private static volatile Trigonometry instance = new ExactTrigonometry();
+
+    /**
+     * Gets the arc cosine of a value.
+     * @param a The value whose arc cosine is to be returned.
+     * @return The arc cosine of the value (between 0 and pi), or NaN if it is not between -1
+     * and 1.
+     */
+    public abstract double acos(double a);
+
+
+    /**
+     * Gets the arc sine of a value.
+     * @param a The value whose arc sine is to be returned.
+     * @return The arc sine of the value (between -pi/2 and pi/2), or NaN if it is not between -1
+     * and 1.
+     */
+    public abstract double asin(double a);
+
+
+    /**
+     * Gets the arc tangent of a value.
+     * @param a The value whose arc tangent is to be returned.
+     * @return The arc tangent of the value (between -pi/2 and pi/2).
+     */
+    public abstract double atan(double a);
+
+
+    /**
+     * Gets the cosine of an angle.
+     * @param a An angle (in radians).
+     * @return The cosine of the angle.
+     */
+    public abstract double cos(double a);
+
+
+    /**
+     * Gets the sine of an angle.
+     * @param a An angle (in radians).
+     * @return The sine of the angle.
+     */
+    public abstract double sin(double a);
+
+
+    /**
+     * Gets the tangent of an angle.
+     * @param a An angle (in radians).
+     * @return The tangent of the angle.
+     */
+    public abstract double tan(double a);
+
+
+    /**
+     * Gets the provider that the calculations currently use.
+     * @return The current trigonometry provider.
+     */
+    public static final Trigonometry getInstance()
+    {
+        return instance;
+    }
+
+
+    /**
+     * Gets the provider that calculates the trigonometric functions exactly.
+     * @return A new exact trigonometry provider.
+     */
+    public static final Trigonometry createExact()
+    {
+        return new ExactTrigonometry();
+    }
+
+
+    /**
+     * Gets the provider that approximates the trigonometric functions.
+     * @return A new fast trigonometry provider.
+     */
+    public static final Trigonometry createFast()
+    {
+        return new FastTrigonometry();
+    }
+
+
+    /**
+     * Sets the provider that the calculations use from now on. Positions of the sun that were
+     * already cached are discarded so that they are recalculated with the new provider.
+     * @param t The trigonometry provider to use.
+     */
+    public static final void setInstance(Trigonometry t)
+    {
+        instance = t;
+        SolarCalculator.invalidateEphemerides();
+    }
+}
\ No newline at end of file
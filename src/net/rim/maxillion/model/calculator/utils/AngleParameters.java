@@ -2,6 +2,7 @@
  * @(#)AngleParameters.java 1.0 2009-06-22
  * @(#)AngleParameters.java 1.1 2009-09-15
  * @(#)AngleParameters.java 1.2 2010-04-27
+ * @(#)AngleParameters.java 1.3 2026-10-16
  *
  * Copyright 2009 Exes Technologies. All Rights Reserved.
  *
@@ -66,6 +67,7 @@ import net.rim.maxillion.model.calculator.utils.time.TimeFormatter;
  * @version 1.00 2009-06-22 Initial submission.
  * @version 1.10 2009-09-15 Updated to deal with design changes in TimeFormatter class.
  * @version 1.20 2010-04-27 Updated to comply with design changes to TimeFormatter class.
+ * @version 1.30 2026-10-16 Added hashCode() to match equals().
  * @since MaxillionPrayers 1.0
  */
 public class AngleParameters
@@ -124,6 +126,18 @@ public class AngleParameters
     }
 
 
+    /* (non-Javadoc)
+     * @see java.lang.Object#hashCode()
+     */
+    public int hashCode()
+    {
+        long bits = Double.doubleToLongBits(fajrTwilightAngle);
+        bits = bits*31 + Double.doubleToLongBits(ishaTwilightAngle);
+
+        return (int)( bits ^ (bits >>> 32) );
+    }
+
+
     /**
      * Gets the Fajr twilight angle value.
      * @return The Fajr twilight angle value in radians.
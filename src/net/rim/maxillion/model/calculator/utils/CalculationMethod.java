@@ -0,0 +1,137 @@
+/*
+ * @(#)CalculationMethod.java  1.0 2026-10-16
+ * @(#)CalculationMethod.java  1.1 2026-10-16
+ *
+ * Copyright 2009 Exes Technologies. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   - Redistributions of source code must retain the above copyright
+ *     notice, this list of conditions and the following disclaimer.
+ *
+ *   - Redistributions in binary form must reproduce the above copyright
+ *     notice, this list of conditions and the following disclaimer in the
+ *     documentation and/or other materials provided with the distribution.
+ *
+ *   - Neither the name of Exes Technologies nor the names of its
+ *     contributors may be used to endorse or promote products derived
+ *     from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.rim.maxillion.model.calculator.utils;
+
+
+
+/**
+ * Groups the conventions that make up a prayer time calculation method: the twilight angles
+ * of the Fajr and Isha prayers, the intervals added to the Dhuhr, Maghrib and Isha prayers and
+ * the shadow ratio that marks the start of the Asr prayer.
+ *
+ * @author Ragaeeb Haq
+ * @version 1.00 2026-10-16 Initial submission.
+ * @version 1.10 2026-10-16 Added hashCode() to match equals().
+ * @since MaxillionPrayers 3.0
+ */
+public class CalculationMethod
+{
+    /** The twilight angles of the Fajr and Isha prayers. */
+    private AngleParameters angles;
+
+    /** The ratio of the length of the object to its shadow at the start of the Asr prayer. */
+    private int asrShadowRatio;
+
+    /** The intervals added to the Dhuhr, Maghrib and Isha prayers. */
+    private IntervalParameters intervals;
+
+
+    /**
+     * Creates a calculation method from the specified conventions.
+     * @param angles The twilight angles of the Fajr and Isha prayers.
+     * @param intervals The intervals added to the Dhuhr, Maghrib and Isha prayers.
+     * @param asrShadowRatio The ratio of the length of the object to its shadow at the start of
+     * the Asr prayer (ie: SalatConstants.SHAFII_ASR_JURISTIC_SHADOW_RATIO).
+     */
+    public CalculationMethod(AngleParameters angles, IntervalParameters intervals, int asrShadowRatio)
+    {
+        super();
+        this.angles = angles;
+        this.intervals = intervals;
+        this.asrShadowRatio = asrShadowRatio;
+    }
+
+
+    /* (non-Javadoc)
+     * @see java.lang.Object#equals(java.lang.Object)
+     */
+    public boolean equals(Object obj)
+    {
+        boolean result = false;
+
+        try {
+            CalculationMethod m = (CalculationMethod)obj;
+            result = angles.equals(m.angles) && intervals.equals(m.intervals) && (asrShadowRatio == m.asrShadowRatio);
+        }
+
+        catch (ClassCastException ex)
+        {
+        }
+
+        return result;
+    }
+
+
+    /* (non-Javadoc)
+     * @see java.lang.Object#hashCode()
+     */
+    public int hashCode()
+    {
+        int result = angles.hashCode();
+        result = result*31 + intervals.hashCode();
+        result = result*31 + asrShadowRatio;
+
+        return result;
+    }
+
+
+    /**
+     * Gets the twilight angles of the Fajr and Isha prayers.
+     * @return The twilight angles of the method.
+     */
+    public AngleParameters getAngles()
+    {
+        return this.angles;
+    }
+
+
+    /**
+     * Gets the ratio of the length of the object to its shadow at the start of the Asr prayer.
+     * @return The Asr shadow ratio of the method.
+     */
+    public int getAsrShadowRatio()
+    {
+        return this.asrShadowRatio;
+    }
+
+
+    /**
+     * Gets the intervals added to the Dhuhr, Maghrib and Isha prayers.
+     * @return The intervals of the method.
+     */
+    public IntervalParameters getIntervals()
+    {
+        return this.intervals;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,333 @@
+/*
+ * @(#)ElevationModel.java  1.0 2026-10-16
+ *
+ * Copyright 2009 Exes Technologies. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   - Redistributions of source code must retain the above copyright
+ *     notice, this list of conditions and the following disclaimer.
+ *
+ *   - Redistributions in binary form must reproduce the above copyright
+ *     notice, this list of conditions and the following disclaimer in the
+ *     documentation and/or other materials provided with the distribution.
+ *
+ *   - Neither the name of Exes Technologies nor the names of its
+ *     contributors may be used to endorse or promote products derived
+ *     from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.rim.maxillion.model.calculator.utils;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Hashtable;
+
+
+/**
+ * Looks up the elevation of the ground from a digital elevation model made of one degree
+ * tiles in the SRTM format, so that the heights of a location above its eastern and western
+ * horizons can be found. Each tile is named after its south-west corner (ie: N45W076.hgt) and
+ * holds a square grid of big-endian 16-bit samples in meters, in rows from north to south and
+ * columns from west to east, where the edges are shared with the neighbouring tiles. Tiles
+ * that are missing have no data, like the voids within a tile, so that ground that is not known
+ * never lowers a horizon. A model whose tile set leaves out the tiles that are only ocean (as
+ * the SRTM set does) can instead be told to take missing tiles to be at sea level.<br><br>
+ *
+ * Only the row of samples that a location falls on is read from each tile, skipping the rest
+ * of the file, so that a tile never needs to be held in memory. The lookups are meant to be
+ * done once when a location is set up; the heights are then carried by its GeoParameters.<br><br>
+ *
+ * By default the tiles are read as resources under a root path. Subclasses can read them from
+ * elsewhere (ie: a memory card) by overriding openTile().
+ *
+ * @author Ragaeeb Haq
+ * @version 1.00 2026-10-16 Initial submission.
+ * @version 1.10 2026-10-16 Missing tiles now have no data unless they are taken to be ocean, so
+ * that the edge of an installed tile no longer looks like a cliff.
+ * @since MaxillionPrayers 3.0
+ */
+public class ElevationModel
+{
+    /** The number of samples along each side of a tile with 3 arc-second spacing. */
+    public static final int SRTM3_SAMPLES = 1201;
+
+    /** The number of samples along each side of a tile with 1 arc-second spacing. */
+    public static final int SRTM1_SAMPLES = 3601;
+
+    /** The distance that the horizon is looked for on either side of a location (in meters). */
+    public static final double HORIZON_DISTANCE = 30000;
+
+    /** The length of a degree of longitude at the equator (in meters). */
+    private static final double METERS_PER_DEGREE = 111320;
+
+    /** The value of a sample that has no data. */
+    private static final int VOID = -32768;
+
+    /** Are missing tiles taken to be ocean (at sea level) rather than to have no data? */
+    private boolean missingIsOcean;
+
+    /** The path that the tile names are appended to. */
+    private String root;
+
+    /** The number of samples along each side of a tile. */
+    private int samples;
+
+
+    /**
+     * Creates a model whose tiles are read as resources under the specified root path. Missing
+     * tiles have no data.
+     * @param root The path that the tile names are appended to (ie: "/dem/").
+     * @param samples The number of samples along each side of a tile (ie: SRTM3_SAMPLES).
+     */
+    public ElevationModel(String root, int samples)
+    {
+        this(root, samples, false);
+    }
+
+
+    /**
+     * Creates a model whose tiles are read as resources under the specified root path.
+     * @param root The path that the tile names are appended to (ie: "/dem/").
+     * @param samples The number of samples along each side of a tile (ie: SRTM3_SAMPLES).
+     * @param missingIsOcean true if missing tiles are ocean (at sea level), false if they have
+     * no data. Only a tile set that leaves out nothing but ocean should pass true.
+     */
+    public ElevationModel(String root, int samples, boolean missingIsOcean)
+    {
+        super();
+        this.root = root;
+        this.samples = samples;
+        this.missingIsOcean = missingIsOcean;
+    }
+
+
+    /**
+     * Gets the elevation of the ground at the specified location, from the nearest sample.
+     * @param latitude The latitude in degrees.
+     * @param longitude The longitude in degrees.
+     * @return The elevation in meters, or 0 if it is not known.
+     * @throws IOException If a tile could not be read.
+     */
+    public int getElevation(double latitude, double longitude) throws IOException
+    {
+        int tileLatitude = (int)Math.floor(latitude);
+        int column = getColumn(longitude);
+        short[] row = readRow( tileLatitude, floorDiv(column, samples-1), getRow(latitude, tileLatitude) );
+        int elevation = row[ column - floorDiv(column, samples-1)*(samples-1) ];
+
+        return elevation == VOID ? 0 : elevation;
+    }
+
+
+    /**
+     * Finds the heights of the specified location above its western and eastern horizons. The
+     * horizon in each direction is taken as the lowest ground within HORIZON_DISTANCE along the
+     * parallel of the location. Samples with no data are ignored, so a location that does not
+     * overlook lower ground that is known in a direction is given a height of 0 in that
+     * direction, and a location whose own elevation is not known is returned unchanged.
+     * @param g The location.
+     * @return The same location with its horizon heights set.
+     * @throws IOException If a tile could not be read.
+     */
+    public GeoParameters withHorizonHeights(GeoParameters g) throws IOException
+    {
+        double latitude = Math.toDegrees( g.getLatitude() );
+        int tileLatitude = (int)Math.floor(latitude);
+        int rowIndex = getRow(latitude, tileLatitude);
+        int centre = getColumn( Math.toDegrees( g.getLongitude() ) );
+
+        double spacing = METERS_PER_DEGREE*Math.cos( g.getLatitude() )/(samples-1);
+        int reach = (int)Math.ceil( HORIZON_DISTANCE/Math.max(spacing, 1) );
+
+        Hashtable rows = new Hashtable(); // the row of each tile that has been read, keyed by tile column
+        int observer = getSample(rows, tileLatitude, rowIndex, centre);
+        int west = observer;
+        int east = observer;
+
+        for (int i = 1; (i <= reach) && (observer != VOID); i++)
+        {
+            west = lowest( west, getSample(rows, tileLatitude, rowIndex, centre-i) );
+            east = lowest( east, getSample(rows, tileLatitude, rowIndex, centre+i) );
+        }
+
+        GeoParameters result = g;
+
+        if ( (observer != VOID) && ( (west < observer) || (east < observer) ) )
+            result = new GeoParameters(g, observer-west, observer-east);
+
+        return result;
+    }
+
+
+    /**
+     * Opens the specified tile.
+     * @param name The name of the tile (ie: N45W076.hgt).
+     * @return The contents of the tile, or null if the model has no such tile.
+     * @throws IOException If the tile could not be opened.
+     */
+    protected InputStream openTile(String name) throws IOException
+    {
+        return getClass().getResourceAsStream(root+name);
+    }
+
+
+    /**
+     * Gets the name of the tile whose south-west corner is at the specified position.
+     * @param latitude The latitude of the corner in degrees.
+     * @param longitude The longitude of the corner in degrees.
+     * @return The name of the tile (ie: N45W076.hgt).
+     */
+    public static String getTileName(int latitude, int longitude)
+    {
+        StringBuffer name = new StringBuffer();
+        int absLatitude = Math.abs(latitude);
+        int absLongitude = Math.abs(longitude);
+
+        name.append(latitude < 0 ? 'S' : 'N');
+        name.append( absLatitude < 10 ? "0" : "" ).append(absLatitude);
+        name.append(longitude < 0 ? 'W' : 'E');
+        name.append( absLongitude < 10 ? "00" : absLongitude < 100 ? "0" : "" ).append(absLongitude);
+
+        return name.append(".hgt").toString();
+    }
+
+
+    /**
+     * Gets the column of the specified longitude, counting samples eastwards from the
+     * antimeridian so that it can cross from one tile into the next.
+     * @param longitude The longitude in degrees.
+     * @return The index of the nearest column.
+     */
+    private int getColumn(double longitude)
+    {
+        return (int)Math.floor( (longitude+180)*(samples-1) + 0.5 );
+    }
+
+
+    /**
+     * Gets the row of the specified latitude within its tile.
+     * @param latitude The latitude in degrees.
+     * @param tileLatitude The latitude of the south edge of the tile in degrees.
+     * @return The index of the nearest row, counting from the north edge of the tile.
+     */
+    private int getRow(double latitude, int tileLatitude)
+    {
+        return (int)Math.floor( (tileLatitude+1-latitude)*(samples-1) + 0.5 );
+    }
+
+
+    /**
+     * Gets the sample at the specified column of a row, reading the row of the tile it falls in
+     * if it has not been read yet.
+     * @param rows The rows that have been read, keyed by tile column.
+     * @param tileLatitude The latitude of the south edge of the tiles in degrees.
+     * @param row The index of the row within the tiles.
+     * @param column The column, as returned by getColumn().
+     * @return The sample, which may be VOID.
+     * @throws IOException If a tile could not be read.
+     */
+    private int getSample(Hashtable rows, int tileLatitude, int row, int column) throws IOException
+    {
+        int tile = floorDiv(column, samples-1);
+        Integer key = new Integer(tile);
+        short[] values = (short[])rows.get(key);
+
+        if (values == null)
+        {
+            values = readRow(tileLatitude, tile, row);
+            rows.put(key, values);
+        }
+
+        return values[ column - tile*(samples-1) ];
+    }
+
+
+    /**
+     * Reads a row of samples from a tile.
+     * @param tileLatitude The latitude of the south edge of the tile in degrees.
+     * @param tile The column of the tile, counting eastwards from the antimeridian.
+     * @param row The index of the row, counting from the north edge of the tile.
+     * @return The samples of the row from west to east. If the tile is missing they are all 0
+     * when missing tiles are ocean, or all VOID otherwise.
+     * @throws IOException If the tile could not be read.
+     */
+    private short[] readRow(int tileLatitude, int tile, int row) throws IOException
+    {
+        int tileLongitude = ( (tile % 360) + 360 ) % 360 - 180; // wraps around the antimeridian
+        short[] result = new short[samples];
+        InputStream in = openTile( getTileName(tileLatitude, tileLongitude) );
+
+        if ( (in == null) && !missingIsOcean )
+        {
+            for (int i = 0; i < samples; i++)
+                result[i] = VOID;
+        }
+
+        else if (in != null)
+        {
+            try {
+                DataInputStream data = new DataInputStream(in);
+
+                for (long skip = (long)row*samples*2; skip > 0; ) // skip() may skip fewer bytes than asked
+                {
+                    long skipped = data.skip(skip);
+
+                    if (skipped <= 0)
+                        throw new IOException("Truncated tile " + getTileName(tileLatitude, tileLongitude));
+
+                    skip -= skipped;
+                }
+
+                for (int i = 0; i < samples; i++)
+                    result[i] = data.readShort();
+            }
+
+            finally {
+                in.close();
+            }
+        }
+
+        return result;
+    }
+
+
+    /**
+     * Divides rounding towards negative infinity.
+     * @param a The dividend.
+     * @param b The divisor, which must be positive.
+     * @return The largest integer not greater than a/b.
+     */
+    private static int floorDiv(int a, int b)
+    {
+        int q = a/b;
+
+        return (a % b) < 0 ? q-1 : q;
+    }
+
+
+    /**
+     * Gets the lower of a height and a sample, ignoring samples that have no data.
+     * @param height The lowest height found so far.
+     * @param sample The sample.
+     * @return The lower of the two.
+     */
+    private static int lowest(int height, int sample)
+    {
+        return sample == VOID ? height : Math.min(height, sample);
+    }
+}
\ No newline at end of file
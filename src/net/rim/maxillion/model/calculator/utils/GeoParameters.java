@@ -2,6 +2,10 @@
  * @(#)GeoParameters.java	1.0	2009-06-22
  * @(#)GeoParameters.java	1.1	2009-09-15
  * @(#)GeoParameters.java	1.2	2010-04-27
+ * @(#)GeoParameters.java	1.3	2026-10-16
+ * @(#)GeoParameters.java	1.4	2026-10-16
+ * @(#)GeoParameters.java	1.5	2026-10-16
+ * @(#)GeoParameters.java	1.6	2026-10-16
  *
  * Copyright 2009 Exes Technologies. All Rights Reserved.
  *
@@ -34,6 +38,7 @@
  */
 package net.rim.maxillion.model.calculator.utils;
 
+import net.rim.maxillion.model.calculator.utils.time.DaylightSavingsZone;
 
 
 /**
@@ -45,10 +50,17 @@ package net.rim.maxillion.model.calculator.utils;
  * @version 1.10 2009-09-15 Constructor was replaced with empty constructor and set() methods. toString
  * method no longer depends on unnecessary static methods.
  * @version 1.20 2010-04-27 Removed setter methods and replaced them in constructor.
+ * @version 1.30 2026-10-16 Added hashCode() to be consistent with equals().
+ * @version 1.40 2026-10-16 Locations now carry the daylight savings zone that they observe.
+ * @version 1.50 2026-10-16 Locations now carry the heights of their eastern and western horizons.
+ * @version 1.60 2026-10-16 A location can no longer be created without a daylight savings zone.
  * @since MaxillionPrayers 1.0
  */
 public class GeoParameters
 {
+	/** The height of the location above its eastern horizon (in meters). */
+	private double easternHeight;
+
 	/** The latitude in radians. */
 	private double latitude;
 
@@ -58,6 +70,12 @@ public class GeoParameters
 	/** The time zone associated with the longitude and latitude. */
 	private double timeZone;
 
+	/** The height of the location above its western horizon (in meters). */
+	private double westernHeight;
+
+	/** The daylight savings rules observed at the location. */
+	private DaylightSavingsZone zone;
+
 
 	/**
 	 * Creates an instance of this class so that geographical parameters can be stored.
@@ -68,9 +86,55 @@ public class GeoParameters
 	 */
 	public GeoParameters(double latitude, double longitude, double timeZone)
 	{
+		this( latitude, longitude, timeZone, DaylightSavingsZone.getDefault() );
+	}
+
+
+	/**
+	 * Creates an instance of this class for a location that observes the daylight savings rules
+	 * of the specified zone.
+	 * @param latitude The latitude in degrees.
+	 * @param longitude The longitude in degrees.
+	 * @param timeZone The time zone associated with the location.
+	 * @param zone The daylight savings rules observed at the location.
+	 * @throws IllegalArgumentException If the zone is null.
+	 * @since MaxillionPrayers 3.0
+	 */
+	public GeoParameters(double latitude, double longitude, double timeZone, DaylightSavingsZone zone)
+	{
+		if (zone == null)
+			throw new IllegalArgumentException("A location must observe a daylight savings zone");
+
 		this.latitude = Math.toRadians(latitude);
 		this.longitude = Math.toRadians(longitude);
 		this.timeZone = timeZone;
+		this.zone = zone;
+		this.westernHeight = SalatConstants.HEIGHT_DIFFERENCE_WEST;
+		this.easternHeight = SalatConstants.HEIGHT_DIFFERENCE_EAST;
+	}
+
+
+	/**
+	 * Creates an instance of this class for the same location as the specified one, but with the
+	 * specified horizon heights (ie: as found by an ElevationModel).
+	 * @param g The location.
+	 * @param westernHeight The height of the location above its western horizon (in meters).
+	 * @param easternHeight The height of the location above its eastern horizon (in meters).
+	 * @throws IllegalArgumentException If either height is negative, since a horizon higher than
+	 * the location cannot be corrected for.
+	 * @since MaxillionPrayers 3.0
+	 */
+	public GeoParameters(GeoParameters g, double westernHeight, double easternHeight)
+	{
+		if ( (westernHeight < 0) || (easternHeight < 0) )
+			throw new IllegalArgumentException("Horizon heights cannot be negative: "+westernHeight+", "+easternHeight);
+
+		this.latitude = g.latitude;
+		this.longitude = g.longitude;
+		this.timeZone = g.timeZone;
+		this.zone = g.zone;
+		this.westernHeight = westernHeight;
+		this.easternHeight = easternHeight;
 	}
 
 
@@ -83,7 +147,8 @@ public class GeoParameters
 
 		try {
 			GeoParameters gp = (GeoParameters)obj;
-			result = (latitude == gp.latitude) && (longitude == gp.longitude) && (timeZone == gp.timeZone);
+			result = (latitude == gp.latitude) && (longitude == gp.longitude) && (timeZone == gp.timeZone) && (zone == gp.zone)
+				&& (westernHeight == gp.westernHeight) && (easternHeight == gp.easternHeight);
 		}
 
 		catch (ClassCastException ex)
@@ -94,6 +159,33 @@ public class GeoParameters
 	}
 
 
+	/* (non-Javadoc)
+	 * @see java.lang.Object#hashCode()
+	 */
+	public int hashCode()
+	{
+		long bits = Double.doubleToLongBits(latitude);
+		bits = bits*31 + Double.doubleToLongBits(longitude);
+		bits = bits*31 + Double.doubleToLongBits(timeZone);
+		bits = bits*31 + zone.getId();
+		bits = bits*31 + Double.doubleToLongBits(westernHeight);
+		bits = bits*31 + Double.doubleToLongBits(easternHeight);
+
+		return (int)( bits ^ (bits >>> 32) );
+	}
+
+
+	/**
+	 * Gets the height of the location above its eastern horizon. The sun rises earlier when the
+	 * location overlooks lower ground to the east.
+	 * @return The eastern height difference (in meters).
+	 */
+	public double getEasternHeightDifference()
+	{
+		return this.easternHeight;
+	}
+
+
 	/**
 	 * Gets the latitude stored. Latitude, usually denoted by the Greek letter gives the
 	 * location of a place on Earth (or other planetary body) north or south of the equator.
@@ -142,11 +234,42 @@ public class GeoParameters
 	}
 
 
+	/**
+	 * Gets the height of the location above its western horizon. The sun sets later when the
+	 * location overlooks lower ground to the west.
+	 * @return The western height difference (in meters).
+	 */
+	public double getWesternHeightDifference()
+	{
+		return this.westernHeight;
+	}
+
+
+	/**
+	 * Is the location above its horizon in either direction?
+	 * @return true if either horizon height difference is not 0.
+	 */
+	public boolean hasHorizonHeights()
+	{
+		return (westernHeight != 0) || (easternHeight != 0);
+	}
+
+
+	/**
+	 * Gets the daylight savings rules observed at the location.
+	 * @return The zone whose transitions are used to adjust the calculated times.
+	 */
+	public DaylightSavingsZone getDaylightSavingsZone()
+	{
+		return this.zone;
+	}
+
+
 	/* (non-Javadoc)
 	 * @see java.lang.Object#toString()
 	 */
 	public String toString()
 	{
-		return "Latitude: "+latitude+"\nLongitude: "+longitude+"\nTimezone: "+timeZone;
+		return "Latitude: "+latitude+"\nLongitude: "+longitude+"\nTimezone: "+timeZone+"\nDaylight savings: "+zone.getName()+"\nHorizon heights: "+westernHeight+" W, "+easternHeight+" E";
 	}
 }
\ No newline at end of file
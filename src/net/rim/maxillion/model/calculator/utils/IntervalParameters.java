@@ -1,5 +1,6 @@
 /*
  * @(#)IntervalParameters.java	1.0	2009-06-22
+ * @(#)IntervalParameters.java	1.1	2026-10-16
  *
  * Copyright 2009 Exes Technologies. All Rights Reserved.
  *
@@ -62,6 +63,7 @@ package net.rim.maxillion.model.calculator.utils;
  *
  * @author Ragaeeb Haq
  * @version 1.00 2009-06-22 Initial submission.
+ * @version 1.10 2026-10-16 Added hashCode() to match equals().
  * @since MaxillionPrayers 1.0
  */
 public class IntervalParameters
@@ -119,6 +121,19 @@ public class IntervalParameters
 		return result;
 	}
 
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#hashCode()
+	 */
+	public int hashCode()
+	{
+		long bits = Double.doubleToLongBits(dhuhrInterval);
+		bits = bits*31 + Double.doubleToLongBits(ishaInterval);
+		bits = bits*31 + Double.doubleToLongBits(maghribInterval);
+
+		return (int)( bits ^ (bits >>> 32) );
+	}
+
 	/**
 	 * Gets the Dhuhr interval.
 	 * @return The interval for the Dhuhr prayer.
@@ -1,6 +1,7 @@
 /*
  * @(#)SalatConstants.java  1.0 2009-06-22
  * @(#)SalatConstants.java  1.1 2010-04-27
+ * @(#)SalatConstants.java  1.2 2026-10-16
  *
  * Copyright 2009 Exes Technologies. All Rights Reserved.
  *
@@ -41,6 +42,7 @@ package net.rim.maxillion.model.calculator.utils;
  * @author Ragaeeb Haq
  * @version 1.00 2009-06-22 Initial submission.
  * @version 1.10 2010-04-27 This is now an enum class.
+ * @version 1.20 2026-10-16 Added the ISNA calculation method.
  * @since MaxillionPrayers 1.0
  *
  */
@@ -84,4 +86,6 @@ public interface SalatConstants
     public static final AngleParameters ISNA_ANGLES = new AngleParameters(15,15);
 
     public static final IntervalParameters ISNA_INTERVALS = new IntervalParameters(0);
+    /** The Islamic Society of North America method with the standard Asr convention. */
+    public static final CalculationMethod ISNA_METHOD = new CalculationMethod(ISNA_ANGLES, ISNA_INTERVALS, SHAFII_ASR_JURISTIC_SHADOW_RATIO);
 }
\ No newline at end of file
@@ -13,6 +13,8 @@ import net.rim.device.api.util.IntHashtable;
  *
  * @author Ragaeeb Haq
  * @version 1.00 Aug 28, 2010 Initial submission.
+ * @version 1.10 2026-10-16 The names are now created when the class is loaded, so that threads cannot
+ * race to create them.
  * @since MaxillionPrayersME 
  *
  */
@@ -20,7 +22,7 @@ public class TimeCriticalEventNames
 {
     private IntHashtable _table;
 
-    private static TimeCriticalEventNames instance;
+    private static final TimeCriticalEventNames instance = new TimeCriticalEventNames();
 
     /**
      * 
@@ -47,9 +49,6 @@ public class TimeCriticalEventNames
 
     public static TimeCriticalEventNames getInstance()
     {
-        if (instance == null)
-            instance = new TimeCriticalEventNames();
-
         return instance;
     }
 }
\ No newline at end of file
@@ -0,0 +1,260 @@
+/*
+ * @(#)DaySchedule.java  1.0 2026-10-16
+ *
+ * Copyright 2009 Exes Technologies. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   - Redistributions of source code must retain the above copyright
+ *     notice, this list of conditions and the following disclaimer.
+ *
+ *   - Redistributions in binary form must reproduce the above copyright
+ *     notice, this list of conditions and the following disclaimer in the
+ *     documentation and/or other materials provided with the distribution.
+ *
+ *   - Neither the name of Exes Technologies nor the names of its
+ *     contributors may be used to endorse or promote products derived
+ *     from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.rim.maxillion.model.calculator.utils.time;
+
+import net.rim.maxillion.model.calculator.utils.TimeCriticalEvent;
+
+
+/**
+ * Holds the time-critical events of a single day in chronological order. The TimeCriticalEvent
+ * values are not chronological (ie: the sunrise comes before Dhuhr but has a greater value),
+ * so the events are sorted once when the schedule is created. A lookup table with an entry
+ * for every minute of the day then gives the first event at or after any time, so that
+ * finding the next event does not need to walk the day.<br><br>
+ *
+ * Events can be filtered by a mask in which the bit of each wanted event is set (ie:
+ * PRAYERS leaves out the sunrise and the half-night).<br><br>
+ *
+ * An instance of this class cannot be modified once it is created, so it can be shared
+ * between threads without locking.
+ *
+ * @author Ragaeeb Haq
+ * @version 1.00 2026-10-16 Initial submission.
+ * @since MaxillionPrayers 3.0
+ */
+public final class DaySchedule
+{
+    /** The mask that matches every event. */
+    public static final int ALL_EVENTS = (1 << TimeTable.EVENTS_PER_DAY)-1;
+
+    /** Returned when there is no matching event left in the day. */
+    public static final int NONE = -1;
+
+    /** The mask that matches the five daily prayers. */
+    public static final int PRAYERS = ALL_EVENTS & ~( maskOf(TimeCriticalEvent.Sunrise) | maskOf(TimeCriticalEvent.HalfNight) );
+
+    /** The number of milliseconds in a minute. */
+    private static final int MILLISECONDS_IN_A_MINUTE = TimeFormatter.TOTAL_SECONDS_IN_A_MINUTE*EpochDay.MILLISECONDS_IN_A_SECOND;
+
+    /** The TimeCriticalEvent value of each event in chronological order. */
+    private final byte[] _events;
+
+    /** The position of the first event at or after the start of each minute since the start of the day. */
+    private final byte[] _firstByMinute;
+
+    /** The chronological position of each event, indexed by its TimeCriticalEvent value. */
+    private final byte[] _positions;
+
+    /** The raw time value of the start of the day. */
+    private final long _start;
+
+    /** The raw time value of each event in chronological order. */
+    private final long[] _times;
+
+
+    /**
+     * Creates the schedule of the specified day of a timetable.
+     * @param table The timetable holding the day.
+     * @param day The index of the day relative to the first day of the table.
+     */
+    public DaySchedule(TimeTable table, int day)
+    {
+        int n = TimeTable.EVENTS_PER_DAY;
+
+        _start = table.getStartOfDay(day);
+        _events = new byte[n];
+        _times = new long[n];
+        _positions = new byte[n];
+
+        for (byte event = 0; event < n; event++) // insertion sort since there are only a few events
+        {
+            long time = table.getTime(day, event);
+            int i = event;
+
+            for (; (i > 0) && (_times[i-1] > time); i--)
+            {
+                _times[i] = _times[i-1];
+                _events[i] = _events[i-1];
+            }
+
+            _times[i] = time;
+            _events[i] = event;
+        }
+
+        for (byte i = 0; i < n; i++)
+            _positions[ _events[i] ] = i;
+
+        int minutes = (int)( Math.max(_times[n-1]-_start, 0)/MILLISECONDS_IN_A_MINUTE )+1;
+        _firstByMinute = new byte[minutes];
+        byte position = 0;
+
+        for (int minute = 0; minute < minutes; minute++)
+        {
+            long time = _start+(long)minute*MILLISECONDS_IN_A_MINUTE;
+
+            while ( (position < n) && (_times[position] < time) )
+                position++;
+
+            _firstByMinute[minute] = position;
+        }
+    }
+
+
+    /**
+     * Gets the mask that matches the specified event.
+     * @param event The TimeCriticalEvent value of the event.
+     * @return The mask with only the bit of the event set.
+     */
+    public static int maskOf(byte event)
+    {
+        return 1 << event;
+    }
+
+
+    /**
+     * Gets the event at the specified chronological position.
+     * @param position The position of the event, 0 being the earliest event of the day.
+     * @return The TimeCriticalEvent value of the event.
+     */
+    public byte getEvent(int position)
+    {
+        return _events[position];
+    }
+
+
+    /**
+     * Gets the raw time value of the start of the day.
+     * @return The raw time value of midnight at the start of the day.
+     */
+    public long getStartOfDay()
+    {
+        return _start;
+    }
+
+
+    /**
+     * Gets the raw time value of the event at the specified chronological position.
+     * @param position The position of the event, 0 being the earliest event of the day.
+     * @return The raw time value of the event.
+     */
+    public long getTime(int position)
+    {
+        return _times[position];
+    }
+
+
+    /**
+     * Gets the raw time value of the specified event.
+     * @param event The TimeCriticalEvent value of the event.
+     * @return The raw time value of the event.
+     */
+    public long getTimeOf(byte event)
+    {
+        return _times[ _positions[event] ];
+    }
+
+
+    /**
+     * Finds the first event that has not happened yet at the specified time.
+     * @param now The raw time value to compare the events with.
+     * @return The chronological position of the first event at or after the specified time, or
+     * NONE if every event of the day has passed.
+     */
+    public int nextEvent(long now)
+    {
+        return nextEvent(now, ALL_EVENTS);
+    }
+
+
+    /**
+     * Finds the first event matching the specified mask that has not happened yet at the
+     * specified time.
+     * @param now The raw time value to compare the events with.
+     * @param mask The events to consider (ie: PRAYERS).
+     * @return The chronological position of the first matching event at or after the specified
+     * time, or NONE if every matching event of the day has passed.
+     */
+    public int nextEvent(long now, int mask)
+    {
+        int position = 0;
+
+        if (now > _start)
+        {
+            long minute = (now-_start)/MILLISECONDS_IN_A_MINUTE;
+            position = minute < _firstByMinute.length ? _firstByMinute[(int)minute] : _events.length;
+
+            while ( (position < _events.length) && (_times[position] < now) ) // events earlier in the same minute
+                position++;
+        }
+
+        return matching(position, mask);
+    }
+
+
+    /**
+     * Finds the event matching the specified mask that follows the specified one.
+     * @param position The chronological position of the current event.
+     * @param mask The events to consider (ie: PRAYERS).
+     * @return The chronological position of the following matching event, or NONE if there
+     * is no such event left in the day.
+     */
+    public int followingEvent(int position, int mask)
+    {
+        return matching(position+1, mask);
+    }
+
+
+    /**
+     * Gets the number of events in the day.
+     * @return The number of events.
+     */
+    public int size()
+    {
+        return _events.length;
+    }
+
+
+    /**
+     * Finds the first event matching the specified mask at or after the specified position.
+     * @param position The chronological position to start from.
+     * @param mask The events to consider.
+     * @return The chronological position of the matching event, or NONE if there is none.
+     */
+    private int matching(int position, int mask)
+    {
+        while ( (position < _events.length) && ( ( mask & maskOf(_events[position]) ) == 0 ) )
+            position++;
+
+        return position < _events.length ? position : NONE;
+    }
+}
\ No newline at end of file
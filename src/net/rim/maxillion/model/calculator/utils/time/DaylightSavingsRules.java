@@ -0,0 +1,729 @@
+/*
+ * @(#)DaylightSavingsRules.java  1.0 2026-10-16
+ * @(#)DaylightSavingsRules.java  1.1 2026-10-16
+ * @(#)DaylightSavingsRules.java  1.2 2026-10-16
+ *
+ * Copyright 2009 Exes Technologies. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   - Redistributions of source code must retain the above copyright
+ *     notice, this list of conditions and the following disclaimer.
+ *
+ *   - Redistributions in binary form must reproduce the above copyright
+ *     notice, this list of conditions and the following disclaimer in the
+ *     documentation and/or other materials provided with the distribution.
+ *
+ *   - Neither the name of Exes Technologies nor the names of its
+ *     contributors may be used to endorse or promote products derived
+ *     from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.rim.maxillion.model.calculator.utils.time;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Enumeration;
+import java.util.Hashtable;
+import java.util.Vector;
+
+
+/**
+ * Reads daylight savings rules written in the format of the tz database and builds the
+ * transition table of each zone from them. The following subset of the format is
+ * understood:<br><br>
+ *
+ * <code>Rule NAME FROM TO - IN ON AT SAVE LETTER</code><br>
+ * <code>Zone NAME STDOFF RULES FORMAT [UNTIL]</code><br>
+ * <code>Link TARGET ALIAS</code><br><br>
+ *
+ * Only the last line (the one without an UNTIL) of each zone is used, so a zone's history is
+ * ignored but its current rules, including all the years that those rules cover, are
+ * applied. The ON field may be a day of the month, <code>lastSun</code>, <code>Sun&gt;=8</code>
+ * or <code>Sun&lt;=25</code> and the AT field may end with <code>w</code> (wall clock, the
+ * default), <code>s</code> (standard time) or <code>u</code>, <code>g</code> or <code>z</code>
+ * (universal time). Comments start with a <code>#</code>.<br><br>
+ *
+ * The transitions of a zone are only computed the first time that the zone is asked for, and
+ * cover every year from FIRST_YEAR to LAST_YEAR. A rule only applies from its FROM year, so a
+ * date before the first rule of a zone gets no daylight savings time. The bundled rules go back
+ * to FIRST_YEAR for the zones that follow the US rules; the other bundled zones only go back to
+ * the first year listed for their rules.<br><br>
+ *
+ * A rule is made up of all of its lines in a stream. Reading another stream that has lines for
+ * a rule of the same name replaces all of the lines read before, as a zone of the same name
+ * replaces the one read before.
+ *
+ * @author Ragaeeb Haq
+ * @version 1.00 2026-10-16 Initial submission.
+ * @version 1.10 2026-10-16 Dates are now converted with EpochDay.
+ * @version 1.20 2026-10-16 A rule read again now replaces the lines read before rather than being
+ * added to them, as documented. Documented the years covered by the bundled rules.
+ * @since MaxillionPrayers 3.0
+ */
+public final class DaylightSavingsRules
+{
+    /** The first year that transitions are computed for. */
+    public static final int FIRST_YEAR = 1970;
+
+    /** The last year that transitions are computed for. */
+    public static final int LAST_YEAR = 2100;
+
+    /** The name of the bundled rules file. */
+    public static final String RULES_RESOURCE = "daylight-savings.tz";
+
+    /** The name of the rule that is used when a location does not specify a zone. */
+    static final String LEGACY_RULE = "Legacy";
+
+    /** Index of the field holding the time of day of the transition (in seconds). */
+    private static final int AT = 0;
+
+    /** Index of the field holding how the time of day of the transition is measured. */
+    private static final int AT_TYPE = 1;
+
+    /** Indicates that the time of day of a transition is measured in standard time. */
+    private static final int AT_STANDARD = 1;
+
+    /** Indicates that the time of day of a transition is measured in universal time. */
+    private static final int AT_UNIVERSAL = 2;
+
+    /** Indicates that the time of day of a transition is measured in wall clock time. */
+    private static final int AT_WALL = 0;
+
+    /** Index of the field holding the day of the month that the ON field refers to. */
+    private static final int DAY = 2;
+
+    /** Index of the field holding how the day of the transition is chosen. */
+    private static final int DAY_TYPE = 3;
+
+    /** Indicates that the transition is on the day of the month given. */
+    private static final int DAY_EXACT = 0;
+
+    /** Indicates that the transition is on the last given weekday of the month. */
+    private static final int DAY_LAST = 1;
+
+    /** Indicates that the transition is on the first given weekday before or on a day. */
+    private static final int DAY_ON_OR_BEFORE = 2;
+
+    /** Indicates that the transition is on the first given weekday on or after a day. */
+    private static final int DAY_ON_OR_AFTER = 3;
+
+    /** Index of the field holding the first year that the rule applies to. */
+    private static final int FROM = 4;
+
+    /** The rules that are used when a location does not specify a zone. */
+    private static final String[] LEGACY_DATA = {
+        "Rule Legacy min max - Mar Sun>=8 2:00 1:00 D",
+        "Rule Legacy min max - Nov Sun>=1 2:00s 0 S"
+    };
+
+    /** The number of milliseconds in a second. */
+    private static final int MILLISECONDS_IN_A_SECOND = 1000;
+
+    /** Index of the field holding the month of the transition (1 for January). */
+    private static final int MONTH = 5;
+
+    /** The abbreviations of the months as they appear in the IN field. */
+    private static final String[] MONTHS = { "jan", "feb", "mar", "apr", "may", "jun", "jul", "aug", "sep", "oct", "nov", "dec" };
+
+    /** The number of fields stored for each rule. */
+    private static final int RULE_FIELDS = 9;
+
+    /** Index of the field holding the number of seconds to adjust by after the transition. */
+    private static final int SAVE = 6;
+
+    /** The number of seconds in a day. */
+    private static final int SECONDS_IN_A_DAY = 86400;
+
+    /** The number of seconds in an hour. */
+    private static final int SECONDS_IN_AN_HOUR = 3600;
+
+    /** Index of the field holding the last year that the rule applies to. */
+    private static final int TO = 7;
+
+    /** Index of the field holding the day of the week that the ON field refers to (0 for Sunday). */
+    private static final int WEEKDAY = 8;
+
+    /** The abbreviations of the days of the week as they appear in the ON field. */
+    private static final String[] WEEKDAYS = { "sun", "mon", "tue", "wed", "thu", "fri", "sat" };
+
+    /** The rules that are used when a location does not specify a zone. */
+    private static DaylightSavingsRules _legacy;
+
+    /** The name of the zone whose continuation lines are being read, or null. */
+    private String _currentZone;
+
+    /** The target of each alias, keyed by alias. */
+    private Hashtable _links;
+
+    /** The rules of each name, keyed by name, each a Vector of int arrays. */
+    private Hashtable _rules;
+
+    /** The names of the rules that the current call to read() has read lines for, keyed by name. */
+    private Hashtable _rulesRead;
+
+    /** The zones that have already been built, keyed by name. */
+    private Hashtable _zones;
+
+    /** The standard offset and rules of each zone that has been read, keyed by name. */
+    private Hashtable _zoneLines;
+
+
+    /**
+     * Creates an instance of this class that does not have any rules or zones yet.
+     */
+    public DaylightSavingsRules()
+    {
+        _links = new Hashtable();
+        _rules = new Hashtable();
+        _rulesRead = new Hashtable();
+        _zones = new Hashtable();
+        _zoneLines = new Hashtable();
+    }
+
+
+    /**
+     * Reads daylight savings rules from the specified stream. The stream is not closed.
+     * @param in The stream to read tz-style text from.
+     * @return The rules that were read.
+     * @throws IOException If the stream could not be read or a line could not be understood.
+     */
+    public static DaylightSavingsRules load(InputStream in) throws IOException
+    {
+        DaylightSavingsRules result = new DaylightSavingsRules();
+        result.read(in);
+
+        return result;
+    }
+
+
+    /**
+     * Reads the daylight savings rules bundled with the application, which cover a selection of
+     * commonly used zones.
+     * @return The bundled rules.
+     * @throws IOException If the bundled rules could not be read.
+     */
+    public static DaylightSavingsRules loadBundled() throws IOException
+    {
+        InputStream in = DaylightSavingsRules.class.getResourceAsStream(RULES_RESOURCE);
+
+        if (in == null)
+            throw new IOException("Missing " + RULES_RESOURCE);
+
+        try {
+            return load(in);
+        }
+
+        finally {
+            in.close();
+        }
+    }
+
+
+    /**
+     * Builds a zone with the specified standard offset that follows the specified rules.
+     * @param name The name to give to the zone.
+     * @param standardOffset The standard offset of the zone from Greenwich Mean Time (in hours).
+     * @param rules The RULES field of the zone: the name of a rule, a fixed amount (ie: 1:00)
+     * or - for none.
+     * @return The zone built.
+     * @throws IllegalArgumentException If no rule with the specified name has been read.
+     */
+    public synchronized DaylightSavingsZone createZone(String name, double standardOffset, String rules)
+    {
+        long[] transitions = new long[0];
+        int[] saves = new int[0];
+
+        if ( isAmount(rules) )
+        {
+            transitions = new long[]{Long.MIN_VALUE};
+            saves = new int[]{ parseTime(rules, null) };
+        }
+
+        else if ( !rules.equals("-") )
+        {
+            Vector named = (Vector)_rules.get(rules);
+
+            if (named == null)
+                throw new IllegalArgumentException("Unknown rule: "+rules);
+
+            int capacity = (LAST_YEAR-FIRST_YEAR+2)*named.size();
+            transitions = new long[capacity];
+            saves = new int[capacity];
+
+            int count = computeTransitions( named, (int)(standardOffset*SECONDS_IN_AN_HOUR), transitions, saves );
+
+            long[] trimmedTransitions = new long[count];
+            int[] trimmedSaves = new int[count];
+            System.arraycopy(transitions, 0, trimmedTransitions, 0, count);
+            System.arraycopy(saves, 0, trimmedSaves, 0, count);
+            transitions = trimmedTransitions;
+            saves = trimmedSaves;
+        }
+
+        return new DaylightSavingsZone(name, standardOffset, transitions, saves);
+    }
+
+
+    /**
+     * Gets the zone with the specified name. Its transitions are computed the first time that
+     * it is asked for.
+     * @param name The name of the zone or of one of its aliases (ie: America/Toronto).
+     * @return The zone with the specified name, or null if no such zone has been read.
+     */
+    public synchronized DaylightSavingsZone getZone(String name)
+    {
+        String target = (String)_links.get(name);
+
+        if (target != null)
+            name = target;
+
+        DaylightSavingsZone result = (DaylightSavingsZone)_zones.get(name);
+
+        if (result == null)
+        {
+            String[] line = (String[])_zoneLines.get(name);
+
+            if (line != null)
+            {
+                result = createZone( name, parseTime(line[0], null)/(double)SECONDS_IN_AN_HOUR, line[1] );
+                _zones.put(name, result);
+            }
+        }
+
+        return result;
+    }
+
+
+    /**
+     * Gets the names of all the zones that have been read, not including their aliases.
+     * @return The names of the zones as Strings.
+     */
+    public synchronized Enumeration getZoneNames()
+    {
+        return _zoneLines.keys();
+    }
+
+
+    /**
+     * Reads more daylight savings rules from the specified stream. The lines of a rule in the
+     * stream replace all of the lines of the rule with the same name already read, and a zone
+     * replaces the zone with the same name already read. The stream is not closed.
+     * @param in The stream to read tz-style text from.
+     * @throws IOException If the stream could not be read or a line could not be understood.
+     */
+    public synchronized void read(InputStream in) throws IOException
+    {
+        StringBuffer line = new StringBuffer();
+        int c = in.read();
+        _rulesRead.clear();
+
+        while (c != -1)
+        {
+            if (c == '\n')
+            {
+                parseLine( line.toString() );
+                line.setLength(0);
+            }
+
+            else if (c != '\r')
+                line.append( (char)c );
+
+            c = in.read();
+        }
+
+        parseLine( line.toString() );
+        _currentZone = null;
+
+        for (Enumeration e = _zoneLines.elements(); e.hasMoreElements();) // make sure every zone can be built
+        {
+            String rules = ( (String[])e.nextElement() )[1];
+
+            if ( !rules.equals("-") && !isAmount(rules) && !_rules.containsKey(rules) )
+                throw new IOException("Unknown rule: "+rules);
+        }
+    }
+
+
+    /**
+     * Gets the rules that are used when a location does not specify a zone.
+     * @return The rules containing the legacy rule.
+     */
+    static synchronized DaylightSavingsRules getLegacyRules()
+    {
+        if (_legacy == null)
+        {
+            _legacy = new DaylightSavingsRules();
+
+            try {
+                for (int i = 0; i < LEGACY_DATA.length; i++)
+                    _legacy.parseLine(LEGACY_DATA[i]);
+            }
+
+            catch (IOException ex)
+            {
+                throw new IllegalStateException( ex.getMessage() );
+            }
+        }
+
+        return _legacy;
+    }
+
+
+    /**
+     * Computes the transitions of the specified rules for every year from the year before
+     * FIRST_YEAR to LAST_YEAR. Transitions that do not change the adjustment are left out.
+     * @param rules The rules to apply.
+     * @param standardOffset The standard offset of the zone from Greenwich Mean Time (in seconds).
+     * @param transitions The array to store the raw time value of each transition in.
+     * @param saves The array to store the number of seconds to adjust by after each transition.
+     * @return The number of transitions stored.
+     */
+    private static int computeTransitions(Vector rules, int standardOffset, long[] transitions, int[] saves)
+    {
+        int n = rules.size();
+        long[] locals = new long[n];
+        int[][] ordered = new int[n][];
+        int count = 0;
+        int previousSave = 0;
+
+        for (int year = FIRST_YEAR-1; year <= LAST_YEAR; year++)
+        {
+            int applicable = 0;
+
+            for (int i = 0; i < n; i++)
+            {
+                int[] rule = (int[])rules.elementAt(i);
+
+                if ( (rule[FROM] <= year) && (year <= rule[TO]) ) // insert in order of local time
+                {
+                    long local = (long)getTransitionDay(rule, year)*SECONDS_IN_A_DAY+rule[AT];
+                    int j = applicable++;
+
+                    for (; (j > 0) && (locals[j-1] > local); j--)
+                    {
+                        locals[j] = locals[j-1];
+                        ordered[j] = ordered[j-1];
+                    }
+
+                    locals[j] = local;
+                    ordered[j] = rule;
+                }
+            }
+
+            for (int i = 0; i < applicable; i++)
+            {
+                int[] rule = ordered[i];
+                long universal = locals[i];
+
+                if (rule[AT_TYPE] != AT_UNIVERSAL)
+                    universal -= standardOffset;
+
+                if (rule[AT_TYPE] == AT_WALL)
+                    universal -= previousSave;
+
+                if (rule[SAVE] != previousSave)
+                {
+                    transitions[count] = universal*MILLISECONDS_IN_A_SECOND;
+                    saves[count] = rule[SAVE];
+                    count++;
+                }
+
+                previousSave = rule[SAVE];
+            }
+        }
+
+        return count;
+    }
+
+
+    /**
+     * Gets the day of the transition of the specified rule in the specified year.
+     * @param rule The rule to get the transition day of.
+     * @param year The year to get the transition day in.
+     * @return The number of days between 1970-01-01 and the day of the transition.
+     */
+    private static int getTransitionDay(int[] rule, int year)
+    {
+        int month = rule[MONTH];
+        int result = EpochDay.fromDate( year, month, rule[DAY] );
+
+        if (rule[DAY_TYPE] == DAY_LAST)
+        {
+            result = (month == 12 ? EpochDay.fromDate(year+1, 1, 1) : EpochDay.fromDate(year, month+1, 1) )-1;
+            result -= ( EpochDay.getDayOfWeek(result)-rule[WEEKDAY]+7 )%7;
+        }
+
+        else if (rule[DAY_TYPE] == DAY_ON_OR_AFTER)
+            result += ( rule[WEEKDAY]-EpochDay.getDayOfWeek(result)+7 )%7;
+
+        else if (rule[DAY_TYPE] == DAY_ON_OR_BEFORE)
+            result -= ( EpochDay.getDayOfWeek(result)-rule[WEEKDAY]+7 )%7;
+
+        return result;
+    }
+
+
+    /**
+     * Determines whether the specified field is an amount of time rather than a name.
+     * @param field The field to check.
+     * @return true if the field starts with a digit or a minus sign followed by a digit.
+     */
+    private static boolean isAmount(String field)
+    {
+        int start = field.startsWith("-") ? 1 : 0;
+
+        return (field.length() > start) && Character.isDigit( field.charAt(start) );
+    }
+
+
+    /**
+     * Finds the abbreviation that the specified field starts with.
+     * @param field The field to look up (ie: Mar or March).
+     * @param names The abbreviations to look for, in lowercase.
+     * @return The index of the abbreviation found.
+     * @throws IOException If the field does not start with any of the abbreviations.
+     */
+    private static int parseName(String field, String[] names) throws IOException
+    {
+        String lower = field.toLowerCase();
+
+        for (int i = 0; i < names.length; i++)
+        {
+            if ( lower.startsWith(names[i]) )
+                return i;
+        }
+
+        throw new IOException("Unknown name: "+field);
+    }
+
+
+    /**
+     * Parses an amount of time of the form [-]h[:mm[:ss]] optionally followed by a letter
+     * describing how it is measured.
+     * @param field The field to parse (ie: 2:00s).
+     * @param type An array to store the AT_ type of the letter in, or null.
+     * @return The amount of time in seconds.
+     */
+    private static int parseTime(String field, int[] type)
+    {
+        boolean negative = field.startsWith("-");
+        int result = 0;
+        int part = 0;
+        int multiplier = SECONDS_IN_AN_HOUR;
+
+        for (int i = negative ? 1 : 0; i < field.length(); i++)
+        {
+            char c = field.charAt(i);
+
+            if ( Character.isDigit(c) )
+                part = part*10+(c-'0');
+
+            else if (c == ':')
+            {
+                result += part*multiplier;
+                part = 0;
+                multiplier /= 60;
+            }
+
+            else if (type != null)
+                type[0] = (c == 's') ? AT_STANDARD : (c == 'w') ? AT_WALL : AT_UNIVERSAL;
+        }
+
+        result += part*multiplier;
+
+        return negative ? -result : result;
+    }
+
+
+    /**
+     * Parses a year of the FROM or TO field.
+     * @param field The field to parse (ie: 2007, min, max or only).
+     * @param from The year of the FROM field, used when the field is only.
+     * @return The year parsed.
+     */
+    private static int parseYear(String field, int from)
+    {
+        int result = from;
+
+        if ( field.startsWith("mi") )
+            result = Integer.MIN_VALUE;
+
+        else if ( field.startsWith("ma") )
+            result = Integer.MAX_VALUE;
+
+        else if ( !field.startsWith("o") )
+            result = Integer.parseInt(field);
+
+        return result;
+    }
+
+
+    /**
+     * Splits the specified line into its whitespace-separated fields, leaving out comments.
+     * @param line The line to split.
+     * @return The fields of the line.
+     */
+    private static String[] split(String line)
+    {
+        Vector fields = new Vector();
+        int start = -1;
+        int end = line.indexOf('#');
+
+        if (end < 0)
+            end = line.length();
+
+        for (int i = 0; i <= end; i++)
+        {
+            boolean space = (i == end) || (line.charAt(i) <= ' ');
+
+            if ( space && (start >= 0) )
+            {
+                fields.addElement( line.substring(start, i) );
+                start = -1;
+            }
+
+            else if ( !space && (start < 0) )
+                start = i;
+        }
+
+        String[] result = new String[ fields.size() ];
+        fields.copyInto(result);
+
+        return result;
+    }
+
+
+    /**
+     * Parses a single line of tz-style text.
+     * @param line The line to parse.
+     * @throws IOException If the line could not be understood.
+     */
+    private void parseLine(String line) throws IOException
+    {
+        String[] fields = split(line);
+        boolean continuation = (line.length() > 0) && (line.charAt(0) <= ' ');
+
+        try {
+            if (fields.length == 0)
+            {
+            }
+
+            else if ( continuation && (_currentZone != null) )
+                parseZone(_currentZone, fields, 0);
+
+            else if ( fields[0].equals("Rule") )
+            {
+                _currentZone = null;
+                parseRule(fields);
+            }
+
+            else if ( fields[0].equals("Zone") )
+            {
+                _currentZone = fields[1];
+                parseZone(_currentZone, fields, 2);
+            }
+
+            else if ( fields[0].equals("Link") )
+            {
+                _currentZone = null;
+                _links.put( fields[2], fields[1] );
+            }
+
+            else
+                throw new IOException("Unknown line: "+line);
+        }
+
+        catch (ArrayIndexOutOfBoundsException ex)
+        {
+            throw new IOException("Incomplete line: "+line);
+        }
+
+        catch (NumberFormatException ex)
+        {
+            throw new IOException("Invalid number: "+line);
+        }
+    }
+
+
+    /**
+     * Parses the fields of a Rule line. The first line of a rule read by the current call to
+     * read() replaces the lines of that rule read before, and later lines are added to it.
+     * @param fields The fields of the line.
+     * @throws IOException If the line could not be understood.
+     */
+    private void parseRule(String[] fields) throws IOException
+    {
+        int[] rule = new int[RULE_FIELDS];
+        rule[FROM] = parseYear(fields[2], 0);
+        rule[TO] = parseYear( fields[3], rule[FROM] );
+        rule[MONTH] = parseName(fields[5], MONTHS)+1;
+
+        String on = fields[6];
+        int index = on.indexOf('=');
+
+        if ( on.startsWith("last") )
+        {
+            rule[DAY_TYPE] = DAY_LAST;
+            rule[WEEKDAY] = parseName( on.substring(4), WEEKDAYS );
+            rule[DAY] = 1;
+        }
+
+        else if (index > 0)
+        {
+            rule[DAY_TYPE] = on.charAt(index-1) == '<' ? DAY_ON_OR_BEFORE : DAY_ON_OR_AFTER;
+            rule[WEEKDAY] = parseName(on, WEEKDAYS);
+            rule[DAY] = Integer.parseInt( on.substring(index+1) );
+        }
+
+        else
+        {
+            rule[DAY_TYPE] = DAY_EXACT;
+            rule[DAY] = Integer.parseInt(on);
+        }
+
+        int[] type = { AT_WALL };
+        rule[AT] = parseTime(fields[7], type);
+        rule[AT_TYPE] = type[0];
+        rule[SAVE] = parseTime(fields[8], null);
+
+        Vector named = (Vector)_rules.get(fields[1]);
+
+        if ( (named == null) || !_rulesRead.containsKey(fields[1]) )
+        {
+            named = new Vector();
+            _rules.put(fields[1], named);
+            _rulesRead.put(fields[1], named);
+        }
+
+        named.addElement(rule);
+        _zones.clear(); // zones built from the old rules are out of date
+    }
+
+
+    /**
+     * Parses the fields of a Zone line or of one of its continuation lines. Each line replaces
+     * the previous one so that the last line, which holds the current rules, is kept.
+     * @param name The name of the zone.
+     * @param fields The fields of the line.
+     * @param start The index of the STDOFF field.
+     */
+    private void parseZone(String name, String[] fields, int start)
+    {
+        _zoneLines.put( name, new String[]{ fields[start], fields[start+1] } );
+        _zones.remove(name);
+    }
+}
\ No newline at end of file
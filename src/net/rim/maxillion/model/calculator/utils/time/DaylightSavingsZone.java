@@ -0,0 +1,198 @@
+/*
+ * @(#)DaylightSavingsZone.java  1.0 2026-10-16
+ *
+ * Copyright 2009 Exes Technologies. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   - Redistributions of source code must retain the above copyright
+ *     notice, this list of conditions and the following disclaimer.
+ *
+ *   - Redistributions in binary form must reproduce the above copyright
+ *     notice, this list of conditions and the following disclaimer in the
+ *     documentation and/or other materials provided with the distribution.
+ *
+ *   - Neither the name of Exes Technologies nor the names of its
+ *     contributors may be used to endorse or promote products derived
+ *     from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.rim.maxillion.model.calculator.utils.time;
+
+import java.util.TimeZone;
+
+
+/**
+ * Holds the daylight savings transitions of a single time zone, precomputed for every year
+ * between DaylightSavingsRules.FIRST_YEAR and DaylightSavingsRules.LAST_YEAR. The transitions
+ * are stored as a sorted array of raw time values so that the adjustment in effect at any
+ * time can be found with a binary search, without creating any objects. Before the first
+ * transition no adjustment is made, and after the last one the adjustment of the last one
+ * remains in effect.<br><br>
+ *
+ * Instances are created by DaylightSavingsRules from tz-style rules, and are immutable so
+ * that they can be shared by any number of locations and threads.
+ *
+ * @author Ragaeeb Haq
+ * @version 1.00 2026-10-16 Initial submission.
+ * @since MaxillionPrayers 3.0
+ */
+public final class DaylightSavingsZone
+{
+    /** The number of seconds in an hour. */
+    private static final double SECONDS_IN_AN_HOUR = 3600.0;
+
+    /** The zone used by locations that do not specify one. */
+    private static DaylightSavingsZone _default;
+
+    /** The identifier that will be given to the next zone created. */
+    private static int _nextId;
+
+    /** Uniquely identifies this zone amongst all the zones created. */
+    private int _id;
+
+    /** The name of this zone (ie: America/Toronto). */
+    private String _name;
+
+    /** The number of seconds to adjust by after each transition. */
+    private int[] _saves;
+
+    /** The standard offset of this zone from Greenwich Mean Time (in hours). */
+    private double _standardOffset;
+
+    /** The raw time value of each transition in ascending order. */
+    private long[] _transitions;
+
+
+    /**
+     * Creates an instance of this class from precomputed transitions.
+     * @param name The name of the zone.
+     * @param standardOffset The standard offset of the zone from Greenwich Mean Time (in hours).
+     * @param transitions The raw time value of each transition in ascending order.
+     * @param saves The number of seconds to adjust by after each transition.
+     */
+    DaylightSavingsZone(String name, double standardOffset, long[] transitions, int[] saves)
+    {
+        _id = createId();
+        _name = name;
+        _standardOffset = standardOffset;
+        _transitions = transitions;
+        _saves = saves;
+    }
+
+
+    /**
+     * Gets the zone used by locations that do not specify one. This observes daylight savings
+     * from 2:00 on the second Sunday in March to 2:00 on the first Sunday in November in the
+     * standard time of the device, which is how the adjustment has always been made.
+     * @return The zone used when none is specified.
+     */
+    public static synchronized DaylightSavingsZone getDefault()
+    {
+        if (_default == null)
+        {
+            double offset = TimeZone.getDefault().getRawOffset()/(SECONDS_IN_AN_HOUR*1000);
+            _default = DaylightSavingsRules.getLegacyRules().createZone("Default", offset, DaylightSavingsRules.LEGACY_RULE);
+        }
+
+        return _default;
+    }
+
+
+    /**
+     * Gets the amount of hours to adjust the specified time by due to daylight savings.
+     * @param time The raw time value to look up.
+     * @return The amount of hours that the standard time is advanced by at the specified
+     * time, 0 if daylight savings is not in effect.
+     */
+    public double getAdjustment(long time)
+    {
+        int low = 0;
+        int high = _transitions.length-1;
+
+        while (low <= high) // find the last transition that is not after the time
+        {
+            int middle = (low+high) >>> 1;
+
+            if (_transitions[middle] <= time)
+                low = middle+1;
+
+            else
+                high = middle-1;
+        }
+
+        return high < 0 ? 0 : _saves[high]/SECONDS_IN_AN_HOUR;
+    }
+
+
+    /**
+     * Gets the identifier of this zone. No two zones created share the same identifier.
+     * @return The identifier of this zone.
+     */
+    public int getId()
+    {
+        return _id;
+    }
+
+
+    /**
+     * Gets the name of this zone.
+     * @return The name of this zone (ie: America/Toronto).
+     */
+    public String getName()
+    {
+        return _name;
+    }
+
+
+    /**
+     * Gets the standard offset of this zone from Greenwich Mean Time.
+     * @return The standard offset in hours (ie: -5.0 means GMT-5.0).
+     */
+    public double getStandardOffset()
+    {
+        return _standardOffset;
+    }
+
+
+    /**
+     * Gets the number of transitions precomputed for this zone.
+     * @return The number of transitions stored.
+     */
+    public int getTransitionCount()
+    {
+        return _transitions.length;
+    }
+
+
+    /* (non-Javadoc)
+     * @see java.lang.Object#toString()
+     */
+    public String toString()
+    {
+        return _name+" ("+_standardOffset+", "+_transitions.length+" transitions)";
+    }
+
+
+    /**
+     * Creates a new identifier for a zone.
+     * @return An identifier that has not been given out before.
+     */
+    private static synchronized int createId()
+    {
+        return _nextId++;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,330 @@
+/*
+ * @(#)EpochDay.java  1.0 2026-10-16
+ * @(#)EpochDay.java  1.1 2026-10-16
+ *
+ * Copyright 2009 Exes Technologies. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   - Redistributions of source code must retain the above copyright
+ *     notice, this list of conditions and the following disclaimer.
+ *
+ *   - Redistributions in binary form must reproduce the above copyright
+ *     notice, this list of conditions and the following disclaimer in the
+ *     documentation and/or other materials provided with the distribution.
+ *
+ *   - Neither the name of Exes Technologies nor the names of its
+ *     contributors may be used to endorse or promote products derived
+ *     from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.rim.maxillion.model.calculator.utils.time;
+
+import java.util.TimeZone;
+
+
+/**
+ * Converts between raw time values and days counted from 1970-01-01 using integer arithmetic
+ * only, so that the calculations do not need to create or synchronize on Calendar objects.
+ * A day is identified by its epoch day (the number of days since 1970-01-01, negative for
+ * earlier days) and a time within it by the number of seconds since its start. The offset of
+ * a zone from Greenwich Mean Time is always given explicitly in milliseconds, except by the
+ * methods that say they use the zone of the device.<br><br>
+ *
+ * The conversions between epoch days and the proleptic Gregorian calendar follow the
+ * algorithms of Howard Hinnant. [1]<br><br>
+ *
+ * [1] H. Hinnant, (2013). chrono-Compatible Low-Level Date Algorithms. [Online]. Available:
+ * http://howardhinnant.github.io/date_algorithms.html [October 16, 2026]
+ *
+ * @author Ragaeeb Haq
+ * @version 1.00 2026-10-16 Initial submission.
+ * @version 1.10 2026-10-16 Added the parsing of dates.
+ * @since MaxillionPrayers 3.0
+ */
+public final class EpochDay
+{
+    /** The number of milliseconds in a day. */
+    public static final long MILLISECONDS_IN_A_DAY = 86400000L;
+
+    /** The number of milliseconds in a second. */
+    public static final int MILLISECONDS_IN_A_SECOND = 1000;
+
+    /** The number of days in a 400 year cycle of the Gregorian calendar. */
+    private static final int DAYS_IN_AN_ERA = 146097;
+
+    /** The number of days between 0000-03-01 and 1970-01-01 in the proleptic Gregorian calendar. */
+    private static final int EPOCH_OFFSET = 719468;
+
+    /** The era value of dates after the birth of Christ, as used by TimeZone.getOffset(). */
+    private static final int ERA_AD = 1;
+
+    /** The number of milliseconds between midnight and noon. */
+    private static final long NOON = MILLISECONDS_IN_A_DAY/2;
+
+
+    /**
+     * Gets the epoch day of the specified date.
+     * @param year The year of the date.
+     * @param month The month of the date (1 for January).
+     * @param day The day of the month of the date.
+     * @return The number of days since 1970-01-01.
+     */
+    public static int fromDate(int year, int month, int day)
+    {
+        if (month <= 2)
+            year--;
+
+        int era = (year >= 0 ? year : year-399)/400;
+        int yearOfEra = year-era*400;
+        int dayOfYear = ( 153*(month > 2 ? month-3 : month+9)+2 )/5+day-1; // counted from March 1
+        int dayOfEra = yearOfEra*365+yearOfEra/4-yearOfEra/100+dayOfYear;
+
+        return era*DAYS_IN_AN_ERA+dayOfEra-EPOCH_OFFSET;
+    }
+
+
+    /**
+     * Gets the epoch day that the specified time falls on in a zone with the specified offset.
+     * @param time The raw time value.
+     * @param offset The offset of the zone from Greenwich Mean Time (in milliseconds).
+     * @return The number of days since 1970-01-01.
+     */
+    public static int fromTime(long time, int offset)
+    {
+        long local = time+offset;
+        long result = local/MILLISECONDS_IN_A_DAY;
+
+        if ( (local % MILLISECONDS_IN_A_DAY) < 0 )
+            result--;
+
+        return (int)result;
+    }
+
+
+    /**
+     * Gets the day of the month of the specified epoch day.
+     * @param epochDay The number of days since 1970-01-01.
+     * @return The day of the month (1 for the first day).
+     */
+    public static int getDayOfMonth(int epochDay)
+    {
+        int dayOfYear = getMarchDayOfYear(epochDay);
+
+        return dayOfYear-( 153*getMarchMonth(dayOfYear)+2 )/5+1;
+    }
+
+
+    /**
+     * Gets the day of the week of the specified epoch day.
+     * @param epochDay The number of days since 1970-01-01.
+     * @return The day of the week (0 for Sunday).
+     */
+    public static int getDayOfWeek(int epochDay)
+    {
+        return ( (epochDay+4)%7+7 )%7; // 1970-01-01 was a Thursday
+    }
+
+
+    /**
+     * Gets the day of the year of the specified epoch day.
+     * @param epochDay The number of days since 1970-01-01.
+     * @return The day of the year (1 for January 1).
+     */
+    public static int getDayOfYear(int epochDay)
+    {
+        return epochDay-fromDate( getYear(epochDay), 1, 1 )+1;
+    }
+
+
+    /**
+     * Gets the epoch day that the specified time falls on in the zone of the device.
+     * @param time The raw time value.
+     * @return The number of days since 1970-01-01.
+     */
+    public static int getLocalDay(long time)
+    {
+        return fromTime( time, getLocalOffset(time) );
+    }
+
+
+    /**
+     * Gets the offset of the zone of the device from Greenwich Mean Time at the specified time,
+     * including any daylight savings adjustment in effect.
+     * @param time The raw time value.
+     * @return The offset in milliseconds.
+     */
+    public static int getLocalOffset(long time)
+    {
+        TimeZone zone = TimeZone.getDefault();
+        int standard = zone.getRawOffset();
+        int day = fromTime(time, standard);
+        int millis = (int)( time+standard-day*MILLISECONDS_IN_A_DAY );
+
+        return zone.getOffset( ERA_AD, getYear(day), getMonth(day)-1, getDayOfMonth(day), getDayOfWeek(day)+1, millis );
+    }
+
+
+    /**
+     * Gets the month of the specified epoch day.
+     * @param epochDay The number of days since 1970-01-01.
+     * @return The month (1 for January).
+     */
+    public static int getMonth(int epochDay)
+    {
+        int month = getMarchMonth( getMarchDayOfYear(epochDay) );
+
+        return month < 10 ? month+3 : month-9;
+    }
+
+
+    /**
+     * Gets noon of the day that the specified time falls on in the zone of the device. Moving
+     * to noon ensures that daylight savings time transitions can never cause a day to be
+     * skipped or repeated when stepping from one day to the next.
+     * @param time The raw time value.
+     * @return The raw time value of noon on the same day.
+     */
+    public static long getNoon(long time)
+    {
+        long local = time+getLocalOffset(time);
+        long millis = local % MILLISECONDS_IN_A_DAY;
+
+        if (millis < 0)
+            millis += MILLISECONDS_IN_A_DAY;
+
+        return time+NOON-millis;
+    }
+
+
+    /**
+     * Gets the raw time value of midnight at the start of the specified day in the zone of the
+     * device.
+     * @param epochDay The number of days since 1970-01-01.
+     * @return The raw time value at the start of the day.
+     */
+    public static long getStartOfDay(int epochDay)
+    {
+        return toLocalTime(epochDay, 0);
+    }
+
+
+    /**
+     * Gets the year of the specified epoch day.
+     * @param epochDay The number of days since 1970-01-01.
+     * @return The year.
+     */
+    public static int getYear(int epochDay)
+    {
+        int shifted = epochDay+EPOCH_OFFSET;
+        int era = (shifted >= 0 ? shifted : shifted-DAYS_IN_AN_ERA+1)/DAYS_IN_AN_ERA;
+        int dayOfEra = shifted-era*DAYS_IN_AN_ERA;
+        int yearOfEra = ( dayOfEra-dayOfEra/1460+dayOfEra/36524-dayOfEra/(DAYS_IN_AN_ERA-1) )/365;
+        int dayOfYear = dayOfEra-(365*yearOfEra+yearOfEra/4-yearOfEra/100);
+
+        return yearOfEra+era*400+( getMarchMonth(dayOfYear) >= 10 ? 1 : 0 );
+    }
+
+
+    /**
+     * Parses a date of the form yyyy-mm-dd (ie: 2026-10-16).
+     * @param date The date.
+     * @return The number of days since 1970-01-01.
+     * @throws IllegalArgumentException If the date is malformed or does not exist.
+     */
+    public static int parse(String date)
+    {
+        int first = date.indexOf('-', 1); // the year may be negative
+        int second = date.indexOf('-', first+1);
+
+        if ( (first < 0) || (second < 0) )
+            throw new IllegalArgumentException("The date must be of the form yyyy-mm-dd: " + date);
+
+        int year = Integer.parseInt( date.substring(0, first) );
+        int month = Integer.parseInt( date.substring(first+1, second) );
+        int day = Integer.parseInt( date.substring(second+1) );
+        int result = fromDate(year, month, day);
+
+        if ( (month < 1) || (month > 12) || (day < 1) || (getDayOfMonth(result) != day) ) // a day past the end of the month rolls over into the next
+            throw new IllegalArgumentException("No such date: " + date);
+
+        return result;
+    }
+
+
+    /**
+     * Gets the raw time value of the specified wall clock time on the specified day in the zone
+     * of the device. The offset in effect at that time is used, so times after a daylight
+     * savings transition are adjusted by it. A time that is skipped when the clocks go forward
+     * is moved forward by the same amount, as a lenient Calendar does.
+     * @param epochDay The number of days since 1970-01-01.
+     * @param seconds The number of seconds since the start of the day on the wall clock.
+     * @return The raw time value.
+     */
+    public static long toLocalTime(int epochDay, int seconds)
+    {
+        int offset = getLocalOffset( toTime( epochDay, seconds, TimeZone.getDefault().getRawOffset() ) );
+        long result = toTime(epochDay, seconds, offset);
+        int actual = getLocalOffset(result);
+
+        if (actual != offset) // the wall clock time does not exist, so use the offset from before the transition
+            result = toTime(epochDay, seconds, actual);
+
+        return result;
+    }
+
+
+    /**
+     * Gets the raw time value of the specified number of seconds into the specified day in a
+     * zone with the specified offset.
+     * @param epochDay The number of days since 1970-01-01.
+     * @param seconds The number of seconds since the start of the day. This may exceed a day in
+     * which case the time falls on one of the following days.
+     * @param offset The offset of the zone from Greenwich Mean Time (in milliseconds).
+     * @return The raw time value.
+     */
+    public static long toTime(int epochDay, int seconds, int offset)
+    {
+        return epochDay*MILLISECONDS_IN_A_DAY+(long)seconds*MILLISECONDS_IN_A_SECOND-offset;
+    }
+
+
+    /**
+     * Gets the day of the year of the specified epoch day, counting from March 1.
+     * @param epochDay The number of days since 1970-01-01.
+     * @return The day of the year (0 for March 1).
+     */
+    private static int getMarchDayOfYear(int epochDay)
+    {
+        int shifted = epochDay+EPOCH_OFFSET;
+        int era = (shifted >= 0 ? shifted : shifted-DAYS_IN_AN_ERA+1)/DAYS_IN_AN_ERA;
+        int dayOfEra = shifted-era*DAYS_IN_AN_ERA;
+        int yearOfEra = ( dayOfEra-dayOfEra/1460+dayOfEra/36524-dayOfEra/(DAYS_IN_AN_ERA-1) )/365;
+
+        return dayOfEra-(365*yearOfEra+yearOfEra/4-yearOfEra/100);
+    }
+
+
+    /**
+     * Gets the month of the specified day of the year, counting from March.
+     * @param marchDayOfYear The day of the year counted from March 1.
+     * @return The month (0 for March).
+     */
+    private static int getMarchMonth(int marchDayOfYear)
+    {
+        return (5*marchDayOfYear+2)/153;
+    }
+}
\ No newline at end of file
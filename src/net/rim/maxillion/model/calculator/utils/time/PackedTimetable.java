@@ -0,0 +1,437 @@
+/*
+ * @(#)PackedTimetable.java  1.0 2026-10-16
+ * @(#)PackedTimetable.java  1.1 2026-10-16
+ *
+ * Copyright 2009 Exes Technologies. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   - Redistributions of source code must retain the above copyright
+ *     notice, this list of conditions and the following disclaimer.
+ *
+ *   - Redistributions in binary form must reproduce the above copyright
+ *     notice, this list of conditions and the following disclaimer in the
+ *     documentation and/or other materials provided with the distribution.
+ *
+ *   - Neither the name of Exes Technologies nor the names of its
+ *     contributors may be used to endorse or promote products derived
+ *     from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.rim.maxillion.model.calculator.utils.time;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Date;
+
+
+/**
+ * A compact binary file of precomputed timetables, holding the events of every day of one
+ * year for many locations, so that prayer times can be looked up rather than calculated. Any
+ * event of any location and day can be read in constant time without decoding the rest of the
+ * year.<br><br>
+ *
+ * Each event is stored as the number of seconds since the start of its day, as in a TimeTable.
+ * The days of a location are grouped into blocks of BLOCK_DAYS days. For each event, a block
+ * holds the time of its first day, followed by the difference of every other day from the
+ * day before it. The differences are zigzag encoded (0, -1, 1, -2...) and packed with the
+ * fewest bits that hold the largest of them, which is usually a few bits since the times
+ * only drift by a minute or two from one day to the next. A day is read by adding at most
+ * BLOCK_DAYS-1 differences to the time of the first day of its block.<br><br>
+ *
+ * The file is laid out as follows, with every number big-endian:
+ * <pre>
+ * int     MAGIC
+ * short   VERSION
+ * short   the year
+ * short   the number of days of the year
+ * short   BLOCK_DAYS
+ * int     the number of locations
+ * int[]   the offset (in bits from the start of the packed data) of every block, location by location
+ * byte[]  the packed data, each block holding for every event in turn a signed 18 bit time
+ *         of its first day and a 5 bit width, then the differences of every event in turn
+ * </pre>
+ *
+ * An instance of this class cannot be modified once it is read, so it can be shared between
+ * threads.
+ *
+ * @author Ragaeeb Haq
+ * @version 1.00 2026-10-16 Initial submission.
+ * @version 1.10 2026-10-16 Events are now converted with their own offset so that they are not an hour
+ * off on daylight savings transition days.
+ * @version 1.20 2026-10-16 A timetable that does not start on January 1 of the year is now rejected
+ * rather than written out misaligned.
+ * @since MaxillionPrayers 3.0
+ */
+public final class PackedTimetable
+{
+    /** The first four bytes of the file ("PTTB"). */
+    public static final int MAGIC = 0x50545442;
+
+    /** The version of the format. */
+    public static final int VERSION = 1;
+
+    /** The number of consecutive days in each block. */
+    public static final int BLOCK_DAYS = 16;
+
+    /** The number of bits of the time of the first day of a block. */
+    private static final int ANCHOR_BITS = 18;
+
+    /** The number of bits of the width of the differences of a block. */
+    private static final int WIDTH_BITS = 5;
+
+    /** The number of bits of the times and widths at the start of each block. */
+    private static final int BLOCK_HEADER_BITS = TimeTable.EVENTS_PER_DAY*(ANCHOR_BITS+WIDTH_BITS);
+
+    /** The number of bytes before the offsets of the blocks. */
+    private static final int HEADER_SIZE = 16;
+
+    /** The number of blocks of each location. */
+    private int _blocks;
+
+    /** The contents of the file. */
+    private byte[] _data;
+
+    /** The number of days of the year. */
+    private int _days;
+
+    /** The first day of the year (in days since 1970-01-01). */
+    private int _firstDay;
+
+    /** The number of locations. */
+    private int _locations;
+
+    /** The position of the packed data in the file. */
+    private int _packed;
+
+    /** The year. */
+    private int _year;
+
+
+    /**
+     * Creates a timetable from the contents of a file.
+     * @param data The contents of the file, which must not be modified afterwards.
+     * @throws IOException If the contents are not a timetable in this format.
+     */
+    public PackedTimetable(byte[] data) throws IOException
+    {
+        _data = data;
+
+        if ( (data.length < HEADER_SIZE) || (getInt(0) != MAGIC) || (getShort(4) != VERSION) )
+            throw new IOException("Not a packed timetable");
+
+        _year = getShort(6);
+        _days = getShort(8);
+        _locations = getInt(12);
+        _blocks = (_days+BLOCK_DAYS-1)/BLOCK_DAYS;
+        _packed = HEADER_SIZE + _locations*_blocks*4;
+        _firstDay = EpochDay.fromDate(_year, 1, 1);
+
+        if ( (getShort(10) != BLOCK_DAYS) || (_locations < 0) || (_packed > data.length) )
+            throw new IOException("Corrupt packed timetable");
+    }
+
+
+    /**
+     * Reads a timetable from a stream.
+     * @param in The stream to read the file from. It is read to the end but not closed.
+     * @return The timetable.
+     * @throws IOException If the stream could not be read or does not hold a timetable in this
+     * format.
+     */
+    public static PackedTimetable read(InputStream in) throws IOException
+    {
+        ByteArrayOutputStream contents = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+
+        for (int n = in.read(buffer); n >= 0; n = in.read(buffer))
+            contents.write(buffer, 0, n);
+
+        return new PackedTimetable( contents.toByteArray() );
+    }
+
+
+    /**
+     * Writes the timetables of many locations for a year. Each timetable must start on January 1
+     * and hold every day of the year, as generated for the start of the year.
+     * @param timetables The timetable of each location, in the order that they are to be looked up in.
+     * @param year The year of the timetables.
+     * @param out The stream to write the file to. It is flushed but not closed.
+     * @throws IOException If the stream could not be written to.
+     * @throws IllegalArgumentException If a timetable does not start on January 1 of the year or
+     * does not hold every day of it, or holds a time more than a day and a half from the start of
+     * its day.
+     */
+    public static void write(TimeTable[] timetables, int year, OutputStream out) throws IOException
+    {
+        int firstDay = EpochDay.fromDate(year, 1, 1);
+        int days = EpochDay.fromDate(year+1, 1, 1)-firstDay;
+        int blocks = (days+BLOCK_DAYS-1)/BLOCK_DAYS;
+        int[] widths = new int[timetables.length*blocks*TimeTable.EVENTS_PER_DAY];
+        int[] offsets = new int[timetables.length*blocks];
+        int bits = 0;
+
+        for (int i = 0; i < timetables.length; i++) // the widths of every block are found first so that the data can be allocated at once
+        {
+            if ( timetables[i].getDays() != days )
+                throw new IllegalArgumentException("Timetable " + i + " holds " + timetables[i].getDays() + " days instead of " + days);
+
+            if ( timetables[i].getEpochDay(0) != firstDay )
+                throw new IllegalArgumentException("Timetable " + i + " starts on day " + timetables[i].getEpochDay(0) + " instead of January 1 " + year + " (day " + firstDay + ")");
+
+            for (int block = 0; block < blocks; block++)
+            {
+                int first = block*BLOCK_DAYS;
+                int n = Math.min(BLOCK_DAYS, days-first);
+                offsets[i*blocks+block] = bits;
+                bits += BLOCK_HEADER_BITS;
+
+                for (int event = 0; event < TimeTable.EVENTS_PER_DAY; event++)
+                {
+                    int largest = 0;
+
+                    for (int day = first; day < first+n; day++)
+                    {
+                        int seconds = timetables[i].getSeconds(day, event);
+
+                        if ( (seconds < -(1 << (ANCHOR_BITS-1))) || (seconds >= 1 << (ANCHOR_BITS-1)) )
+                            throw new IllegalArgumentException("Time out of range: " + seconds);
+
+                        if (day > first)
+                            largest |= zigzag( seconds-timetables[i].getSeconds(day-1, event) );
+                    }
+
+                    int width = 32-numberOfLeadingZeros(largest);
+                    widths[(i*blocks+block)*TimeTable.EVENTS_PER_DAY+event] = width;
+                    bits += width*(n-1);
+                }
+            }
+        }
+
+        byte[] packed = new byte[(bits+7)/8];
+
+        for (int i = 0; i < timetables.length; i++)
+        {
+            for (int block = 0; block < blocks; block++)
+            {
+                int first = block*BLOCK_DAYS;
+                int n = Math.min(BLOCK_DAYS, days-first);
+                int position = offsets[i*blocks+block];
+                int differences = position+BLOCK_HEADER_BITS;
+
+                for (int event = 0; event < TimeTable.EVENTS_PER_DAY; event++)
+                {
+                    int anchor = timetables[i].getSeconds(first, event);
+                    int width = widths[(i*blocks+block)*TimeTable.EVENTS_PER_DAY+event];
+
+                    setBits(packed, position, ANCHOR_BITS, anchor);
+                    setBits(packed, position+ANCHOR_BITS, WIDTH_BITS, width);
+                    position += ANCHOR_BITS+WIDTH_BITS;
+
+                    for (int day = first+1; day < first+n; day++, differences += width)
+                        setBits( packed, differences, width, zigzag( timetables[i].getSeconds(day, event)-timetables[i].getSeconds(day-1, event) ) );
+                }
+            }
+        }
+
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeShort(VERSION);
+        data.writeShort(year);
+        data.writeShort(days);
+        data.writeShort(BLOCK_DAYS);
+        data.writeInt(timetables.length);
+
+        for (int i = 0; i < offsets.length; i++)
+            data.writeInt( offsets[i] );
+
+        data.write(packed);
+        data.flush();
+    }
+
+
+    /**
+     * Gets the number of days of the year.
+     * @return The number of days (365 or 366).
+     */
+    public int getDays()
+    {
+        return _days;
+    }
+
+
+    /**
+     * Gets the number of locations.
+     * @return The number of locations in the file.
+     */
+    public int getLocations()
+    {
+        return _locations;
+    }
+
+
+    /**
+     * Gets the time of an event as the number of seconds since the start of its day.
+     * @param location The index of the location, in the order the timetables were written.
+     * @param day The day of the year (0 for January 1).
+     * @param event The TimeCriticalEvent value of the event.
+     * @return The number of seconds since the start of the day.
+     * @throws IllegalArgumentException If there is no such location, day or event.
+     */
+    public int getSeconds(int location, int day, int event)
+    {
+        if ( (location < 0) || (location >= _locations) || (day < 0) || (day >= _days) || (event < 0) || (event >= TimeTable.EVENTS_PER_DAY) )
+            throw new IllegalArgumentException("No such event: " + location + ", " + day + ", " + event);
+
+        int block = day/BLOCK_DAYS;
+        int start = getInt( HEADER_SIZE + (location*_blocks+block)*4 );
+        int n = Math.min(BLOCK_DAYS, _days-block*BLOCK_DAYS);
+        int position = start+BLOCK_HEADER_BITS; // the differences of the first event
+
+        for (int e = 0; e < event; e++) // skip the differences of the events before this one
+            position += getBits( start + e*(ANCHOR_BITS+WIDTH_BITS) + ANCHOR_BITS, WIDTH_BITS )*(n-1);
+
+        int header = start + event*(ANCHOR_BITS+WIDTH_BITS);
+        int result = getBits(header, ANCHOR_BITS) << (32-ANCHOR_BITS) >> (32-ANCHOR_BITS); // sign extended
+        int width = getBits(header+ANCHOR_BITS, WIDTH_BITS);
+
+        for (int d = block*BLOCK_DAYS+1; (d <= day) && (width > 0); d++, position += width) // a width of 0 means the time does not change within the block
+        {
+            int z = getBits(position, width);
+            result += (z >>> 1) ^ -(z & 1);
+        }
+
+        return result;
+    }
+
+
+    /**
+     * Gets the raw time value of an event on the specified date in the zone of the device, in
+     * the same manner as TimeTable.getTime().
+     * @param location The index of the location, in the order the timetables were written.
+     * @param date A time during the day of the event.
+     * @param event The TimeCriticalEvent value of the event.
+     * @return The raw time value of the event, converted with the offset of the zone of the
+     * device in effect at that time.
+     * @throws IllegalArgumentException If there is no such location or event, or the date does
+     * not fall in the year of the timetable.
+     */
+    public long getTime(int location, Date date, int event)
+    {
+        int epochDay = EpochDay.getLocalDay( date.getTime() );
+
+        return EpochDay.toLocalTime( epochDay, getSeconds(location, epochDay-_firstDay, event) );
+    }
+
+
+    /**
+     * Gets the year of the timetable.
+     * @return The year.
+     */
+    public int getYear()
+    {
+        return _year;
+    }
+
+
+    /**
+     * Reads a number of bits from the packed data, most significant bit first.
+     * @param position The position of the first bit (in bits from the start of the packed data).
+     * @param n The number of bits, which must be from 1 to 25.
+     * @return The bits as an unsigned number.
+     */
+    private int getBits(int position, int n)
+    {
+        int index = _packed + (position >> 3);
+        int end = ( (position & 7)+n+7 ) >> 3; // the number of bytes holding the bits
+        int bits = 0;
+
+        for (int i = 0; i < end; i++)
+            bits = (bits << 8) | (_data[index+i] & 0xFF);
+
+        return (bits >>> ( end*8-(position & 7)-n )) & ( (1 << n)-1 );
+    }
+
+
+    /**
+     * Reads a big-endian int from the file.
+     * @param index The position of the int in the file.
+     * @return The int.
+     */
+    private int getInt(int index)
+    {
+        return (getShort(index) << 16) | getShort(index+2);
+    }
+
+
+    /**
+     * Reads a big-endian unsigned short from the file.
+     * @param index The position of the short in the file.
+     * @return The short.
+     */
+    private int getShort(int index)
+    {
+        return ( (_data[index] & 0xFF) << 8 ) | (_data[index+1] & 0xFF);
+    }
+
+
+    /**
+     * Gets the number of zero bits before the highest one bit of a value.
+     * @param value The value.
+     * @return The number of leading zero bits, 32 for 0.
+     */
+    private static int numberOfLeadingZeros(int value)
+    {
+        int n = 32;
+
+        for (; value != 0; value >>>= 1)
+            n--;
+
+        return n;
+    }
+
+
+    /**
+     * Writes a number of bits into packed data, most significant bit first.
+     * @param packed The packed data.
+     * @param position The position of the first bit.
+     * @param n The number of bits.
+     * @param value The value whose lowest n bits are written.
+     */
+    private static void setBits(byte[] packed, int position, int n, int value)
+    {
+        for (int i = n-1; i >= 0; i--, position++)
+        {
+            if ( ( (value >> i) & 1 ) != 0 )
+                packed[position >> 3] |= 0x80 >>> (position & 7);
+        }
+    }
+
+
+    /**
+     * Encodes a signed difference so that small differences of either sign become small
+     * unsigned numbers (0, -1, 1, -2... become 0, 1, 2, 3...).
+     * @param difference The difference.
+     * @return The encoded difference.
+     */
+    private static int zigzag(int difference)
+    {
+        return (difference << 1) ^ (difference >> 31);
+    }
+}
\ No newline at end of file
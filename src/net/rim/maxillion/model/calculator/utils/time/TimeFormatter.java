@@ -1,6 +1,9 @@
 /*
  * @(#)TimeFormatter.java   1.0 2009-06-22
  * @(#)TimeFormatter.java   1.1 2009-09-15
+ * @(#)TimeFormatter.java   1.3 2026-10-16
+ * @(#)TimeFormatter.java   1.4 2026-10-16
+ * @(#)TimeFormatter.java   1.5 2026-10-16
  *
  * Copyright 2009 Exes Technologies. All Rights Reserved.
  *
@@ -42,7 +45,7 @@
  */
 package net.rim.maxillion.model.calculator.utils.time;
 
-
+import java.util.Calendar;
 
 
 /**
@@ -55,6 +58,12 @@ package net.rim.maxillion.model.calculator.utils.time;
  * here due to relevancy.
  * @version 1.20 2010-04-27 getTime() now expects a long. Human-friendly getTime(): String
  * method removed.
+ * @version 1.30 2026-10-16 Added getTime() for a specific day. Added getSeconds() so that a time can be
+ * rounded without creating a time object.
+ * @version 1.40 2026-10-16 Added getRawTime() which converts a raw time straight to a raw time value
+ * on an epoch day. TOTAL_SECONDS_IN_A_MINUTE is now public.
+ * @version 1.50 2026-10-16 Times past the half minute are no longer moved on to the next minute, which
+ * added their seconds on top of that minute and left them up to a minute late.
  * @since MaxillionPrayers 1.0
  */
 public class TimeFormatter
@@ -71,8 +80,14 @@ public class TimeFormatter
     /** The total number of hours in a day. */
     public static final byte TOTAL_MINUTES_IN_AN_HOUR = MAX_MINUTE_VALUE+1;
     
-    /** The total number of hours in a day. */
-    private static final byte TOTAL_SECONDS_IN_A_MINUTE = TOTAL_MINUTES_IN_AN_HOUR;
+    /** The total number of seconds in a minute. */
+    public static final byte TOTAL_SECONDS_IN_A_MINUTE = TOTAL_MINUTES_IN_AN_HOUR;
+
+    /** The total number of seconds in an hour. */
+    public static final int TOTAL_SECONDS_IN_AN_HOUR = TOTAL_MINUTES_IN_AN_HOUR*TOTAL_SECONDS_IN_A_MINUTE;
+
+    /** The total number of seconds in a day. */
+    public static final int TOTAL_SECONDS_IN_A_DAY = TOTAL_HOURS_IN_A_DAY*TOTAL_SECONDS_IN_AN_HOUR;
 
 
     /**
@@ -84,14 +99,71 @@ public class TimeFormatter
      * 
      */
     public static TimeWrapper getTime(double time, int intervalAddition)
+    {
+        return getTime( time, intervalAddition, Calendar.getInstance() );
+    }
+
+
+    /**
+     * Gets the time object associated with the raw time data specified on the specified day.
+     * @param time The raw prayer time value to create a user friendly version of. For
+     * example 4:30.00 AM would be 4.5, and 11:30.00 PM would be 23.5.
+     * @param intervalAddition The extra amount to add to the minutes.
+     * @param day The day that the time falls on.
+     * @return The time object associated with the raw time data specified.
+     */
+    public static TimeWrapper getTime(double time, int intervalAddition, Calendar day)
+    {
+        return getTime( getSeconds(time, intervalAddition), day );
+    }
+
+
+    /**
+     * Gets the time object associated with the specified number of seconds into the specified
+     * day.
+     * @param seconds The number of seconds since the start of the day. This may exceed a day
+     * in which case the time falls on one of the following days.
+     * @param day The day that the time falls on.
+     * @return The time object associated with the specified seconds of the day.
+     */
+    public static TimeWrapper getTime(int seconds, Calendar day)
+    {
+        return new TimeWrapper( EpochDay.getLocalDay( day.getTime().getTime() ), seconds );
+    }
+
+
+    /**
+     * Gets the raw time value of the raw time data specified on the specified day in a zone with
+     * the specified offset. This is converted in the same manner as getTime() but does not create
+     * any objects.
+     * @param time The raw prayer time value. For example 4:30.00 AM would be 4.5, and 11:30.00
+     * PM would be 23.5.
+     * @param intervalAddition The extra amount to add to the minutes.
+     * @param epochDay The day that the time falls on (in days since 1970-01-01).
+     * @param offset The offset of the zone from Greenwich Mean Time (in milliseconds).
+     * @return The raw time value.
+     */
+    public static long getRawTime(double time, int intervalAddition, int epochDay, int offset)
+    {
+        return EpochDay.toTime( epochDay, getSeconds(time, intervalAddition), offset );
+    }
+
+
+    /**
+     * Gets the number of seconds into the day of the raw time data specified. The fraction of a
+     * second is dropped, and the seconds are kept as they are rather than moving the time on to the
+     * next minute past the half minute, since they are stored in the time as well.
+     * @param time The raw prayer time value. For example 4:30.00 AM would be 4.5, and 11:30.00
+     * PM would be 23.5.
+     * @param intervalAddition The extra amount to add to the minutes.
+     * @return The number of seconds since the start of the day.
+     */
+    public static int getSeconds(double time, int intervalAddition)
     {
         int hour = (int)time;
         int min = (int)( 60*(time-hour) );
         int sec = (int)( 3600.0*( time - hour - min/60.0 ) );
 
-        if ( sec > TOTAL_SECONDS_IN_A_MINUTE/2 )
-            min = min + 1; // go to next minute if seconds are more than 30.
-
         if ( sec == TOTAL_SECONDS_IN_A_MINUTE )
         {
             min++;
@@ -113,6 +185,6 @@ public class TimeFormatter
         while ( hour > MAX_HOUR_VALUE ) // Adjust the hours. Hours must be less than 24.
             hour = hour - TOTAL_HOURS_IN_A_DAY;
 
-        return new TimeWrapper(hour, min, sec);
+        return hour*TOTAL_SECONDS_IN_AN_HOUR + min*TOTAL_SECONDS_IN_A_MINUTE + sec;
     }
 }
\ No newline at end of file
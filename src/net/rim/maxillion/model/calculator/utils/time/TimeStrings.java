@@ -0,0 +1,237 @@
+/*
+ * @(#)TimeStrings.java  1.0 2026-10-16
+ * @(#)TimeStrings.java  1.1 2026-10-16
+ *
+ * Copyright 2009 Exes Technologies. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   - Redistributions of source code must retain the above copyright
+ *     notice, this list of conditions and the following disclaimer.
+ *
+ *   - Redistributions in binary form must reproduce the above copyright
+ *     notice, this list of conditions and the following disclaimer in the
+ *     documentation and/or other materials provided with the distribution.
+ *
+ *   - Neither the name of Exes Technologies nor the names of its
+ *     contributors may be used to endorse or promote products derived
+ *     from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.rim.maxillion.model.calculator.utils.time;
+
+import java.util.Hashtable;
+import net.rim.device.api.i18n.DateFormat;
+import net.rim.device.api.i18n.Locale;
+import net.rim.device.api.i18n.SimpleDateFormat;
+
+
+/**
+ * Formats times and dates into user-friendly strings without sharing a DateFormat between
+ * threads. The "h:mm a" string of every minute of the day is formatted once when an instance
+ * is created for a locale, so that formatting the time of an event is only an array lookup.
+ * The "MMM d, yyyy" strings of the most recently used days are also kept, and only a day that
+ * is not kept yet needs a DateFormat.<br><br>
+ *
+ * An instance can be used by any number of threads without locking. Its fields are final, so
+ * a thread that is handed an instance sees its time strings fully formatted, and each kept date
+ * string is an immutable DateString that is replaced as a whole. A thread that reads a slot
+ * while another replaces it sees either the old or the new entry, never a mix of the two.
+ *
+ * @author Ragaeeb Haq
+ * @version 1.00 2026-10-16 Initial submission.
+ * @version 1.10 2026-10-16 Kept date strings are now immutable DateStrings and every field is final
+ * (or volatile) so that instances are safely shared without locking.
+ * @since MaxillionPrayers 3.0
+ */
+public final class TimeStrings
+{
+    /** The number of minutes in a day. */
+    public static final int MINUTES_IN_A_DAY = TimeFormatter.TOTAL_HOURS_IN_A_DAY*TimeFormatter.TOTAL_MINUTES_IN_AN_HOUR;
+
+    /** The number of date strings kept. This must be a power of two. */
+    private static final int DATE_CACHE_SIZE = 8;
+
+    /** The pattern used to format dates. */
+    private static final String DATE_PATTERN = "MMM d, yyyy";
+
+    /** The number of milliseconds in a minute. */
+    private static final int MILLISECONDS_IN_A_MINUTE = TimeFormatter.TOTAL_SECONDS_IN_A_MINUTE*EpochDay.MILLISECONDS_IN_A_SECOND;
+
+    /** A day that has no daylight savings transitions, used to format the minutes of a day (2001-01-15). */
+    private static final int REFERENCE_DAY = 11337;
+
+    /** The pattern used to format times. */
+    private static final String TIME_PATTERN = "h:mm a";
+
+    /** The instance for the locale that was used last. */
+    private static volatile TimeStrings _current;
+
+    /** The instances created so far, keyed by locale. */
+    private static final Hashtable _instances = new Hashtable();
+
+    /** Formats the days that are not kept yet. */
+    private final DateFormat _dateFormat;
+
+    /** The date strings that are kept, indexed by the epoch day modulo their number. */
+    private final DateString[] _dates;
+
+    /** The locale that the strings are formatted for. */
+    private final Locale _locale;
+
+    /** The time string of every minute of the day. */
+    private final String[] _times;
+
+
+    /**
+     * Creates an instance of this class that formats strings for the specified locale. The
+     * locale must be the default one while this is running.
+     * @param locale The locale that the strings are formatted for.
+     */
+    private TimeStrings(Locale locale)
+    {
+        _locale = locale;
+        _dateFormat = new SimpleDateFormat(DATE_PATTERN);
+        _dates = new DateString[DATE_CACHE_SIZE];
+        _times = new String[MINUTES_IN_A_DAY];
+
+        DateFormat timeFormat = new SimpleDateFormat(TIME_PATTERN);
+
+        for (int minute = 0; minute < MINUTES_IN_A_DAY; minute++)
+            _times[minute] = timeFormat.formatLocal( EpochDay.toLocalTime(REFERENCE_DAY, minute*TimeFormatter.TOTAL_SECONDS_IN_A_MINUTE) );
+    }
+
+
+    /**
+     * Gets the instance for the current locale of the device, creating it the first time that
+     * the locale is used.
+     * @return The instance that formats strings for the current locale.
+     */
+    public static TimeStrings getInstance()
+    {
+        Locale locale = Locale.getDefault();
+        TimeStrings result = _current;
+
+        if ( (result == null) || !result._locale.equals(locale) )
+            result = getInstance(locale);
+
+        return result;
+    }
+
+
+    /**
+     * Gets the date of the specified time in the zone of the device.
+     * @param time The raw time value.
+     * @return The formatted date (ie: Apr 26, 2010).
+     */
+    public String formatDate(long time)
+    {
+        int day = EpochDay.getLocalDay(time);
+        int slot = day & (DATE_CACHE_SIZE-1);
+        DateString entry = _dates[slot]; // read once since another thread may replace it
+        String result;
+
+        if ( (entry != null) && (entry._day == day) )
+            result = entry._text;
+
+        else
+        {
+            synchronized (_dateFormat)
+            {
+                result = _dateFormat.formatLocal(time);
+            }
+
+            _dates[slot] = new DateString(day, result);
+        }
+
+        return result;
+    }
+
+
+    /**
+     * Gets the time of the specified minute of the day.
+     * @param minute The number of minutes since the start of the day.
+     * @return The formatted time (ie: 4:30 PM).
+     */
+    public String formatMinute(int minute)
+    {
+        return _times[minute];
+    }
+
+
+    /**
+     * Gets the time of the specified raw time value in the zone of the device. The seconds are
+     * dropped in the same manner as a DateFormat.
+     * @param time The raw time value.
+     * @return The formatted time (ie: 4:30 PM).
+     */
+    public String formatTime(long time)
+    {
+        long local = ( time+EpochDay.getLocalOffset(time) ) % EpochDay.MILLISECONDS_IN_A_DAY;
+
+        if (local < 0)
+            local += EpochDay.MILLISECONDS_IN_A_DAY;
+
+        return _times[ (int)(local/MILLISECONDS_IN_A_MINUTE) ];
+    }
+
+
+    /**
+     * Gets the instance for the specified locale, creating it if it does not exist yet.
+     * @param locale The current locale of the device.
+     * @return The instance that formats strings for the locale.
+     */
+    private static synchronized TimeStrings getInstance(Locale locale)
+    {
+        TimeStrings result = (TimeStrings)_instances.get(locale);
+
+        if (result == null)
+        {
+            result = new TimeStrings(locale);
+            _instances.put(locale, result);
+        }
+
+        _current = result;
+
+        return result;
+    }
+
+
+    /**
+     * The date string of a day. Its fields are final so that a thread that reads it from a slot
+     * sees the day and its string that were stored together.
+     */
+    private static final class DateString
+    {
+        /** The epoch day. */
+        private final int _day;
+
+        /** The formatted date of the day. */
+        private final String _text;
+
+
+        /**
+         * Creates the date string of a day.
+         * @param day The epoch day.
+         * @param text The formatted date of the day.
+         */
+        DateString(int day, String text)
+        {
+            _day = day;
+            _text = text;
+        }
+    }
+}
\ No newline at end of file
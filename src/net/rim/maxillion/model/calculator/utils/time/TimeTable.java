@@ -0,0 +1,187 @@
+/*
+ * @(#)TimeTable.java  1.0 2026-10-16
+ * @(#)TimeTable.java  1.1 2026-10-16
+ * @(#)TimeTable.java  1.2 2026-10-16
+ * @(#)TimeTable.java  1.3 2026-10-16
+ *
+ * Copyright 2009 Exes Technologies. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   - Redistributions of source code must retain the above copyright
+ *     notice, this list of conditions and the following disclaimer.
+ *
+ *   - Redistributions in binary form must reproduce the above copyright
+ *     notice, this list of conditions and the following disclaimer in the
+ *     documentation and/or other materials provided with the distribution.
+ *
+ *   - Neither the name of Exes Technologies nor the names of its
+ *     contributors may be used to endorse or promote products derived
+ *     from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.rim.maxillion.model.calculator.utils.time;
+
+import net.rim.maxillion.model.calculator.utils.TimeCriticalEvent;
+
+
+/**
+ * Holds the time-critical events calculated for a consecutive range of days. Each event is
+ * stored as the number of seconds since the start of its day, and the events of every day are
+ * stored back to back in a single array so that a long range (ie: a full year timetable) does
+ * not need an object per event. Raw time values and formatted strings are only produced when
+ * they are asked for.<br><br>
+ *
+ * The seconds are wall clock seconds in the zone of the device, so each day is stored as its
+ * epoch day rather than as the raw time of its midnight. On a daylight savings transition day
+ * the offset at midnight differs from the offset at the events, so an event is converted with
+ * the offset in effect at its own time.
+ *
+ * @author Ragaeeb Haq
+ * @version 1.00 2026-10-16 Initial submission.
+ * @version 1.10 2026-10-16 Events are now stored as seconds of the day rather than raw time values.
+ * @version 1.20 2026-10-16 toString() now formats through TimeStrings without creating a TimeWrapper.
+ * @version 1.30 2026-10-16 Days are now stored as epoch days so that events on daylight savings
+ * transition days are converted with their own offset.
+ * @since MaxillionPrayers 3.0
+ */
+public class TimeTable
+{
+    /** The number of time-critical events calculated for each day. */
+    public static final byte EVENTS_PER_DAY = TimeCriticalEvent.HalfNight+1;
+
+    /** The number of days stored in this table. */
+    private int _days;
+
+    /** The epoch day of each day (in days since 1970-01-01). */
+    private int[] _epochDays;
+
+    /** The number of seconds since the start of the day of every event of every day, ordered by day and then by event. */
+    private int[] _seconds;
+
+
+    /**
+     * Creates an instance of this class that is able to store the specified number of days.
+     * @param days The number of consecutive days that will be stored.
+     */
+    public TimeTable(int days)
+    {
+        _days = days;
+        _seconds = new int[days*EVENTS_PER_DAY];
+        _epochDays = new int[days];
+    }
+
+
+    /**
+     * Gets the time-critical events of the specified day.
+     * @param day The index of the day relative to the first day of this table.
+     * @return The time-critical events of the requested day indexed by their TimeCriticalEvent
+     * value.
+     */
+    public TimeWrapper[] getDay(int day)
+    {
+        TimeWrapper[] result = new TimeWrapper[EVENTS_PER_DAY];
+
+        for (int event = 0; event < EVENTS_PER_DAY; event++)
+            result[event] = new TimeWrapper( getTime(day, event) );
+
+        return result;
+    }
+
+
+    /**
+     * Gets the number of days stored in this table.
+     * @return The number of consecutive days stored.
+     */
+    public int getDays()
+    {
+        return _days;
+    }
+
+
+    /**
+     * Gets the epoch day of the specified day.
+     * @param day The index of the day relative to the first day of this table.
+     * @return The number of days since 1970-01-01.
+     */
+    public int getEpochDay(int day)
+    {
+        return _epochDays[day];
+    }
+
+
+    /**
+     * Gets the number of seconds between the start of the specified day and the specified event.
+     * @param day The index of the day relative to the first day of this table.
+     * @param event The TimeCriticalEvent value of the event.
+     * @return The number of seconds since the start of the day. This exceeds a whole day if the
+     * event falls after midnight (ie: the half-night).
+     */
+    public int getSeconds(int day, int event)
+    {
+        return _seconds[day*EVENTS_PER_DAY+event];
+    }
+
+
+    /**
+     * Gets the raw time value of the start of the specified day.
+     * @param day The index of the day relative to the first day of this table.
+     * @return The raw time value of midnight at the start of the day.
+     */
+    public long getStartOfDay(int day)
+    {
+        return EpochDay.getStartOfDay( _epochDays[day] );
+    }
+
+
+    /**
+     * Gets the raw time value of the specified event on the specified day.
+     * @param day The index of the day relative to the first day of this table.
+     * @param event The TimeCriticalEvent value of the event.
+     * @return The raw time value of the event, converted with the offset of the zone of the
+     * device in effect at that time.
+     */
+    public long getTime(int day, int event)
+    {
+        return EpochDay.toLocalTime( _epochDays[day], getSeconds(day, event) );
+    }
+
+
+    /**
+     * Stores the time-critical events of the specified day.
+     * @param day The index of the day relative to the first day of this table.
+     * @param seconds The time-critical events of the day in seconds since the start of the day,
+     * indexed by their TimeCriticalEvent value.
+     * @param epochDay The day that the events fall on (in days since 1970-01-01).
+     */
+    public void setDay(int day, int[] seconds, int epochDay)
+    {
+        System.arraycopy(seconds, 0, _seconds, day*EVENTS_PER_DAY, EVENTS_PER_DAY);
+        _epochDays[day] = epochDay;
+    }
+
+
+    /**
+     * Gets the user-friendly representation of the specified event on the specified day.
+     * @param day The index of the day relative to the first day of this table.
+     * @param event The TimeCriticalEvent value of the event.
+     * @return The formatted time of the event (ie: 4:30 PM).
+     */
+    public String toString(int day, int event)
+    {
+        return TimeStrings.getInstance().formatTime( getTime(day, event) );
+    }
+}
\ No newline at end of file
@@ -1,5 +1,8 @@
 /*
  * @(#)TimeWrapper.java 1.0 2010-04-27
+ * @(#)TimeWrapper.java 1.1 2026-10-16
+ * @(#)TimeWrapper.java 1.2 2026-10-16
+ * @(#)TimeWrapper.java 1.3 2026-10-16
  *
  * Copyright 2009 Exes Technologies. All Rights Reserved.
  *
@@ -33,8 +36,6 @@
 package net.rim.maxillion.model.calculator.utils.time;
 
 import java.util.Calendar;
-import net.rim.device.api.i18n.DateFormat;
-import net.rim.device.api.i18n.SimpleDateFormat;
 
 
 /**
@@ -42,16 +43,15 @@ import net.rim.device.api.i18n.SimpleDateFormat;
  *
  * @author Ragaeeb Haq
  * @version 1.00 2010-04-27 Initial submission.
+ * @version 1.10 2026-10-16 Times can now be anchored to a specific day rather than the current one.
+ * @version 1.20 2026-10-16 Times are now built from epoch days rather than by setting the fields of a
+ * Calendar, which also fixes the seconds being set to the minute value.
+ * @version 1.30 2026-10-16 Strings are now formatted by TimeStrings instead of DateFormats shared
+ * between threads.
  * @since MaxillionPrayers 3.0
  */
 public class TimeWrapper
 {
-    /** Used to display the raw time value in a user-friendly format. */
-    private static final DateFormat _timeFormat = new SimpleDateFormat("h:mm a");
-    
-    /** Used to display the raw time value in a user-friendly format. */
-    private static final DateFormat _dateFormat = new SimpleDateFormat("MMM d, yyyy");
-
     /** The raw time value. */
     private long _time;
 
@@ -64,17 +64,47 @@ public class TimeWrapper
      */
     public TimeWrapper(int hour, int minute, int second)
     {
-        this( generateLong(hour, minute, second) );
+        this( generateLong( EpochDay.getLocalDay( System.currentTimeMillis() ), hour, minute, second ) );
     }
 
-    private static final long generateLong(int hour, int minute, int second)
+
+    /**
+     * Creates an instance of this class to store the specified time on the specified day.
+     * @param day The day that the time falls on. This calendar is not modified.
+     * @param hour The hour value.
+     * @param minute The minute value.
+     * @param second The second value.
+     */
+    public TimeWrapper(Calendar day, int hour, int minute, int second)
     {
-        Calendar c = Calendar.getInstance();
-        c.set(Calendar.HOUR_OF_DAY, hour);
-        c.set(Calendar.MINUTE, minute);
-        c.set(Calendar.SECOND, minute);
+        this( generateLong( EpochDay.getLocalDay( day.getTime().getTime() ), hour, minute, second ) );
+    }
+
 
-        return c.getTime().getTime();
+    /**
+     * Creates an instance of this class to store the specified time on the specified day.
+     * @param epochDay The day that the time falls on (in days since 1970-01-01).
+     * @param seconds The number of seconds since the start of the day on the wall clock.
+     */
+    public TimeWrapper(int epochDay, int seconds)
+    {
+        this( EpochDay.toLocalTime(epochDay, seconds) );
+    }
+
+
+    /**
+     * Gets the raw time value of the specified wall clock time on the specified day.
+     * @param epochDay The day that the time falls on (in days since 1970-01-01).
+     * @param hour The hour value.
+     * @param minute The minute value.
+     * @param second The second value.
+     * @return The raw time value.
+     */
+    private static final long generateLong(int epochDay, int hour, int minute, int second)
+    {
+        int seconds = hour*TimeFormatter.TOTAL_SECONDS_IN_AN_HOUR + minute*TimeFormatter.TOTAL_SECONDS_IN_A_MINUTE + second;
+
+        return EpochDay.toLocalTime(epochDay, seconds);
     }
 
 
@@ -98,9 +128,13 @@ public class TimeWrapper
     }
     
     
+    /**
+     * Gets the date of this time in a user-friendly format.
+     * @return The formatted date (ie: Apr 26, 2010).
+     */
     public String getDate()
     {
-        return _dateFormat.formatLocal(_time);
+        return TimeStrings.getInstance().formatDate(_time);
     }
 
 
@@ -109,6 +143,6 @@ public class TimeWrapper
      */
     public String toString()
     {
-        return _timeFormat.formatLocal(_time);
+        return TimeStrings.getInstance().formatTime(_time);
     }
 }
\ No newline at end of file
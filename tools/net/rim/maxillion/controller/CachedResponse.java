@@ -0,0 +1,144 @@
+/*
+ * @(#)CachedResponse.java  1.0 2026-10-16
+ * @(#)CachedResponse.java  1.1 2026-10-16
+ *
+ * Copyright 2009 Exes Technologies. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   - Redistributions of source code must retain the above copyright
+ *     notice, this list of conditions and the following disclaimer.
+ *
+ *   - Redistributions in binary form must reproduce the above copyright
+ *     notice, this list of conditions and the following disclaimer in the
+ *     documentation and/or other materials provided with the distribution.
+ *
+ *   - Neither the name of Exes Technologies nor the names of its
+ *     contributors may be used to endorse or promote products derived
+ *     from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.rim.maxillion.controller;
+
+
+/**
+ * A response kept by the ResponseCache, linked together with the others from the most to the
+ * least recently used.
+ *
+ * @author Ragaeeb Haq
+ * @version 1.00 2026-10-16 Initial submission.
+ * @version 1.10 2026-10-16 Corrected the descriptions of the newer and older responses, which were
+ * swapped.
+ * @since MaxillionPrayers 3.0
+ */
+class CachedResponse
+{
+    /** The bytes of the whole response, including its status line and headers. */
+    private byte[] _bytes;
+
+    /** The key of the request that the response answers. */
+    private String _key;
+
+    /** The response that was used next after this one, which is more recently used. */
+    private CachedResponse _newer;
+
+    /** The response that was used last before this one, which is less recently used. */
+    private CachedResponse _older;
+
+
+    /**
+     * Creates a response that is not linked to any other.
+     * @param key The key of the request that the response answers.
+     * @param bytes The bytes of the whole response.
+     */
+    public CachedResponse(String key, byte[] bytes)
+    {
+        _key = key;
+        _bytes = bytes;
+    }
+
+
+    /**
+     * Gets the bytes of the whole response.
+     * @return The bytes, which must not be modified.
+     */
+    public byte[] getBytes()
+    {
+        return _bytes;
+    }
+
+
+    /**
+     * Gets the key of the request that the response answers.
+     * @return The key.
+     */
+    public String getKey()
+    {
+        return _key;
+    }
+
+
+    /**
+     * Gets the response that was used next after this one.
+     * @return The newer response, or null if this is the most recently used.
+     */
+    public CachedResponse getNewer()
+    {
+        return _newer;
+    }
+
+
+    /**
+     * Gets the response that was used last before this one.
+     * @return The older response, or null if this is the least recently used.
+     */
+    public CachedResponse getOlder()
+    {
+        return _older;
+    }
+
+
+    /**
+     * Sets the responses that were used next after and last before this one.
+     * @param newer The newer response, or null if this is the most recently used.
+     * @param older The older response, or null if this is the least recently used.
+     */
+    public void link(CachedResponse newer, CachedResponse older)
+    {
+        _newer = newer;
+        _older = older;
+    }
+
+
+    /**
+     * Sets the response that was used next after this one.
+     * @param newer The newer response, or null if this is the most recently used.
+     */
+    public void setNewer(CachedResponse newer)
+    {
+        _newer = newer;
+    }
+
+
+    /**
+     * Sets the response that was used last before this one.
+     * @param older The older response, or null if this is the least recently used.
+     */
+    public void setOlder(CachedResponse older)
+    {
+        _older = older;
+    }
+}
\ No newline at end of file
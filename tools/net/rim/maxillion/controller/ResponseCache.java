@@ -0,0 +1,212 @@
+/*
+ * @(#)ResponseCache.java  1.0 2026-10-16
+ *
+ * Copyright 2009 Exes Technologies. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   - Redistributions of source code must retain the above copyright
+ *     notice, this list of conditions and the following disclaimer.
+ *
+ *   - Redistributions in binary form must reproduce the above copyright
+ *     notice, this list of conditions and the following disclaimer in the
+ *     documentation and/or other materials provided with the distribution.
+ *
+ *   - Neither the name of Exes Technologies nor the names of its
+ *     contributors may be used to endorse or promote products derived
+ *     from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.rim.maxillion.controller;
+
+import java.util.Hashtable;
+
+
+/**
+ * Keeps the most recently used responses of the TimetableServer, already rendered to bytes, so
+ * that a repeated request is answered without calculating or formatting anything. Once the
+ * cache is full, the least recently used response is discarded to make room for a new one.<br><br>
+ *
+ * An instance of this class is thread-safe. It is only locked for as long as it takes to look a
+ * response up or to link it in; responses are rendered outside the lock.
+ *
+ * @author Ragaeeb Haq
+ * @version 1.00 2026-10-16 Initial submission.
+ * @since MaxillionPrayers 3.0
+ */
+final class ResponseCache
+{
+    /** The greatest number of responses kept at once. */
+    private int _capacity;
+
+    /** The number of requests answered from the cache. */
+    private long _hits;
+
+    /** The number of requests that were not in the cache. */
+    private long _misses;
+
+    /** The most recently used response. */
+    private CachedResponse _newest;
+
+    /** The least recently used response. */
+    private CachedResponse _oldest;
+
+    /** The responses kept, keyed by the key of their request. */
+    private Hashtable _responses;
+
+
+    /**
+     * Creates an empty cache.
+     * @param capacity The greatest number of responses kept at once.
+     * @throws IllegalArgumentException If the capacity is less than 1.
+     */
+    public ResponseCache(int capacity)
+    {
+        if (capacity < 1)
+            throw new IllegalArgumentException("The cache must hold at least one response: " + capacity);
+
+        _capacity = capacity;
+        _responses = new Hashtable();
+    }
+
+
+    /**
+     * Gets the response to the specified request, marking it as the most recently used.
+     * @param key The key of the request.
+     * @return The bytes of the whole response, or null if it is not kept.
+     */
+    public synchronized byte[] get(String key)
+    {
+        CachedResponse response = (CachedResponse)_responses.get(key);
+        byte[] result = null;
+
+        if (response != null)
+        {
+            use(response);
+            result = response.getBytes();
+            _hits++;
+        }
+
+        else
+            _misses++;
+
+        return result;
+    }
+
+
+    /**
+     * Gets the number of requests answered from the cache.
+     * @return The number of hits since the cache was created.
+     */
+    public synchronized long getHits()
+    {
+        return _hits;
+    }
+
+
+    /**
+     * Gets the number of requests that were not in the cache.
+     * @return The number of misses since the cache was created.
+     */
+    public synchronized long getMisses()
+    {
+        return _misses;
+    }
+
+
+    /**
+     * Keeps the response to the specified request as the most recently used, discarding the
+     * least recently used response if the cache is full. If two threads rendered the same
+     * response at once, the one kept first is left in place.
+     * @param key The key of the request.
+     * @param bytes The bytes of the whole response, which must not be modified afterwards.
+     */
+    public synchronized void put(String key, byte[] bytes)
+    {
+        if ( !_responses.containsKey(key) )
+        {
+            if (_responses.size() == _capacity)
+            {
+                CachedResponse discarded = _oldest;
+                unlink(discarded);
+                _responses.remove( discarded.getKey() );
+            }
+
+            CachedResponse response = new CachedResponse(key, bytes);
+            _responses.put(key, response);
+            use(response);
+        }
+    }
+
+
+    /**
+     * Gets the number of responses kept.
+     * @return The number of responses in the cache.
+     */
+    public synchronized int size()
+    {
+        return _responses.size();
+    }
+
+
+    /**
+     * Unlinks the specified response from the list of responses.
+     * @param response The response to unlink.
+     */
+    private void unlink(CachedResponse response)
+    {
+        CachedResponse newer = response.getNewer();
+        CachedResponse older = response.getOlder();
+
+        if (newer != null)
+            newer.setOlder(older);
+
+        else
+            _newest = older;
+
+        if (older != null)
+            older.setNewer(newer);
+
+        else
+            _oldest = newer;
+
+        response.link(null, null);
+    }
+
+
+    /**
+     * Moves the specified response to the front of the list as the most recently used.
+     * @param response The response that was used.
+     */
+    private void use(CachedResponse response)
+    {
+        if (response != _newest)
+        {
+            if ( response.getNewer() != null ) // the response is already in the list
+                unlink(response);
+
+            response.link(null, _newest);
+
+            if (_newest != null)
+                _newest.setNewer(response);
+
+            _newest = response;
+
+            if (_oldest == null)
+                _oldest = response;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,275 @@
+/*
+ * @(#)TimetableLoadTest.java  1.0 2026-10-16
+ *
+ * Copyright 2009 Exes Technologies. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   - Redistributions of source code must retain the above copyright
+ *     notice, this list of conditions and the following disclaimer.
+ *
+ *   - Redistributions in binary form must reproduce the above copyright
+ *     notice, this list of conditions and the following disclaimer in the
+ *     documentation and/or other materials provided with the distribution.
+ *
+ *   - Neither the name of Exes Technologies nor the names of its
+ *     contributors may be used to endorse or promote products derived
+ *     from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.rim.maxillion.controller;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Random;
+import javax.microedition.io.Connector;
+import javax.microedition.io.StreamConnection;
+
+
+/**
+ * Generates load against a TimetableServer and reports how it held up. A number of threads each
+ * send requests one after the other, for locations drawn at random from a fixed set of distinct
+ * locations, so the share of requests answered from the cache of the server can be chosen
+ * through the number of distinct locations.<br><br>
+ *
+ * The report gives the number of requests sent and failed, the requests answered per second,
+ * and the median (p50), 99th percentile (p99) and slowest latencies. Latencies are timed with
+ * the millisecond clock and kept in a histogram of whole milliseconds, so each thread records
+ * them without allocating or sharing anything.
+ *
+ * @author Ragaeeb Haq
+ * @version 1.00 2026-10-16 Initial submission.
+ * @since MaxillionPrayers 3.0
+ */
+public class TimetableLoadTest implements Runnable
+{
+    /** The slowest latency that is recorded exactly (in milliseconds); slower requests are counted as this. */
+    private static final int MAX_LATENCY = 10000;
+
+    /** The number of distinct locations when none is specified. */
+    private static final int DEFAULT_LOCATIONS = 1000;
+
+    /** The number of requests sent by each thread when none is specified. */
+    private static final int DEFAULT_REQUESTS = 1000;
+
+    /** The number of threads when none is specified. */
+    private static final int DEFAULT_THREADS = 8;
+
+    /** The number of requests that failed. */
+    private int _failures;
+
+    /** The number of requests that took each number of milliseconds. */
+    private int[] _latencies;
+
+    /** The distinct locations requested, as the query of each. */
+    private String[] _queries;
+
+    /** The number of requests to send. */
+    private int _requests;
+
+    /** Picks the location of each request. */
+    private Random _random;
+
+    /** The address of the server (ie: socket://127.0.0.1:8080). */
+    private String _url;
+
+
+    /**
+     * Creates a thread of the load test.
+     * @param url The address of the server.
+     * @param queries The distinct locations requested.
+     * @param requests The number of requests to send.
+     * @param seed The seed that the locations of the requests are picked with.
+     */
+    private TimetableLoadTest(String url, String[] queries, int requests, long seed)
+    {
+        _url = url;
+        _queries = queries;
+        _requests = requests;
+        _random = new Random(seed);
+        _latencies = new int[MAX_LATENCY+1];
+    }
+
+
+    /**
+     * Runs a load test and prints its report.
+     * @param args The host, port, number of threads, number of requests per thread, number of
+     * distinct locations and number of days per request may be given in that order.
+     * @throws InterruptedException If the test was interrupted.
+     */
+    public static void main(String[] args) throws InterruptedException
+    {
+        String host = args.length > 0 ? args[0] : "127.0.0.1";
+        int port = args.length > 1 ? Integer.parseInt( args[1] ) : TimetableServer.DEFAULT_PORT;
+        int threads = args.length > 2 ? Integer.parseInt( args[2] ) : DEFAULT_THREADS;
+        int requests = args.length > 3 ? Integer.parseInt( args[3] ) : DEFAULT_REQUESTS;
+        int locations = args.length > 4 ? Integer.parseInt( args[4] ) : DEFAULT_LOCATIONS;
+        int days = args.length > 5 ? Integer.parseInt( args[5] ) : 1;
+
+        System.out.print( run("socket://" + host + ":" + port, threads, requests, locations, days) );
+    }
+
+
+    /**
+     * Runs a load test.
+     * @param url The address of the server (ie: socket://127.0.0.1:8080).
+     * @param threads The number of threads sending requests.
+     * @param requests The number of requests sent by each thread.
+     * @param locations The number of distinct locations requested.
+     * @param days The number of days requested for each location.
+     * @return The report.
+     * @throws InterruptedException If the test was interrupted.
+     */
+    public static String run(String url, int threads, int requests, int locations, int days) throws InterruptedException
+    {
+        Random random = new Random(locations);
+        String[] queries = new String[locations];
+
+        for (int i = 0; i < locations; i++) // spread over the inhabited latitudes, with the time zone of each longitude
+        {
+            double latitude = random.nextDouble()*120-60;
+            double longitude = random.nextDouble()*360-180;
+            queries[i] = "lat=" + latitude + "&lon=" + longitude + "&tz=" + Math.floor(longitude/15 + 0.5) + "&date=2026-10-16&days=" + days;
+        }
+
+        TimetableLoadTest[] tests = new TimetableLoadTest[threads];
+        Thread[] started = new Thread[threads];
+        long start = System.currentTimeMillis();
+
+        for (int i = 0; i < threads; i++)
+        {
+            tests[i] = new TimetableLoadTest(url, queries, requests, i);
+            started[i] = new Thread(tests[i]);
+            started[i].start();
+        }
+
+        for (int i = 0; i < threads; i++)
+            started[i].join();
+
+        long elapsed = Math.max( 1, System.currentTimeMillis()-start );
+        int[] latencies = new int[MAX_LATENCY+1];
+        int failures = 0;
+
+        for (int i = 0; i < threads; i++)
+        {
+            failures += tests[i]._failures;
+
+            for (int ms = 0; ms <= MAX_LATENCY; ms++)
+                latencies[ms] += tests[i]._latencies[ms];
+        }
+
+        long total = (long)threads*requests;
+        StringBuffer report = new StringBuffer();
+        report.append("requests: ").append(total).append(", failed: ").append(failures);
+        report.append(", threads: ").append(threads).append(", locations: ").append(locations).append('\n');
+        report.append("elapsed: ").append(elapsed).append(" ms, throughput: ").append(total*1000/elapsed).append(" requests/s\n");
+        report.append("latency p50: ").append( percentile(latencies, total, 50) ).append(" ms, p99: ");
+        report.append( percentile(latencies, total, 99) ).append(" ms, max: ").append( percentile(latencies, total, 100) ).append(" ms\n");
+
+        return report.toString();
+    }
+
+
+    /* (non-Javadoc)
+     * @see java.lang.Runnable#run()
+     */
+    public void run()
+    {
+        byte[] buffer = new byte[4096];
+
+        for (int i = 0; i < _requests; i++)
+        {
+            String query = _queries[ _random.nextInt(_queries.length) ];
+            long start = System.currentTimeMillis();
+
+            if ( !send(query, buffer) )
+                _failures++;
+
+            int latency = (int)Math.min( MAX_LATENCY, System.currentTimeMillis()-start );
+            _latencies[latency]++;
+        }
+    }
+
+
+    /**
+     * Gets a percentile of the latencies.
+     * @param latencies The number of requests that took each number of milliseconds.
+     * @param total The number of requests.
+     * @param percent The percentile (ie: 99).
+     * @return The latency that the specified percentage of the requests were no slower than (in
+     * milliseconds).
+     */
+    private static int percentile(int[] latencies, long total, int percent)
+    {
+        long rank = Math.max( 1, (total*percent+99)/100 ); // the rank of the request at the percentile, counting from the fastest
+        long count = 0;
+        int ms = 0;
+
+        for (; ms < MAX_LATENCY; ms++)
+        {
+            count += latencies[ms];
+
+            if (count >= rank)
+                break;
+        }
+
+        return ms;
+    }
+
+
+    /**
+     * Sends a request and reads its response to the end.
+     * @param query The query of the request.
+     * @param buffer The buffer to read the response into.
+     * @return true if the server answered with 200 OK, false otherwise.
+     */
+    private boolean send(String query, byte[] buffer)
+    {
+        boolean result = false;
+
+        try {
+            StreamConnection connection = (StreamConnection)Connector.open(_url);
+
+            try {
+                OutputStream out = connection.openOutputStream();
+                out.write( ("GET /times?" + query + " HTTP/1.0\r\n\r\n").getBytes() );
+                out.flush();
+
+                InputStream in = connection.openInputStream();
+                int first = in.read(buffer); // the status line arrives first
+                String status = first > 0 ? new String(buffer, 0, Math.min(first, 12)) : "";
+
+                while ( in.read(buffer) >= 0 )
+                    ;
+
+                result = status.equals("HTTP/1.0 200");
+                in.close();
+                out.close();
+            }
+
+            finally {
+                connection.close();
+            }
+        }
+
+        catch (IOException ex) // counted as a failure
+        {
+        }
+
+        return result;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,501 @@
+/*
+ * @(#)TimetableRequest.java  1.0 2026-10-16
+ * @(#)TimetableRequest.java  1.1 2026-10-16
+ * @(#)TimetableRequest.java  1.2 2026-10-16
+ * @(#)TimetableRequest.java  1.3 2026-10-16
+ *
+ * Copyright 2009 Exes Technologies. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   - Redistributions of source code must retain the above copyright
+ *     notice, this list of conditions and the following disclaimer.
+ *
+ *   - Redistributions in binary form must reproduce the above copyright
+ *     notice, this list of conditions and the following disclaimer in the
+ *     documentation and/or other materials provided with the distribution.
+ *
+ *   - Neither the name of Exes Technologies nor the names of its
+ *     contributors may be used to endorse or promote products derived
+ *     from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.rim.maxillion.controller;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Date;
+import javax.microedition.io.StreamConnection;
+
+import net.rim.maxillion.model.calculator.Calculator;
+import net.rim.maxillion.model.calculator.PreparedLocation;
+import net.rim.maxillion.model.calculator.TimetableExporter;
+import net.rim.maxillion.model.calculator.utils.GeoParameters;
+import net.rim.maxillion.model.calculator.utils.SalatConstants;
+import net.rim.maxillion.model.calculator.utils.time.DaylightSavingsZone;
+import net.rim.maxillion.model.calculator.utils.time.EpochDay;
+
+
+/**
+ * Answers a single connection to the TimetableServer. The request line is parsed and the rest
+ * of the request is read and ignored, then the response is taken from the cache of the server,
+ * or calculated, rendered and cached if it is not there yet. Any request that cannot be
+ * answered gets a plain text error response.
+ *
+ * @author Ragaeeb Haq
+ * @version 1.00 2026-10-16 Initial submission.
+ * @version 1.10 2026-10-16 Dates are now parsed by EpochDay.
+ * @version 1.20 2026-10-16 The zone is now named by the request or fixed to the offset given, and is
+ * part of the cache key.
+ * @version 1.30 2026-10-16 The date now defaults to the day that it is in the zone of the location
+ * rather than on the server.
+ * @version 1.40 2026-10-16 A parameter that cannot be parsed is now answered with a fixed message
+ * naming it rather than with the message of the parse error.
+ * @since MaxillionPrayers 3.0
+ */
+class TimetableRequest implements Runnable
+{
+    /** The path that prayer times are requested on. */
+    private static final String PATH = "/times";
+
+    /** The greatest number of bytes read from the request, including its headers. */
+    private static final int MAX_REQUEST_SIZE = 8192;
+
+    /** The greatest number of days that can be requested at once. */
+    private static final int MAX_DAYS = 366;
+
+    /** The number of steps that a degree of latitude or longitude is quantized into. */
+    private static final double QUANTUM = 100;
+
+    /** The number of milliseconds in an hour. */
+    private static final int MILLISECONDS_IN_AN_HOUR = 3600000;
+
+    /** The connection being answered. */
+    private StreamConnection _connection;
+
+    /** The server that accepted the connection. */
+    private TimetableServer _server;
+
+
+    /**
+     * Creates a handler for the specified connection.
+     * @param server The server that accepted the connection.
+     * @param connection The connection to answer.
+     */
+    public TimetableRequest(TimetableServer server, StreamConnection connection)
+    {
+        _server = server;
+        _connection = connection;
+    }
+
+
+    /* (non-Javadoc)
+     * @see java.lang.Runnable#run()
+     */
+    public void run()
+    {
+        try {
+            InputStream in = _connection.openInputStream();
+            OutputStream out = _connection.openOutputStream();
+            byte[] response;
+
+            try {
+                response = respond( readRequestLine(in) );
+            }
+
+            catch (IllegalArgumentException ex)
+            {
+                response = render( 400, "Bad Request", ex.getMessage() + "\n" );
+            }
+
+            out.write(response);
+            out.flush();
+            out.close();
+            in.close();
+        }
+
+        catch (IOException ex) // the client has gone away
+        {
+        }
+
+        finally {
+            closeQuietly(_connection);
+            _server.releaseHandler();
+        }
+    }
+
+
+    /**
+     * Closes a connection, ignoring any error since there is nothing left to tell the client.
+     * @param connection The connection to close.
+     */
+    static void closeQuietly(StreamConnection connection)
+    {
+        try {
+            connection.close();
+        }
+
+        catch (IOException ex)
+        {
+        }
+    }
+
+
+    /**
+     * Renders a plain text response.
+     * @param status The status code (ie: 400).
+     * @param reason The reason phrase of the status (ie: Bad Request).
+     * @param text The text of the response.
+     * @return The bytes of the whole response.
+     */
+    static byte[] render(int status, String reason, String text)
+    {
+        return render( status, reason, "text/plain", text.getBytes() );
+    }
+
+
+    /**
+     * Renders a response.
+     * @param status The status code (ie: 200).
+     * @param reason The reason phrase of the status (ie: OK).
+     * @param contentType The type of the body.
+     * @param body The body of the response.
+     * @return The bytes of the whole response, including its status line and headers.
+     */
+    private static byte[] render(int status, String reason, String contentType, byte[] body)
+    {
+        StringBuffer header = new StringBuffer();
+        header.append("HTTP/1.0 ").append(status).append(' ').append(reason).append("\r\n");
+        header.append("Content-Type: ").append(contentType).append("\r\n");
+        header.append("Content-Length: ").append(body.length).append("\r\n");
+        header.append("Connection: close\r\n\r\n");
+
+        byte[] head = header.toString().getBytes();
+        byte[] result = new byte[head.length+body.length];
+        System.arraycopy(head, 0, result, 0, head.length);
+        System.arraycopy(body, 0, result, head.length, body.length);
+
+        return result;
+    }
+
+
+    /**
+     * Finds the response to the specified request line.
+     * @param requestLine The request line (ie: GET /times?lat=45.356&lon=-75.758&zone=America/Toronto HTTP/1.1).
+     * @return The bytes of the whole response.
+     * @throws IllegalArgumentException If the request is malformed.
+     */
+    private byte[] respond(String requestLine)
+    {
+        int space = requestLine.indexOf(' ');
+        int end = requestLine.indexOf(' ', space+1);
+
+        if ( (space < 0) || (end < 0) )
+            throw new IllegalArgumentException("Malformed request line");
+
+        String target = requestLine.substring(space+1, end);
+        int question = target.indexOf('?');
+        String path = question < 0 ? target : target.substring(0, question);
+        String query = question < 0 ? "" : target.substring(question+1);
+        byte[] result;
+
+        if ( !requestLine.substring(0, space).equals("GET") )
+            result = render(405, "Method Not Allowed", "Only GET is supported\n");
+
+        else if ( !path.equals(PATH) )
+            result = render(404, "Not Found", "Prayer times are found at " + PATH + "\n");
+
+        else
+        {
+            int latitude = quantize( parseNumber(query, "lat", -90, 90) );
+            int longitude = quantize( parseNumber(query, "lon", -180, 180) );
+            DaylightSavingsZone zone = parseZone(query);
+            String date = getParameter(query, "date");
+            String days = getParameter(query, "days");
+            int epochDay = date != null ? parseDate(date) : getToday(zone);
+            int count = days != null ? (int)parseNumber(query, "days", 1, MAX_DAYS) : 1;
+
+            String key = latitude + "," + longitude + "," + zone.getId() + "," + epochDay + "," + count;
+            result = _server.getCache().get(key);
+
+            if (result == null) // rendered outside the lock of the cache so that other requests are not held up
+            {
+                result = render(latitude, longitude, zone, epochDay, count);
+                _server.getCache().put(key, result);
+            }
+        }
+
+        return result;
+    }
+
+
+    /**
+     * Calculates and renders the prayer times of a quantized location.
+     * @param latitude The latitude (in hundredths of a degree).
+     * @param longitude The longitude (in hundredths of a degree).
+     * @param zone The time zone and daylight savings rules of the location.
+     * @param epochDay The first day (in days since 1970-01-01).
+     * @param days The number of consecutive days.
+     * @return The bytes of the whole response.
+     */
+    private static byte[] render(int latitude, int longitude, DaylightSavingsZone zone, int epochDay, int days)
+    {
+        GeoParameters g = new GeoParameters( latitude/QUANTUM, longitude/QUANTUM, zone.getStandardOffset(), zone );
+        PreparedLocation p = Calculator.getInstance().prepare(g, SalatConstants.ISNA_METHOD);
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        Date start = new Date( EpochDay.getNoon( EpochDay.getStartOfDay(epochDay) ) );
+
+        try {
+            new TimetableExporter(TimetableExporter.JSON_LINES).export( new PreparedLocation[]{ p }, new String[]{ latitude/QUANTUM + "," + longitude/QUANTUM }, start, days, body );
+        }
+
+        catch (IOException ex) // never thrown by a ByteArrayOutputStream
+        {
+            throw new IllegalStateException( ex.getMessage() );
+        }
+
+        return render( 200, "OK", "application/x-ndjson", body.toByteArray() );
+    }
+
+
+    /**
+     * Gets the value of a parameter of a query, decoding any escaped characters in it.
+     * @param query The query (ie: lat=45.356&lon=-75.758).
+     * @param name The name of the parameter.
+     * @return The value of the first parameter with that name, or null if there is none.
+     * @throws IllegalArgumentException If the value holds a malformed escape.
+     */
+    private static String getParameter(String query, String name)
+    {
+        String result = null;
+
+        for (int start = 0; (start < query.length()) && (result == null); )
+        {
+            int end = query.indexOf('&', start);
+
+            if (end < 0)
+                end = query.length();
+
+            int equals = query.indexOf('=', start);
+
+            if ( (equals >= 0) && (equals < end) && query.substring(start, equals).equals(name) )
+            {
+                try {
+                    result = decode( query.substring(equals+1, end) );
+                }
+
+                catch (NumberFormatException ex) // its message holds the raw escape
+                {
+                    throw new IllegalArgumentException("Bad parameter: " + name);
+                }
+            }
+
+            start = end+1;
+        }
+
+        return result;
+    }
+
+
+    /**
+     * Decodes the escaped characters (ie: %2D) and spaces (+) of a value.
+     * @param value The value as it appears in the query.
+     * @return The decoded value.
+     * @throws NumberFormatException If an escape is malformed.
+     */
+    private static String decode(String value)
+    {
+        StringBuffer result = new StringBuffer();
+
+        for (int i = 0; i < value.length(); i++)
+        {
+            char c = value.charAt(i);
+
+            if (c == '+')
+                result.append(' ');
+
+            else if ( (c == '%') && (i+2 < value.length()) )
+            {
+                result.append( (char)Integer.parseInt( value.substring(i+1, i+3), 16 ) );
+                i += 2;
+            }
+
+            else
+                result.append(c);
+        }
+
+        return result.toString();
+    }
+
+
+    /**
+     * Parses a numeric parameter of a query.
+     * @param query The query.
+     * @param name The name of the parameter.
+     * @param min The smallest value allowed.
+     * @param max The largest value allowed.
+     * @return The value of the parameter.
+     * @throws IllegalArgumentException If the parameter is missing, is not a number or is out of range.
+     */
+    private static double parseNumber(String query, String name, double min, double max)
+    {
+        String value = getParameter(query, name);
+
+        if (value == null)
+            throw new IllegalArgumentException("Missing parameter: " + name);
+
+        double result;
+
+        try {
+            result = Double.parseDouble(value);
+        }
+
+        catch (NumberFormatException ex)
+        {
+            throw new IllegalArgumentException("Bad parameter: " + name);
+        }
+
+        if ( !(result >= min) || !(result <= max) ) // also rejects NaN
+            throw new IllegalArgumentException("Out of range [" + min + ", " + max + "]: " + name + "=" + value);
+
+        return result;
+    }
+
+
+    /**
+     * Parses the date parameter of a query.
+     * @param date The value of the parameter (ie: 2026-10-16).
+     * @return The number of days since 1970-01-01.
+     * @throws IllegalArgumentException If the date is malformed or does not exist.
+     */
+    private static int parseDate(String date)
+    {
+        int result;
+
+        try {
+            result = EpochDay.parse(date);
+        }
+
+        catch (IllegalArgumentException ex) // including a NumberFormatException, whose message holds the raw value
+        {
+            throw new IllegalArgumentException("Bad parameter: date");
+        }
+
+        return result;
+    }
+
+
+    /**
+     * Finds the zone of a query. A named zone is looked up in the bundled daylight savings rules,
+     * and its standard offset is used unless a matching one is given too. An offset given on its
+     * own observes no daylight savings.
+     * @param query The query.
+     * @return The zone of the location.
+     * @throws IllegalArgumentException If the zone is not known, the offset is missing or out
+     * of range, or the offset does not match the zone.
+     */
+    private DaylightSavingsZone parseZone(String query)
+    {
+        String name = getParameter(query, "zone");
+        DaylightSavingsZone result;
+
+        if (name != null)
+        {
+            result = _server.getZone(name);
+
+            if (result == null)
+                throw new IllegalArgumentException("Unknown zone: " + name);
+
+            if ( ( getParameter(query, "tz") != null ) && ( parseNumber(query, "tz", -12, 14) != result.getStandardOffset() ) )
+                throw new IllegalArgumentException("The offset does not match the standard offset of " + name + ": " + result.getStandardOffset());
+        }
+
+        else
+            result = _server.getFixedZone( parseNumber(query, "tz", -12, 14) );
+
+        return result;
+    }
+
+
+    /**
+     * Gets the day that it is now in the specified zone, which is not necessarily the day that it
+     * is on the clock of the server.
+     * @param zone The zone of the location.
+     * @return The number of days since 1970-01-01.
+     */
+    private static int getToday(DaylightSavingsZone zone)
+    {
+        long now = System.currentTimeMillis();
+        int offset = (int)Math.floor( ( zone.getStandardOffset()+zone.getAdjustment(now) )*MILLISECONDS_IN_AN_HOUR + 0.5 );
+
+        return EpochDay.fromTime(now, offset);
+    }
+
+
+    /**
+     * Quantizes a latitude or longitude.
+     * @param degrees The latitude or longitude in degrees.
+     * @return The nearest number of hundredths of a degree.
+     */
+    private static int quantize(double degrees)
+    {
+        return (int)Math.floor(degrees*QUANTUM + 0.5);
+    }
+
+
+    /**
+     * Reads the request line and skips the headers after it.
+     * @param in The stream of the request.
+     * @return The request line, without its line break.
+     * @throws IOException If the request could not be read.
+     * @throws IllegalArgumentException If the request is too large or ends early.
+     */
+    private static String readRequestLine(InputStream in) throws IOException
+    {
+        StringBuffer line = new StringBuffer();
+        String result = null;
+        int length = 0; // the length of the current line, ignoring its carriage return
+
+        for (int read = 0, c = in.read(); ; read++, c = in.read())
+        {
+            if ( (c < 0) || (read == MAX_REQUEST_SIZE) )
+                throw new IllegalArgumentException(c < 0 ? "Incomplete request" : "Request too large");
+
+            if (c == '\n')
+            {
+                if (result == null)
+                    result = line.toString();
+
+                else if (length == 0) // the blank line after the headers
+                    break;
+
+                length = 0;
+            }
+
+            else if (c != '\r')
+            {
+                length++;
+
+                if (result == null)
+                    line.append( (char)c );
+            }
+        }
+
+        return result;
+    }
+}
\ No newline at end of file
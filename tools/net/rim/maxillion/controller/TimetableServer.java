@@ -0,0 +1,317 @@
+/*
+ * @(#)TimetableServer.java  1.0 2026-10-16
+ * @(#)TimetableServer.java  1.1 2026-10-16
+ * @(#)TimetableServer.java  1.2 2026-10-16
+ *
+ * Copyright 2009 Exes Technologies. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   - Redistributions of source code must retain the above copyright
+ *     notice, this list of conditions and the following disclaimer.
+ *
+ *   - Redistributions in binary form must reproduce the above copyright
+ *     notice, this list of conditions and the following disclaimer in the
+ *     documentation and/or other materials provided with the distribution.
+ *
+ *   - Neither the name of Exes Technologies nor the names of its
+ *     contributors may be used to endorse or promote products derived
+ *     from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.rim.maxillion.controller;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Hashtable;
+import javax.microedition.io.Connector;
+import javax.microedition.io.StreamConnection;
+import javax.microedition.io.StreamConnectionNotifier;
+
+import net.rim.maxillion.model.calculator.utils.time.DaylightSavingsRules;
+import net.rim.maxillion.model.calculator.utils.time.DaylightSavingsZone;
+
+
+/**
+ * A small HTTP server that answers requests for prayer times straight from the calculator, so
+ * that clients can be served without going through another service. It answers requests of the
+ * form:
+ * <pre>
+ * GET /times?lat=45.356&amp;lon=-75.758&amp;zone=America/Toronto[&amp;date=2026-10-16][&amp;days=7]
+ * GET /times?lat=21.422&amp;lon=39.826&amp;tz=3[&amp;date=2026-10-16][&amp;days=7]
+ * </pre>
+ * with one JSON line for each day, as written by a TimetableExporter. The date defaults to
+ * today in the zone of the location and the number of days to 1. A zone is looked up in the
+ * bundled DaylightSavingsRules and the times follow its daylight savings rules. A time zone offset given on its own is
+ * taken as standard time all year round, since the rules of the place cannot be told from the
+ * offset alone.<br><br>
+ *
+ * The location is quantized to the nearest hundredth of a degree (about 1km), which moves the
+ * prayer times by a few seconds at most, so that nearby clients share the same response. The
+ * rendered bytes of the most recently used responses are kept in a ResponseCache, and a request
+ * found there is answered without calculating or formatting anything.<br><br>
+ *
+ * Each connection is handled on its own thread, up to a limit beyond which connections are
+ * refused with a 503 response. Connections are closed after each response (HTTP/1.0).
+ *
+ * @author Ragaeeb Haq
+ * @version 1.00 2026-10-16 Initial submission.
+ * @version 1.10 2026-10-16 Requests can now name a zone from the bundled daylight savings rules. An
+ * offset given on its own no longer follows the daylight savings of the zone the server runs in.
+ * @version 1.20 2026-10-16 The flag that stops the server is now volatile so that the accepting thread
+ * sees it.
+ * @since MaxillionPrayers 3.0
+ */
+public class TimetableServer implements Runnable
+{
+    /** The port listened on when none is specified. */
+    public static final int DEFAULT_PORT = 8080;
+
+    /** The number of responses cached when none is specified. */
+    public static final int DEFAULT_CACHE_SIZE = 4096;
+
+    /** The number of connections handled at once when none is specified. */
+    public static final int DEFAULT_MAX_HANDLERS = 64;
+
+    /** Is the server accepting connections? Written by stop() and read by the thread accepting them. */
+    private volatile boolean _active;
+
+    /** The responses that were rendered most recently. */
+    private ResponseCache _cache;
+
+    /** The zones without daylight savings created for offsets given on their own, keyed by offset. */
+    private Hashtable _fixedZones;
+
+    /** The number of connections being handled. */
+    private int _handlers;
+
+    /** The greatest number of connections handled at once. */
+    private int _maxHandlers;
+
+    /** Accepts the connections, or null if the server is not started. */
+    private StreamConnectionNotifier _notifier;
+
+    /** The port listened on. */
+    private int _port;
+
+    /** The daylight savings rules that zones are looked up in, or null if the server is not started yet. */
+    private DaylightSavingsRules _rules;
+
+    /** The thread accepting the connections. */
+    private Thread _thread;
+
+
+    /**
+     * Creates a server that is not started yet.
+     * @param port The port to listen on.
+     * @param cacheSize The greatest number of responses to keep.
+     * @param maxHandlers The greatest number of connections to handle at once.
+     * @throws IllegalArgumentException If the cache size or number of handlers is less than 1.
+     */
+    public TimetableServer(int port, int cacheSize, int maxHandlers)
+    {
+        if (maxHandlers < 1)
+            throw new IllegalArgumentException("At least one handler is needed: " + maxHandlers);
+
+        _port = port;
+        _maxHandlers = maxHandlers;
+        _cache = new ResponseCache(cacheSize);
+        _fixedZones = new Hashtable();
+    }
+
+
+    /**
+     * Starts accepting connections on a thread of its own.
+     * @throws IOException If the port could not be listened on or the bundled daylight savings
+     * rules could not be read.
+     */
+    public synchronized void start() throws IOException
+    {
+        if (_notifier == null)
+        {
+            if (_rules == null)
+                _rules = DaylightSavingsRules.loadBundled();
+
+            _notifier = (StreamConnectionNotifier)Connector.open("socket://:" + _port);
+            _active = true;
+            _thread = new Thread(this);
+            _thread.start();
+        }
+    }
+
+
+    /**
+     * Stops accepting connections. The connections being handled are still answered.
+     */
+    public synchronized void close()
+    {
+        if (_notifier != null)
+        {
+            _active = false;
+
+            try {
+                _notifier.close(); // wakes up the thread waiting for a connection
+            }
+
+            catch (IOException ex)
+            {
+            }
+
+            _notifier = null;
+        }
+    }
+
+
+    /**
+     * Gets the responses that were rendered most recently.
+     * @return The cache of the responses.
+     */
+    ResponseCache getCache()
+    {
+        return _cache;
+    }
+
+
+    /**
+     * Gets the zone that does not observe daylight savings for the specified offset. The same
+     * zone is returned for the same offset so that its responses can be shared.
+     * @param timeZone The offset from Greenwich Mean Time (in hours).
+     * @return The zone that stays on the offset all year round.
+     */
+    synchronized DaylightSavingsZone getFixedZone(double timeZone)
+    {
+        String key = String.valueOf(timeZone);
+        DaylightSavingsZone result = (DaylightSavingsZone)_fixedZones.get(key);
+
+        if (result == null)
+        {
+            result = _rules.createZone("UTC" + key, timeZone, "-");
+            _fixedZones.put(key, result);
+        }
+
+        return result;
+    }
+
+
+    /**
+     * Gets the port listened on.
+     * @return The port.
+     */
+    public int getPort()
+    {
+        return _port;
+    }
+
+
+    /**
+     * Gets the zone with the specified name from the bundled daylight savings rules.
+     * @param name The name of the zone (ie: America/Toronto).
+     * @return The zone, or null if the bundled rules do not have it.
+     */
+    DaylightSavingsZone getZone(String name)
+    {
+        return _rules.getZone(name);
+    }
+
+
+    /* (non-Javadoc)
+     * @see java.lang.Runnable#run()
+     */
+    public void run()
+    {
+        StreamConnectionNotifier notifier = _notifier;
+
+        while (_active)
+        {
+            try {
+                StreamConnection connection = notifier.acceptAndOpen();
+
+                if ( claimHandler() )
+                    new Thread( new TimetableRequest(this, connection) ).start();
+
+                else
+                    refuse(connection);
+            }
+
+            catch (IOException ex) // the notifier was closed, or the connection failed before it could be handed over
+            {
+            }
+        }
+    }
+
+
+    /**
+     * Reports that a connection has been answered and its handler has finished.
+     */
+    synchronized void releaseHandler()
+    {
+        _handlers--;
+    }
+
+
+    /**
+     * Reserves a handler for a new connection.
+     * @return true if the connection can be handled, false if too many are being handled.
+     */
+    private synchronized boolean claimHandler()
+    {
+        boolean result = _handlers < _maxHandlers;
+
+        if (result)
+            _handlers++;
+
+        return result;
+    }
+
+
+    /**
+     * Refuses a connection because too many are being handled.
+     * @param connection The connection to refuse.
+     */
+    private static void refuse(StreamConnection connection)
+    {
+        try {
+            OutputStream out = connection.openOutputStream();
+            out.write( TimetableRequest.render(503, "Service Unavailable", "Too many requests\n") );
+            out.close();
+        }
+
+        catch (IOException ex) // the client has gone away
+        {
+        }
+
+        finally {
+            TimetableRequest.closeQuietly(connection);
+        }
+    }
+
+
+    /**
+     * Starts a server.
+     * @param args The port, the number of responses to cache and the number of connections to
+     * handle at once may be given in that order.
+     * @throws IOException If the port could not be listened on.
+     */
+    public static void main(String[] args) throws IOException
+    {
+        int port = args.length > 0 ? Integer.parseInt( args[0] ) : DEFAULT_PORT;
+        int cacheSize = args.length > 1 ? Integer.parseInt( args[1] ) : DEFAULT_CACHE_SIZE;
+        int maxHandlers = args.length > 2 ? Integer.parseInt( args[2] ) : DEFAULT_MAX_HANDLERS;
+
+        new TimetableServer(port, cacheSize, maxHandlers).start();
+        System.out.println("Timetable server listening on port " + port);
+    }
+}
\ No newline at end of file
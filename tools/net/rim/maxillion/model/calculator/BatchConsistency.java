@@ -0,0 +1,227 @@
+/*
+ * @(#)BatchConsistency.java  1.0 2026-10-16
+ *
+ * Copyright 2009 Exes Technologies. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   - Redistributions of source code must retain the above copyright
+ *     notice, this list of conditions and the following disclaimer.
+ *
+ *   - Redistributions in binary form must reproduce the above copyright
+ *     notice, this list of conditions and the following disclaimer in the
+ *     documentation and/or other materials provided with the distribution.
+ *
+ *   - Neither the name of Exes Technologies nor the names of its
+ *     contributors may be used to endorse or promote products derived
+ *     from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.rim.maxillion.model.calculator;
+
+import java.io.IOException;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Random;
+
+import net.rim.maxillion.model.calculator.utils.GeoParameters;
+import net.rim.maxillion.model.calculator.utils.TimeCriticalEventNames;
+import net.rim.maxillion.model.calculator.utils.time.DaylightSavingsRules;
+import net.rim.maxillion.model.calculator.utils.time.DaylightSavingsZone;
+import net.rim.maxillion.model.calculator.utils.time.TimeTable;
+
+
+/**
+ * Guards Calculator.calculateBatch() against drifting from Calculator.calculate(). A spread of
+ * locations is calculated both ways on the eve and the day of each daylight savings transition of
+ * 2010 in a few zones, where the half-night falls between two clocks, and on an ordinary day. Every
+ * time must be identical, so main() fails with an IllegalStateException at the first one that is
+ * not.<br><br>
+ *
+ * The locations are calculated once in the default zone and once in each of the bundled zones
+ * below. Each date is requested at noon on the wall clock of the device, so it is the day that is
+ * calculated whatever the zone of the device.
+ *
+ * @author Ragaeeb Haq
+ * @version 1.00 2026-10-16 Initial submission.
+ * @since MaxillionPrayers 3.0
+ */
+public final class BatchConsistency
+{
+    /** The bundled zones the locations are calculated in besides the default zone. */
+    private static final String[] ZONES = { "Europe/Berlin", "Australia/Sydney", "America/Santiago" };
+
+    /** The dates calculated in the default zone, as year, month and day of the month. */
+    private static final int[][] DEFAULT_DATES = { {2010, 3, 13}, {2010, 3, 14}, {2010, 6, 21}, {2010, 11, 6}, {2010, 11, 7} };
+
+    /** The dates calculated in each of the bundled zones, as year, month and day of the month. */
+    private static final int[][][] ZONE_DATES = {
+        { {2010, 3, 27}, {2010, 3, 28}, {2010, 6, 21}, {2010, 10, 30}, {2010, 10, 31} },
+        { {2010, 4, 3}, {2010, 4, 4}, {2010, 6, 21}, {2010, 10, 2}, {2010, 10, 3} },
+        { {2010, 4, 3}, {2010, 4, 4}, {2010, 6, 21}, {2010, 10, 9}, {2010, 10, 10} }
+    };
+
+    /** The number of locations calculated on each date. */
+    private static final int LOCATIONS = 2000;
+
+    /** The number of times compared. */
+    private int compared;
+
+    /** Describes the first time that differed, or null if none did. */
+    private String firstMismatch;
+
+    /** The number of times that differed. */
+    private int mismatches;
+
+
+    /**
+     * Creates a comparison that has not compared anything yet.
+     */
+    private BatchConsistency()
+    {
+        super();
+    }
+
+
+    /**
+     * Calculates the locations both ways on every date in the default zone and in each of the
+     * bundled zones.
+     * @return The result of the comparison.
+     * @throws IOException If the bundled daylight savings rules could not be read.
+     */
+    public static BatchConsistency compare() throws IOException
+    {
+        BatchConsistency result = new BatchConsistency();
+        DaylightSavingsRules rules = DaylightSavingsRules.loadBundled();
+
+        for (int i = 0; i < DEFAULT_DATES.length; i++)
+            result.compare(null, DEFAULT_DATES[i]);
+
+        for (int z = 0; z < ZONES.length; z++)
+        {
+            DaylightSavingsZone zone = rules.getZone(ZONES[z]);
+
+            if (zone == null)
+                throw new IOException("Missing zone " + ZONES[z]);
+
+            for (int i = 0; i < ZONE_DATES[z].length; i++)
+                result.compare(zone, ZONE_DATES[z][i]);
+        }
+
+        return result;
+    }
+
+
+    /**
+     * Calculates the locations both ways on a date and records the times that differ.
+     * @param zone The zone the locations observe, or null for the default zone.
+     * @param date The date as year, month and day of the month.
+     */
+    private void compare(DaylightSavingsZone zone, int[] date)
+    {
+        Calendar calendar = Calendar.getInstance();
+        calendar.set(Calendar.YEAR, date[0]);
+        calendar.set(Calendar.MONTH, date[1]-1);
+        calendar.set(Calendar.DAY_OF_MONTH, date[2]);
+        calendar.set(Calendar.HOUR_OF_DAY, 12);
+        Date requested = calendar.getTime();
+
+        Random random = new Random(LOCATIONS);
+        double[] latitudes = new double[LOCATIONS];
+        double[] longitudes = new double[LOCATIONS];
+        double[] timeZones = new double[LOCATIONS];
+        DaylightSavingsZone[] zones = new DaylightSavingsZone[LOCATIONS];
+
+        for (int i = 0; i < LOCATIONS; i++)
+        {
+            latitudes[i] = random.nextDouble()*120 - 60; // mostly calculated by the batch, some handed to the workspace
+            longitudes[i] = random.nextDouble()*360 - 180;
+            timeZones[i] = Math.floor(longitudes[i]/15 + 0.5);
+            zones[i] = (zone == null) ? DaylightSavingsZone.getDefault() : zone;
+        }
+
+        int[] batch = new int[LOCATIONS*TimeTable.EVENTS_PER_DAY];
+        Calculator calculator = Calculator.getInstance();
+        calculator.calculateBatch(latitudes, longitudes, timeZones, (zone == null) ? null : zones, requested, batch);
+
+        TimeCriticalEventNames names = TimeCriticalEventNames.getInstance();
+
+        for (int i = 0; i < LOCATIONS; i++)
+        {
+            TimeTable table = calculator.calculateRange( new GeoParameters(latitudes[i], longitudes[i], timeZones[i], zones[i]), requested, 1 );
+
+            for (int event = 0; event < TimeTable.EVENTS_PER_DAY; event++)
+            {
+                int expected = table.getSeconds(0, event);
+                int actual = batch[i*TimeTable.EVENTS_PER_DAY + event];
+
+                if (actual != expected)
+                {
+                    if (mismatches == 0)
+                        firstMismatch = zones[i].getName() + " " + date[0] + "-" + date[1] + "-" + date[2] + " (" + latitudes[i] + ", " + longitudes[i] + ") " + names.getName(event) + " at " + actual + "s instead of " + expected + "s";
+
+                    mismatches++;
+                }
+
+                compared++;
+            }
+        }
+    }
+
+
+    /**
+     * Determines whether every time calculated in a batch was identical to the one calculated on
+     * its own.
+     * @return true If no time differed, false otherwise.
+     */
+    public boolean matches()
+    {
+        return mismatches == 0;
+    }
+
+
+    /* (non-Javadoc)
+     * @see java.lang.Object#toString()
+     */
+    public String toString()
+    {
+        StringBuffer report = new StringBuffer();
+        report.append("calculateBatch: ").append(compared).append(" times compared, ").append(mismatches).append(" differed from calculate()");
+
+        if (firstMismatch != null)
+            report.append(", first ").append(firstMismatch);
+
+        report.append('\n');
+
+        return report.toString();
+    }
+
+
+    /**
+     * Compares the two calculations and prints the report to the standard output.
+     * @param args Not used.
+     * @throws IOException If the bundled daylight savings rules could not be read.
+     * @throws IllegalStateException If a time calculated in a batch differed.
+     */
+    public static void main(String[] args) throws IOException
+    {
+        BatchConsistency consistency = compare();
+        System.out.print(consistency);
+
+        if ( !consistency.matches() )
+            throw new IllegalStateException(consistency.mismatches + " times calculated in a batch differed from calculate()");
+    }
+}
\ No newline at end of file
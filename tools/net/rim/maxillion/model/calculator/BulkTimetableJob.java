@@ -0,0 +1,687 @@
+/*
+ * @(#)BulkTimetableJob.java  1.0 2026-10-16
+ * @(#)BulkTimetableJob.java  1.1 2026-10-16
+ * @(#)BulkTimetableJob.java  1.2 2026-10-16
+ *
+ * Copyright 2009 Exes Technologies. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   - Redistributions of source code must retain the above copyright
+ *     notice, this list of conditions and the following disclaimer.
+ *
+ *   - Redistributions in binary form must reproduce the above copyright
+ *     notice, this list of conditions and the following disclaimer in the
+ *     documentation and/or other materials provided with the distribution.
+ *
+ *   - Neither the name of Exes Technologies nor the names of its
+ *     contributors may be used to endorse or promote products derived
+ *     from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.rim.maxillion.model.calculator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Date;
+import java.util.Hashtable;
+import java.util.Vector;
+import javax.microedition.io.Connector;
+import javax.microedition.io.file.FileConnection;
+
+import net.rim.maxillion.model.calculator.utils.GeoParameters;
+import net.rim.maxillion.model.calculator.utils.SalatConstants;
+import net.rim.maxillion.model.calculator.utils.time.DaylightSavingsRules;
+import net.rim.maxillion.model.calculator.utils.time.EpochDay;
+
+
+/**
+ * Exports the timetables of a very large file of locations (see LocationReader), chunk by
+ * chunk, to a directory of files that each hold the timetables of one chunk. The input is read
+ * by the calling thread while the chunks are exported by a pool of workers, with only a few
+ * chunks held in memory at once so that files of millions of locations can be processed.<br><br>
+ *
+ * Each chunk is written to a temporary file that is renamed once it is complete, so a chunk
+ * file that exists is always whole. The job also keeps a checkpoint file with the position in
+ * the input up to which every chunk has been written. If the job is stopped and run again with
+ * the same settings it resumes from that position, skipping any later chunks that had already
+ * been written, so that only the chunks that were in progress are exported again.<br><br>
+ *
+ * The prayer times are calculated with the ISNA method, as they are by the timetable server.
+ * A location follows the daylight savings rules of the bundled zone that it names, and stays on
+ * its time zone all year round if it does not name one.
+ * When run from the command line the position of the sun is looked up in the ephemeris table
+ * bundled with the tools (see EphemerisTableWriter) rather than calculated for every day, and
+ * the fast trigonometry provider is used, which gives the same times (see TrigonometryAccuracy).
+ *
+ * @author Ragaeeb Haq
+ * @version 1.00 2026-10-16 Initial submission.
+ * @version 1.10 2026-10-16 The command line now installs the bundled ephemeris table.
+ * @version 1.20 2026-10-16 Locations now follow the bundled zone that they name, or no daylight
+ * savings rules at all.
+ * @version 1.30 2026-10-16 The command line now uses the fast trigonometry provider.
+ * @since MaxillionPrayers 3.0
+ */
+public final class BulkTimetableJob implements Runnable
+{
+    /** The name of the checkpoint file in the output directory. */
+    public static final String CHECKPOINT = "checkpoint.txt";
+
+    /** The suffix of a file that is still being written. */
+    private static final String PARTIAL_SUFFIX = ".part";
+
+    /** The prefix of the name of each chunk file. */
+    private static final String CHUNK_PREFIX = "timetables-";
+
+    /** The file extension of each format, indexed by its TimetableExporter value. */
+    private static final String[] EXTENSIONS = { ".csv", ".jsonl", ".txt" };
+
+    /** The names of the formats accepted on the command line, indexed by their TimetableExporter value. */
+    private static final String[] FORMAT_NAMES = { "csv", "json", "fixed" };
+
+    /** The number of chunks read ahead of the workers for each worker. */
+    private static final int QUEUE_PER_THREAD = 2;
+
+    /** The number of locations in each chunk. */
+    private final int chunkSize;
+
+    /** The number of chunks that have been written from the start of the input without a gap. */
+    private int completed;
+
+    /** The position in the input just past the last of the completed chunks. */
+    private long completedEnd;
+
+    /** The number of consecutive days in each timetable. */
+    private final int days;
+
+    /** The chunks written out of order, ahead of the completed ones, mapped to their end positions. */
+    private final Hashtable done;
+
+    /** The error that stopped the first worker to fail, or null if none has failed. */
+    private Exception failure;
+
+    /** The format of the timetables (ie: TimetableExporter.CSV). */
+    private final int format;
+
+    /** The URL of the file of locations. */
+    private final String input;
+
+    /** true once every chunk of the input has been read. */
+    private boolean inputDone;
+
+    /** The URL of the output directory, ending with a slash. */
+    private final String output;
+
+    /** The chunks that have been read but not yet taken by a worker. */
+    private final Vector queue;
+
+    /** The first day of each timetable (in days since 1970-01-01). */
+    private final int startDay;
+
+    /** The number of workers exporting the chunks. */
+    private final int threads;
+
+    /** The number of locations exported by this run. */
+    private int written;
+
+
+    /**
+     * Creates a job.
+     * @param input The URL of the file of locations (for example file:///SDCard/locations.csv).
+     * @param output The URL of the directory to write the timetables to, which must exist.
+     * @param startDay The first day of each timetable (in days since 1970-01-01).
+     * @param days The number of consecutive days in each timetable.
+     * @param format The format of the timetables (TimetableExporter.CSV, JSON_LINES or FIXED_WIDTH).
+     * @param chunkSize The number of locations in each chunk file.
+     * @param threads The number of workers exporting the chunks.
+     * @throws IllegalArgumentException If the days, chunk size or threads are less than 1, or the
+     * format is unknown.
+     */
+    public BulkTimetableJob(String input, String output, int startDay, int days, int format, int chunkSize, int threads)
+    {
+        if ( (days < 1) || (chunkSize < 1) || (threads < 1) )
+            throw new IllegalArgumentException("The days, chunk size and threads must be positive");
+
+        if ( (format < TimetableExporter.CSV) || (format > TimetableExporter.FIXED_WIDTH) )
+            throw new IllegalArgumentException("Unknown format: " + format);
+
+        this.input = input;
+        this.output = output.endsWith("/") ? output : output + "/";
+        this.startDay = startDay;
+        this.days = days;
+        this.format = format;
+        this.chunkSize = chunkSize;
+        this.threads = threads;
+        this.queue = new Vector(threads*QUEUE_PER_THREAD);
+        this.done = new Hashtable();
+    }
+
+
+    /**
+     * Runs the job to the end of the input, resuming from the checkpoint of an earlier run if
+     * there is one.
+     * @return The number of locations exported by this run, which leaves out those of the chunks
+     * that had already been written.
+     * @throws IOException If a file could not be read or written, the input holds a malformed
+     * line, or the checkpoint was made with different settings.
+     */
+    public int process() throws IOException
+    {
+        readCheckpoint();
+
+        FileConnection fc = (FileConnection)Connector.open(input);
+        Thread[] workers = new Thread[threads];
+
+        try {
+            InputStream in = fc.openInputStream();
+
+            try {
+                skip(in, completedEnd);
+
+                for (int i = 0; i < threads; i++)
+                {
+                    workers[i] = new Thread(this);
+                    workers[i].start();
+                }
+
+                LocationReader reader = new LocationReader( in, completedEnd, DaylightSavingsRules.loadBundled() );
+                LocationChunk chunk = reader.read(completed, chunkSize);
+
+                while ( (chunk != null) && offer(chunk) )
+                    chunk = reader.read(chunk.getIndex()+1, chunkSize);
+            }
+
+            catch (IOException ex)
+            {
+                fail(ex);
+            }
+
+            finally {
+                in.close();
+            }
+        }
+
+        finally {
+            finishInput();
+
+            for (int i = 0; (i < threads) && (workers[i] != null); i++)
+                ParallelCalculation.join( workers[i] );
+
+            fc.close();
+        }
+
+        if (failure instanceof IOException)
+            throw (IOException)failure;
+
+        else if (failure != null)
+            throw (RuntimeException)failure;
+
+        return written;
+    }
+
+
+    /* (non-Javadoc)
+     * @see java.lang.Runnable#run()
+     */
+    public void run()
+    {
+        TimetableExporter exporter = new TimetableExporter(format);
+        Date start = new Date( EpochDay.getNoon( EpochDay.getStartOfDay(startDay) ) );
+
+        try {
+            for ( LocationChunk chunk = take(); chunk != null; chunk = take() )
+            {
+                FileConnection fc = (FileConnection)Connector.open( output + getChunkName( chunk.getIndex() ) );
+                boolean exists;
+
+                try {
+                    exists = fc.exists();
+                }
+
+                finally {
+                    fc.close();
+                }
+
+                if (!exists)
+                {
+                    export(exporter, chunk, start);
+                    countWritten( chunk.getLocations().length );
+                }
+
+                complete(chunk);
+            }
+        }
+
+        catch (IOException ex)
+        {
+            fail(ex);
+        }
+
+        catch (RuntimeException ex)
+        {
+            fail(ex);
+        }
+    }
+
+
+    /**
+     * Gets the name of the file that the timetables of a chunk are written to.
+     * @param index The number of the chunk.
+     * @return The name of the file (ie: timetables-000042.csv).
+     */
+    public String getChunkName(int index)
+    {
+        String number = String.valueOf(index);
+        StringBuffer sb = new StringBuffer(CHUNK_PREFIX);
+
+        for (int i = number.length(); i < 6; i++)
+            sb.append('0');
+
+        return sb.append(number).append( EXTENSIONS[format] ).toString();
+    }
+
+
+    /**
+     * Exports the timetables of a chunk to a temporary file, and renames it to the chunk file
+     * once it is complete.
+     * @param exporter The exporter of this worker.
+     * @param chunk The chunk to export.
+     * @param start The first date of each timetable.
+     * @throws IOException If the file could not be written.
+     */
+    private void export(TimetableExporter exporter, LocationChunk chunk, Date start) throws IOException
+    {
+        GeoParameters[] locations = chunk.getLocations();
+        PreparedLocation[] prepared = new PreparedLocation[locations.length];
+        Calculator calculator = Calculator.getInstance();
+
+        for (int i = 0; i < locations.length; i++)
+            prepared[i] = calculator.prepare(locations[i], SalatConstants.ISNA_METHOD);
+
+        String name = getChunkName( chunk.getIndex() );
+        FileConnection fc = (FileConnection)Connector.open(output + name + PARTIAL_SUFFIX);
+
+        try {
+            if ( !fc.exists() )
+                fc.create();
+
+            fc.truncate(0);
+            OutputStream out = fc.openOutputStream();
+
+            try {
+                exporter.export( prepared, chunk.getNames(), start, days, out );
+            }
+
+            finally {
+                out.close();
+            }
+
+            fc.rename(name);
+        }
+
+        finally {
+            fc.close();
+        }
+    }
+
+
+    /**
+     * Records that a chunk has been written, and moves the checkpoint forward if every chunk
+     * before it has been written as well.
+     * @param chunk The chunk that has been written.
+     * @throws IOException If the checkpoint could not be written.
+     */
+    private synchronized void complete(LocationChunk chunk) throws IOException
+    {
+        done.put( new Integer( chunk.getIndex() ), new Long( chunk.getEnd() ) );
+        int before = completed;
+
+        for ( Long end = (Long)done.remove( new Integer(completed) ); end != null; end = (Long)done.remove( new Integer(completed) ) )
+        {
+            completedEnd = end.longValue();
+            completed++;
+        }
+
+        if (completed > before)
+            writeCheckpoint();
+    }
+
+
+    /**
+     * Adds to the number of locations exported by this run.
+     * @param locations The number of locations exported.
+     */
+    private synchronized void countWritten(int locations)
+    {
+        written += locations;
+    }
+
+
+    /**
+     * Records the error that stopped a worker or the reading of the input, and stops the other
+     * workers from taking any more chunks.
+     * @param ex The error.
+     */
+    private synchronized void fail(Exception ex)
+    {
+        if (failure == null)
+            failure = ex;
+
+        queue.removeAllElements();
+        notifyAll();
+    }
+
+
+    /**
+     * Records that no more chunks will be read, so that the workers stop once the queue is empty.
+     */
+    private synchronized void finishInput()
+    {
+        inputDone = true;
+        notifyAll();
+    }
+
+
+    /**
+     * Adds a chunk to the queue, waiting while the queue is full.
+     * @param chunk The chunk to add.
+     * @return true if the chunk was added, false if a worker has failed and the job is stopping.
+     */
+    private synchronized boolean offer(LocationChunk chunk)
+    {
+        while ( ( queue.size() >= threads*QUEUE_PER_THREAD ) && (failure == null) )
+            waitQuietly();
+
+        boolean result = failure == null;
+
+        if (result)
+        {
+            queue.addElement(chunk);
+            notifyAll();
+        }
+
+        return result;
+    }
+
+
+    /**
+     * Takes the next chunk from the queue, waiting while the queue is empty.
+     * @return The chunk, or null if there are none left or the job is stopping.
+     */
+    private synchronized LocationChunk take()
+    {
+        while ( queue.isEmpty() && !inputDone && (failure == null) )
+            waitQuietly();
+
+        LocationChunk result = null;
+
+        if ( !queue.isEmpty() )
+        {
+            result = (LocationChunk)queue.elementAt(0);
+            queue.removeElementAt(0);
+            notifyAll();
+        }
+
+        return result;
+    }
+
+
+    /**
+     * Waits to be notified of a change to the queue. An interruption is treated as a
+     * notification, since every caller checks its condition again.
+     */
+    private void waitQuietly()
+    {
+        try {
+            wait();
+        }
+
+        catch (InterruptedException ex)
+        {
+        }
+    }
+
+
+    /**
+     * Reads the checkpoint of an earlier run, if there is one, to find where to resume.
+     * @throws IOException If the checkpoint could not be read, is malformed, or was made with
+     * different settings.
+     */
+    private void readCheckpoint() throws IOException
+    {
+        FileConnection fc = (FileConnection)Connector.open(output + CHECKPOINT);
+        boolean partial = !fc.exists();
+
+        if (partial) // the job may have stopped before the new checkpoint was renamed into place
+        {
+            fc.close();
+            fc = (FileConnection)Connector.open(output + CHECKPOINT + PARTIAL_SUFFIX);
+        }
+
+        try {
+            if ( fc.exists() )
+            {
+                InputStream in = fc.openInputStream();
+                Hashtable values = new Hashtable();
+
+                try {
+                    StringBuffer line = new StringBuffer();
+
+                    for ( int c = in.read(); c >= 0; c = in.read() )
+                    {
+                        if (c == '\n')
+                        {
+                            putValue( values, line.toString() );
+                            line.setLength(0);
+                        }
+
+                        else
+                            line.append( (char)c );
+                    }
+                }
+
+                finally {
+                    in.close();
+                }
+
+                if ( partial && !values.containsKey("position") ) // the position is written last, so the file is incomplete
+                    values = null;
+
+                else if ( ( getValue(values, "chunkSize") != chunkSize ) || ( getValue(values, "days") != days ) || ( getValue(values, "startDay") != startDay ) || ( getValue(values, "format") != format ) )
+                    throw new IOException("The checkpoint in " + output + " was made with different settings");
+
+                if (values != null)
+                {
+                    completed = (int)getValue(values, "chunks");
+                    completedEnd = getValue(values, "position");
+                }
+            }
+        }
+
+        finally {
+            fc.close();
+        }
+    }
+
+
+    /**
+     * Writes the checkpoint to a temporary file, then replaces the checkpoint with it.
+     * @throws IOException If the checkpoint could not be written.
+     */
+    private void writeCheckpoint() throws IOException
+    {
+        StringBuffer sb = new StringBuffer();
+        sb.append("chunkSize=").append(chunkSize).append('\n');
+        sb.append("days=").append(days).append('\n');
+        sb.append("startDay=").append(startDay).append('\n');
+        sb.append("format=").append(format).append('\n');
+        sb.append("chunks=").append(completed).append('\n');
+        sb.append("position=").append(completedEnd).append('\n');
+
+        FileConnection fc = (FileConnection)Connector.open(output + CHECKPOINT + PARTIAL_SUFFIX);
+
+        try {
+            if ( !fc.exists() )
+                fc.create();
+
+            fc.truncate(0);
+            OutputStream out = fc.openOutputStream();
+
+            try {
+                out.write( sb.toString().getBytes() );
+            }
+
+            finally {
+                out.close();
+            }
+        }
+
+        finally {
+            fc.close();
+        }
+
+        fc = (FileConnection)Connector.open(output + CHECKPOINT);
+
+        try {
+            if ( fc.exists() )
+                fc.delete();
+        }
+
+        finally {
+            fc.close();
+        }
+
+        fc = (FileConnection)Connector.open(output + CHECKPOINT + PARTIAL_SUFFIX);
+
+        try {
+            fc.rename(CHECKPOINT);
+        }
+
+        finally {
+            fc.close();
+        }
+    }
+
+
+    /**
+     * Adds a complete line of the checkpoint (ie: days=365) to its values.
+     * @param values The values of the checkpoint.
+     * @param line The line.
+     */
+    private static void putValue(Hashtable values, String line)
+    {
+        int equals = line.indexOf('=');
+
+        if (equals > 0)
+            values.put( line.substring(0, equals), line.substring(equals+1).trim() );
+    }
+
+
+    /**
+     * Gets a value of the checkpoint.
+     * @param values The values of the checkpoint.
+     * @param key The name of the value.
+     * @return The value.
+     * @throws IOException If the value is missing or is not a number.
+     */
+    private static long getValue(Hashtable values, String key) throws IOException
+    {
+        String value = (String)values.get(key);
+
+        if (value == null)
+            throw new IOException("The checkpoint has no " + key);
+
+        long result;
+
+        try {
+            result = Long.parseLong(value);
+        }
+
+        catch (NumberFormatException ex)
+        {
+            throw new IOException("The checkpoint has a malformed " + key);
+        }
+
+        return result;
+    }
+
+
+    /**
+     * Skips the part of the input that was processed by an earlier run.
+     * @param in The input.
+     * @param bytes The number of bytes to skip.
+     * @throws IOException If the input is shorter than that.
+     */
+    private static void skip(InputStream in, long bytes) throws IOException
+    {
+        while (bytes > 0)
+        {
+            long skipped = in.skip(bytes);
+
+            if (skipped <= 0)
+                throw new IOException("The input is shorter than the checkpoint");
+
+            bytes -= skipped;
+        }
+    }
+
+
+    /**
+     * Runs a job from the command line with the bundled ephemeris table installed, printing the
+     * number of locations exported and how long it took.
+     * @param args The URL of the file of locations, the URL of the output directory, the first
+     * date (ie: 2026-01-01) and the number of days, optionally followed by the format (csv, json
+     * or fixed, csv by default), the number of locations in each chunk (10000 by default) and the
+     * number of workers (4 by default).
+     * @throws IOException If a file could not be read or written.
+     */
+    public static void main(String[] args) throws IOException
+    {
+        if (args.length < 4)
+            throw new IllegalArgumentException("Usage: BulkTimetableJob input-url output-url yyyy-mm-dd days [csv|json|fixed] [chunk-size] [threads]");
+
+        int format = TimetableExporter.CSV;
+        int chunkSize = 10000;
+        int threads = 4;
+
+        if (args.length > 4)
+        {
+            format = -1;
+
+            for (int i = 0; i < FORMAT_NAMES.length; i++)
+            {
+                if ( FORMAT_NAMES[i].equals( args[4] ) )
+                    format = i;
+            }
+        }
+
+        if (args.length > 5)
+            chunkSize = Integer.parseInt( args[5] );
+
+        if (args.length > 6)
+            threads = Integer.parseInt( args[6] );
+
+        BulkTimetableJob job = new BulkTimetableJob( args[0], args[1], EpochDay.parse( args[2] ), Integer.parseInt( args[3] ), format, chunkSize, threads );
+        Calculator.setEphemerisTable( EphemerisTableWriter.loadBundled() );
+        Trigonometry.setInstance( Trigonometry.createFast() );
+        long started = System.currentTimeMillis();
+        int locations = job.process();
+        long elapsed = System.currentTimeMillis()-started;
+
+        System.out.println(locations + " locations exported in " + elapsed + " ms");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,671 @@
+/*
+ * @(#)CalculatorBenchmark.java  1.0 2026-10-16
+ * @(#)CalculatorBenchmark.java  1.1 2026-10-16
+ * @(#)CalculatorBenchmark.java  1.2 2026-10-16
+ * @(#)CalculatorBenchmark.java  1.3 2026-10-16
+ *
+ * Copyright 2009 Exes Technologies. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   - Redistributions of source code must retain the above copyright
+ *     notice, this list of conditions and the following disclaimer.
+ *
+ *   - Redistributions in binary form must reproduce the above copyright
+ *     notice, this list of conditions and the following disclaimer in the
+ *     documentation and/or other materials provided with the distribution.
+ *
+ *   - Neither the name of Exes Technologies nor the names of its
+ *     contributors may be used to endorse or promote products derived
+ *     from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.rim.maxillion.model.calculator;
+
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Random;
+
+import net.rim.device.api.util.DateTimeUtilities;
+import net.rim.maxillion.model.calculator.utils.GeoParameters;
+import net.rim.maxillion.model.calculator.utils.SalatConstants;
+import net.rim.maxillion.model.calculator.utils.TimeCriticalEventNames;
+import net.rim.maxillion.model.calculator.utils.time.TimeFormatter;
+import net.rim.maxillion.model.calculator.utils.time.TimeTable;
+
+
+/**
+ * Measures the hot paths of the calculator so that a baseline can be recorded on the device
+ * before and after a change to the engine. Every benchmark runs a warm-up pass and then a number
+ * of timed passes over the same fixed inputs, so two runs on the same device are comparable.<br><br>
+ *
+ * For each benchmark the report gives the best and the mean time per operation over the timed
+ * passes, each of which lasts long enough for the clock to time it accurately, and the number
+ * of bytes allocated per operation. The allocation is taken from the drop in free memory over
+ * one more batch that starts right after a garbage collection. That batch is repeated if the
+ * collector runs during it anyway, and if it runs every time the allocation cannot be known and
+ * is reported as such.<br><br>
+ *
+ * The steady state of CalculationWorkspace.next() must not allocate anything, so its benchmark
+ * fails with an IllegalStateException if it measures any allocation per operation.<br><br>
+ *
+ * The report goes on with the scaling of the TimetableGenerator, which generates a year of
+ * timetables for a spread of locations on 1 to N threads. For each number of threads it gives
+ * the best time over the timed passes and the speedup over a single thread.<br><br>
+ *
+ * The report ends with the ScheduleCache at a tolerance of 30 seconds, which looks up a week of
+ * prayer times for subscribers scattered over a few metropolitan areas, starting from an empty
+ * cache on each pass, and compares it with calculating every subscriber directly. The cache is
+ * only worth having if it is the faster of the two, so the benchmark fails with an
+ * IllegalStateException if it is not. The number of cells that the cache ended up with is given
+ * next to its time. One more pass then compares every time looked up in the cache with the time
+ * calculated directly, and the benchmark also fails if a time is off by more than the tolerance.
+ *
+ * @author Ragaeeb Haq
+ * @version 1.00 2026-10-16 Initial submission.
+ * @version 1.10 2026-10-16 Added the polar benchmarks of a location that is prepared for every day and
+ * one that is kept.
+ * @version 1.20 2026-10-16 Added the scaling benchmark of the timetable generator from 1 to N threads.
+ * @version 1.30 2026-10-16 Added the benchmark of the steady state of a workspace, which fails if it
+ * allocates.
+ * @version 1.40 2026-10-16 Added the benchmark of the schedule cache against direct calculation, which
+ * fails if the cache is not faster.
+ * @version 1.50 2026-10-16 The schedule cache is now checked against direct calculation, which fails
+ * if a time is off by more than the tolerance and a minute.
+ * @version 1.60 2026-10-16 The schedule cache now fails its check if a time is off by more than the
+ * tolerance itself.
+ * @since MaxillionPrayers 3.0
+ */
+public final class CalculatorBenchmark
+{
+    /** The latitudes that Calculator.calculate() is measured at, one for each of its branches. */
+    private static final double[] LATITUDES = { 0.5, 45, 55, 70 };
+
+    /** The names of the benchmarks, indexed by their number. */
+    private static final String[] NAMES = {
+        "Calculator.calculate equatorial (0.5N)",
+        "Calculator.calculate mid-latitude (45N)",
+        "Calculator.calculate high latitude ratio (55N)",
+        "Calculator.calculate recalculation (70N)",
+        "PreparedLocation.calculateRange polar, new location (78N)",
+        "PreparedLocation.calculateRange polar, kept location (78N)",
+        "CalculationWorkspace.next steady state (45N)",
+        "SolarCalculatorFormulae.calculateCenturiesSince2000",
+        "SolarCalculatorFormulae.calculateSunMeanLongitude",
+        "SolarCalculatorFormulae.calculateSunMeanAnomaly",
+        "SolarCalculatorFormulae.calculateEarthEccentricity",
+        "SolarCalculatorFormulae.calculateEclipticObliquity",
+        "SolarCalculatorFormulae.calculateY",
+        "SolarCalculatorFormulae.calculateEquationOfTime",
+        "SolarCalculatorFormulae.calculateEuler",
+        "SolarCalculatorFormulae.calculateV",
+        "SolarCalculatorFormulae.calculateTheta",
+        "SolarCalculatorFormulae.getEquatorialCoordinates",
+        "SolarCalculatorFormulae.calculateNoonTime",
+        "SolarCalculatorFormulae.calculateCH",
+        "SolarCalculatorFormulae.calculateH",
+        "TimeFormatter.getTime",
+        "DaylightSavingsTime.getDaylightSavingsAdjustmentValue",
+        "CalendarConversion.calculateJulianEpoch" };
+
+    /** The number of the first benchmark that measures Calculator.calculate(). */
+    private static final int CALCULATE = 0;
+
+    /** The number of the first benchmark that measures a polar location, which is first prepared for every day and then kept. */
+    private static final int POLAR = CALCULATE+4;
+
+    /** The number of the benchmark that measures the following days of a workspace, which must not allocate. */
+    private static final int NEXT = POLAR+2;
+
+    /** The number of the first benchmark that measures an individual formula. */
+    private static final int FORMULAE = NEXT+1;
+
+    /** The number of the benchmark that measures TimeFormatter.getTime(). */
+    private static final int GET_TIME = FORMULAE+14;
+
+    /** The number of the benchmark that measures the daylight savings adjustment. */
+    private static final int DAYLIGHT_SAVINGS = GET_TIME+1;
+
+    /** The number of the benchmark that measures the Julian epoch conversion. */
+    private static final int JULIAN_EPOCH = DAYLIGHT_SAVINGS+1;
+
+    /** The polar location, whose problematic days are remembered once it has been kept (Longyearbyen). */
+    private static final GeoParameters POLAR_LOCATION = new GeoParameters(78.22, 15.65, 1);
+
+    /** The number of operations in each pass when none is specified. */
+    private static final int DEFAULT_ITERATIONS = 10000;
+
+    /** The greatest number of threads that the generator is scaled to when none is specified. */
+    private static final int DEFAULT_THREADS = 4;
+
+    /** The number of locations in each timetable generation of the scaling benchmark. */
+    private static final int SCALING_LOCATIONS = 64;
+
+    /** The number of days in each timetable generation of the scaling benchmark. */
+    private static final int SCALING_DAYS = 366;
+
+    /** The greatest difference (in seconds) allowed between the prayer times of a cell of the schedule cache benchmark. */
+    private static final int CACHE_TOLERANCE = 30;
+
+    /** The greatest number of cells kept by the schedule cache benchmark, enough for a week of every area. */
+    private static final int CACHE_CELLS = 16384;
+
+    /** The latitude, longitude and time zone of the centre of each metropolitan area of the schedule cache benchmark. */
+    private static final double[][] METROPOLITAN_AREAS = {
+        { 45.42, -75.70, -5 }, { 43.70, -79.40, -5 }, { 51.50, -0.13, 0 }, { 30.04, 31.24, 2 },
+        { 24.71, 46.68, 3 }, { 24.86, 67.00, 5 }, { -6.20, 106.80, 7 }, { -33.87, 151.20, 10 } };
+
+    /** The number of degrees that the subscribers are scattered by around the centre of their area (about 15km). */
+    private static final double METROPOLITAN_RADIUS = 0.15;
+
+    /** The number of subscribers looked up on each day of the schedule cache benchmark. */
+    private static final int SUBSCRIBERS = 16000;
+
+    /** The number of consecutive days looked up by the schedule cache benchmark. */
+    private static final int SUBSCRIBER_DAYS = 7;
+
+    /** The shortest time that a timed pass can last (in milliseconds). */
+    private static final long MIN_PASS_MILLIS = 200;
+
+    /** The number of timed passes of each benchmark. */
+    private static final int PASSES = 5;
+
+    /** The date that all the benchmarks start from (2010-04-27 12:00 UTC). */
+    private static final long START = 1272369600000L;
+
+    /** The calendar used by the benchmarks that need one. */
+    private Calendar calendar;
+
+    /** The date used by the benchmarks that need one. */
+    private Date date;
+
+    /** Holds the ecliptic coordinates converted by getEquatorialCoordinates(). */
+    private double[] coordinates;
+
+    /** The location used by each of the Calculator.calculate() benchmarks. */
+    private GeoParameters[] locations;
+
+    /** The polar location as kept by the second polar benchmark. */
+    private PreparedLocation polar;
+
+    /** Accumulates every result so that no benchmark can be optimized away. */
+    private double sink;
+
+    /** The workspace whose following days are calculated by the workspace benchmark. */
+    private CalculationWorkspace workspace;
+
+    /** The mid-latitude location calculated by the workspace benchmark. */
+    private PreparedLocation steady;
+
+    /** The locations generated by the scaling benchmark, spread from 63S to 63N. */
+    private PreparedLocation[] spread;
+
+    /** The timetables that the scaling benchmark generates into, reused by every pass. */
+    private TimeTable[] timetables;
+
+    /** The subscribers looked up by the schedule cache benchmark. */
+    private GeoParameters[] subscribers;
+
+    /** The prayer times that the schedule cache copies into. */
+    private int[] times;
+
+
+    /**
+     * Creates a benchmark with its fixed inputs.
+     */
+    public CalculatorBenchmark()
+    {
+        this.calendar = Calendar.getInstance();
+        this.date = new Date(START);
+        this.coordinates = new double[2];
+        this.locations = new GeoParameters[LATITUDES.length];
+
+        for (int i = 0; i < LATITUDES.length; i++)
+            locations[i] = new GeoParameters(LATITUDES[i], -75.76, -5);
+
+        this.polar = Calculator.getInstance().prepare(POLAR_LOCATION, SalatConstants.ISNA_METHOD);
+        this.steady = Calculator.getInstance().prepare(locations[1], SalatConstants.ISNA_METHOD);
+        this.workspace = new CalculationWorkspace();
+        this.spread = new PreparedLocation[SCALING_LOCATIONS];
+        this.timetables = new TimeTable[SCALING_LOCATIONS];
+
+        for (int i = 0; i < SCALING_LOCATIONS; i++)
+        {
+            double longitude = -180 + i*360.0/SCALING_LOCATIONS;
+            GeoParameters g = new GeoParameters( -63 + i*126.0/(SCALING_LOCATIONS-1), longitude, Math.floor(longitude/15 + 0.5) );
+
+            spread[i] = Calculator.getInstance().prepare(g, SalatConstants.ISNA_METHOD);
+            timetables[i] = new TimeTable(SCALING_DAYS);
+        }
+
+        Random random = new Random(SUBSCRIBERS); // the same subscribers on every run
+        this.subscribers = new GeoParameters[SUBSCRIBERS];
+        this.times = new int[TimeTable.EVENTS_PER_DAY];
+
+        for (int i = 0; i < SUBSCRIBERS; i++)
+        {
+            double[] area = METROPOLITAN_AREAS[i % METROPOLITAN_AREAS.length];
+            double latitude = area[0] + (random.nextDouble()*2-1)*METROPOLITAN_RADIUS;
+            double longitude = area[1] + (random.nextDouble()*2-1)*METROPOLITAN_RADIUS;
+
+            subscribers[i] = new GeoParameters(latitude, longitude, area[2]);
+        }
+    }
+
+
+    /**
+     * Runs every benchmark and prints the report to the standard output, which is the console
+     * of the simulator or the event log of the device.
+     * @param args The number of operations in each pass may be given as the first argument,
+     * and the greatest number of threads to scale the generator to as the second.
+     */
+    public static void main(String[] args)
+    {
+        int iterations = DEFAULT_ITERATIONS;
+        int threads = DEFAULT_THREADS;
+
+        if (args.length > 0)
+            iterations = Integer.parseInt( args[0] );
+
+        if (args.length > 1)
+            threads = Integer.parseInt( args[1] );
+
+        CalculatorBenchmark benchmark = new CalculatorBenchmark();
+        System.out.print( benchmark.run(iterations) );
+        System.out.print( benchmark.runScaling(threads) );
+        System.out.print( benchmark.runScheduleCache() );
+    }
+
+
+    /**
+     * Runs every benchmark.
+     * @param iterations The number of operations in each pass of a benchmark.
+     * @return The report, with one line for each benchmark.
+     */
+    public String run(int iterations)
+    {
+        StringBuffer report = new StringBuffer();
+
+        for (int i = 0; i < NAMES.length; i++)
+            run(i, iterations, report);
+
+        report.append("sink: ").append(sink).append('\n');
+
+        return report.toString();
+    }
+
+
+    /**
+     * Runs the scaling benchmark of the timetable generator.
+     * @param maxThreads The greatest number of threads to generate on.
+     * @return The report, with one line for each number of threads.
+     */
+    public String runScaling(int maxThreads)
+    {
+        StringBuffer report = new StringBuffer();
+        long single = 0;
+
+        for (int threads = 1; threads <= maxThreads; threads++)
+        {
+            TimetableGenerator generator = new TimetableGenerator(threads);
+            long best = Long.MAX_VALUE;
+
+            generate(generator); // warm-up
+
+            for (int pass = 0; pass < PASSES; pass++)
+                best = Math.min( best, generate(generator) );
+
+            if (threads == 1)
+                single = best;
+
+            long speedup = best > 0 ? single*100/best : 0; // in hundredths
+
+            report.append("TimetableGenerator ").append(SCALING_LOCATIONS).append(" locations x ");
+            report.append(SCALING_DAYS).append(" days, ").append(threads).append(threads == 1 ? " thread" : " threads");
+            report.append(": best ").append(best).append(" ms, speedup ").append(speedup/100).append('.');
+            report.append( speedup % 100 < 10 ? "0" : "" ).append(speedup % 100).append('\n');
+        }
+
+        return report.toString();
+    }
+
+
+    /**
+     * Runs the benchmark of the schedule cache against calculating every subscriber directly,
+     * and then checks the times looked up in the cache against the times calculated directly.
+     * @return The report, with one line for the comparison and one for the check.
+     * @throws IllegalStateException If the cache is not faster than calculating directly, or a
+     * time looked up in it is off by more than CACHE_TOLERANCE.
+     */
+    public String runScheduleCache()
+    {
+        StringBuffer report = new StringBuffer();
+        long direct = Long.MAX_VALUE;
+        long cached = Long.MAX_VALUE;
+        int cells = 0;
+
+        lookUp(null); // warm-up
+        lookUp( new ScheduleCache(CACHE_TOLERANCE, CACHE_CELLS) );
+
+        for (int pass = 0; pass < PASSES; pass++)
+        {
+            ScheduleCache cache = new ScheduleCache(CACHE_TOLERANCE, CACHE_CELLS);
+
+            direct = Math.min( direct, lookUp(null) );
+            cached = Math.min( cached, lookUp(cache) );
+            cells = cache.size();
+        }
+
+        report.append("ScheduleCache ").append(CACHE_TOLERANCE).append(" s, ").append(SUBSCRIBERS).append(" subscribers x ");
+        report.append(SUBSCRIBER_DAYS).append(" days: best ").append(cached).append(" ms (").append(cells).append(" cells), direct best ");
+        report.append(direct).append(" ms\n");
+
+        if (cached >= direct)
+            throw new IllegalStateException("ScheduleCache took " + cached + " ms, no faster than calculating directly in " + direct + " ms");
+
+        ScheduleCache cache = new ScheduleCache(CACHE_TOLERANCE, CACHE_CELLS);
+        int worstError = 0; // in seconds
+        int worstEvent = 0;
+        int compared = 0;
+
+        for (int day = 0; day < SUBSCRIBER_DAYS; day++)
+        {
+            date.setTime( START + day*DateTimeUtilities.ONEDAY );
+
+            for (int i = 0; i < SUBSCRIBERS; i++)
+            {
+                cache.get( subscribers[i], date, times );
+                int[] expected = workspace.calculate( subscribers[i], date );
+
+                for (int event = 0; event < TimeTable.EVENTS_PER_DAY; event++)
+                {
+                    int error = Math.abs( times[event]-expected[event] );
+                    error = Math.min( error, TimeFormatter.TOTAL_SECONDS_IN_A_DAY-error ); // across midnight
+
+                    if (error > worstError)
+                    {
+                        worstError = error;
+                        worstEvent = event;
+                    }
+
+                    compared++;
+                }
+            }
+        }
+
+        String event = TimeCriticalEventNames.getInstance().getName(worstEvent);
+        report.append("ScheduleCache ").append(CACHE_TOLERANCE).append(" s accuracy: ").append(compared).append(" times compared (");
+        report.append( cache.size() ).append(" cells), worst error ").append(worstError).append(" s (").append(event).append("), allowed ");
+        report.append(CACHE_TOLERANCE).append(" s\n");
+
+        if (worstError > CACHE_TOLERANCE)
+            throw new IllegalStateException("ScheduleCache gave a " + event + " time " + worstError + " s away from the calculated one, more than " + CACHE_TOLERANCE + " s");
+
+        return report.toString();
+    }
+
+
+    /**
+     * Looks up the prayer times of every subscriber for every day of the schedule cache benchmark.
+     * @param cache The cache to look the prayer times up in, or null to calculate them directly.
+     * @return The number of milliseconds that the lookups took.
+     */
+    private long lookUp(ScheduleCache cache)
+    {
+        long start = System.currentTimeMillis();
+        double sum = 0;
+
+        for (int day = 0; day < SUBSCRIBER_DAYS; day++)
+        {
+            date.setTime( START + day*DateTimeUtilities.ONEDAY );
+
+            for (int i = 0; i < SUBSCRIBERS; i++)
+            {
+                if (cache == null)
+                    sum += workspace.calculate( subscribers[i], date )[0];
+
+                else
+                {
+                    cache.get( subscribers[i], date, times );
+                    sum += times[0];
+                }
+            }
+        }
+
+        long elapsed = System.currentTimeMillis()-start;
+        sink += sum;
+
+        return elapsed;
+    }
+
+
+    /**
+     * Generates the timetables of the scaling benchmark once.
+     * @param generator The generator to use.
+     * @return The number of milliseconds that the generation took.
+     */
+    private long generate(TimetableGenerator generator)
+    {
+        date.setTime(START);
+        long start = System.currentTimeMillis();
+        generator.generate(spread, date, timetables);
+        long elapsed = System.currentTimeMillis()-start;
+
+        for (int i = 0; i < SCALING_LOCATIONS; i++)
+            sink += timetables[i].getSeconds(SCALING_DAYS-1, 0);
+
+        return elapsed;
+    }
+
+
+    /**
+     * Runs a benchmark and appends its line to the report.
+     * @param benchmark The number of the benchmark.
+     * @param iterations The number of operations in each batch. A pass repeats batches until it
+     * has lasted long enough to be timed accurately.
+     * @param report The report to append to.
+     */
+    private void run(int benchmark, int iterations, StringBuffer report)
+    {
+        Runtime runtime = Runtime.getRuntime();
+
+        for (long warmUp = 0; warmUp < MIN_PASS_MILLIS; )
+        {
+            reset(benchmark);
+            warmUp += measure(benchmark, iterations);
+        }
+
+        long best = Long.MAX_VALUE;
+        long total = 0;
+
+        for (int pass = 0; pass < PASSES; pass++)
+        {
+            long elapsed = 0;
+            long operations = 0;
+
+            while (elapsed < MIN_PASS_MILLIS)
+            {
+                reset(benchmark);
+                elapsed += measure(benchmark, iterations);
+                operations += iterations;
+            }
+
+            long nanos = elapsed*1000000/operations;
+            best = Math.min(best, nanos);
+            total += nanos;
+        }
+
+        long allocated = -1;
+
+        for (int attempt = 0; (attempt < PASSES) && (allocated < 0); attempt++)
+        {
+            reset(benchmark);
+            System.gc();
+            long free = runtime.freeMemory();
+            measure(benchmark, iterations);
+            allocated = free-runtime.freeMemory(); // negative if the collector ran anyway
+        }
+
+        if ( (benchmark == NEXT) && ( (allocated < 0) || (allocated/iterations > 0) ) )
+            throw new IllegalStateException(NAMES[benchmark] + " allocated " + (allocated < 0 ? "an unknown number of" : String.valueOf(allocated/iterations) ) + " B/op");
+
+        report.append(NAMES[benchmark]).append(": best ").append(best).append(" ns/op, mean ");
+        report.append(total/PASSES).append(" ns/op, ");
+
+        if (allocated >= 0)
+            report.append( allocated/iterations ).append(" B/op\n");
+
+        else
+            report.append("allocation unknown (collected during the pass)\n");
+    }
+
+
+    /**
+     * Runs one pass of a benchmark.
+     * @param benchmark The number of the benchmark.
+     * @param iterations The number of operations to run.
+     * @return The number of milliseconds that the pass took.
+     */
+    private long measure(int benchmark, int iterations)
+    {
+        Calculator calculator = Calculator.getInstance();
+        double sum = 0;
+        long start = System.currentTimeMillis();
+
+        if (benchmark < POLAR)
+        {
+            GeoParameters g = locations[benchmark-CALCULATE];
+
+            for (int i = 0; i < iterations; i++)
+            {
+                date.setTime( START + (i % 366)*DateTimeUtilities.ONEDAY );
+                sum += calculator.calculate(g, date)[0].getTime();
+            }
+        }
+
+        else if (benchmark < NEXT)
+        {
+            boolean kept = benchmark > POLAR;
+
+            for (int i = 0; i < iterations; i++)
+            {
+                PreparedLocation p = kept ? polar : calculator.prepare(POLAR_LOCATION, SalatConstants.ISNA_METHOD);
+
+                date.setTime( START + (i % 366)*DateTimeUtilities.ONEDAY );
+                sum += p.calculateRange(date, 1).getSeconds(0, 0);
+            }
+        }
+
+        else if (benchmark == NEXT)
+        {
+            for (int i = 0; i < iterations; i++)
+                sum += workspace.next()[0];
+        }
+
+        else if (benchmark < GET_TIME)
+            sum = measureFormula(benchmark-FORMULAE, iterations);
+
+        else if (benchmark == GET_TIME)
+        {
+            for (int i = 0; i < iterations; i++)
+                sum += TimeFormatter.getTime( (i % 1440)/60.0, 0, calendar ).getTime();
+        }
+
+        else if (benchmark == DAYLIGHT_SAVINGS)
+        {
+            for (int i = 0; i < iterations; i++)
+            {
+                date.setTime( START + (i % 366)*DateTimeUtilities.ONEDAY );
+                sum += DaylightSavingsTime.getDaylightSavingsAdjustmentValue(date);
+            }
+        }
+
+        else
+        {
+            for (int i = 0; i < iterations; i++)
+            {
+                date.setTime( START + (i % 366)*DateTimeUtilities.ONEDAY );
+                calendar.setTime(date);
+                sum += CalendarConversion.calculateJulianEpoch(calendar);
+            }
+        }
+
+        long elapsed = System.currentTimeMillis()-start;
+        sink += sum;
+
+        return elapsed;
+    }
+
+
+    /**
+     * Brings a benchmark back to its first day before a batch, so that the batch measures only
+     * the steady state. Only the workspace benchmark needs this, since it carries on from the
+     * day that its last batch reached.
+     * @param benchmark The number of the benchmark.
+     */
+    private void reset(int benchmark)
+    {
+        if (benchmark == NEXT)
+        {
+            date.setTime(START);
+            workspace.calculate(steady, date);
+        }
+    }
+
+
+    /**
+     * Runs one pass of a benchmark of an individual formula. The inputs are typical values
+     * that vary slightly with each operation.
+     * @param formula The number of the formula, counting from calculateCenturiesSince2000().
+     * @param iterations The number of operations to run.
+     * @return The sum of the results.
+     */
+    private double measureFormula(int formula, int iterations)
+    {
+        double sum = 0;
+
+        for (int i = 0; i < iterations; i++)
+        {
+            double x = i*1E-6;
+
+            switch (formula)
+            {
+                case 0: sum += SolarCalculatorFormulae.calculateCenturiesSince2000(2455304+x, 4); break;
+                case 1: sum += SolarCalculatorFormulae.calculateSunMeanLongitude(0.1029+x); break;
+                case 2: sum += SolarCalculatorFormulae.calculateSunMeanAnomaly(0.1029+x); break;
+                case 3: sum += SolarCalculatorFormulae.calculateEarthEccentricity(0.1029+x); break;
+                case 4: sum += SolarCalculatorFormulae.calculateEclipticObliquity(0.1029+x); break;
+                case 5: sum += SolarCalculatorFormulae.calculateY(0.4093+x); break;
+                case 6: sum += SolarCalculatorFormulae.calculateEquationOfTime(0.0431, 0.4433+x, 1.8152, 0.0167); break;
+                case 7: sum += SolarCalculatorFormulae.calculateEuler(1.8152+x, 0.0167); break;
+                case 8: sum += SolarCalculatorFormulae.calculateV(0.0167, 1.831+x); break;
+                case 9: sum += SolarCalculatorFormulae.calculateTheta(0.4433+x, 1.8475, 1.8152); break;
+
+                case 10:
+                    coordinates[0] = 0;
+                    coordinates[1] = 0.4756+x;
+                    sum += SolarCalculatorFormulae.getEquatorialCoordinates(coordinates)[0];
+                    break;
+
+                case 11: sum += SolarCalculatorFormulae.calculateNoonTime(-1.3222+x, 0.0073, 4); break;
+                case 12: sum += SolarCalculatorFormulae.calculateCH(0.7919, 0.183+x); break;
+                default: sum += SolarCalculatorFormulae.calculateH(-0.2+x); break;
+            }
+        }
+
+        return sum;
+    }
+}
\ No newline at end of file
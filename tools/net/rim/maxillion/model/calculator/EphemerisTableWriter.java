@@ -0,0 +1,298 @@
+/*
+ * @(#)EphemerisTableWriter.java  1.0 2026-10-16
+ *
+ * Copyright 2009 Exes Technologies. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   - Redistributions of source code must retain the above copyright
+ *     notice, this list of conditions and the following disclaimer.
+ *
+ *   - Redistributions in binary form must reproduce the above copyright
+ *     notice, this list of conditions and the following disclaimer in the
+ *     documentation and/or other materials provided with the distribution.
+ *
+ *   - Neither the name of Exes Technologies nor the names of its
+ *     contributors may be used to endorse or promote products derived
+ *     from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.rim.maxillion.model.calculator;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import javax.microedition.io.Connector;
+import javax.microedition.io.file.FileConnection;
+
+
+/**
+ * Writes the ephemeris table and checks what looking the sun up in it costs in accuracy. Every
+ * day covered by the table is looked up at every quarter hour of time zone shift from -16 to +12
+ * (the shift being the negated offset of the zone, daylight savings included) and compared with the position calculated by the solar formulae, and the largest error of the
+ * declination, the right ascension and the equation of time is reported along with where it was
+ * found.<br><br>
+ *
+ * The table for EphemerisTable.FIRST_YEAR to EphemerisTable.LAST_YEAR is bundled with the tools
+ * as ephemeris-table.bin and is installed by the bulk timetable job. The errors must stay within
+ * the bounds documented by EphemerisTable, so main() fails with an IllegalStateException rather
+ * than write or accept a table that does not.
+ *
+ * @author Ragaeeb Haq
+ * @version 1.00 2026-10-16 Initial submission.
+ * @since MaxillionPrayers 3.0
+ */
+public final class EphemerisTableWriter
+{
+    /** The name of the bundled table. */
+    public static final String BUNDLED_RESOURCE = "ephemeris-table.bin";
+
+    /** The largest error allowed in the declination and the right ascension (in degrees). */
+    public static final double MAX_ANGLE_ERROR = 0.000001;
+
+    /** The largest error allowed in the equation of time (in seconds). */
+    public static final double MAX_TIME_ERROR = 0.0001;
+
+    /** The number of time zone shifts compared in each hour. */
+    private static final int SHIFTS_IN_AN_HOUR = 4;
+
+    /** The earliest time zone shift compared, for UTC+14 with two hours of daylight savings (in hours). */
+    private static final int FIRST_SHIFT = -16;
+
+    /** The latest time zone shift compared, for UTC-12 (in hours). */
+    private static final int LAST_SHIFT = 12;
+
+    /** The number of seconds in an hour. */
+    private static final int SECONDS_IN_AN_HOUR = 3600;
+
+    /** The number of positions compared. */
+    private int compared;
+
+    /** The largest error in the declination (in degrees). */
+    private double declinationError;
+
+    /** The largest error in the equation of time (in seconds). */
+    private double timeError;
+
+    /** The largest error in the right ascension (in degrees). */
+    private double rightAscensionError;
+
+    /** Describes where the largest error of the declination, the equation of time and the right ascension was found. */
+    private String[] worst;
+
+
+    /**
+     * Creates a comparison that has not compared anything yet.
+     */
+    private EphemerisTableWriter()
+    {
+        this.worst = new String[3];
+    }
+
+
+    /**
+     * Compares the positions of the sun looked up in a table with the calculated ones over every
+     * day of the specified years.
+     * @param table The table to look the positions up in.
+     * @param firstYear The first year to compare.
+     * @param lastYear The last year to compare.
+     * @return The result of the comparison.
+     * @throws IllegalArgumentException If the table does not cover every day of the years.
+     */
+    public static EphemerisTableWriter compare(EphemerisTable table, int firstYear, int lastYear)
+    {
+        EphemerisTableWriter result = new EphemerisTableWriter();
+        double first = CalendarConversion.calculateJulianEpoch(firstYear, 1, 1);
+        double end = CalendarConversion.calculateJulianEpoch(lastYear+1, 1, 1);
+        Ephemeris calculated = new Ephemeris();
+        Ephemeris looked = new Ephemeris();
+
+        for (double julianDate = first; julianDate < end; julianDate++)
+        {
+            for (int shift = FIRST_SHIFT*SHIFTS_IN_AN_HOUR; shift <= LAST_SHIFT*SHIFTS_IN_AN_HOUR; shift++)
+            {
+                double timeShift = (double)shift/SHIFTS_IN_AN_HOUR;
+
+                if ( !table.get(julianDate, timeShift, looked) )
+                    throw new IllegalArgumentException("The table does not cover Julian date " + julianDate + " at shift " + timeShift);
+
+                calculated.calculate(julianDate, timeShift);
+
+                double rightAscension = Math.abs( looked.getRightAscension()-calculated.getRightAscension() );
+                rightAscension = Math.min( rightAscension, 2*Math.PI-rightAscension ); // the right ascension wraps around between 2 pi and 0
+
+                result.record( 0, Math.toDegrees( Math.abs( looked.getDeclination()-calculated.getDeclination() ) ), julianDate, timeShift );
+                result.record( 1, Math.abs( looked.getHours()-calculated.getHours() )*SECONDS_IN_AN_HOUR, julianDate, timeShift );
+                result.record( 2, Math.toDegrees(rightAscension), julianDate, timeShift );
+                result.compared++;
+            }
+        }
+
+        return result;
+    }
+
+
+    /**
+     * Records an error if it is the largest one found so far for its value.
+     * @param value 0 for the declination, 1 for the equation of time and 2 for the right ascension.
+     * @param error The error.
+     * @param julianDate The Julian date at which it was found.
+     * @param timeShift The time zone shift at which it was found.
+     */
+    private void record(int value, double error, double julianDate, double timeShift)
+    {
+        double max = (value == 0) ? declinationError : (value == 1) ? timeError : rightAscensionError;
+
+        if (error > max)
+        {
+            if (value == 0)
+                declinationError = error;
+
+            else if (value == 1)
+                timeError = error;
+
+            else
+                rightAscensionError = error;
+
+            worst[value] = "Julian date " + julianDate + ", shift " + timeShift;
+        }
+    }
+
+
+    /**
+     * Determines whether every looked up position stayed within the bounds documented by
+     * EphemerisTable.
+     * @return true If every error is within MAX_ANGLE_ERROR or MAX_TIME_ERROR, false otherwise.
+     */
+    public boolean matches()
+    {
+        return (declinationError <= MAX_ANGLE_ERROR) && (rightAscensionError <= MAX_ANGLE_ERROR) && (timeError <= MAX_TIME_ERROR);
+    }
+
+
+    /**
+     * Loads the table bundled with the tools.
+     * @return The bundled table.
+     * @throws IOException If the bundled table is missing or could not be read.
+     */
+    public static EphemerisTable loadBundled() throws IOException
+    {
+        InputStream in = EphemerisTableWriter.class.getResourceAsStream(BUNDLED_RESOURCE);
+
+        if (in == null)
+            throw new IOException("Missing " + BUNDLED_RESOURCE);
+
+        try {
+            return EphemerisTable.load(in);
+        }
+
+        finally {
+            in.close();
+        }
+    }
+
+
+    /* (non-Javadoc)
+     * @see java.lang.Object#toString()
+     */
+    public String toString()
+    {
+        StringBuffer report = new StringBuffer();
+        report.append("Ephemeris table: ").append(compared).append(" positions compared\n");
+        report.append("Declination: max error ").append(declinationError).append(" degrees");
+        append(report, 0);
+        report.append("Equation of time: max error ").append(timeError).append(" seconds");
+        append(report, 1);
+        report.append("Right ascension: max error ").append(rightAscensionError).append(" degrees");
+        append(report, 2);
+        report.append( matches() ? "Within " : "EXCEEDS " ).append(MAX_ANGLE_ERROR).append(" degrees and ");
+        report.append(MAX_TIME_ERROR).append(" seconds\n");
+
+        return report.toString();
+    }
+
+
+    /**
+     * Appends where the largest error of a value was found to a report.
+     * @param report The report to append to.
+     * @param value 0 for the declination, 1 for the equation of time and 2 for the right ascension.
+     */
+    private void append(StringBuffer report, int value)
+    {
+        if (worst[value] != null)
+            report.append(" (").append(worst[value]).append(')');
+
+        report.append('\n');
+    }
+
+
+    /**
+     * Checks the bundled table, or writes the table to the file at the URL given as the first
+     * argument and checks it, printing the report to the standard output. The file is only
+     * written if the table is within the bounds.
+     * @param args Nothing, or the URL of the file to write (for example
+     * file:///SDCard/ephemeris-table.bin) optionally followed by the first and the last year
+     * (EphemerisTable.FIRST_YEAR and EphemerisTable.LAST_YEAR by default).
+     * @throws IOException If the table could not be read or written.
+     * @throws IllegalStateException If a looked up position is not within the bounds.
+     */
+    public static void main(String[] args) throws IOException
+    {
+        int firstYear = (args.length > 1) ? Integer.parseInt( args[1] ) : EphemerisTable.FIRST_YEAR;
+        int lastYear = (args.length > 2) ? Integer.parseInt( args[2] ) : EphemerisTable.LAST_YEAR;
+        EphemerisTable table;
+        byte[] written = null;
+
+        if (args.length == 0)
+            table = loadBundled();
+
+        else
+        {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            EphemerisTable.write(out, firstYear, lastYear);
+            written = out.toByteArray();
+            table = EphemerisTable.load( new ByteArrayInputStream(written) ); // check what load() gives back, not what was calculated
+        }
+
+        EphemerisTableWriter accuracy = compare(table, firstYear, lastYear);
+        System.out.print(accuracy);
+
+        if ( !accuracy.matches() )
+            throw new IllegalStateException("The ephemeris table is not within " + MAX_ANGLE_ERROR + " degrees and " + MAX_TIME_ERROR + " seconds of the formulae");
+
+        if (written != null)
+        {
+            FileConnection fc = (FileConnection)Connector.open( args[0] );
+
+            try {
+                if ( !fc.exists() )
+                    fc.create();
+
+                fc.truncate(0);
+                OutputStream out = fc.openOutputStream();
+                out.write(written);
+                out.close();
+            }
+
+            finally {
+                fc.close();
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,177 @@
+/*
+ * @(#)HorizonHeights.java  1.0 2026-10-16
+ *
+ * Copyright 2009 Exes Technologies. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   - Redistributions of source code must retain the above copyright
+ *     notice, this list of conditions and the following disclaimer.
+ *
+ *   - Redistributions in binary form must reproduce the above copyright
+ *     notice, this list of conditions and the following disclaimer in the
+ *     documentation and/or other materials provided with the distribution.
+ *
+ *   - Neither the name of Exes Technologies nor the names of its
+ *     contributors may be used to endorse or promote products derived
+ *     from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.rim.maxillion.model.calculator;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import net.rim.maxillion.model.calculator.utils.ElevationModel;
+import net.rim.maxillion.model.calculator.utils.GeoParameters;
+
+
+/**
+ * Guards ElevationModel.withHorizonHeights() against finding horizons that are not there. A
+ * single SRTM3 tile, N45W076, is made up in memory with known ground, and the horizon heights
+ * found for sites on it are compared with the heights that the ground gives them:<br><br>
+ *
+ * 1. A site on a 500 m plateau with a 200 m valley 10 km to the west and a 100 m plain 31 km
+ * to the east, just beyond HORIZON_DISTANCE, is 300 m above its western horizon and 0 m above
+ * its eastern one.<br>
+ * 2. A site near the east edge of the tile looks into N45W075, which is not installed. That
+ * ground is not known, so the site is 0 m above both horizons, unless the model is told that
+ * missing tiles are ocean, in which case it is 500 m above its eastern horizon.<br>
+ * 3. A site on N44W076, which is not installed, is left unchanged.<br><br>
+ *
+ * main() fails with an IllegalStateException at the first site whose heights differ.
+ *
+ * @author Ragaeeb Haq
+ * @version 1.00 2026-10-16 Initial submission.
+ * @since MaxillionPrayers 3.0
+ */
+public final class HorizonHeights extends ElevationModel
+{
+    /** The name of the only tile that is installed. */
+    private static final String TILE = "N45W076.hgt";
+
+    /** The elevation of the plateau that the tile is made of (in meters). */
+    private static final int PLATEAU = 500;
+
+    /** The elevation of the valley to the west of the plateau site (in meters). */
+    private static final int VALLEY = 200;
+
+    /** The elevation of the plain to the east of the plateau site (in meters). */
+    private static final int PLAIN = 100;
+
+    /** The longitudes between which the valley lies (in degrees). */
+    private static final double[] VALLEY_LONGITUDES = { -75.95, -75.90 };
+
+    /** The longitudes between which the plain lies (in degrees). */
+    private static final double[] PLAIN_LONGITUDES = { -75.405, -75.395 };
+
+    /** The contents of the installed tile. */
+    private final byte[] tile;
+
+
+    /**
+     * Creates a model that only has the made up tile installed.
+     * @param missingIsOcean true if missing tiles are ocean, false if they have no data.
+     */
+    private HorizonHeights(boolean missingIsOcean)
+    {
+        super("", SRTM3_SAMPLES, missingIsOcean);
+        this.tile = createTile();
+    }
+
+
+    /* (non-Javadoc)
+     * @see net.rim.maxillion.model.calculator.utils.ElevationModel#openTile(java.lang.String)
+     */
+    protected InputStream openTile(String name)
+    {
+        return name.equals(TILE) ? new ByteArrayInputStream(tile) : null;
+    }
+
+
+    /**
+     * Makes up the tile: a plateau with a valley and a plain running north to south across it.
+     * @return The contents of the tile.
+     */
+    private static byte[] createTile()
+    {
+        byte[] result = new byte[SRTM3_SAMPLES*SRTM3_SAMPLES*2];
+
+        for (int column = 0; column < SRTM3_SAMPLES; column++)
+        {
+            double longitude = -76 + (double)column/(SRTM3_SAMPLES-1);
+            int elevation = PLATEAU;
+
+            if ( (longitude >= VALLEY_LONGITUDES[0]) && (longitude <= VALLEY_LONGITUDES[1]) )
+                elevation = VALLEY;
+
+            else if ( (longitude >= PLAIN_LONGITUDES[0]) && (longitude <= PLAIN_LONGITUDES[1]) )
+                elevation = PLAIN;
+
+            for (int row = 0; row < SRTM3_SAMPLES; row++)
+            {
+                int offset = (row*SRTM3_SAMPLES + column)*2;
+                result[offset] = (byte)(elevation >> 8);
+                result[offset+1] = (byte)elevation;
+            }
+        }
+
+        return result;
+    }
+
+
+    /**
+     * Checks the horizon heights found for a site.
+     * @param model The model to look the heights up from.
+     * @param latitude The latitude of the site in degrees.
+     * @param longitude The longitude of the site in degrees.
+     * @param western The expected height above the western horizon (in meters).
+     * @param eastern The expected height above the eastern horizon (in meters).
+     * @return The report of the site.
+     * @throws IOException If the tile could not be read.
+     * @throws IllegalStateException If the heights found are not the expected ones.
+     */
+    private static String check(ElevationModel model, double latitude, double longitude, double western, double eastern) throws IOException
+    {
+        GeoParameters g = model.withHorizonHeights( new GeoParameters(latitude, longitude, -5) );
+        String result = "(" + latitude + ", " + longitude + "): " + g.getWesternHeightDifference() + " W, " + g.getEasternHeightDifference() + " E";
+
+        if ( (g.getWesternHeightDifference() != western) || (g.getEasternHeightDifference() != eastern) )
+            throw new IllegalStateException(result + ", expected " + western + " W, " + eastern + " E");
+
+        return result + "\n";
+    }
+
+
+    /**
+     * Checks the horizon heights of every site and prints the report to the standard output.
+     * @param args Not used.
+     * @throws IOException If the tile could not be read.
+     * @throws IllegalStateException If the heights of a site are not the expected ones.
+     */
+    public static void main(String[] args) throws IOException
+    {
+        ElevationModel model = new HorizonHeights(false);
+        ElevationModel ocean = new HorizonHeights(true);
+
+        System.out.print( check(model, 45.5, -75.8, PLATEAU-VALLEY, 0) );
+        System.out.print( check(model, 45.5, -75.005, 0, 0) );
+        System.out.print( check(ocean, 45.5, -75.005, 0, PLATEAU) );
+        System.out.print( check(model, 44.5, -75.3, 0, 0) );
+        System.out.print( check(ocean, 44.5, -75.3, 0, 0) );
+    }
+}
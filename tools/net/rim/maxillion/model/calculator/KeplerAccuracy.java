@@ -0,0 +1,204 @@
+/*
+ * @(#)KeplerAccuracy.java  1.0 2026-10-16
+ *
+ * Copyright 2009 Exes Technologies. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   - Redistributions of source code must retain the above copyright
+ *     notice, this list of conditions and the following disclaimer.
+ *
+ *   - Redistributions in binary form must reproduce the above copyright
+ *     notice, this list of conditions and the following disclaimer in the
+ *     documentation and/or other materials provided with the distribution.
+ *
+ *   - Neither the name of Exes Technologies nor the names of its
+ *     contributors may be used to endorse or promote products derived
+ *     from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.rim.maxillion.model.calculator;
+
+
+/**
+ * Guards SolarCalculatorFormulae.calculateEuler() against losing accuracy. Kepler's equation used
+ * to be solved by iterating until the correction fell under 1E-9, and is now solved in a fixed
+ * number of steps. This compares the two for the sun mean anomaly and Earth eccentricity of every
+ * day from EphemerisTable.FIRST_YEAR to EphemerisTable.LAST_YEAR, at every quarter hour of time
+ * zone shift from -12 to +14, and reports the largest difference found and where it was found.<br><br>
+ *
+ * The difference must stay within MAX_DIFFERENCE, which is far below anything that shows in a
+ * prayer time but far above what the fixed steps give. Dropping a step or getting a term of the
+ * series wrong exceeds it by several orders of magnitude, so main() fails with an
+ * IllegalStateException when that happens.
+ *
+ * @author Ragaeeb Haq
+ * @version 1.00 2026-10-16 Initial submission.
+ * @since MaxillionPrayers 3.0
+ */
+public final class KeplerAccuracy
+{
+    /** The largest difference allowed from the iterated solution (in radians). */
+    public static final double MAX_DIFFERENCE = 1E-12;
+
+    /** The correction under which the iterated solution stops, as it always has. */
+    private static final double CONVERGENCE = 1e-9;
+
+    /** The number of time zone shifts compared in each hour. */
+    private static final int SHIFTS_IN_AN_HOUR = 4;
+
+    /** The earliest time zone shift compared (in hours). */
+    private static final int FIRST_SHIFT = -12;
+
+    /** The latest time zone shift compared (in hours). */
+    private static final int LAST_SHIFT = 14;
+
+    /** The largest difference found so far (in radians). */
+    private double maxDifference;
+
+    /** The Julian date at which the largest difference was found. */
+    private double worstJulianDate;
+
+    /** The time zone shift at which the largest difference was found. */
+    private double worstShift;
+
+    /** The number of solutions compared. */
+    private int compared;
+
+
+    /**
+     * Creates a comparison that has not compared anything yet.
+     */
+    private KeplerAccuracy()
+    {
+        super();
+    }
+
+
+    /**
+     * Compares the two solutions of Kepler's equation over every day of the specified years.
+     * @param firstYear The first year to compare.
+     * @param lastYear The last year to compare.
+     * @return The result of the comparison.
+     */
+    public static KeplerAccuracy compare(int firstYear, int lastYear)
+    {
+        KeplerAccuracy result = new KeplerAccuracy();
+        double first = CalendarConversion.calculateJulianEpoch(firstYear, 1, 1);
+        double end = CalendarConversion.calculateJulianEpoch(lastYear+1, 1, 1);
+
+        for (double julianDate = first; julianDate < end; julianDate++)
+        {
+            for (int shift = FIRST_SHIFT*SHIFTS_IN_AN_HOUR; shift <= LAST_SHIFT*SHIFTS_IN_AN_HOUR; shift++)
+            {
+                double timeShift = (double)shift/SHIFTS_IN_AN_HOUR;
+                double T = SolarCalculatorFormulae.calculateCenturiesSince2000(julianDate, timeShift);
+                double M = SolarCalculatorFormulae.calculateSunMeanAnomaly(T);
+                double earthEccentricity = SolarCalculatorFormulae.calculateEarthEccentricity(T);
+                double difference = Math.abs( SolarCalculatorFormulae.calculateEuler(M, earthEccentricity) - iterate(M, earthEccentricity) );
+
+                if (difference > result.maxDifference)
+                {
+                    result.maxDifference = difference;
+                    result.worstJulianDate = julianDate;
+                    result.worstShift = timeShift;
+                }
+
+                result.compared++;
+            }
+        }
+
+        return result;
+    }
+
+
+    /**
+     * Gets the largest difference found between the two solutions.
+     * @return The largest difference (in radians).
+     */
+    public double getMaxDifference()
+    {
+        return maxDifference;
+    }
+
+
+    /**
+     * Determines whether the fixed steps stayed within MAX_DIFFERENCE of the iterated solution.
+     * @return true If the largest difference is within MAX_DIFFERENCE, false otherwise.
+     */
+    public boolean matches()
+    {
+        return maxDifference <= MAX_DIFFERENCE;
+    }
+
+
+    /* (non-Javadoc)
+     * @see java.lang.Object#toString()
+     */
+    public String toString()
+    {
+        StringBuffer report = new StringBuffer();
+        report.append("calculateEuler: ").append(compared).append(" solutions compared, max difference ");
+        report.append(maxDifference).append(" radians");
+
+        if (maxDifference > 0)
+            report.append(" (Julian date ").append(worstJulianDate).append(", shift ").append(worstShift).append(')');
+
+        report.append(matches() ? ", within " : ", EXCEEDS ").append(MAX_DIFFERENCE).append('\n');
+
+        return report.toString();
+    }
+
+
+    /**
+     * Solves Kepler's equation the way calculateEuler() used to, by iterating until the
+     * correction falls under CONVERGENCE.
+     * @param M The sun mean anomaly.
+     * @param earthEccentricity The Earth eccentricity.
+     * @return The eccentric anomaly.
+     */
+    private static double iterate(double M, double earthEccentricity)
+    {
+        double dt = 1;
+        double euler = M;
+
+        while ( Math.abs(dt) > CONVERGENCE )
+        {
+            dt = euler - earthEccentricity*Math.sin(euler) - M;
+            double dE = dt /( 1 - earthEccentricity*Math.cos(euler) );
+            euler = euler-dE;
+        }
+
+        return euler;
+    }
+
+
+    /**
+     * Compares the two solutions over the whole range of the ephemeris table and prints the
+     * report to the standard output.
+     * @param args Not used.
+     * @throws IllegalStateException If the fixed steps are not within MAX_DIFFERENCE of the
+     * iterated solution.
+     */
+    public static void main(String[] args)
+    {
+        KeplerAccuracy accuracy = compare(EphemerisTable.FIRST_YEAR, EphemerisTable.LAST_YEAR);
+        System.out.print(accuracy);
+
+        if ( !accuracy.matches() )
+            throw new IllegalStateException("calculateEuler() is " + accuracy.getMaxDifference() + " radians away from the iterated solution");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,116 @@
+/*
+ * @(#)LocationChunk.java  1.0 2026-10-16
+ *
+ * Copyright 2009 Exes Technologies. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   - Redistributions of source code must retain the above copyright
+ *     notice, this list of conditions and the following disclaimer.
+ *
+ *   - Redistributions in binary form must reproduce the above copyright
+ *     notice, this list of conditions and the following disclaimer in the
+ *     documentation and/or other materials provided with the distribution.
+ *
+ *   - Neither the name of Exes Technologies nor the names of its
+ *     contributors may be used to endorse or promote products derived
+ *     from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.rim.maxillion.model.calculator;
+
+import net.rim.maxillion.model.calculator.utils.GeoParameters;
+
+
+/**
+ * A chunk of consecutive locations read by a LocationReader, which a BulkTimetableJob writes
+ * to a file of its own.
+ *
+ * @author Ragaeeb Haq
+ * @version 1.00 2026-10-16 Initial submission.
+ * @since MaxillionPrayers 3.0
+ */
+final class LocationChunk
+{
+    /** The position in the input just past the last location of the chunk. */
+    private final long end;
+
+    /** The number of the chunk, counting from 0 at the start of the input. */
+    private final int index;
+
+    /** The locations of the chunk. */
+    private final GeoParameters[] locations;
+
+    /** The name of each location. */
+    private final String[] names;
+
+
+    /**
+     * Creates a chunk.
+     * @param index The number of the chunk, counting from 0 at the start of the input.
+     * @param names The name of each location.
+     * @param locations The locations of the chunk.
+     * @param end The position in the input just past the last location of the chunk.
+     */
+    public LocationChunk(int index, String[] names, GeoParameters[] locations, long end)
+    {
+        this.index = index;
+        this.names = names;
+        this.locations = locations;
+        this.end = end;
+    }
+
+
+    /**
+     * Gets the position in the input just past the last location of the chunk, where the next
+     * chunk starts.
+     * @return The number of bytes from the start of the input.
+     */
+    public long getEnd()
+    {
+        return end;
+    }
+
+
+    /**
+     * Gets the number of the chunk.
+     * @return The number of the chunk, counting from 0 at the start of the input.
+     */
+    public int getIndex()
+    {
+        return index;
+    }
+
+
+    /**
+     * Gets the locations of the chunk.
+     * @return The locations.
+     */
+    public GeoParameters[] getLocations()
+    {
+        return locations;
+    }
+
+
+    /**
+     * Gets the name of each location of the chunk.
+     * @return The names.
+     */
+    public String[] getNames()
+    {
+        return names;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,502 @@
+/*
+ * @(#)LocationReader.java  1.0 2026-10-16
+ * @(#)LocationReader.java  1.1 2026-10-16
+ *
+ * Copyright 2009 Exes Technologies. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   - Redistributions of source code must retain the above copyright
+ *     notice, this list of conditions and the following disclaimer.
+ *
+ *   - Redistributions in binary form must reproduce the above copyright
+ *     notice, this list of conditions and the following disclaimer in the
+ *     documentation and/or other materials provided with the distribution.
+ *
+ *   - Neither the name of Exes Technologies nor the names of its
+ *     contributors may be used to endorse or promote products derived
+ *     from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.rim.maxillion.model.calculator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Hashtable;
+
+import net.rim.maxillion.model.calculator.utils.GeoParameters;
+import net.rim.maxillion.model.calculator.utils.time.DaylightSavingsRules;
+import net.rim.maxillion.model.calculator.utils.time.DaylightSavingsZone;
+
+
+/**
+ * Reads locations from CSV text in chunks, one location on each line:
+ * <pre>
+ * name,latitude,longitude,time zone[,zone]
+ * </pre>
+ * where the latitude and longitude are in degrees. A name holding a comma or quote is quoted,
+ * with any quote within it written twice. Blank lines (including those holding nothing but
+ * spaces or tabs) and lines starting with # are skipped, as is a header row at the very start of
+ * the input.<br><br>
+ *
+ * The optional zone names a zone of the daylight savings rules given to the reader (ie:
+ * America/Toronto), whose standard offset must be the time zone of the line, and the location
+ * follows its daylight savings rules. A location without a zone is taken to stay on its time
+ * zone all year round, since the rules of the place cannot be told from the offset alone.<br><br>
+ *
+ * The input is read into a buffer that is reused for the whole file, and the numbers are parsed
+ * straight from its bytes rather than through a String for each field, so that millions of
+ * locations can be read without creating anything but their names and GeoParameters. The
+ * position of each chunk in the input is tracked so that reading can be resumed part way
+ * through a file.<br><br>
+ *
+ * An instance of this class is not thread-safe.
+ *
+ * @author Ragaeeb Haq
+ * @version 1.00 2026-10-16 Initial submission.
+ * @version 1.10 2026-10-16 A location now stays on its time zone all year round unless it names a zone
+ * of the daylight savings rules in an optional fifth field, rather than following the legacy rules.
+ * Blank lines may hold spaces and tabs, and a last line without a line break no longer ends its
+ * chunk past the end of the input.
+ * @since MaxillionPrayers 3.0
+ */
+final class LocationReader
+{
+    /** The number of bytes read from the input at once. This is also the longest line allowed. */
+    private static final int BUFFER_SIZE = 65536;
+
+    /** The powers of ten that are exact in a double, used to place the decimal point. */
+    private static final double[] POWERS_OF_TEN = { 1E0, 1E1, 1E2, 1E3, 1E4, 1E5, 1E6, 1E7, 1E8, 1E9, 1E10, 1E11, 1E12, 1E13, 1E14, 1E15, 1E16, 1E17, 1E18, 1E19, 1E20, 1E21, 1E22 };
+
+    /** The largest number of digits whose value is exact in a long and in a double. */
+    private static final int MAX_DIGITS = 15;
+
+    /** The bytes read from the input. */
+    private byte[] buffer;
+
+    /** The number of bytes in the buffer. */
+    private int count;
+
+    /** The zone of the last location that did not name one. */
+    private DaylightSavingsZone fixedZone;
+
+    /** The zones that do not observe daylight savings time, keyed by their offset. */
+    private Hashtable fixedZones;
+
+    /** The input being read. */
+    private InputStream in;
+
+    /** The position in the buffer of the next byte to parse. */
+    private int next;
+
+    /** The zone named by the last location that named one. */
+    private DaylightSavingsZone namedZone;
+
+    /** The name of the zone named by the last location that named one, or null if none has. */
+    private String namedZoneName;
+
+    /** The position in the input of the first byte of the buffer. */
+    private long offset;
+
+    /** The end of the field found by the last call to parseName(). */
+    private int fieldEnd;
+
+    /** The daylight savings rules that the zones named in the input are looked up in. */
+    private DaylightSavingsRules rules;
+
+
+    /**
+     * Creates a reader of the specified input.
+     * @param in The input, which has already been read up to the specified position.
+     * @param position The number of bytes of the input already read, which must be 0 or the
+     * end of a chunk that was read before.
+     * @param rules The daylight savings rules that the zones named in the input are looked up in.
+     */
+    public LocationReader(InputStream in, long position, DaylightSavingsRules rules)
+    {
+        this.in = in;
+        this.offset = position;
+        this.rules = rules;
+        this.buffer = new byte[BUFFER_SIZE];
+        this.fixedZones = new Hashtable();
+    }
+
+
+    /**
+     * Reads the next chunk of locations.
+     * @param index The number of the chunk.
+     * @param size The greatest number of locations in the chunk.
+     * @return The chunk, which holds fewer locations than the size only at the end of the input,
+     * or null if there are no locations left.
+     * @throws IOException If the input could not be read or holds a malformed line.
+     */
+    public LocationChunk read(int index, int size) throws IOException
+    {
+        String[] names = new String[size];
+        GeoParameters[] locations = new GeoParameters[size];
+        int n = 0;
+
+        int end = findLine();
+
+        while (end >= 0)
+        {
+            if ( parseLine(next, end, names, locations, n) )
+                n++;
+
+            next = Math.min(end+1, count); // the last line may end with the input rather than a line break
+            end = n < size ? findLine() : -1;
+        }
+
+        LocationChunk result = null;
+
+        if (n > 0)
+        {
+            if (n < size)
+            {
+                String[] trimmedNames = new String[n];
+                GeoParameters[] trimmedLocations = new GeoParameters[n];
+                System.arraycopy(names, 0, trimmedNames, 0, n);
+                System.arraycopy(locations, 0, trimmedLocations, 0, n);
+                names = trimmedNames;
+                locations = trimmedLocations;
+            }
+
+            result = new LocationChunk(index, names, locations, offset+next);
+        }
+
+        return result;
+    }
+
+
+    /**
+     * Finds the end of the next line, reading more of the input if needed. The last line of the
+     * input does not need to end with a line break.
+     * @return The position in the buffer of the line break ending the next line, or of the end
+     * of the input, or -1 if there are no lines left.
+     * @throws IOException If the input could not be read, or the line is longer than the buffer.
+     */
+    private int findLine() throws IOException
+    {
+        int result = -1;
+        int from = next;
+
+        while ( (result < 0) && (in != null) )
+        {
+            for (int i = from; (i < count) && (result < 0); i++)
+            {
+                if (buffer[i] == '\n')
+                    result = i;
+            }
+
+            if (result < 0)
+            {
+                if ( (next == 0) && (count == buffer.length) )
+                    throw new IOException("Line too long at byte " + offset);
+
+                System.arraycopy(buffer, next, buffer, 0, count-next); // keep the start of the line
+                offset += next;
+                count -= next;
+                from = count;
+                next = 0;
+
+                int read = in.read(buffer, count, buffer.length-count);
+
+                if (read < 0)
+                    in = null;
+
+                else
+                    count += read;
+            }
+        }
+
+        if ( (result < 0) && (next < count) ) // the last line has no line break
+            result = count;
+
+        return result;
+    }
+
+
+    /**
+     * Parses a line into a location.
+     * @param start The position in the buffer of the start of the line.
+     * @param end The position in the buffer of the end of the line.
+     * @param names The names to store the name of the location in.
+     * @param locations The locations to store the location in.
+     * @param n The index to store the location at.
+     * @return true if the line held a location, false if it was skipped.
+     * @throws IOException If the line is malformed.
+     */
+    private boolean parseLine(int start, int end, String[] names, GeoParameters[] locations, int n) throws IOException
+    {
+        if ( (end > start) && (buffer[end-1] == '\r') )
+            end--;
+
+        boolean result = !isBlank(start, end) && (buffer[start] != '#');
+
+        if (result)
+        {
+            String name = parseName(start, end);
+            int latitudeEnd = findComma(fieldEnd+1, end);
+            int longitudeEnd = findComma(latitudeEnd+1, end);
+            int timeZoneEnd = findComma(longitudeEnd+1, end);
+            double latitude = parseNumber(fieldEnd+1, latitudeEnd);
+            double longitude = parseNumber(latitudeEnd+1, longitudeEnd);
+            double timeZone = parseNumber(longitudeEnd+1, timeZoneEnd);
+            boolean valid = (latitude >= -90) && (latitude <= 90) && (longitude >= -180) && (longitude <= 180) && (timeZone >= -12) && (timeZone <= 14);
+
+            if ( !valid && (offset+start == 0) ) // a header row
+                result = false;
+
+            else if (!valid)
+                throw new IOException("Malformed location at byte " + (offset+start));
+
+            else
+            {
+                names[n] = name;
+                locations[n] = new GeoParameters( latitude, longitude, timeZone, getZone(timeZoneEnd+1, end, timeZone, start) );
+            }
+        }
+
+        return result;
+    }
+
+
+    /**
+     * Determines whether a line holds nothing but spaces and tabs.
+     * @param start The position in the buffer of the start of the line.
+     * @param end The position in the buffer of the end of the line.
+     * @return true If the line is blank, false otherwise.
+     */
+    private boolean isBlank(int start, int end)
+    {
+        while ( (start < end) && ( (buffer[start] == ' ') || (buffer[start] == '\t') ) )
+            start++;
+
+        return start == end;
+    }
+
+
+    /**
+     * Gets the zone of a location. The zone that was looked up for the previous location is
+     * reused when it is the same, so that a file of locations in a few zones does not create
+     * anything for them.
+     * @param start The position in the buffer of the start of the zone field, which is past the
+     * end of the line if there is none.
+     * @param end The position in the buffer of the end of the line.
+     * @param timeZone The time zone of the location.
+     * @param line The position in the buffer of the start of the line.
+     * @return The zone named by the location, or the zone that stays on its time zone all year
+     * round if it does not name one.
+     * @throws IOException If the zone is not known or its standard offset is not the time zone.
+     */
+    private DaylightSavingsZone getZone(int start, int end, double timeZone, int line) throws IOException
+    {
+        while ( (start < end) && (buffer[start] == ' ') )
+            start++;
+
+        while ( (end > start) && (buffer[end-1] == ' ') )
+            end--;
+
+        DaylightSavingsZone result;
+
+        if (start >= end)
+        {
+            if ( (fixedZone == null) || (fixedZone.getStandardOffset() != timeZone) )
+            {
+                String key = String.valueOf(timeZone);
+                fixedZone = (DaylightSavingsZone)fixedZones.get(key);
+
+                if (fixedZone == null)
+                {
+                    fixedZone = rules.createZone("UTC" + key, timeZone, "-");
+                    fixedZones.put(key, fixedZone);
+                }
+            }
+
+            result = fixedZone;
+        }
+
+        else
+        {
+            if ( (namedZoneName == null) || !holds(namedZoneName, start, end) )
+            {
+                String name = new String(buffer, start, end-start, "UTF-8");
+                namedZone = rules.getZone(name);
+                namedZoneName = namedZone == null ? null : name;
+
+                if (namedZone == null)
+                    throw new IOException("Unknown zone " + name + " at byte " + (offset+line));
+            }
+
+            result = namedZone;
+
+            if (result.getStandardOffset() != timeZone)
+                throw new IOException("The time zone does not match the standard offset of " + namedZoneName + " at byte " + (offset+line));
+        }
+
+        return result;
+    }
+
+
+    /**
+     * Determines whether a field of the buffer holds the specified text, which is expected to be
+     * ASCII like the names of zones are.
+     * @param text The text to compare with.
+     * @param start The position in the buffer of the start of the field.
+     * @param end The position in the buffer of the end of the field.
+     * @return true If the field holds the text, false otherwise.
+     */
+    private boolean holds(String text, int start, int end)
+    {
+        boolean result = text.length() == end-start;
+
+        for (int i = 0; (i < end-start) && result; i++)
+            result = buffer[start+i] == text.charAt(i);
+
+        return result;
+    }
+
+
+    /**
+     * Finds the comma ending a field.
+     * @param start The position in the buffer of the start of the field.
+     * @param end The position in the buffer of the end of the line.
+     * @return The position of the comma, or the end of the line if there is none.
+     */
+    private int findComma(int start, int end)
+    {
+        int result = start;
+
+        while ( (result < end) && (buffer[result] != ',') )
+            result++;
+
+        return result;
+    }
+
+
+    /**
+     * Parses the name at the start of a line, quoted or not, and sets fieldEnd to the comma
+     * after it.
+     * @param start The position in the buffer of the start of the line.
+     * @param end The position in the buffer of the end of the line.
+     * @return The name.
+     * @throws IOException If the name is not valid UTF-8.
+     */
+    private String parseName(int start, int end) throws IOException
+    {
+        String result;
+
+        if (buffer[start] != '"')
+        {
+            fieldEnd = findComma(start, end);
+            result = new String(buffer, start, fieldEnd-start, "UTF-8");
+        }
+
+        else
+        {
+            StringBuffer name = new StringBuffer();
+            int i = start+1;
+            int run = i; // the start of the bytes not yet added to the name
+
+            while ( (i < end) && ( (buffer[i] != '"') || ( (i+1 < end) && (buffer[i+1] == '"') ) ) )
+            {
+                if (buffer[i] == '"') // a quote written twice
+                {
+                    name.append( new String(buffer, run, i+1-run, "UTF-8") );
+                    i += 2;
+                    run = i;
+                }
+
+                else
+                    i++;
+            }
+
+            name.append( new String(buffer, run, i-run, "UTF-8") );
+            fieldEnd = findComma(i, end);
+            result = name.toString();
+        }
+
+        return result;
+    }
+
+
+    /**
+     * Parses a decimal number (ie: -75.7579) straight from the buffer. Spaces around the number
+     * are ignored. The result is the same as that of Double.parseDouble(), which is only used
+     * for the rare number that is too long or written in another form (ie: 4.0E-4).
+     * @param start The position in the buffer of the start of the number.
+     * @param end The position in the buffer of the end of the number.
+     * @return The number, or NaN if it is malformed.
+     */
+    private double parseNumber(int start, int end)
+    {
+        while ( (start < end) && (buffer[start] == ' ') )
+            start++;
+
+        while ( (end > start) && (buffer[end-1] == ' ') )
+            end--;
+
+        boolean negative = (start < end) && (buffer[start] == '-');
+        int first = negative || ( (start < end) && (buffer[start] == '+') ) ? start+1 : start;
+        long mantissa = 0;
+        int digits = 0;
+        int decimals = -1; // the number of digits after the decimal point, -1 until it is found
+        boolean plain = true;
+
+        for (int i = first; (i < end) && plain; i++)
+        {
+            int c = buffer[i];
+
+            if ( (c >= '0') && (c <= '9') )
+            {
+                mantissa = mantissa*10 + (c-'0');
+                digits++;
+
+                if (decimals >= 0)
+                    decimals++;
+            }
+
+            else if ( (c == '.') && (decimals < 0) )
+                decimals = 0;
+
+            else
+                plain = false;
+        }
+
+        double result = Double.NaN;
+
+        if ( plain && (digits > 0) && (digits <= MAX_DIGITS) )
+        {
+            result = decimals > 0 ? mantissa/POWERS_OF_TEN[decimals] : mantissa; // a single rounding, as Double.parseDouble() does
+
+            if (negative)
+                result = -result;
+        }
+
+        else if (start < end)
+        {
+            try {
+                result = Double.parseDouble( new String(buffer, start, end-start) );
+            }
+
+            catch (NumberFormatException ex)
+            {
+            }
+        }
+
+        return result;
+    }
+}
\ No newline at end of file
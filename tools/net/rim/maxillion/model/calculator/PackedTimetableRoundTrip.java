@@ -0,0 +1,244 @@
+/*
+ * @(#)PackedTimetableRoundTrip.java  1.0 2026-10-16
+ *
+ * Copyright 2009 Exes Technologies. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   - Redistributions of source code must retain the above copyright
+ *     notice, this list of conditions and the following disclaimer.
+ *
+ *   - Redistributions in binary form must reproduce the above copyright
+ *     notice, this list of conditions and the following disclaimer in the
+ *     documentation and/or other materials provided with the distribution.
+ *
+ *   - Neither the name of Exes Technologies nor the names of its
+ *     contributors may be used to endorse or promote products derived
+ *     from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.rim.maxillion.model.calculator;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Random;
+
+import net.rim.maxillion.model.calculator.utils.GeoParameters;
+import net.rim.maxillion.model.calculator.utils.TimeCriticalEventNames;
+import net.rim.maxillion.model.calculator.utils.time.DaylightSavingsRules;
+import net.rim.maxillion.model.calculator.utils.time.DaylightSavingsZone;
+import net.rim.maxillion.model.calculator.utils.time.PackedTimetable;
+import net.rim.maxillion.model.calculator.utils.time.TimeTable;
+
+
+/**
+ * Guards PackedTimetable against losing or moving a time between write() and read(). A year of
+ * timetables is calculated for a spread of locations in each of the bundled zones below, one
+ * from each hemisphere so that daylight savings time both starts and ends within the year and
+ * spans its end, and written to a packed timetable that is then read back. Every event of every
+ * day must come back with the seconds and the raw time value of the TimeTable it was written
+ * from. A timetable that starts a day late must be rejected by write() rather than written out
+ * misaligned. main() fails with an IllegalStateException if either does not hold.<br><br>
+ *
+ * The year is a leap year and is requested at noon of its first day on the wall clock of the
+ * device, so it is the whole year that is calculated whatever the zone of the device.
+ *
+ * @author Ragaeeb Haq
+ * @version 1.00 2026-10-16 Initial submission.
+ * @since MaxillionPrayers 3.0
+ */
+public final class PackedTimetableRoundTrip
+{
+    /** The bundled zones that the locations observe. */
+    private static final String[] ZONES = { "America/Toronto", "Australia/Sydney" };
+
+    /** The year of the timetables. */
+    private static final int YEAR = 2024;
+
+    /** The number of days of the year. */
+    private static final int DAYS = 366;
+
+    /** The number of locations in each zone. */
+    private static final int LOCATIONS = 100;
+
+    /** The number of milliseconds in an hour. */
+    private static final long MILLISECONDS_IN_AN_HOUR = 3600000;
+
+    /** The number of times compared. */
+    private int compared;
+
+    /** Describes the first time that differed, or null if none did. */
+    private String firstMismatch;
+
+    /** The number of times that differed. */
+    private int mismatches;
+
+    /** true if a timetable starting a day late was rejected. */
+    private boolean rejectsMisaligned;
+
+
+    /**
+     * Creates a round trip that has not compared anything yet.
+     */
+    private PackedTimetableRoundTrip()
+    {
+        super();
+    }
+
+
+    /**
+     * Writes and reads back the timetables of the locations in each zone.
+     * @return The result of the round trip.
+     * @throws IOException If the bundled daylight savings rules could not be read, or the packed
+     * timetable could not be read back.
+     */
+    public static PackedTimetableRoundTrip compare() throws IOException
+    {
+        PackedTimetableRoundTrip result = new PackedTimetableRoundTrip();
+        DaylightSavingsRules rules = DaylightSavingsRules.loadBundled();
+        Calendar calendar = Calendar.getInstance();
+        calendar.set(Calendar.YEAR, YEAR);
+        calendar.set(Calendar.MONTH, Calendar.JANUARY);
+        calendar.set(Calendar.DAY_OF_MONTH, 1);
+        calendar.set(Calendar.HOUR_OF_DAY, 12);
+        Date start = calendar.getTime();
+
+        for (int z = 0; z < ZONES.length; z++)
+        {
+            DaylightSavingsZone zone = rules.getZone(ZONES[z]);
+
+            if (zone == null)
+                throw new IOException("Missing zone " + ZONES[z]);
+
+            result.compare(zone, start);
+        }
+
+        calendar.set(Calendar.DAY_OF_MONTH, 2);
+        TimeTable late = Calculator.getInstance().calculateRange( new GeoParameters(45.42, -75.70, -5), calendar.getTime(), DAYS );
+
+        try {
+            PackedTimetable.write( new TimeTable[]{ late }, YEAR, new ByteArrayOutputStream() );
+        }
+
+        catch (IllegalArgumentException ex)
+        {
+            result.rejectsMisaligned = true;
+        }
+
+        return result;
+    }
+
+
+    /**
+     * Writes and reads back the timetables of the locations in a zone and records the times that
+     * differ.
+     * @param zone The zone the locations observe.
+     * @param start Noon of the first day of the year on the wall clock of the device.
+     * @throws IOException If the packed timetable could not be read back.
+     */
+    private void compare(DaylightSavingsZone zone, Date start) throws IOException
+    {
+        Random random = new Random(LOCATIONS);
+        double offset = zone.getStandardOffset();
+        TimeTable[] timetables = new TimeTable[LOCATIONS];
+
+        for (int i = 0; i < LOCATIONS; i++)
+        {
+            double latitude = random.nextDouble()*120 - 60;
+            double longitude = offset*15 + random.nextDouble()*15 - 7.5; // within the time zone
+            timetables[i] = Calculator.getInstance().calculateRange( new GeoParameters(latitude, longitude, offset, zone), start, DAYS );
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PackedTimetable.write(timetables, YEAR, out);
+        PackedTimetable packed = PackedTimetable.read( new ByteArrayInputStream( out.toByteArray() ) );
+        TimeCriticalEventNames names = TimeCriticalEventNames.getInstance();
+        Date date = new Date();
+
+        for (int i = 0; i < LOCATIONS; i++)
+        {
+            for (int day = 0; day < DAYS; day++)
+            {
+                date.setTime( timetables[i].getStartOfDay(day) + 12*MILLISECONDS_IN_AN_HOUR );
+
+                for (int event = 0; event < TimeTable.EVENTS_PER_DAY; event++)
+                {
+                    int expected = timetables[i].getSeconds(day, event);
+                    int actual = packed.getSeconds(i, day, event);
+
+                    if ( (actual != expected) || ( packed.getTime(i, date, event) != timetables[i].getTime(day, event) ) )
+                    {
+                        if (mismatches == 0)
+                            firstMismatch = zone.getName() + " location " + i + " day " + day + " " + names.getName(event) + " at " + actual + "s instead of " + expected + "s";
+
+                        mismatches++;
+                    }
+
+                    compared++;
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Determines whether every time was read back as it was written and a misaligned timetable
+     * was rejected.
+     * @return true If no time differed and the misaligned timetable was rejected, false otherwise.
+     */
+    public boolean matches()
+    {
+        return (mismatches == 0) && rejectsMisaligned;
+    }
+
+
+    /* (non-Javadoc)
+     * @see java.lang.Object#toString()
+     */
+    public String toString()
+    {
+        StringBuffer report = new StringBuffer();
+        report.append("PackedTimetable: ").append(compared).append(" times compared, ").append(mismatches).append(" differed after a round trip");
+
+        if (firstMismatch != null)
+            report.append(", first ").append(firstMismatch);
+
+        report.append(rejectsMisaligned ? ", misaligned timetable rejected" : ", misaligned timetable WRITTEN").append('\n');
+
+        return report.toString();
+    }
+
+
+    /**
+     * Writes and reads back the timetables and prints the report to the standard output.
+     * @param args Not used.
+     * @throws IOException If the bundled daylight savings rules could not be read, or the packed
+     * timetable could not be read back.
+     * @throws IllegalStateException If a time differed after the round trip, or a misaligned
+     * timetable was written.
+     */
+    public static void main(String[] args) throws IOException
+    {
+        PackedTimetableRoundTrip roundTrip = compare();
+        System.out.print(roundTrip);
+
+        if ( !roundTrip.matches() )
+            throw new IllegalStateException(roundTrip.mismatches + " times differed after a round trip through PackedTimetable" + (roundTrip.rejectsMisaligned ? "" : ", and a misaligned timetable was written"));
+    }
+}
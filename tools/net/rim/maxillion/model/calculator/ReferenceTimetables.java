@@ -0,0 +1,499 @@
+/*
+ * @(#)ReferenceTimetables.java  1.0 2026-10-16
+ * @(#)ReferenceTimetables.java  1.1 2026-10-16
+ *
+ * Copyright 2009 Exes Technologies. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   - Redistributions of source code must retain the above copyright
+ *     notice, this list of conditions and the following disclaimer.
+ *
+ *   - Redistributions in binary form must reproduce the above copyright
+ *     notice, this list of conditions and the following disclaimer in the
+ *     documentation and/or other materials provided with the distribution.
+ *
+ *   - Neither the name of Exes Technologies nor the names of its
+ *     contributors may be used to endorse or promote products derived
+ *     from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.rim.maxillion.model.calculator;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Calendar;
+import java.util.Date;
+
+import javax.microedition.io.Connector;
+import javax.microedition.io.file.FileConnection;
+
+import net.rim.device.api.util.DateTimeUtilities;
+import net.rim.maxillion.model.calculator.utils.GeoParameters;
+import net.rim.maxillion.model.calculator.utils.TimeCriticalEventNames;
+import net.rim.maxillion.model.calculator.utils.time.TimeTable;
+
+
+/**
+ * Guards the calculated prayer times against changes made for the sake of performance. A full
+ * year of timetables is generated for a fixed set of reference cities and compared with the
+ * golden timetables that were recorded before the change. The largest deviation of each event is
+ * reported with the first day that it was found on and the number of days that deviate at all,
+ * along with the number of days calculated per second.<br><br>
+ *
+ * The cities span every latitude branch of the calculation: the equator, the tropics and the
+ * mid-latitudes where no adjustment is needed, both hemispheres above 48 degrees where Fajr and
+ * Isha follow the solstice ratio, and above 65 degrees where the sun is recalculated at the
+ * reference latitude. The golden timetables are bundled with the application as
+ * reference-timetables.bin and can be recorded again with write().<br><br>
+ *
+ * Since the golden file only holds the seconds of the day, the raw time of every event is also
+ * converted back to the wall clock of the device with a Calendar and checked against those
+ * seconds. This catches an event that is an hour off on a daylight savings transition day, and
+ * so is only meaningful when the zone of the device observes daylight savings time (ie:
+ * America/Toronto).<br><br>
+ *
+ * In the golden file each event of a city is stored as its time on the first day followed by
+ * the change from one day to the next, which almost always fits in a short.
+ *
+ * @author Ragaeeb Haq
+ * @version 1.00 2026-10-16 Initial submission.
+ * @version 1.10 2026-10-16 The raw time of every event is now checked against its wall clock time.
+ * @version 1.20 2026-10-16 The number of days that deviate is now reported for each event, since the
+ * largest deviation is only given for the first day that it was found on.
+ * @since MaxillionPrayers 3.0
+ */
+public final class ReferenceTimetables
+{
+    /** The name of the bundled golden file. */
+    public static final String GOLDEN_RESOURCE = "reference-timetables.bin";
+
+    /** The year that the timetables are generated for. */
+    public static final int YEAR = 2010;
+
+    /** The names of the reference cities. */
+    private static final String[] CITIES = { "Quito", "Makkah", "Sydney", "Wellington", "Ottawa", "Berlin", "Ushuaia", "Oslo", "Reykjavik", "Tromso", "Longyearbyen" };
+
+    /** The latitude of each reference city (in degrees). */
+    private static final double[] LATITUDES = { -0.22, 21.42, -33.87, -41.29, 45.36, 52.52, -54.80, 59.91, 64.15, 69.65, 78.22 };
+
+    /** The longitude of each reference city (in degrees). */
+    private static final double[] LONGITUDES = { -78.51, 39.83, 151.21, 174.78, -75.76, 13.40, -68.30, 10.75, -21.94, 18.96, 15.65 };
+
+    /** The time zone of each reference city. */
+    private static final double[] TIME_ZONES = { -5, 3, 10, 12, -5, 1, -3, 1, 0, 1, 1 };
+
+    /** Marks a change from one day to the next that does not fit in a short. */
+    private static final short ESCAPE = Short.MIN_VALUE;
+
+    /** Identifies a stream as holding golden timetables ("GLD1"). */
+    private static final int MAGIC = 0x474C4431;
+
+    /** The number of seconds in an hour. */
+    private static final int SECONDS_IN_AN_HOUR = 3600;
+
+    /** The number of seconds in a day. */
+    private static final int SECONDS_IN_A_DAY = 86400;
+
+    /** The largest deviation found for each event (in seconds). */
+    private int[] deviations;
+
+    /** The number of days on which each event deviated, across all of the cities. */
+    private int[] deviating;
+
+    /** The number of days calculated per second. */
+    private long daysPerSecond;
+
+    /** Describes the first event whose raw time was not at its wall clock time, or null if there was none. */
+    private String firstMisplaced;
+
+    /** The number of events whose raw time was not at their wall clock time in the zone of the device. */
+    private int misplaced;
+
+    /** Describes the first place where the largest deviation of each event was found. */
+    private String[] worst;
+
+
+    /**
+     * Creates an empty comparison.
+     */
+    private ReferenceTimetables()
+    {
+        this.deviations = new int[TimeTable.EVENTS_PER_DAY];
+        this.deviating = new int[TimeTable.EVENTS_PER_DAY];
+        this.worst = new String[TimeTable.EVENTS_PER_DAY];
+    }
+
+
+    /**
+     * Generates the timetables of the reference cities and compares them with the golden
+     * timetables in the specified stream.
+     * @param golden The stream holding the golden timetables. This is not closed.
+     * @return The result of the comparison.
+     * @throws IOException If the stream could not be read or does not hold golden timetables for
+     * the same cities.
+     */
+    public static ReferenceTimetables compare(InputStream golden) throws IOException
+    {
+        DataInputStream dis = new DataInputStream(golden);
+
+        if ( (dis.readInt() != MAGIC) || (dis.readInt() != YEAR) || (dis.readInt() != CITIES.length) )
+            throw new IOException("Not golden timetables for these reference cities");
+
+        int days = dis.readInt();
+        ReferenceTimetables result = new ReferenceTimetables();
+        TimeTable[] tables = new TimeTable[CITIES.length];
+
+        long start = System.currentTimeMillis();
+
+        for (int city = 0; city < CITIES.length; city++)
+            tables[city] = generate(city, days);
+
+        long elapsed = Math.max( 1, System.currentTimeMillis()-start );
+        result.daysPerSecond = CITIES.length*days*1000L/elapsed;
+
+        for (int city = 0; city < CITIES.length; city++)
+        {
+            for (int event = 0; event < TimeTable.EVENTS_PER_DAY; event++)
+            {
+                int expected = 0;
+
+                for (int day = 0; day < days; day++)
+                {
+                    expected = (day == 0) ? dis.readInt() : expected+readChange(dis);
+                    int deviation = Math.abs( tables[city].getSeconds(day, event)-expected );
+
+                    if (deviation > 0)
+                        result.deviating[event]++;
+
+                    if ( deviation > result.deviations[event] )
+                    {
+                        result.deviations[event] = deviation;
+                        result.worst[event] = CITIES[city] + " day " + (day+1);
+                    }
+                }
+            }
+        }
+
+        result.checkRawTimes(tables, days);
+
+        return result;
+    }
+
+
+    /**
+     * Checks that the raw time of every event falls at its seconds of the day on the wall clock
+     * of the device. A time that does not exist because the clocks went forward is expected to
+     * have been moved forward by an hour.
+     * @param tables The timetable of each reference city.
+     * @param days The number of days of each timetable.
+     */
+    private void checkRawTimes(TimeTable[] tables, int days)
+    {
+        Calendar calendar = Calendar.getInstance();
+        long noon = getStartOfYear().getTime();
+        TimeCriticalEventNames names = TimeCriticalEventNames.getInstance();
+
+        for (int city = 0; city < CITIES.length; city++)
+        {
+            for (int day = 0; day < days; day++)
+            {
+                long dayNoon = noon+day*DateTimeUtilities.ONEDAY; // a daylight savings change moves it by an hour at most, so it stays on the day
+
+                for (int event = 0; event < TimeTable.EVENTS_PER_DAY; event++)
+                {
+                    long time = tables[city].getTime(day, event);
+                    int expected = tables[city].getSeconds(day, event);
+                    int actual = getWallClockSeconds(calendar, time, dayNoon);
+                    boolean skipped = (actual-expected == SECONDS_IN_AN_HOUR) && ( getWallClockSeconds(calendar, time-SECONDS_IN_AN_HOUR*1000L, dayNoon) == actual-2*SECONDS_IN_AN_HOUR );
+
+                    if ( (actual != expected) && !skipped )
+                    {
+                        if (misplaced == 0)
+                            firstMisplaced = CITIES[city] + " day " + (day+1) + " " + names.getName(event) + " at " + actual + "s instead of " + expected + "s";
+
+                        misplaced++;
+                    }
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Gets the time on the wall clock of the device as the number of seconds since the start of
+     * the specified day.
+     * @param calendar The calendar to convert with.
+     * @param time The raw time value.
+     * @param dayNoon The raw time value of noon on the day.
+     * @return The number of seconds, which exceeds a whole day if the time falls on the
+     * following day.
+     */
+    private static int getWallClockSeconds(Calendar calendar, long time, long dayNoon)
+    {
+        calendar.setTime( new Date(dayNoon) );
+        int date = calendar.get(Calendar.DAY_OF_MONTH);
+
+        calendar.setTime( new Date(time) );
+        int result = calendar.get(Calendar.HOUR_OF_DAY)*SECONDS_IN_AN_HOUR + calendar.get(Calendar.MINUTE)*60 + calendar.get(Calendar.SECOND);
+
+        if ( calendar.get(Calendar.DAY_OF_MONTH) != date )
+            result += SECONDS_IN_A_DAY;
+
+        return result;
+    }
+
+
+    /**
+     * Gets the number of days calculated per second while generating the timetables.
+     * @return The throughput of the calculation.
+     */
+    public long getDaysPerSecond()
+    {
+        return daysPerSecond;
+    }
+
+
+    /**
+     * Gets the largest deviation of the specified event from the golden timetables.
+     * @param event The TimeCriticalEvent to get the deviation of.
+     * @return The largest deviation found (in seconds).
+     */
+    public int getMaxDeviation(int event)
+    {
+        return deviations[event];
+    }
+
+
+    /**
+     * Determines whether every calculated time matched the golden timetables and fell at its
+     * wall clock time.
+     * @return true If no event deviated at all, false otherwise.
+     */
+    public boolean matches()
+    {
+        boolean result = misplaced == 0;
+
+        for (int i = 0; (i < TimeTable.EVENTS_PER_DAY) && result; i++)
+            result = deviations[i] == 0;
+
+        return result;
+    }
+
+
+    /**
+     * Compares the timetables with the bundled golden file, or with the file at the URL given
+     * as the first argument, and prints the report to the standard output. If the second
+     * argument is "record", the golden timetables are recorded to that file instead.
+     * @param args The URL of the golden file (for example file:///SDCard/golden.bin) and
+     * optionally "record".
+     * @throws IOException If the golden file could not be read or written.
+     */
+    public static void main(String[] args) throws IOException
+    {
+        if (args.length == 0)
+        {
+            InputStream in = ReferenceTimetables.class.getResourceAsStream(GOLDEN_RESOURCE);
+
+            if (in == null)
+                throw new IOException("Missing " + GOLDEN_RESOURCE);
+
+            try {
+                System.out.println( compare(in) );
+            }
+
+            finally {
+                in.close();
+            }
+        }
+
+        else
+        {
+            FileConnection fc = (FileConnection)Connector.open( args[0] );
+
+            try {
+                if ( (args.length > 1) && args[1].equals("record") )
+                {
+                    if ( !fc.exists() )
+                        fc.create();
+
+                    fc.truncate(0);
+                    OutputStream out = fc.openOutputStream();
+                    write(out);
+                    out.close();
+                }
+
+                else
+                {
+                    InputStream in = fc.openInputStream();
+                    System.out.println( compare(in) );
+                    in.close();
+                }
+            }
+
+            finally {
+                fc.close();
+            }
+        }
+    }
+
+
+    /* (non-Javadoc)
+     * @see java.lang.Object#toString()
+     */
+    public String toString()
+    {
+        StringBuffer sb = new StringBuffer();
+        TimeCriticalEventNames names = TimeCriticalEventNames.getInstance();
+
+        for (int event = 0; event < TimeTable.EVENTS_PER_DAY; event++)
+        {
+            sb.append( names.getName(event) ).append(": max deviation ").append( deviations[event] ).append('s');
+
+            if ( worst[event] != null )
+                sb.append(" (first ").append( worst[event] ).append("), ").append( deviating[event] ).append(" days deviate");
+
+            sb.append('\n');
+        }
+
+        sb.append(misplaced).append(" raw times off their wall clock time");
+
+        if (firstMisplaced != null)
+            sb.append(" (").append(firstMisplaced).append(')');
+
+        sb.append('\n').append(daysPerSecond).append(" days/s");
+
+        return sb.toString();
+    }
+
+
+    /**
+     * Generates the timetables of the reference cities and writes them as golden timetables.
+     * @param out The stream to write the golden timetables to. This is not closed.
+     * @throws IOException If the golden timetables could not be written.
+     */
+    public static void write(OutputStream out) throws IOException
+    {
+        DataOutputStream dos = new DataOutputStream(out);
+        int days = getDaysInYear();
+
+        dos.writeInt(MAGIC);
+        dos.writeInt(YEAR);
+        dos.writeInt(CITIES.length);
+        dos.writeInt(days);
+
+        for (int city = 0; city < CITIES.length; city++)
+        {
+            TimeTable table = generate(city, days);
+
+            for (int event = 0; event < TimeTable.EVENTS_PER_DAY; event++)
+            {
+                dos.writeInt( table.getSeconds(0, event) );
+
+                for (int day = 1; day < days; day++)
+                    writeChange( dos, table.getSeconds(day, event)-table.getSeconds(day-1, event) );
+            }
+        }
+
+        dos.flush();
+    }
+
+
+    /**
+     * Generates the timetable of a reference city, starting from noon on the first day of the
+     * year so that the days are the same regardless of the time zone of the device.
+     * @param city The index of the reference city.
+     * @param days The number of days to generate.
+     * @return The timetable of the city.
+     */
+    private static TimeTable generate(int city, int days)
+    {
+        GeoParameters g = new GeoParameters( LATITUDES[city], LONGITUDES[city], TIME_ZONES[city] );
+
+        return Calculator.getInstance().calculateRange( g, getStartOfYear(), days );
+    }
+
+
+    /**
+     * Gets the number of days in the reference year.
+     * @return 366 for a leap year, 365 otherwise.
+     */
+    private static int getDaysInYear()
+    {
+        boolean leap = ( (YEAR % 4 == 0) && (YEAR % 100 != 0) ) || (YEAR % 400 == 0);
+
+        return leap ? 366 : 365;
+    }
+
+
+    /**
+     * Gets noon on the first day of the reference year.
+     * @return The first date of the timetables.
+     */
+    private static Date getStartOfYear()
+    {
+        Calendar gc = Calendar.getInstance();
+        gc.setTime( new Date() );
+        gc.set(Calendar.YEAR, YEAR);
+        gc.set(Calendar.MONTH, Calendar.JANUARY);
+        gc.set(Calendar.DAY_OF_MONTH, 1);
+        gc.set(Calendar.HOUR_OF_DAY, 12);
+        gc.set(Calendar.MINUTE, 0);
+        gc.set(Calendar.SECOND, 0);
+        gc.set(Calendar.MILLISECOND, 0);
+
+        return gc.getTime();
+    }
+
+
+    /**
+     * Reads a change from one day to the next.
+     * @param dis The stream to read from.
+     * @return The change (in seconds).
+     * @throws IOException If the stream could not be read.
+     */
+    private static int readChange(DataInputStream dis) throws IOException
+    {
+        int change = dis.readShort();
+
+        if (change == ESCAPE)
+            change = dis.readInt();
+
+        return change;
+    }
+
+
+    /**
+     * Writes a change from one day to the next, as a short whenever it fits in one.
+     * @param dos The stream to write to.
+     * @param change The change (in seconds).
+     * @throws IOException If the stream could not be written.
+     */
+    private static void writeChange(DataOutputStream dos, int change) throws IOException
+    {
+        if ( (change > ESCAPE) && (change <= Short.MAX_VALUE) )
+            dos.writeShort(change);
+
+        else
+        {
+            dos.writeShort(ESCAPE);
+            dos.writeInt(change);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,182 @@
+/*
+ * @(#)TimeFormatterAccuracy.java  1.0 2026-10-16
+ *
+ * Copyright 2009 Exes Technologies. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   - Redistributions of source code must retain the above copyright
+ *     notice, this list of conditions and the following disclaimer.
+ *
+ *   - Redistributions in binary form must reproduce the above copyright
+ *     notice, this list of conditions and the following disclaimer in the
+ *     documentation and/or other materials provided with the distribution.
+ *
+ *   - Neither the name of Exes Technologies nor the names of its
+ *     contributors may be used to endorse or promote products derived
+ *     from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.rim.maxillion.model.calculator;
+
+import java.util.Calendar;
+
+import net.rim.maxillion.model.calculator.utils.time.EpochDay;
+import net.rim.maxillion.model.calculator.utils.time.TimeFormatter;
+
+
+/**
+ * Guards TimeFormatter against moving a time away from the raw prayer time value it was given.
+ * Every second of a day is given as a raw time a tenth, a half and nine tenths of the way into
+ * that second, and must come back from getSeconds() as that very second, whether it lies before
+ * or past the half minute. The same must hold with an interval added to the minutes, and for
+ * the raw time value of the time object returned by getTime() on a given day. main() fails with
+ * an IllegalStateException if a time does not come back as expected.
+ *
+ * @author Ragaeeb Haq
+ * @version 1.00 2026-10-16 Initial submission.
+ * @since MaxillionPrayers 3.0
+ */
+public final class TimeFormatterAccuracy
+{
+    /** The fractions of a second into which each second is given. */
+    private static final double[] FRACTIONS = { 0.1, 0.5, 0.9 };
+
+    /** The interval added to the minutes when checking the intervals. */
+    private static final int INTERVAL = 5;
+
+    /** The number of times compared. */
+    private int compared;
+
+    /** Describes the first time that differed, or null if none did. */
+    private String firstMismatch;
+
+    /** The number of times that differed. */
+    private int mismatches;
+
+    /** The number of times compared that lie past the half minute. */
+    private int pastHalfMinute;
+
+
+    /**
+     * Creates a comparison that has not compared anything yet.
+     */
+    private TimeFormatterAccuracy()
+    {
+        super();
+    }
+
+
+    /**
+     * Converts every second of a day with TimeFormatter and compares it with the raw time it was
+     * converted from.
+     * @return The result of the comparison.
+     */
+    public static TimeFormatterAccuracy compare()
+    {
+        TimeFormatterAccuracy result = new TimeFormatterAccuracy();
+        Calendar day = Calendar.getInstance();
+        day.set(Calendar.YEAR, 2010);
+        day.set(Calendar.MONTH, Calendar.JUNE);
+        day.set(Calendar.DAY_OF_MONTH, 15);
+        day.set(Calendar.HOUR_OF_DAY, 12);
+        long midnight = EpochDay.toLocalTime( EpochDay.getLocalDay( day.getTime().getTime() ), 0 );
+
+        for (int second = 0; second < TimeFormatter.TOTAL_SECONDS_IN_A_DAY; second++)
+        {
+            int later = (second + INTERVAL*TimeFormatter.TOTAL_SECONDS_IN_A_MINUTE) % TimeFormatter.TOTAL_SECONDS_IN_A_DAY;
+
+            for (int i = 0; i < FRACTIONS.length; i++)
+            {
+                double time = (second+FRACTIONS[i])/TimeFormatter.TOTAL_SECONDS_IN_AN_HOUR;
+                long raw = TimeFormatter.getTime(time, 0, day).getTime();
+
+                result.check( time, 0, second, TimeFormatter.getSeconds(time, 0) );
+                result.check( time, INTERVAL, later, TimeFormatter.getSeconds(time, INTERVAL) );
+                result.check( time, 0, second, (int)( (raw-midnight)/EpochDay.MILLISECONDS_IN_A_SECOND ) );
+            }
+
+            if ( second % TimeFormatter.TOTAL_SECONDS_IN_A_MINUTE > TimeFormatter.TOTAL_SECONDS_IN_A_MINUTE/2 )
+                result.pastHalfMinute += 3*FRACTIONS.length;
+        }
+
+        return result;
+    }
+
+
+    /**
+     * Records a time that was converted.
+     * @param time The raw prayer time value that was converted.
+     * @param intervalAddition The extra amount that was added to the minutes.
+     * @param expected The number of seconds since the start of the day that it should come to.
+     * @param actual The number of seconds since the start of the day that it came to.
+     */
+    private void check(double time, int intervalAddition, int expected, int actual)
+    {
+        if (actual != expected)
+        {
+            if (mismatches == 0)
+                firstMismatch = time + "h + " + intervalAddition + " min at " + actual + "s instead of " + expected + "s";
+
+            mismatches++;
+        }
+
+        compared++;
+    }
+
+
+    /**
+     * Determines whether every time came back as the second it was given in.
+     * @return true If no time differed, false otherwise.
+     */
+    public boolean matches()
+    {
+        return mismatches == 0;
+    }
+
+
+    /* (non-Javadoc)
+     * @see java.lang.Object#toString()
+     */
+    public String toString()
+    {
+        StringBuffer report = new StringBuffer();
+        report.append("TimeFormatter: ").append(compared).append(" times compared (").append(pastHalfMinute).append(" past the half minute), ");
+        report.append(mismatches).append(" differed from the raw time");
+
+        if (firstMismatch != null)
+            report.append(", first ").append(firstMismatch);
+
+        report.append('\n');
+
+        return report.toString();
+    }
+
+
+    /**
+     * Converts every second of a day and prints the report to the standard output.
+     * @param args Not used.
+     * @throws IllegalStateException If a time did not come back as the second it was given in.
+     */
+    public static void main(String[] args)
+    {
+        TimeFormatterAccuracy accuracy = compare();
+        System.out.print(accuracy);
+
+        if ( !accuracy.matches() )
+            throw new IllegalStateException(accuracy.mismatches + " times converted by TimeFormatter differed from the raw time");
+    }
+}
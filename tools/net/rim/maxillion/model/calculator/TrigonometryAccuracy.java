@@ -0,0 +1,223 @@
+/*
+ * @(#)TrigonometryAccuracy.java  1.0 2026-10-16
+ *
+ * Copyright 2009 Exes Technologies. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   - Redistributions of source code must retain the above copyright
+ *     notice, this list of conditions and the following disclaimer.
+ *
+ *   - Redistributions in binary form must reproduce the above copyright
+ *     notice, this list of conditions and the following disclaimer in the
+ *     documentation and/or other materials provided with the distribution.
+ *
+ *   - Neither the name of Exes Technologies nor the names of its
+ *     contributors may be used to endorse or promote products derived
+ *     from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS
+ * IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.rim.maxillion.model.calculator;
+
+import java.io.IOException;
+import java.util.Calendar;
+import java.util.Date;
+
+import net.rim.maxillion.model.calculator.utils.GeoParameters;
+import net.rim.maxillion.model.calculator.utils.TimeCriticalEventNames;
+import net.rim.maxillion.model.calculator.utils.time.TimeTable;
+
+
+/**
+ * Guards FastTrigonometry against moving the prayer times. A grid of locations from 66S to 88N,
+ * which takes in the high latitude adjustments and the polar days and nights of both hemispheres,
+ * is calculated over every day of a common and a leap year with the exact provider and with the
+ * fast one. This is done once with the position of the sun calculated for every day and once
+ * with it looked up in the bundled ephemeris table, as BulkTimetableJob does. Every time must be
+ * identical, so main() fails with an IllegalStateException when one is not.<br><br>
+ *
+ * The locations stay on their time zones all year round and each year is requested at noon of
+ * its first day on the wall clock of the device. The exact provider is installed again when the
+ * comparison is done.
+ *
+ * @author Ragaeeb Haq
+ * @version 1.00 2026-10-16 Initial submission.
+ * @since MaxillionPrayers 3.0
+ */
+public final class TrigonometryAccuracy
+{
+    /** The southernmost latitude calculated (in degrees). */
+    private static final int FIRST_LATITUDE = -66;
+
+    /** The northernmost latitude calculated (in degrees). */
+    private static final int LAST_LATITUDE = 88;
+
+    /** The number of degrees between the latitudes calculated. */
+    private static final int LATITUDE_STEP = 2;
+
+    /** The longitudes calculated at each latitude (in degrees). */
+    private static final double[] LONGITUDES = { -75.76, 18.07, 151.21 };
+
+    /** The years calculated, a common and a leap year. */
+    private static final int[] YEARS = { 2010, 2024 };
+
+    /** The number of times compared. */
+    private int compared;
+
+    /** Describes the first time that differed, or null if none did. */
+    private String firstMismatch;
+
+    /** The largest difference found (in seconds). */
+    private int maxDifference;
+
+    /** The number of times that differed. */
+    private int mismatches;
+
+
+    /**
+     * Creates a comparison that has not compared anything yet.
+     */
+    private TrigonometryAccuracy()
+    {
+        super();
+    }
+
+
+    /**
+     * Calculates the grid with both providers, with and without the bundled ephemeris table.
+     * @return The result of the comparison.
+     * @throws IOException If the bundled ephemeris table could not be read.
+     */
+    public static TrigonometryAccuracy compare() throws IOException
+    {
+        TrigonometryAccuracy result = new TrigonometryAccuracy();
+
+        try {
+            Calculator.setEphemerisTable(null);
+            result.compareGrid();
+
+            Calculator.setEphemerisTable( EphemerisTableWriter.loadBundled() );
+            result.compareGrid();
+        }
+
+        finally {
+            Calculator.setEphemerisTable(null);
+            Trigonometry.setInstance( Trigonometry.createExact() );
+        }
+
+        return result;
+    }
+
+
+    /**
+     * Calculates every location of the grid in every year with both providers and records the
+     * times that differ.
+     */
+    private void compareGrid()
+    {
+        Calculator calculator = Calculator.getInstance();
+        TimeCriticalEventNames names = TimeCriticalEventNames.getInstance();
+
+        for (int y = 0; y < YEARS.length; y++)
+        {
+            Calendar calendar = Calendar.getInstance();
+            calendar.set(Calendar.YEAR, YEARS[y]);
+            calendar.set(Calendar.MONTH, Calendar.JANUARY);
+            calendar.set(Calendar.DAY_OF_MONTH, 1);
+            calendar.set(Calendar.HOUR_OF_DAY, 12);
+            Date start = calendar.getTime();
+            int days = (YEARS[y] % 4 == 0) ? 366 : 365;
+
+            for (int latitude = FIRST_LATITUDE; latitude <= LAST_LATITUDE; latitude += LATITUDE_STEP)
+            {
+                for (int i = 0; i < LONGITUDES.length; i++)
+                {
+                    GeoParameters g = new GeoParameters( latitude, LONGITUDES[i], Math.floor(LONGITUDES[i]/15 + 0.5) );
+
+                    Trigonometry.setInstance( Trigonometry.createExact() );
+                    TimeTable exact = calculator.calculateRange(g, start, days);
+
+                    Trigonometry.setInstance( Trigonometry.createFast() );
+                    TimeTable fast = calculator.calculateRange(g, start, days);
+
+                    for (int day = 0; day < days; day++)
+                    {
+                        for (int event = 0; event < TimeTable.EVENTS_PER_DAY; event++)
+                        {
+                            int expected = exact.getSeconds(day, event);
+                            int actual = fast.getSeconds(day, event);
+
+                            if (actual != expected)
+                            {
+                                if (mismatches == 0)
+                                    firstMismatch = "(" + latitude + ", " + LONGITUDES[i] + ") day " + day + " of " + YEARS[y] + " " + names.getName(event) + " at " + actual + "s instead of " + expected + "s";
+
+                                maxDifference = Math.max( maxDifference, Math.abs(actual-expected) );
+                                mismatches++;
+                            }
+
+                            compared++;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Determines whether every time calculated with the fast provider was identical to the one
+     * calculated with the exact provider.
+     * @return true If no time differed, false otherwise.
+     */
+    public boolean matches()
+    {
+        return mismatches == 0;
+    }
+
+
+    /* (non-Javadoc)
+     * @see java.lang.Object#toString()
+     */
+    public String toString()
+    {
+        StringBuffer report = new StringBuffer();
+        report.append("FastTrigonometry: ").append(compared).append(" times compared, ").append(mismatches).append(" differed from ExactTrigonometry");
+
+        if (firstMismatch != null)
+            report.append(" by up to ").append(maxDifference).append("s, first ").append(firstMismatch);
+
+        report.append('\n');
+
+        return report.toString();
+    }
+
+
+    /**
+     * Compares the two providers and prints the report to the standard output.
+     * @param args Not used.
+     * @throws IOException If the bundled ephemeris table could not be read.
+     * @throws IllegalStateException If a time calculated with the fast provider differed.
+     */
+    public static void main(String[] args) throws IOException
+    {
+        TrigonometryAccuracy accuracy = compare();
+        System.out.print(accuracy);
+
+        if ( !accuracy.matches() )
+            throw new IllegalStateException(accuracy.mismatches + " times calculated with FastTrigonometry differed from ExactTrigonometry");
+    }
+}